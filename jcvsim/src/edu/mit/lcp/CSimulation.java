@@ -1,6 +1,8 @@
 package edu.mit.lcp;
 
+import java.io.File;
 import java.util.List;
+import java.util.Map;
 import java.beans.PropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
@@ -8,13 +10,19 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.EventListenerList;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
 import java.util.Comparator;
+import jcvsim.backendCommon.Engine;
+import jcvsim.backendCommon.ResultCache;
 
 public abstract class CSimulation {
 
     public static final String COMPRESSION = "COMPRESSION";
     public static final String ABREFLEX = "ABREFLEX";
     public static final String CPREFLEX = "CPREFLEX";
+    // Fired when a steady state is put in, with the time it resumes from
+    public static final String STEADY_STATE = "STEADY_STATE";
 
     // Count the number of simulation steps
     protected long steps;
@@ -22,7 +30,8 @@ public abstract class CSimulation {
     // dataCompressionFactor is the number of steps/values the
     // simulation uses to generate the single output value, value of 1
     // means each step() proceeds 1ms through the simulation?
-    private int _dataCompressionFactor = 10;
+    // Read by the simulation thread, changed on the event dispatch thread
+    private volatile int _dataCompressionFactor = 10;
 
     // these parameters control the simulations
     private boolean _ABReflex;
@@ -40,6 +49,16 @@ public abstract class CSimulation {
 
     public abstract Parameter getParameterByName(String name);
 
+    // The class of the headless engine of the same model
+    protected abstract String getEngineClass();
+
+    // The current value of every parameter, by the engine's names
+    protected abstract Map<String, Double> getParameterValues();
+
+    // Take the state of engine at the next step boundary, like a
+    // parameter edit
+    protected abstract void install(Engine engine);
+
     // methods to change the simulation settings
     public void setDataCompressionFactor(int compressionFactor) {
         int old = getDataCompressionFactor();
@@ -55,6 +74,7 @@ public abstract class CSimulation {
     public void setABReflex(boolean enable) {
         boolean oldState = getABReflex();
         _ABReflex = enable;
+        changes++;
         firePropertyChange(ABREFLEX, oldState, enable);
     }
 
@@ -65,6 +85,7 @@ public abstract class CSimulation {
     public void setCPReflex(boolean enable) {
         boolean oldState = getCPReflex();
         _CPReflex = enable;
+        changes++;
         firePropertyChange(CPREFLEX, oldState, enable);
     }
 
@@ -84,6 +105,101 @@ public abstract class CSimulation {
         return tzpfv;
     }
 
+    ///////////////////////////////
+    // Steady states
+    //
+    // Seconds from the initial state a steady state is taken after, the
+    // simulated time the simulation carries on from once it is put in
+    public static final double SETTLE_TIME = 60;
+    private static final long CACHE_BYTES = 64L << 20;
+    // Steady states simulated before, shared by the patient presets and
+    // parameter changes.  -Djcvsim.cache=<directory> keeps them between
+    // runs
+    private static ResultCache steadyStates;
+
+    // Changes of the parameters and reflexes so far, so that a steady
+    // state found after they changed again is not used.  These three are
+    // for the event dispatch thread only
+    private int changes;
+    private boolean settleOnChange;
+    private boolean settleScheduled;
+
+    // Jump to the steady state of the current parameters and reflexes,
+    // the state the model reaches SETTLE_TIME seconds from its initial
+    // state.  A steady state simulated before is taken from the cache, and
+    // a new one is simulated on a thread of its own while this simulation
+    // goes on.  Changes made in the same event are taken together.  The
+    // state is put in at the next step, unless the parameters changed
+    // meanwhile; interventions pending are dropped and a tilt ends, as on
+    // reset, and the time goes to SETTLE_TIME
+    public void settle() {
+        if (!settleScheduled) {
+            settleScheduled = true;
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    settleScheduled = false;
+                    findSteadyState();
+                }
+            });
+        }
+    }
+
+    // Settle after every parameter change
+    public void setSettleOnChange(boolean on) {
+        settleOnChange = on;
+    }
+
+    public boolean getSettleOnChange() {
+        return settleOnChange;
+    }
+
+    private void findSteadyState() {
+        final String engineClass = getEngineClass();
+        final Map<String, Double> parameters = getParameterValues();
+        final boolean ABReflexOn = getABReflex();
+        final boolean CPReflexOn = getCPReflex();
+        final int asked = changes;
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final Engine engine;
+                try {
+                    engine = steadyStates().steadyState(engineClass, parameters,
+                            ABReflexOn, CPReflexOn, SETTLE_TIME);
+                } catch (RuntimeException e) {
+                    System.err.println("Cannot find the steady state: " + e);
+                    return;
+                }
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (asked != changes) {
+                            System.out.println("Parameters changed, steady state not used");
+                            return;
+                        }
+                        install(engine);
+                        System.out.println("Jumping to the steady state, time restarts at " + SETTLE_TIME + " s");
+                        firePropertyChange(STEADY_STATE, null, SETTLE_TIME);
+                    }
+                });
+            }
+        }, "SteadyState");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static synchronized ResultCache steadyStates() {
+        if (steadyStates == null) {
+            steadyStates = new ResultCache(CACHE_BYTES);
+            String directory = System.getProperty("jcvsim.cache");
+            if (directory != null) {
+                steadyStates.setDirectory(new File(directory));
+            }
+        }
+        return steadyStates;
+    }
+
     ///////////////////////////////
     // Support for property changes
     private final PropertyChangeSupport _propChangeListeners = new PropertyChangeSupport(this);
@@ -91,6 +207,12 @@ public abstract class CSimulation {
     PropertyChangeListener SimulationParameterChangeListener = new PropertyChangeListener() {
         @Override
         public void propertyChange(PropertyChangeEvent e) {
+            if (e.getPropertyName().equals("VALUE")) {
+                changes++;
+                if (settleOnChange) {
+                    settle();
+                }
+            }
             firePropertyChange(new PropertyChangeEvent(e.getSource(),
                     e.getPropertyName() + ((Parameter) e.getSource()).getName(),
                     e.getOldValue(),
@@ -150,6 +272,7 @@ public abstract class CSimulation {
 
     public void dataChanged() {
         fireChangeEvent();
+        publishFrame();
     }
 
     private void fireChangeEvent() {
@@ -166,6 +289,94 @@ public abstract class CSimulation {
         }
     }
 
+    // Listener Interface for display updates.  Change listeners above
+    // are called synchronously on the simulation thread for every step;
+    // display listeners are called on the event dispatch thread, once
+    // for however many frames have arrived since they were last called,
+    // so a slow repaint never holds up the simulation.
+    //
+    private final EventListenerList _displayListeners = new EventListenerList();
+    private final FrameQueue frameQueue = new FrameQueue(256);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    // written by the simulation thread only, read by any
+    private volatile long droppedFrames;
+    // minimum time between display updates, zero for every frame
+    private volatile long displayIntervalNanos;
+    // set by whichever thread schedules a drain
+    private volatile long lastDrainNanos;
+
+    public void addDisplayListener(ChangeListener listener) {
+        _displayListeners.add(ChangeListener.class, listener);
+    }
+
+    public void removeDisplayListener(ChangeListener listener) {
+        _displayListeners.remove(ChangeListener.class, listener);
+    }
+
+    // Number of frames the event dispatch thread was too far behind to take
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    // Limit display updates to framesPerSecond, zero to show every frame
+    public void setDisplayRate(double framesPerSecond) {
+        displayIntervalNanos = (framesPerSecond > 0) ? (long) (1e9 / framesPerSecond) : 0;
+    }
+
+    // Simulation time of the frame most recently shown, event dispatch
+    // thread only
+    public double getDisplayTime() {
+        return frameQueue.getLastTime();
+    }
+
+    private void publishFrame() {
+        if (_displayListeners.getListenerCount() == 0) {
+            return;
+        }
+        if (!frameQueue.offer(getOutput(0))) {
+            droppedFrames++;
+        }
+        long interval = displayIntervalNanos;
+        if ((interval > 0) && (System.nanoTime() - lastDrainNanos < interval)) {
+            // too soon, a later frame will carry this one
+            return;
+        }
+        scheduleDrain();
+    }
+
+    // Make sure the frames still queued are shown, used when the
+    // simulation stops while display updates are being rate limited
+    public void flushDisplay() {
+        if (!frameQueue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            lastDrainNanos = System.nanoTime();
+            SwingUtilities.invokeLater(drainFrames);
+        }
+    }
+
+    private final Runnable drainFrames = new Runnable() {
+        @Override
+        public void run() {
+            // clear the flag first so that a frame published while
+            // draining schedules another drain
+            drainScheduled.set(false);
+            if (frameQueue.drain() > 0) {
+                ChangeEvent event = new ChangeEvent(CSimulation.this);
+                Object[] listeners = _displayListeners.getListenerList();
+                for (int index = listeners.length - 2; index >= 0; index -= 2) {
+                    if (listeners[index] == ChangeListener.class) {
+                        ((ChangeListener) listeners[index + 1]).stateChanged(event);
+                    }
+                }
+            }
+        }
+    };
+
     // // // // 
     private final List<VariableRecorderInterface> varRecorders = new CopyOnWriteArrayList<>();
 
@@ -181,16 +392,49 @@ public abstract class CSimulation {
 // 			   " (Removed: " + recorder + ", size " + recorder.getSize() + ")");
     }
 
+    // The recent history of the outputs that are plotted, written with
+    // the recorders
+    private final ChannelStore channelStore = new ChannelStore(this);
+
+    public ChannelStore getChannelStore() {
+        return channelStore;
+    }
+
     protected List<VariableRecorderInterface> getVariableRecorders() {
         return varRecorders;
     }
 
+    // Held while a step is written out to the recorders, so that a reader
+    // holding it sees every recorder at the same step
+    public Object getRecorderLock() {
+        return varRecorders;
+    }
+
     // Write new data out to the recorders
     public void updateRecorders() {
-        for (VariableRecorderInterface recorder : getVariableRecorders()) {
-            recorder.addMarkedDatum(getOutput(recorder.getOutputIndex()),
-                    java.lang.Math.round(getOutput(0) * 100));
+        long start = System.nanoTime();
+        synchronized (varRecorders) {
+            channelStore.record();
+            for (VariableRecorderInterface recorder : getVariableRecorders()) {
+                recorder.addMarkedDatum(getOutput(recorder.getOutputIndex()),
+                        java.lang.Math.round(getOutput(0) * 100));
+            }
+        }
+        SimulationMetrics.instance().recorderTime(System.nanoTime() - start);
+    }
+
+    // Write a recorded frame out to the recorders in place of the
+    // simulation outputs, used by SessionPlayer.  The frame is indexed
+    // by output variable index, as for getOutput()
+    public void replayFrame(double[] frame) {
+        synchronized (varRecorders) {
+            channelStore.record(frame);
+            for (VariableRecorderInterface recorder : getVariableRecorders()) {
+                recorder.addMarkedDatum(frame[recorder.getOutputIndex()],
+                        java.lang.Math.round(frame[0] * 100));
+            }
         }
+        dataChanged();
     }
 
     // // // //
@@ -4,9 +4,17 @@ import jcvsim.backend21compartment.Output;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import jcvsim.backend21compartment.Engine21C;
+import jcvsim.backend21compartment.Intervention;
 import jcvsim.backend21compartment.Main;
 import jcvsim.backend21compartment.PVName;
 import jcvsim.backend21compartment.Parameter_vector;
+import jcvsim.backendCommon.Engine;
+import jcvsim.backendCommon.EngineLoader;
 
 public class CSimulation21C extends CSimulation {
 
@@ -16,6 +24,15 @@ public class CSimulation21C extends CSimulation {
     // Simulation Parameters for the C code
     public CSimulation21CParameters simParameters;
 
+    // Interventions run on the simulation thread; show the parameter
+    // changes they make in the parameter panel
+    private final Main.ParameterListener parameterListener = new Main.ParameterListener() {
+        @Override
+        public void parameterChanged(PVName name, double value) {
+            simParameters.getStore().publish(name, value);
+        }
+    };
+
     public CSimulation21C() {
         super();
         System.out.println("CSimulation21C()");
@@ -26,6 +43,19 @@ public class CSimulation21C extends CSimulation {
 
         simParameters = new CSimulation21CParameters();
 
+        Main.instance().setParameterListener(parameterListener);
+
+        // The reflexes are switched by the backend timeline, so that the
+        // change lands exactly at the current simulated time
+        PropertyChangeListener reflexListener = new PropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent e) {
+                Intervention.reflexes(getOutput(0), getABReflex(), getCPReflex());
+            }
+        };
+        addPropertyChangeListener(ABREFLEX, reflexListener);
+        addPropertyChangeListener(CPREFLEX, reflexListener);
+
         // Create output variable list
         varList = new ArrayList<>();
 
@@ -278,15 +308,13 @@ public class CSimulation21C extends CSimulation {
     @Override
     public void step() {
 
+        // pick up parameter edits made since the last step
+        simParameters.getStore().applyEdits();
+
         // run simulation and get updated model measurements
         Main.instance().step_sim(output,
                 simParameters.getVector(),
-                getDataCompressionFactor(),
-                getABReflex(),
-                getCPReflex(),
-                CVSim.gui.tiltTestFrame.getTiltTest(),
-                CVSim.gui.tiltTestFrame.getTiltStartTime(),
-                CVSim.gui.tiltTestFrame.getTiltStopTime());
+                getDataCompressionFactor());
 
         // increment the step count
         steps++;
@@ -557,6 +585,39 @@ public class CSimulation21C extends CSimulation {
         Main.instance().updatePressure(i, d);
     }
 
+    @Override
+    protected String getEngineClass() {
+        return Engine21C.class.getName();
+    }
+
+    @Override
+    protected Map<String, Double> getParameterValues() {
+        Map<String, Double> values = new HashMap<>();
+        for (PVName name : PVName.values()) {
+            Double value = simParameters.getStore().get(name);
+            if (value != null) {
+                values.put(name.name(), value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    protected void install(final Engine engine) {
+        final ParameterStore<PVName, Parameter_vector> store = simParameters.getStore();
+        store.queue(new Runnable() {
+            @Override
+            public void run() {
+                EngineLoader.transfer(engine, Main.instance(), store.getVector(), output);
+                // the engine's Main had no one listening
+                Main.instance().setParameterListener(parameterListener);
+                for (Map.Entry<PVName, Double> p : store.getVector().entrySet()) {
+                    store.publish(p.getKey(), p.getValue());
+                }
+            }
+        });
+    }
+
     @Override
     public List<Parameter> getParameterList() {
         return simParameters.getParameterList();
@@ -567,27 +628,33 @@ public class CSimulation21C extends CSimulation {
         return simParameters.getParameterByName(name);
     }
 
-    public Parameter_vector getParameterVector() {
-        return simParameters.getVector();
+    public ParameterStore<PVName, Parameter_vector> getParameterStore() {
+        return simParameters.getStore();
     }
 
     ///////////////////////////////////////
     ///////////////////////////////////////
     public class CSimulation21CParameters {
 
-        private final Parameter_vector pvec;
+        private final ParameterStore<PVName, Parameter_vector> store;
         private final List<Parameter> plist;
 
         CSimulation21CParameters() {
-            pvec = new Parameter_vector();
+            Parameter_vector pvec = new Parameter_vector();
             // initialize the simulation with the variables
             Main.instance().init_sim(pvec);
+            store = new ParameterStore<>(pvec);
 
             plist = createParameterList();
         }
 
+        // The solver's vector, for the simulation thread only
         public Parameter_vector getVector() {
-            return pvec;
+            return store.getVector();
+        }
+
+        public ParameterStore<PVName, Parameter_vector> getStore() {
+            return store;
         }
 
         public List<Parameter> getParameterList() {
@@ -633,374 +700,374 @@ public class CSimulation21C extends CSimulation {
             // a significant part of the C code, and there is not enough 
             // time to do that.
             // Cardiac
-            list.add(new Parameter21C(pvec, PVName.LA_DIASTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LA_DIASTOLIC_COMPLIANCE,
                     "Left Heart", "Compliance", "Left Atrium Diastolic Compliance",
                     "mL/mmHg", 1.0, 4.3));
-            list.add(new Parameter21C(pvec, PVName.LA_SYSTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LA_SYSTOLIC_COMPLIANCE,
                     "Left Heart", "Compliance", "Left Atrium Systolic Compliance",
                     "mL/mmHg", 0.8, 3.2));
-            list.add(new Parameter21C(pvec, PVName.MITRAL_VALVE_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.MITRAL_VALVE_RESISTANCE,
                     "Left Heart", "Resistance", "Mitral Valve Resistance",
                     "PRU", 0.007, 0.013));
-            list.add(new Parameter21C(pvec, PVName.LA_ZPFV,
+            list.add(new Parameter21C(store, PVName.LA_ZPFV,
                     "Left Heart", "Volume", "Left Atrium Zero-Pressure Filling Volume",
                     "mL", 10.0, 38.0));
 
-            list.add(new Parameter21C(pvec, PVName.RA_DIASTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RA_DIASTOLIC_COMPLIANCE,
                     "Right Heart", "Compliance", "Right Atrium Diastolic Compliance",
                     "mL/mmHg", 1.5, 6.0));
-            list.add(new Parameter21C(pvec, PVName.RA_SYSTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RA_SYSTOLIC_COMPLIANCE,
                     "Right Heart", "Compliance", "Right Atrium Systolic Compliance",
                     "mL/mmHg", 0.6, 2.7));
-            list.add(new Parameter21C(pvec, PVName.TRICUSPID_VALVE_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.TRICUSPID_VALVE_RESISTANCE,
                     "Right Heart", "Resistance", "Tricuspid Valve Resistance",
                     "PRU", 0.0, 0.015));
-            list.add(new Parameter21C(pvec, PVName.RA_ZPFV,
+            list.add(new Parameter21C(store, PVName.RA_ZPFV,
                     "Right Heart", "Volume", "Right Atrium Zero-Pressure Filling Volume",
                     "mL", 10.0, 18.0));
 
-            list.add(new Parameter21C(pvec, PVName.LV_DIASTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LV_DIASTOLIC_COMPLIANCE,
                     "Left Heart", "Compliance", "Left Ventricle Diastolic Compliance",
                     "mL/mmHg", 3.88, 15.11));
-            list.add(new Parameter21C(pvec, PVName.LV_SYSTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LV_SYSTOLIC_COMPLIANCE,
                     "Left Heart", "Compliance", "Left Ventricle Systolic Compliance",
                     "mL/mmHg", 0.2, 0.77));
-            list.add(new Parameter21C(pvec, PVName.AORTIC_VALVE_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.AORTIC_VALVE_RESISTANCE,
                     "Left Heart", "Resistance", "Aortic Valve Resistance",
                     "PRU", 0.0, 0.013));
-            list.add(new Parameter21C(pvec, PVName.LV_ZPFV,
+            list.add(new Parameter21C(store, PVName.LV_ZPFV,
                     "Left Heart", "Volume", "Left Ventricle Zero-Pressure Filling Volume",
                     "mL", 25.0, 85.0));
 
-            list.add(new Parameter21C(pvec, PVName.RV_DIASTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RV_DIASTOLIC_COMPLIANCE,
                     "Right Heart", "Compliance", "Right Ventricle Diastolic Compliance",
                     "mL/mmHg", 7.0, 29.0));
-            list.add(new Parameter21C(pvec, PVName.RV_SYSTOLIC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RV_SYSTOLIC_COMPLIANCE,
                     "Right Heart", "Compliance", "Right Ventricle Systolic Compliance",
                     "mL/mmHg", 0.3, 2.0));
-            list.add(new Parameter21C(pvec, PVName.PUMONIC_VALVE_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.PUMONIC_VALVE_RESISTANCE,
                     "Right Heart", "Resistance", "Pulmonic Valve Resistance",
                     "PRU", 0.0, 0.015));
-            list.add(new Parameter21C(pvec, PVName.RV_ZPFV,
+            list.add(new Parameter21C(store, PVName.RV_ZPFV,
                     "Right Heart", "Volume", "Right Ventricle Zero-Pressure Filling Volume",
                     "mL", 10.0, 82.0));
 
             // Peripheral Circulation
-            list.add(new Parameter21C(pvec, PVName.ABDOM_AORTA_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.ABDOM_AORTA_COMPLIANCE,
                     "Abdominal Aorta", "Compliance", "Abdominal Aorta Compliance",
                     "mL/mmHg", 0.07, 0.13));
-            list.add(new Parameter21C(pvec, PVName.ABDOM_AORTA_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.ABDOM_AORTA_RESISTANCE,
                     "Abdominal Aorta", "Resistance", "Abdominal Aorta Resistance",
                     "PRU", 0.0, 0.02));
-            list.add(new Parameter21C(pvec, PVName.ABDOM_AORTA_ZPFV,
+            list.add(new Parameter21C(store, PVName.ABDOM_AORTA_ZPFV,
                     "Abdominal Aorta", "Volume", "Abdominal Aorta Zero-Pressure Filling Volume",
                     "mL", 7.0, 13.0));
 
-            list.add(new Parameter21C(pvec, PVName.ABDOM_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.ABDOM_VEN_COMPLIANCE,
                     "Abdominal Veins", "Compliance", "Abdominal Veins Compliance",
                     "mL/mmHg", 1.0, 1.6));
-            list.add(new Parameter21C(pvec, PVName.ABDOM_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.ABDOM_VEN_RESISTANCE,
                     "Abdominal Veins", "Resistance", "Abdominal Veins Resistance",
                     "PRU", 0.0, 0.04));
-            list.add(new Parameter21C(pvec, PVName.ABDOM_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.ABDOM_VEN_ZPFV,
                     "Abdominal Veins", "Volume", "Abdominal Veins Zero-Pressure Filling Volume",
                     "mL", 49.0, 109.0));
 
-            list.add(new Parameter21C(pvec, PVName.ASCENDING_AORTA_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.ASCENDING_AORTA_COMPLIANCE,
                     "Ascending Aorta", "Compliance", "Ascending Aorta Compliance",
                     "mL/mmHg", 0.16, 0.4));
-            list.add(new Parameter21C(pvec, PVName.ASCENDING_AORTA_VOLUME,
+            list.add(new Parameter21C(store, PVName.ASCENDING_AORTA_VOLUME,
                     "Ascending Aorta", "Volume",
                     "Ascending Aorta Zero-Pressure Filling Volume",
                     "mL", 10.0, 32.0));
 
-            list.add(new Parameter21C(pvec, PVName.BRACH_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.BRACH_ART_COMPLIANCE,
                     "Brachiocephalic Arteries", "Compliance",
                     "Brachiocephalic Arteries Compliance",
                     "mL/mmHg", 0.07, 0.2));
-            list.add(new Parameter21C(pvec, PVName.BRACH_ART_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.BRACH_ART_RESISTANCE,
                     "Brachiocephalic Arteries", "Resistance",
                     "Brachiocephalic Arteries Resistance",
                     "PRU", 0.002, 0.026));
-            list.add(new Parameter21C(pvec, PVName.BRACH_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.BRACH_ART_ZPFV,
                     "Brachiocephalic Arteries", "Volume",
                     "Brachiocephalic Arteries Zero-Pressure Filling Volume",
                     "PRU", 2.0, 8.0));
 
-            list.add(new Parameter21C(pvec, PVName.IVC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.IVC_COMPLIANCE,
                     "Inferior Vena Cava", "Compliance", "Inferior Vena Cava Compliance",
                     "mL/mmHg", 0.2, 0.8));
-            list.add(new Parameter21C(pvec, PVName.IVC_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.IVC_RESISTANCE,
                     "Inferior Vena Cava", "Resistance", "Inferior Vena Cava Resistance",
                     "PRU", 0.0, 0.017));
-            list.add(new Parameter21C(pvec, PVName.IVC_ZPFV,
+            list.add(new Parameter21C(store, PVName.IVC_ZPFV,
                     "Inferior Vena Cava", "Volume",
                     "Inferior Vena Cava Zero-Pressure Filling Volume",
                     "mL", 21.0, 45.0));
 
-            list.add(new Parameter21C(pvec, PVName.LBODY_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LBODY_ART_COMPLIANCE,
                     "Lower Body Arteries", "Compliance", "Lower Body Arteries Compliance",
                     "mL/mmHg", 0.1, 0.7));
-            list.add(new Parameter21C(pvec, PVName.LBODY_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.LBODY_MICRO_RESISTANCE,
                     "Lower Body Microcirculation", "Resistance",
                     "Lower Body Microcirculation Resistance",
                     "PRU", 4.0, 10.3));
-            list.add(new Parameter21C(pvec, PVName.LBODY_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.LBODY_ART_ZPFV,
                     "Lower Body Arteries", "Volume",
                     "Lower Body Arteries Zero-Pressure Filling Volume",
                     "mL", 140.0, 260.0));
 
-            list.add(new Parameter21C(pvec, PVName.LBODY_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.LBODY_VEN_COMPLIANCE,
                     "Lower Body Veins", "Compliance", "Lower Body Veins Compliance",
                     "mL/mmHg", 11.0, 29.0));
-            list.add(new Parameter21C(pvec, PVName.LBODY_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.LBODY_VEN_RESISTANCE,
                     "Lower Body Veins", "Resistance", "Lower Body Veins Resistance",
                     "PRU", 0.0, 0.25));
-            list.add(new Parameter21C(pvec, PVName.LBODY_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.LBODY_VEN_ZPFV,
                     "Lower Body Veins", "Volume",
                     "Lower Body Veins Zero-Pressure Filling Volume",
                     "mL", 666.0, 866.0));
 
-            list.add(new Parameter21C(pvec, PVName.RENAL_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RENAL_ART_COMPLIANCE,
                     "Renal Arteries", "Compliance", "Renal Arteries Compliance",
                     "mL/mmHg", 0.1, 0.3));
-            list.add(new Parameter21C(pvec, PVName.RENAL_ART_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.RENAL_ART_RESISTANCE,
                     "Renal Arteries", "Resistance", "Renal Arteries Resistance",
                     "PRU", 0.0, 0.25));
-            list.add(new Parameter21C(pvec, PVName.RENAL_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.RENAL_ART_ZPFV,
                     "Renal Arteries", "Volume",
                     "Renal Arteries Zero-Pressure Filling Volume",
                     "mL", 5.0, 35.0));
 
-            list.add(new Parameter21C(pvec, PVName.RENAL_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.RENAL_VEN_COMPLIANCE,
                     "Renal Veins", "Compliance", "Renal Veins Compliance",
                     "mL/mmHg", 2.0, 8.0));
-            list.add(new Parameter21C(pvec, PVName.RENAL_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.RENAL_VEN_RESISTANCE,
                     "Renal Veins", "Resistance", "Renal Veins Resistance",
                     "PRU", 0.0, 0.26));
-            list.add(new Parameter21C(pvec, PVName.RENAL_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.RENAL_VEN_ZPFV,
                     "Renal Veins", "Volume", "Renal Veins Zero-Pressure Filling Volume",
                     "mL", 10.0, 60.0));
 
-            list.add(new Parameter21C(pvec, PVName.SPLAN_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.SPLAN_ART_COMPLIANCE,
                     "Splanchnic Arteries", "Compliance", "Splanchnic Arteries Compliance",
                     "mL/mmHg", 0.10, 0.70));
-            list.add(new Parameter21C(pvec, PVName.SPLAN_ART_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.SPLAN_ART_RESISTANCE,
                     "Splanchnic Arteries", "Resistance", "Splanchnic Arteries Resistance",
                     "PRU", 0.0, 0.19));
-            list.add(new Parameter21C(pvec, PVName.SPLAN_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.SPLAN_ART_ZPFV,
                     "Splanchnic Arteries", "Volume",
                     "Splanchnic Arteries Zero-Pressure Filling Volume",
                     "mL", 150.0, 450.0));
 
-            list.add(new Parameter21C(pvec, PVName.SPLAN_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.SPLAN_VEN_COMPLIANCE,
                     "Splanchnic Veins", "Compliance", "Splanchnic Veins Compliance",
                     "mL/mmHg", 27.5, 72.5));
-            list.add(new Parameter21C(pvec, PVName.SPLAN_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.SPLAN_VEN_RESISTANCE,
                     "Splanchnic Veins", "Resistance", "Splanchnic Veins Resistance",
                     "PRU", 0.0, 0.19));
-            list.add(new Parameter21C(pvec, PVName.SPLAN_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.SPLAN_VEN_ZPFV,
                     "Splanchnic Veins", "Volume",
                     "Splanchnic Veins Zero-Pressure Filling Volume",
                     "mL", 850.0, 1450.0));
 
-            list.add(new Parameter21C(pvec, PVName.SVC_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.SVC_COMPLIANCE,
                     "Superior Vena Cava", "Compliance",
                     "Superior Vena Cava Compliance",
                     "mL/mmHg", 1.0, 1.6));
-            list.add(new Parameter21C(pvec, PVName.SVC_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.SVC_RESISTANCE,
                     "Superior Vena Cava", "Resistance",
                     "Superior Vena Cava Resistance",
                     "PRU", 0.0, 0.056));
-            list.add(new Parameter21C(pvec, PVName.SVC_ZPFV,
+            list.add(new Parameter21C(store, PVName.SVC_ZPFV,
                     "Superior Vena Cava", "Volume",
                     "Superior Vena Cava Zero-Pressure Filling Volume",
                     "mL", 4.0, 28.0));
 
-            list.add(new Parameter21C(pvec, PVName.THORACIC_AORTA_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.THORACIC_AORTA_COMPLIANCE,
                     "Thoracic Aorta", "Compliance", "Thoracic Aorta Compliance",
                     "mL/mmHg", 0.05, 0.30));
-            list.add(new Parameter21C(pvec, PVName.THORACIC_AORTA_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.THORACIC_AORTA_RESISTANCE,
                     "Thoracic Aorta", "Resistance", "Thoracic Aorta Resistance",
                     "PRU", 0.005, 0.017));
-            list.add(new Parameter21C(pvec, PVName.THORACIC_AORTA_ZPFV,
+            list.add(new Parameter21C(store, PVName.THORACIC_AORTA_ZPFV,
                     "Thoracic Aorta", "Volume",
                     "Thoracic Aorta Zero-Pressure Filling Volume",
                     "mL", 80.0, 320.0));
 
-            list.add(new Parameter21C(pvec, PVName.UBODY_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.UBODY_ART_COMPLIANCE,
                     "Upper Body Arteries", "Compliance",
                     "Upper Body Arteries Compliance",
                     "mL/mmHg", 0.1, 0.7));
-            list.add(new Parameter21C(pvec, PVName.UBODY_ART_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.UBODY_ART_RESISTANCE,
                     "Upper Body Arteries", "Resistance",
                     "Upper Body Arteries Resistance",
                     "PRU", 3.3, 6.5));
-            list.add(new Parameter21C(pvec, PVName.UBODY_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.UBODY_ART_ZPFV,
                     "Upper Body Arteries", "Volume",
                     "Upper Body Arteries Zero-Pressure Filling Volume",
                     "mL", 10.0, 32.0));
 
-            list.add(new Parameter21C(pvec, PVName.UBODY_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.UBODY_VEN_COMPLIANCE,
                     "Upper Body Veins", "Compliance",
                     "Upper Body Veins Compliance",
                     "mL/mmHg", 1.0, 13.0));
-            list.add(new Parameter21C(pvec, PVName.UBODY_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.UBODY_VEN_RESISTANCE,
                     "Upper Body Veins", "Resistance",
                     "Upper Body Veins Resistance",
                     "PRU", 0.0, 0.26));
-            list.add(new Parameter21C(pvec, PVName.UBODY_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.UBODY_VEN_ZPFV,
                     "Upper Body Veins", "Volume",
                     "Upper Body Veins Zero-Pressure Filling Volume",
                     "mL", 425.0, 765.0));
 
             // Pulmonary 
-            list.add(new Parameter21C(pvec, PVName.PULM_ART_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.PULM_ART_COMPLIANCE,
                     "Pulmonary Arteries", "Compliance",
                     "Pulmonary Arterial Compliance",
                     "mL/mmHg", 1.5, 7.2));
-            list.add(new Parameter21C(pvec, PVName.PULM_ART_ZPFV,
+            list.add(new Parameter21C(store, PVName.PULM_ART_ZPFV,
                     "Pulmonary Arteries", "Volume",
                     "Pulmonary Arterial Zero-Pressure Filling Volume",
                     "mL", 100.0, 220.0));
 
-            list.add(new Parameter21C(pvec, PVName.PULM_VEN_COMPLIANCE,
+            list.add(new Parameter21C(store, PVName.PULM_VEN_COMPLIANCE,
                     "Pulmonary Veins", "Compliance",
                     "Pulmonary Venous Compliance",
                     "mL/mmHg", 5.3, 12.7));
-            list.add(new Parameter21C(pvec, PVName.PULM_VEN_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.PULM_VEN_RESISTANCE,
                     "Pulmonary Veins", "Resistance",
                     "Pulmonary Venous Resistance",
                     "PRU", 0.0, 0.015));
-            list.add(new Parameter21C(pvec, PVName.PULN_VEN_ZPFV,
+            list.add(new Parameter21C(store, PVName.PULN_VEN_ZPFV,
                     "Pulmonary Veins", "Volume",
                     "Pulmonary Venous Zero-Pressure Filling Volume",
                     "mL", 180.0, 580.0));
 
             // Microvascular Resistance
-            list.add(new Parameter21C(pvec, PVName.UBODY_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.UBODY_MICRO_RESISTANCE,
                     "Upper Body Microcirculation", "Resistance",
                     "Upper Body Microcirculation Resistance",
                     "PRU", 3.3, 6.5));
-            list.add(new Parameter21C(pvec, PVName.SPLAN_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.SPLAN_MICRO_RESISTANCE,
                     "Splanchnic Microcirculation", "Resistance",
                     "Splanchnic Microcirculation Resistance",
                     "PRU", 2.3, 4.3));
-            list.add(new Parameter21C(pvec, PVName.RENAL_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.RENAL_MICRO_RESISTANCE,
                     "Renal Microcirculation", "Resistance",
                     "Renal Microcirculation Resistance",
                     "PRU", 3.2, 6.2));
-            list.add(new Parameter21C(pvec, PVName.LBODY_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.LBODY_MICRO_RESISTANCE,
                     "Lower Body Microcirculation", "Resistance",
                     "Lower Body Microcirculation Resistance",
                     "PRU", 4.0, 10.3));
-            list.add(new Parameter21C(pvec, PVName.PULM_MICRO_RESISTANCE,
+            list.add(new Parameter21C(store, PVName.PULM_MICRO_RESISTANCE,
                     "Pulmonary Microcirculation", "Resistance",
                     "Pulmonary Microcirculation Resistance",
                     "PRU", 0.0, 0.19));
 
             // System Parameters
-            list.add(new Parameter21C(pvec, PVName.INTRA_THORACIC_PRESSURE,
+            list.add(new Parameter21C(store, PVName.INTRA_THORACIC_PRESSURE,
                     "System Parameters", "Pressure", "Intra-thoracic Pressure",
                     "mmHg", -20.0, 40.0));
-            list.add(new Parameter21C(pvec, PVName.NOMINAL_HEART_RATE,
+            list.add(new Parameter21C(store, PVName.NOMINAL_HEART_RATE,
                     "System Parameters", "Heart Rate", "Nominal Heart Rate",
                     "beats/min", 50.0, 85.0));
-            list.add(new Parameter21C(pvec, PVName.TOTAL_BLOOD_VOLUME,
+            list.add(new Parameter21C(store, PVName.TOTAL_BLOOD_VOLUME,
                     "System Parameters", "Volume", "Total Blood Volume",
                     "mL", 4041.0, 6460.0));
 
             // Control System Parameters    
             // Arterial Baroreflex 
-            list.add(new Parameter21C(pvec, PVName.ABR_SET_POINT,
+            list.add(new Parameter21C(store, PVName.ABR_SET_POINT,
                     "Arterial Baroreflex", "Set Point",
                     "ABR Set Point", "mmHg", 89.0, 105.0));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_HR_SYMPATHETIC_GAIN,
+            list.add(new Parameter21C(store, PVName.ABR_HR_SYMPATHETIC_GAIN,
                     "Arterial Baroreflex", "Gain",
                     "ABR Heart Rate Sympathetic Gain", "ms/mmHg", 0.005, 0.017));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_HR_PARASYMPATHETIC_GAIN,
+            list.add(new Parameter21C(store, PVName.ABR_HR_PARASYMPATHETIC_GAIN,
                     "Arterial Baroreflex", "Gain",
                     "ABR Heart Rate Parasympathetic Gain", "ms/mmHg", 0.005, 0.017));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_UPPER_BODY,
+            list.add(new Parameter21C(store, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_UPPER_BODY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Venous Tone Sympathetic Gain to Upper Body", "ms/mmHg", 3.6, 6.15));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_KIDNEY,
+            list.add(new Parameter21C(store, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_KIDNEY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Venous Tone Sympathetic Gain to Kidney", "ms/mmHg", 0.7, 2.0));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
+            list.add(new Parameter21C(store, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
                     "Arterial Baroreflex", "Gain",
                     "ABR Venous Tone Sympathetic Gain to Splanchnic", "ms/mmHg", 9.0, 17.6));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_LOWER_BODY,
+            list.add(new Parameter21C(store, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN_TO_LOWER_BODY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Venous Tone Sympathetic Gain to Lower Body", "ms/mmHg", 4.5, 9.0));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_UPPER_BODY,
+            list.add(new Parameter21C(store, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_UPPER_BODY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Arterial Resistance Sympathetic Gain to Upper Body",
                     "mL/mmHg^2", -0.15, -0.05));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_KIDNEY,
+            list.add(new Parameter21C(store, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_KIDNEY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Arterial Resistance Sympathetic Gain to Kidney",
                     "mL/mmHg^2", -0.15, -0.05));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
+            list.add(new Parameter21C(store, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
                     "Arterial Baroreflex", "Gain",
                     "ABR Arterial Resistance Sympathetic Gain to Splanchnic",
                     "mL/mmHg^2", -0.15, -0.05));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_LOWER_BODY,
+            list.add(new Parameter21C(store, PVName.ABR_ART_RES_SYMPATHETIC_GAIN_TO_LOWER_BODY,
                     "Arterial Baroreflex", "Gain",
                     "ABR Arterial Resistance Sympathetic Gain to Lower Body",
                     "mL/mmHg^2", -0.15, -0.05));
 
-            list.add(new Parameter21C(pvec, PVName.ABR_RV_CONTRACTILITY_SYMPATHETIC_GAIN,
+            list.add(new Parameter21C(store, PVName.ABR_RV_CONTRACTILITY_SYMPATHETIC_GAIN,
                     "Arterial Baroreflex", "Gain",
                     "ABR Contractility Right Ventricle Sympathetic Gain",
                     "mL/mmHg^2", 0.007, 0.03));
-            list.add(new Parameter21C(pvec, PVName.ABR_LV_CONTRACTILITY_SYMPATHETIC_GAIN,
+            list.add(new Parameter21C(store, PVName.ABR_LV_CONTRACTILITY_SYMPATHETIC_GAIN,
                     "Arterial Baroreflex", "Gain",
                     "ABR Contractility Left Ventricle Sympathetic Gain",
                     "mL/mmHg^2", 0.004, 0.014));
 
             // Cardiopulmonary Reflex
-            list.add(new Parameter21C(pvec, PVName.CPR_SET_POINT,
+            list.add(new Parameter21C(store, PVName.CPR_SET_POINT,
                     "Cardiopulmonary Reflex", "Set Point",
                     "CPR Set Point", "mmHg", 4.0, 10.0));
-            list.add(new Parameter21C(pvec, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_UBODY,
+            list.add(new Parameter21C(store, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_UBODY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Venous Tone Sympathetic Gain to Upper Body", "mL/mmHg^2", 8.1, 19.0));
-            list.add(new Parameter21C(pvec, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_KIDNEY,
+            list.add(new Parameter21C(store, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_KIDNEY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Venous Tone Sympathetic Gain to Kidney",
                     "mL/mmHg^2", 2.2, 3.2));
-            list.add(new Parameter21C(pvec, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
+            list.add(new Parameter21C(store, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Venous Tone Sympathetic Gain to Splanchnic",
                     "mL/mmHg^2", 38.4, 90.0));
-            list.add(new Parameter21C(pvec, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_LBODY,
+            list.add(new Parameter21C(store, PVName.CPR_VEN_SYMPATHETIC_GAIN_TO_LBODY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Venous Tone Sympathetic Gain to Lower Body",
                     "mL/mmHg^2", 18.0, 42.0));
-            list.add(new Parameter21C(pvec, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_UBODY,
+            list.add(new Parameter21C(store, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_UBODY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Arterial Resistance Sympathetic Gain to Upper Body",
                     "mL/mmHg^2", -0.4, -0.2));
-            list.add(new Parameter21C(pvec, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_KIDNEY,
+            list.add(new Parameter21C(store, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_KIDNEY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Arterial Resistance Sympathetic Gain to Kidney",
                     "mL/mmHg^2", -0.4, -0.2));
-            list.add(new Parameter21C(pvec, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
+            list.add(new Parameter21C(store, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_SPLANCHNIC,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Arterial Resistance Sympathetic Gain to Splanchnic",
                     "mL/mmHg^2", -0.4, -0.2));
-            list.add(new Parameter21C(pvec, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_LBODY,
+            list.add(new Parameter21C(store, PVName.CPR_ART_RES_SYMPATHETIC_GAIN_TO_LBODY,
                     "Cardiopulmonary Reflex", "Gain",
                     "CPR Arterial Resistance Sympathetic Gain to Lower Body",
                     "mL/mmHg^2", -0.4, -0.2));
@@ -3,11 +3,16 @@ package edu.mit.lcp;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import jcvsim.backend6compartment.Engine6C;
 import jcvsim.backend6compartment.Output;
 import jcvsim.backend6compartment.Main;
 import jcvsim.backend6compartment.PVName;
 import jcvsim.backend6compartment.Parameter_vector;
+import jcvsim.backendCommon.Engine;
+import jcvsim.backendCommon.EngineLoader;
 
 public class CSimulation6C extends CSimulation {
 
@@ -155,6 +160,9 @@ public class CSimulation6C extends CSimulation {
     @Override
     public void step() {
 	    
+	// pick up parameter edits made since the last step
+	simParameters.getStore().applyEdits();
+
 	// run simulation and get updated model measurements
 	Main.instance().step_sim(output, simParameters.getVector(),
 			       getDataCompressionFactor(),
@@ -221,6 +229,35 @@ public class CSimulation6C extends CSimulation {
 	Main.instance().updatePressure(i, d);
     }   
 
+    @Override
+    protected String getEngineClass() {
+	return Engine6C.class.getName();
+    }
+
+    @Override
+    protected Map<String, Double> getParameterValues() {
+	Map<String, Double> values = new HashMap<>();
+	for (PVName name: PVName.values()) {
+	    Double value = simParameters.getStore().get(name);
+	    if (value != null)
+		values.put(name.name(), value);
+	}
+	return values;
+    }
+
+    @Override
+    protected void install(final Engine engine) {
+	final ParameterStore<PVName, Parameter_vector> store = simParameters.getStore();
+	store.queue(new Runnable() {
+		@Override
+		public void run() {
+		    EngineLoader.transfer(engine, Main.instance(), store.getVector(), output);
+		    for (Map.Entry<PVName, Double> p: store.getVector().entrySet())
+			store.publish(p.getKey(), p.getValue());
+		}
+	    });
+    }
+
     @Override
     public List<Parameter> getParameterList() {
 	return simParameters.getParameterList();
@@ -234,19 +271,24 @@ public class CSimulation6C extends CSimulation {
     ///////////////////////////////////////
     public class CSimulation6CParameters {
 
-	private final Parameter_vector pvec;
+	private final ParameterStore<PVName, Parameter_vector> store;
 	private final List<Parameter> plist;
 
 	CSimulation6CParameters() {
-	    pvec = new Parameter_vector();
+	    Parameter_vector pvec = new Parameter_vector();
 	    // initialize the simulation with the variables
 	    Main.instance().init_sim(pvec);
+	    store = new ParameterStore<>(pvec);
 
 	    plist = createParameterList();
 	}
 
+	// The solver's vector, for the simulation thread only
 	public Parameter_vector getVector() {
-	    return pvec;
+	    return store.getVector();
+	}
+	public ParameterStore<PVName, Parameter_vector> getStore() {
+	    return store;
 	}
 	public List<Parameter> getParameterList() {
 	    return plist;
@@ -295,122 +337,122 @@ public class CSimulation6C extends CSimulation {
 	    List<Parameter> list = new ArrayList<>();
 
 	    // Compliance
-	    list.add(new Parameter6C(pvec, PVName.LV_DIASTOLIC_COMPLIANCE, "Left Heart", "Compliance",
+	    list.add(new Parameter6C(store, PVName.LV_DIASTOLIC_COMPLIANCE, "Left Heart", "Compliance",
 				   "Left Ventricle Diastolic Compliance",
 				     "mL/mmHg", 0.2, 20.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.LV_SYSTOLIC_COMPLIANCE, "Left Heart", "Compliance",
+	    list.add(new Parameter6C(store, PVName.LV_SYSTOLIC_COMPLIANCE, "Left Heart", "Compliance",
 				   "Left Ventricle Systolic Compliance",
 				     "mL/mmHg", 0.1, 20.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.RV_DIASTOLIC_COMPLIANCE, "Right Heart", "Compliance",
+	    list.add(new Parameter6C(store, PVName.RV_DIASTOLIC_COMPLIANCE, "Right Heart", "Compliance",
 				   "Right Ventricle Diastolic Compliance",
 				     "mL/mmHg", 0.2, 40.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.RV_SYSTOLIC_COMPLIANCE, "Right Heart", "Compliance",
+	    list.add(new Parameter6C(store, PVName.RV_SYSTOLIC_COMPLIANCE, "Right Heart", "Compliance",
 				   "Right Ventricle Systolic Compliance",
 				     "mL/mmHg", 0.2, 40.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.PULM_ART_COMPLIANCE, "Pulmonary Arteries", "Compliance",
+	    list.add(new Parameter6C(store, PVName.PULM_ART_COMPLIANCE, "Pulmonary Arteries", "Compliance",
 				   "Pulmonary Arterial Compliance",
 				     "mL/mmHg", 0.1, 20.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.PULM_VEN_COMPLIANCE, "Pulmonary Veins", "Compliance",
+	    list.add(new Parameter6C(store, PVName.PULM_VEN_COMPLIANCE, "Pulmonary Veins", "Compliance",
 				   "Pulmonary Venous Compliance",
 				     "mL/mmHg", 0.1, 40.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.ART_COMPLIANCE, "Systemic Arteries", "Compliance",
+	    list.add(new Parameter6C(store, PVName.ART_COMPLIANCE, "Systemic Arteries", "Compliance",
 				     "Arterial Compliance",
 				     "mL/mmHg", 0.1, 20.0));
 	
-	    list.add(new Parameter6C(pvec, PVName.VEN_COMPLIANCE, "Systemic Veins", "Compliance",
+	    list.add(new Parameter6C(store, PVName.VEN_COMPLIANCE, "Systemic Veins", "Compliance",
 				   "Venous Compliance",
 				     "mL/mmHg", 0.1, 500.0));
 
 	    // Resistance
-	    list.add(new Parameter6C(pvec, PVName.AORTIC_VALVE_RESISTANCE, "Left Heart",  "Resistance",
+	    list.add(new Parameter6C(store, PVName.AORTIC_VALVE_RESISTANCE, "Left Heart",  "Resistance",
 				   "Aortic Valve Resistance", 
 				     "PRU", 0.001, 2.0));
 
-	    list.add(new Parameter6C(pvec, PVName.PULMONIC_VALVE_RESISTANCE, "Right Heart",  "Resistance",
+	    list.add(new Parameter6C(store, PVName.PULMONIC_VALVE_RESISTANCE, "Right Heart",  "Resistance",
 				   "Pulmonic Valve Resistance",
 				     "PRU", 0.001, 2.0));
 
-	    list.add(new Parameter6C(pvec, PVName.PULM_MICRO_RESISTANCE, "Pulmonary Microcirculation", "Resistance",
+	    list.add(new Parameter6C(store, PVName.PULM_MICRO_RESISTANCE, "Pulmonary Microcirculation", "Resistance",
 				     "Pulmonary Microcirculation Resistance",
 				     "PRU", 0.01, 2.0));
 
-	    list.add(new Parameter6C(pvec, PVName.PULM_VEN_RESISTANCE, "Pulmonary Veins", "Resistance",
+	    list.add(new Parameter6C(store, PVName.PULM_VEN_RESISTANCE, "Pulmonary Veins", "Resistance",
 				   "Pulmonary Venous Resistance",
 				     "PRU", 0.01, 2.0));
 
-	    list.add(new Parameter6C(pvec, PVName.TOTAL_PERIPHERAL_RESISTANCE, "Systemic Microcirculation", "Resistance",
+	    list.add(new Parameter6C(store, PVName.TOTAL_PERIPHERAL_RESISTANCE, "Systemic Microcirculation", "Resistance",
 				   "Total Peripheral Resistance",
 				     "PRU", 0.01, 10.0));
 
-	    list.add(new Parameter6C(pvec, PVName.VEN_RESISTANCE, "Systemic Veins", "Resistance",
+	    list.add(new Parameter6C(store, PVName.VEN_RESISTANCE, "Systemic Veins", "Resistance",
 				   "Venous Resistance",
 				     "PRU", 0.01, 2.0));
 
 	    // Systemic
-	    list.add(new Parameter6C(pvec, PVName.INTRA_THORACIC_PRESSURE, "Systemic Parameters",  "Pressure",
+	    list.add(new Parameter6C(store, PVName.INTRA_THORACIC_PRESSURE, "Systemic Parameters",  "Pressure",
 				   "Intra-thoracic Pressure",
 				     "mmHg", -20.0, 20.0));
 	    
-	    list.add(new Parameter6C(pvec, PVName.TOTAL_BLOOD_VOLUME, "Systemic Parameters",  "Volume",
+	    list.add(new Parameter6C(store, PVName.TOTAL_BLOOD_VOLUME, "Systemic Parameters",  "Volume",
 				   "Total Blood Volume",
 				     "mL", 100.0, 10000.0));
 
-	    list.add(new Parameter6C(pvec, PVName.TOTAL_ZPFV, "Systemic Parameters",  "Volume",
+	    list.add(new Parameter6C(store, PVName.TOTAL_ZPFV, "Systemic Parameters",  "Volume",
 				   "Total Zero-Pressure Filling Volume",
 				     "mL", 0, 10000.0));
 
-	    list.add(new Parameter6C(pvec, PVName.NOMINAL_HEART_RATE, "Systemic Parameters",  "Heart Rate",
+	    list.add(new Parameter6C(store, PVName.NOMINAL_HEART_RATE, "Systemic Parameters",  "Heart Rate",
 				     "Nominal Heart Rate",
 				     "beats/min", 20.0, 250.0));
 
 	    // Control System Parameters
 
 	    // Arterial Baroreflex
-	    list.add(new Parameter6C(pvec, PVName.ABR_SET_POINT, "Arterial Baroreflex", "Set Point", 
+	    list.add(new Parameter6C(store, PVName.ABR_SET_POINT, "Arterial Baroreflex", "Set Point", 
 				     "ABR Set Point",
 				     "mmHg", 89.0, 105.0));
 
-	    list.add(new Parameter6C(pvec, PVName.ABR_HR_PARASYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
+	    list.add(new Parameter6C(store, PVName.ABR_HR_PARASYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
 				   "ABR Heart Rate Parasympathetic Gain",
 				     "ms/mmHg", 0.005, 0.017));
 
-	    list.add(new Parameter6C(pvec, PVName.ABR_HR_SYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
+	    list.add(new Parameter6C(store, PVName.ABR_HR_SYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
 				   "ABR Heart Rate Sympathetic Gain",
 				     "ms/mmHg", 0.005, 0.017));
 	
-	    list.add(new Parameter6C(pvec, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
+	    list.add(new Parameter6C(store, PVName.ABR_VEN_TONE_SYMPATHETIC_GAIN, "Arterial Baroreflex", "Gain", 
 				   "ABR Venous Tone Sympathetic Gain",
 				   "mL/mmHg"));
 
-	    list.add(new Parameter6C(pvec, PVName.ABR_ART_RESISTANCE_SYMP_GAIN, "Arterial Baroreflex", "Gain",
+	    list.add(new Parameter6C(store, PVName.ABR_ART_RESISTANCE_SYMP_GAIN, "Arterial Baroreflex", "Gain",
 				   "ABR Arterial Resistance Sympathetic Gain",
 				   "PRU/mmHg"));
 
-	    list.add(new Parameter6C(pvec, PVName.ABR_CONTRACT_RV_SYMP_GAIN, "Arterial Baroreflex", "Gain",
+	    list.add(new Parameter6C(store, PVName.ABR_CONTRACT_RV_SYMP_GAIN, "Arterial Baroreflex", "Gain",
 				   "ABR Contractility Right Ventricle Sympathetic Gain",
 				     "mL/mmHg^2", 0.007, 0.030));
 	
-	    list.add(new Parameter6C(pvec, PVName.ABR_CONTRACT_LV_SYMP_GAIN, "Arterial Baroreflex", "Gain",
+	    list.add(new Parameter6C(store, PVName.ABR_CONTRACT_LV_SYMP_GAIN, "Arterial Baroreflex", "Gain",
 				   "ABR Contractility Left Ventricle Sympathetic Gain",
 				     "mL/mmHg^2", 0.004, 0.014));
 
 	    // Cardiopulmonary Reflex
-	    list.add(new Parameter6C(pvec, PVName.CPR_SET_POINT, "Cardiopulmonary Reflex", "Set Point",
+	    list.add(new Parameter6C(store, PVName.CPR_SET_POINT, "Cardiopulmonary Reflex", "Set Point",
 				   "CPR Set Point",
 				     "mmHg", 4.0, 10.0));
 
-	    list.add(new Parameter6C(pvec, PVName.CPR_VEN_TONE_SYMP_GAIN, "Cardiopulmonary Reflex", "Gain",
+	    list.add(new Parameter6C(store, PVName.CPR_VEN_TONE_SYMP_GAIN, "Cardiopulmonary Reflex", "Gain",
 				   "CPR Venous Tone Sympathetic Gain",
 				   "mL/mmHg"));
 
 
-	    list.add(new Parameter6C(pvec, PVName.CPR_ART_RESISTANCE_SYMP_GAIN, "Cardiopulmonary Reflex", "Gain",
+	    list.add(new Parameter6C(store, PVName.CPR_ART_RESISTANCE_SYMP_GAIN, "Cardiopulmonary Reflex", "Gain",
 				   "CPR Arterial Resistance Sympathetic Gain",
 				   "PRU/mmHg"));
 
@@ -7,6 +7,8 @@ package edu.mit.lcp;
 // TO DO: This class and the gui class should probably be combined
 
 import javax.swing.JOptionPane;
+import jcvsim.backendCommon.Engine;
+import jcvsim.backendCommon.Ensemble;
 
 public class CVSim {
 
@@ -19,6 +21,8 @@ public class CVSim {
     // global manner.  it still needs to be scheduled/started later.
 
     public static SimulationThread simThread;
+    public static CompressionController compressionController;
+    public static final RenderClock renderClock = new RenderClock();
     public static CSimulation sim;
 
     public static MainWindow gui;
@@ -27,17 +31,24 @@ public class CVSim {
 
     public static void main(String[] args) {
 	boolean speedTest = false;
+	int ensembleSize = 0;
+	int streamPort = 0;
 
 	System.out.println("CVSim.main(...)");
 
 	simulationModelName = null;
-        for (String s: args) {
+        for (int i = 0; i < args.length; i++) {
+	    String s = args[i];
 	    if (s.equals("-m6"))
 		simulationModelName = MODEL_6C;
 	    if (s.equals("-m21"))
 		simulationModelName = MODEL_21C;
 	    if (s.equals("-speed"))
 		speedTest = true;
+	    if (s.equals("-ensemble") && (i + 1 < args.length))
+		ensembleSize = Integer.parseInt(args[++i]);
+	    if (s.equals("-serve") && (i + 1 < args.length))
+		streamPort = Integer.parseInt(args[++i]);
         }
 
 	if (simulationModelName == null) {
@@ -47,6 +58,24 @@ public class CVSim {
 		 JOptionPane.PLAIN_MESSAGE,	null, possibilities, MODEL_6C);
 	}
 
+	if ((simulationModelName != null) && (ensembleSize > 0)) {
+	    runEnsemble(ensembleSize);
+	    return;
+	}
+
+	// Show the window first, then set up the backend on this thread
+	// while the event-dispatching thread lays out the window and the
+	// illustrations are decoded.  The rest of the GUI is filled in
+	// once the simulation exists.
+	if ((simulationModelName != null) && !speedTest) {
+	    gui = new MainWindow();
+	    javax.swing.SwingUtilities.invokeLater(new Runnable() {
+		    public void run() {
+			gui.showFrame();
+		    }
+		});
+	}
+
 	if (simulationModelName != null) {
 	    if (simulationModelName.equals(MODEL_6C)) {
 		sim = new CSimulation6C();
@@ -59,6 +88,8 @@ public class CVSim {
 	    System.exit(1);
 	}
 
+	SimulationMetrics.instance().start();
+
 	if (speedTest) {
 	    int [] dcf = {1, 1, 5, 10, 20, 50, 100, 1000};
 	    int simTime = 500;
@@ -72,7 +103,9 @@ public class CVSim {
 		sim.setDataCompressionFactor(i);
 		long startTime = System.currentTimeMillis();
 		for (int s=0; s<((simTime*1000)/i); s++) {
+		    SimulationMetrics.instance().stepStarted();
 		    sim.step();
+		    SimulationMetrics.instance().stepFinished(sim.getOutput(0));
 		}
 		long endTime = System.currentTimeMillis();
 		long duration = endTime-startTime;
@@ -82,19 +115,68 @@ public class CVSim {
 	    }
 	} else {
 	    simThread = new SimulationThread(sim);
-	    
-	    gui = new MainWindow();
-	    
+	    compressionController = new CompressionController(sim);
+
+	    if (streamPort > 0) {
+		try {
+		    new StreamServer(streamPort).start();
+		} catch (java.io.IOException e) {
+		    System.err.println("Cannot stream on port " + streamPort);
+		    System.err.println(e);
+		}
+	    }
+
 	    // Setup GUI to run in the event-dispatching-thread by using
 	    // invokeLater method.
 	    javax.swing.SwingUtilities.invokeLater(new Runnable() {
 		    public void run() {
+			// -Djcvsim.compression=auto adjusts the factor to the
+			// display load from the start
+			compressionController.setEnabled(
+			    "auto".equals(System.getProperty("jcvsim.compression")));
 			gui.createAndShowGUI();
 		    }
 		});
 	}
     }
 
+    // Run size copies of the selected model headless, each for a minute of
+    // simulated time with the reflexes on, and report the throughput
+    private static void runEnsemble(int size) {
+	final double simTime = 60;
+	String engineClass = simulationModelName.equals(MODEL_6C)
+	    ? "jcvsim.backend6compartment.Engine6C"
+	    : "jcvsim.backend21compartment.Engine21C";
+	Ensemble ensemble = new Ensemble(engineClass, 10);
+	for (int i = 0; i < size; i++) {
+	    ensemble.add(new Ensemble.Scenario() {
+		    public void setUp(Engine engine) {
+			engine.reflexes(0, true, true);
+		    }
+		    public boolean stepped(Engine engine) {
+			return engine.getTime() < simTime;
+		    }
+		});
+	}
+
+	int carriers = Runtime.getRuntime().availableProcessors();
+	System.out.println("Running " + size + " x " + simulationModelName + " for " + simTime + " seconds on "
+			   + (Ensemble.hasVirtualThreads() ? "virtual threads" : carriers + " threads"));
+	long startTime = System.currentTimeMillis();
+	try {
+	    ensemble.run(carriers);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+	double duration = (double)(System.currentTimeMillis() - startTime) / 1000;
+	System.out.println("Wall Clock Time Elapsed: " + duration + "sec -- ("
+			   + size * simTime / duration + " simulated seconds per second, "
+			   + ensemble.getFailures().size() + " failed)");
+	for (Throwable t : ensemble.getFailures()) {
+	    t.printStackTrace();
+	}
+    }
+
     public static String getSimulationModelName() { return simulationModelName; }
 } 
 
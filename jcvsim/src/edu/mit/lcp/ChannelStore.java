@@ -0,0 +1,138 @@
+package edu.mit.lcp;
+
+import java.util.Arrays;
+
+// ChannelStore.java
+// The recent history of the simulation outputs, shared by all the plots.
+//
+// Each output variable that is being plotted has one ring of samples,
+// written once per step however many plots and traces show it.  The
+// plots read the store through ChannelWindow views of the newest samples
+// of a channel; changing the length of a view only changes a number, and
+// the rings grow, by doubling, only when a view longer than any before
+// is asked for.
+//
+// A channel is recorded from the first time a window on it is made,
+// and from then on.  The simulation time, output 0, is always recorded.
+//
+// Written by the simulation thread through CSimulation.updateRecorders()
+// and replayFrame(), holding the recorder lock; windows are made and
+// sized on the event-dispatching thread, also holding it.
+public class ChannelStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CSimulation sim;
+    // one ring per recorded channel, a power of two long
+    private double[][] rings = new double[0][];
+    // output index of each ring
+    private int[] outputIndex = new int[0];
+    // number of samples written before each ring was started
+    private long[] since = new long[0];
+    // ring of each output index, -1 if it is not recorded
+    private int[] slotOfOutput = new int[0];
+    private int capacity = INITIAL_CAPACITY;
+    // number of samples written, also the position of the next one
+    private volatile long count;
+
+    public ChannelStore(CSimulation sim) {
+        this.sim = sim;
+        slot(0);
+    }
+
+    // A view of the newest length samples of var
+    public ChannelWindow window(SimulationOutputVariable var, int length) {
+        synchronized (sim.getRecorderLock()) {
+            ensureCapacity(length);
+            return new ChannelWindow(this, var, slot(var.getOutputIndex()), length);
+        }
+    }
+
+    // Record the simulation's outputs at this step.  Recorder lock held
+    void record() {
+        long n = count;
+        for (int s = 0; s < rings.length; s++) {
+            double[] ring = rings[s];
+            ring[(int) n & (ring.length - 1)] = sim.getOutput(outputIndex[s]);
+        }
+        count = n + 1;
+    }
+
+    // Record a frame indexed by output index, see CSimulation.replayFrame().
+    // Recorder lock held
+    void record(double[] frame) {
+        long n = count;
+        for (int s = 0; s < rings.length; s++) {
+            double[] ring = rings[s];
+            ring[(int) n & (ring.length - 1)] = frame[outputIndex[s]];
+        }
+        count = n + 1;
+    }
+
+    ///////////////////////////////////////////////
+    // Reading, for ChannelWindow
+    //
+    long getCount() {
+        return count;
+    }
+
+    // Number of samples of the channel in slot s there are to read
+    long available(int s) {
+        return Math.min(count - since[s], rings[s].length);
+    }
+
+    // The sample written at position n of the channel in slot s
+    double get(int s, long n) {
+        double[] ring = rings[s];
+        return ring[(int) n & (ring.length - 1)];
+    }
+
+    // The newest sample of the simulation time
+    double getTime() {
+        return get(0, count - 1);
+    }
+
+    // Make the rings at least length long.  Recorder lock held
+    void ensureCapacity(int length) {
+        if (length <= capacity) {
+            return;
+        }
+        while (capacity < length) {
+            capacity *= 2;
+        }
+        for (int s = 0; s < rings.length; s++) {
+            double[] old = rings[s];
+            double[] ring = new double[capacity];
+            // keep each sample at its position modulo the new length
+            for (long n = count - available(s); n < count; n++) {
+                ring[(int) n & (capacity - 1)] = old[(int) n & (old.length - 1)];
+            }
+            rings[s] = ring;
+        }
+    }
+
+    // The slot recording the output, starting one if there is none.
+    // Recorder lock held
+    private int slot(int output) {
+        if (output >= slotOfOutput.length) {
+            int[] grown = Arrays.copyOf(slotOfOutput, output + 1);
+            Arrays.fill(grown, slotOfOutput.length, grown.length, -1);
+            slotOfOutput = grown;
+        }
+        int s = slotOfOutput[output];
+        if (s < 0) {
+            s = rings.length;
+            outputIndex = Arrays.copyOf(outputIndex, s + 1);
+            outputIndex[s] = output;
+            since = Arrays.copyOf(since, s + 1);
+            since[s] = count;
+            double[][] grown = Arrays.copyOf(rings, s + 1);
+            grown[s] = new double[capacity];
+            // publish the ring last, record() reads rings.length
+            rings = grown;
+            slotOfOutput[output] = s;
+        }
+        return s;
+    }
+
+}
@@ -0,0 +1,188 @@
+package edu.mit.lcp;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// ChannelWindow.java
+// A view of the newest samples of one channel of the ChannelStore, used
+// by the plots in place of a buffer of their own.  The view holds no
+// data, so any number of them can look at the same channel, and its
+// length can be changed at no cost.
+//
+// The store is written by the simulation, never through a window.
+public class ChannelWindow implements VariableWindow<Double> {
+
+    private final ChannelStore store;
+    private final SimulationOutputVariable<Double> var;
+    private final int slot;
+    private volatile int length;
+
+    ChannelWindow(ChannelStore store, SimulationOutputVariable<Double> var, int slot, int length) {
+        this.store = store;
+        this.var = var;
+        this.slot = slot;
+        this.length = length;
+    }
+
+    @Override
+    public void setLength(int newLength) {
+        synchronized (CVSim.sim.getRecorderLock()) {
+            store.ensureCapacity(newLength);
+            length = newLength;
+        }
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public long getDatumCount() {
+        return store.getCount();
+    }
+
+    // The simulation time only ever increases, between resets
+    @Override
+    public boolean isMonotonicIncreasing() {
+        return var.getOutputIndex() == 0;
+    }
+
+    public SimulationOutputVariable getVar() {
+        return var;
+    }
+
+    @Override
+    public String toString() {
+        return var.getDescription();
+    }
+
+    /////////////////////////////////////////////////
+    // Public Interface for VariableWindow
+    //
+    @Override
+    public int getOutputIndex() {
+        return var.getOutputIndex();
+    }
+
+    @Override
+    public String getName() {
+        return var.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return var.getDescription();
+    }
+
+    @Override
+    public String getUnits() {
+        return var.getUnits();
+    }
+
+    @Override
+    public int getSize() {
+        return (int) Math.min(length, store.available(slot));
+    }
+
+    @Override
+    public String getCategory() {
+        return var.getCategory();
+    }
+
+    @Override
+    public String getType() {
+        return var.getType();
+    }
+
+    @Override
+    public Double getLastDatum() {
+        return getRecentDatum(0);
+    }
+
+    @Override
+    public Double getRecentDatum(int age) {
+        return store.get(slot, store.getCount() - 1 - age);
+    }
+
+    @Override
+    public int getData(double[] dest, int offset, int stride, int n) {
+        long end = store.getCount();
+        n = Math.min(n, getSize());
+        int j = offset;
+        for (long i = end - n; i < end; i++, j += stride) {
+            dest[j] = store.get(slot, i);
+        }
+        return n;
+    }
+
+    // Like the serial numbers given to CSimulation's recorders, the
+    // simulation time in hundredths of a second
+    @Override
+    public long getLastMarker() {
+        return Math.round(store.getTime() * 100);
+    }
+
+    @Override
+    public Double getMinVal() {
+        if (isMonotonicIncreasing()) {
+            return getRecentDatum(Math.max(getSize() - 1, 0));
+        }
+        int size = getSize();
+        double min = (size > 0) ? Double.MAX_VALUE : 0;
+        for (int age = 0; age < size; age++) {
+            min = Math.min(min, getRecentDatum(age));
+        }
+        return min;
+    }
+
+    @Override
+    public Double getMaxVal() {
+        if (isMonotonicIncreasing()) {
+            return getRecentDatum(0);
+        }
+        int size = getSize();
+        double max = (size > 0) ? -Double.MAX_VALUE : 0;
+        for (int age = 0; age < size; age++) {
+            max = Math.max(max, getRecentDatum(age));
+        }
+        return max;
+    }
+
+    @Override
+    public Range<Double> getTypicalRange() {
+        return new Range<>(var.getTypicalRange());
+    }
+
+    ////////////////////////////////
+    // Public Interface for Iterable
+    //
+    // Oldest first
+    @Override
+    public Iterator<Double> iterator() {
+        final long end = store.getCount();
+        final long start = end - getSize();
+        return new Iterator<Double>() {
+            long next = start;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Double next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                return store.get(slot, next++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
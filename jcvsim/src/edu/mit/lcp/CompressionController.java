@@ -0,0 +1,105 @@
+package edu.mit.lcp;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import javax.swing.Timer;
+
+// Class CompressionController adjusts the simulation's data compression
+// factor while it runs, so that the display keeps up without anyone
+// having to tune the factor by hand.
+//
+// Every PERIOD milliseconds it looks at how much of the event dispatch
+// thread the plot repaints took.  When the display is overloaded the
+// factor is raised sharply; when there is plenty of headroom it is
+// lowered a step at a time, towards full detail.  The target load leaves
+// room for the rest of the GUI, so the display stays smooth on a slow
+// machine and shows every sample on a fast one.
+//
+// Dropped frames are not a sign of overload: in turbo mode, or with a
+// limited display rate, the display skips frames by design.  Off unless
+// turned on from the menu or with -Djcvsim.compression=auto.
+//
+// Runs on the event dispatch thread, since changing the factor resizes
+// the plot buffers.
+public class CompressionController {
+
+    public static final int MIN_FACTOR = 1;
+    public static final int MAX_FACTOR = 50;
+
+    private static final int PERIOD = 1000;
+    // fraction of the event dispatch thread the repaints may use
+    private static final double HIGH_LOAD = 0.5;
+    private static final double LOW_LOAD = 0.2;
+
+    private final CSimulation _sim;
+    private final Timer _timer;
+    private boolean _enabled;
+
+    private long _lastSteps;
+    private double _lastRepaintMillis;
+    private long _lastTime;
+
+    public CompressionController(CSimulation sim) {
+        _sim = sim;
+        _timer = new Timer(PERIOD, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                adjust();
+            }
+        });
+    }
+
+    public void setEnabled(boolean enable) {
+        if (enable == _enabled) {
+            return;
+        }
+        _enabled = enable;
+        if (enable) {
+            sample(System.nanoTime());
+            _timer.start();
+        } else {
+            _timer.stop();
+        }
+        System.out.println("Automatic data compression " + (enable ? "on" : "off"));
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    private void sample(long now) {
+        SimulationMetrics metrics = SimulationMetrics.instance();
+        _lastSteps = metrics.getSteps();
+        _lastRepaintMillis = metrics.getRepaintTotalMillis();
+        _lastTime = now;
+    }
+
+    private void adjust() {
+        SimulationMetrics metrics = SimulationMetrics.instance();
+        long now = System.nanoTime();
+        long steps = metrics.getSteps() - _lastSteps;
+        double load = (metrics.getRepaintTotalMillis() - _lastRepaintMillis) * 1e6 / (now - _lastTime);
+        sample(now);
+
+        if (steps == 0) {
+            // stopped, or replaying a session
+            return;
+        }
+
+        int factor = _sim.getDataCompressionFactor();
+        int newFactor = factor;
+        if (load > HIGH_LOAD) {
+            newFactor = Math.min(MAX_FACTOR, (int) Math.ceil(factor * 1.5));
+        } else if ((load < LOW_LOAD) && (factor > MIN_FACTOR)) {
+            // only if the repaint load at the lower factor stays in range
+            if (load * factor / (factor - 1) < HIGH_LOAD) {
+                newFactor = factor - 1;
+            }
+        }
+        if (newFactor != factor) {
+            System.out.println(String.format("Repaint load %.2f", load));
+            _sim.setDataCompressionFactor(newFactor);
+        }
+    }
+
+}
@@ -2,20 +2,30 @@ package edu.mit.lcp;
 
 import java.awt.Component;
 import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import javax.swing.AbstractAction;
 import javax.swing.ImageIcon;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JToggleButton;
 import javax.swing.JToolBar;
+import javax.swing.Timer;
 
 public class ControlToolBar extends JToolBar {
 
     private final JToggleButton _startButton;
     private final JToggleButton _stopButton;
+    private final JToggleButton _turboButton;
+    private final JLabel _realTimeFactorLabel;
     private final JToggleButton _abReflexOnButton; 
     private final JToggleButton _abReflexOffButton;
     private final JToggleButton _cpReflexOnButton;
     private final JToggleButton _cpReflexOffButton;
+
+    // display update rate while running flat out, the same rate the
+    // plots see when running in real time
+    private static final double TURBO_FRAME_RATE = 100;
     
     public ControlToolBar() {
 
@@ -32,6 +42,13 @@ public class ControlToolBar extends JToolBar {
         _stopButton.addActionListener(new StopSimulationAction(this));
 	_stopButton.setToolTipText("Stop Simulation");
 
+        _turboButton = new JToggleButton("Turbo");
+        _turboButton.addActionListener(new TurboSimulationAction(this));
+	_turboButton.setToolTipText("Run Simulation As Fast As Possible");
+
+	_realTimeFactorLabel = new JLabel();
+	_realTimeFactorLabel.setToolTipText("Achieved Simulation Speed (x Real Time)");
+
 	ImageIcon ABOnIcon = new ImageIcon(getClass().getResource("/icons/ABgo.gif"));
         _abReflexOnButton = new JToggleButton(ABOnIcon);
         _abReflexOnButton.addActionListener(new ABReflexOnAction(this));
@@ -54,25 +71,59 @@ public class ControlToolBar extends JToolBar {
 
 	add(_startButton);
 	add(_stopButton);
+	add(_turboButton);
 	add(_abReflexOnButton);
 	add(_abReflexOffButton);
 	add(_cpReflexOnButton);
 	add(_cpReflexOffButton);
+	addSeparator();
+	add(_realTimeFactorLabel);
         
         _stopButton.setSelected(true);
         _abReflexOffButton.setSelected(true);
         _cpReflexOffButton.setSelected(true);
-        
+
+        // report the achieved speed twice a second
+        Timer rtfTimer = new Timer(500, new ActionListener() {
+            private double lastSimTime;
+            private long lastWallTime = System.nanoTime();
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                double simTime = CVSim.sim.getDisplayTime();
+                long now = System.nanoTime();
+                if (CVSim.simThread.isRunning() && (simTime > lastSimTime)) {
+                    double rtf = (simTime - lastSimTime) / ((now - lastWallTime) / 1e9);
+                    _realTimeFactorLabel.setText(String.format(" %.1fx real time ", rtf));
+                } else {
+                    _realTimeFactorLabel.setText("");
+                }
+                lastSimTime = simTime;
+                lastWallTime = now;
+            }
+        });
+        rtfTimer.start();
     }
 
     public JMenu createSimulationMenu() {
 	JMenu simMenu = new JMenu("Simulation");
 	simMenu.add(new StartSimulationAction(this));
 	simMenu.add(new StopSimulationAction(this));
+	simMenu.add(new TurboSimulationAction(this));
 	simMenu.add(new ABReflexOnAction(this));
 	simMenu.add(new ABReflexOffAction(this));
 	simMenu.add(new CPReflexOnAction(this));
 	simMenu.add(new CPReflexOffAction(this));
+	simMenu.addSeparator();
+	final JCheckBoxMenuItem autoCompression = new JCheckBoxMenuItem("Automatic Data Compression",
+		CVSim.compressionController.isEnabled());
+	autoCompression.addActionListener(new ActionListener() {
+            @Override
+	    public void actionPerformed(ActionEvent e) {
+		CVSim.compressionController.setEnabled(autoCompression.isSelected());
+	    }
+	});
+	simMenu.add(autoCompression);
 	return simMenu;
     }
 
@@ -83,6 +134,21 @@ public class ControlToolBar extends JToolBar {
 	_cpReflexOffButton.setEnabled(b);
     }
 
+    // Allow starting the simulation, or not while a session replay has
+    // the plots
+    public void enableStart(boolean b) {
+	_startButton.setEnabled(b);
+	_turboButton.setEnabled(b);
+    }
+
+    // Show the simulation as stopped, used when something else such
+    // as a session replay takes over the plots
+    public void showStopped() {
+	_stopButton.setSelected(true);
+	_startButton.setSelected(false);
+	_turboButton.setSelected(false);
+    }
+
     // Actions
     private class StartSimulationAction extends AbstractAction {
 	private final Component pc;
@@ -94,7 +160,10 @@ public class ControlToolBar extends JToolBar {
 	public void actionPerformed(ActionEvent e) {
 	    _startButton.setSelected(true);
 	    _stopButton.setSelected(false);
-	    CVSim.simThread.setPeriod(10);
+	    _turboButton.setSelected(false);
+	    CVSim.gui.sessionMenu.stopReplay();
+	    CVSim.simThread.setTurbo(false);
+	    CVSim.sim.setDisplayRate(0);
 	    CVSim.simThread.start();
 	    System.out.println("Start");
 	}
@@ -110,10 +179,30 @@ public class ControlToolBar extends JToolBar {
 	public void actionPerformed(ActionEvent event) {
 	    _stopButton.setSelected(true);
 	    _startButton.setSelected(false);
+	    _turboButton.setSelected(false);
 	    CVSim.simThread.stop();
 	    System.out.println("Stop");
 	}	
     }
+
+    private class TurboSimulationAction extends AbstractAction {
+	private final Component pc;
+	public TurboSimulationAction(Component c) {
+	    super("Run Simulation As Fast As Possible");
+	    pc = c;
+	}
+        @Override
+	public void actionPerformed(ActionEvent e) {
+	    _turboButton.setSelected(true);
+	    _startButton.setSelected(false);
+	    _stopButton.setSelected(false);
+	    CVSim.gui.sessionMenu.stopReplay();
+	    CVSim.simThread.setTurbo(true);
+	    CVSim.sim.setDisplayRate(TURBO_FRAME_RATE);
+	    CVSim.simThread.start();
+	    System.out.println("Turbo");
+	}
+    }
     
     private class ABReflexOnAction extends AbstractAction {
 	private final Component pc;
@@ -0,0 +1,61 @@
+package edu.mit.lcp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free single-producer single-consumer ring of frame times, used to
+// hand frames from the simulation thread to the event dispatch thread.
+// The producer never waits: when the consumer has fallen a full ring
+// behind, offer() refuses the frame and the caller counts it as dropped.
+public class FrameQueue {
+
+    private final double[] times;
+    private final int mask;
+
+    // index of the next frame to read, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // index of the next frame to write, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    private double lastTime;
+
+    // capacity is rounded up to a power of two
+    public FrameQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        times = new double[size];
+        mask = size - 1;
+    }
+
+    // Producer side
+    public boolean offer(double time) {
+        long t = tail.get();
+        if (t - head.get() >= times.length) {
+            return false;
+        }
+        times[(int) (t & mask)] = time;
+        // publish the slot after it has been written
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Consumer side, removes every pending frame and returns how many
+    // there were.  The time of the newest is available from getLastTime()
+    public int drain() {
+        long h = head.get();
+        long t = tail.get();
+        if (t == h) {
+            return 0;
+        }
+        lastTime = times[(int) ((t - 1) & mask)];
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    public double getLastTime() {
+        return lastTime;
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+}
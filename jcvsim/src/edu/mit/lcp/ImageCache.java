@@ -0,0 +1,139 @@
+package edu.mit.lcp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+// ImageCache.java
+// Decodes the illustration images on background threads, once each.
+//
+// The image panels ask for their icons through setIcon(), which returns at
+// once; the label gets its icon on the event-dispatching thread when the
+// image has been decoded, so the window can appear before the images have
+// been read.  Images swapped in on mouseover come from the same cache, so
+// each is decoded only the first time it is used.
+public class ImageCache {
+
+    private static final ConcurrentMap<String, Decoding> icons = new ConcurrentHashMap<>();
+
+    // the label's most recently requested image, so that a slow decode
+    // cannot overwrite a later request for the same label
+    private static final String REQUESTED = "ImageCache.requested";
+
+    private static final ExecutorService decoder = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ImageCache");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    // Start decoding the image at resource path, if it has not been already
+    private static Decoding decode(final String path) {
+        Decoding icon = icons.get(path);
+        if (icon == null) {
+            Decoding decoding = new Decoding(new Callable<ImageIcon>() {
+                @Override
+                public ImageIcon call() {
+                    return new ImageIcon(ImageCache.class.getResource(path));
+                }
+            });
+            icon = icons.putIfAbsent(path, decoding);
+            if (icon == null) {
+                icon = decoding;
+                decoder.execute(decoding);
+            }
+        }
+        return icon;
+    }
+
+    // The image at resource path, waiting for it if it is still being decoded
+    public static ImageIcon get(String path) {
+        try {
+            return decode(path).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("ImageCache: cannot load " + path);
+            System.err.println(e.getCause());
+            return null;
+        }
+    }
+
+    // Give label the image at resource path once it has been decoded, or
+    // no image if path is null.  Event-dispatching thread
+    public static void setIcon(final JLabel label, final String path) {
+        if (path == null) {
+            label.putClientProperty(REQUESTED, null);
+            label.setIcon(null);
+            return;
+        }
+        Decoding icon = decode(path);
+        label.putClientProperty(REQUESTED, path);
+        if (icon.isDone()) {
+            label.setIcon(get(path));
+            return;
+        }
+        icon.whenDone(new Runnable() {
+            @Override
+            public void run() {
+                final ImageIcon image = get(path);
+                SwingUtilities.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (path.equals(label.getClientProperty(REQUESTED))) {
+                            label.setIcon(image);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static class Decoding extends FutureTask<ImageIcon> {
+
+        private List<Runnable> waiting = new ArrayList<>();
+
+        Decoding(Callable<ImageIcon> decode) {
+            super(decode);
+        }
+
+        // Run r on the decoding thread when the image is ready, or now if it is
+        void whenDone(Runnable r) {
+            synchronized (this) {
+                if ((waiting != null) && !isDone()) {
+                    waiting.add(r);
+                    return;
+                }
+            }
+            r.run();
+        }
+
+        @Override
+        protected void done() {
+            List<Runnable> ready;
+            synchronized (this) {
+                ready = waiting;
+                waiting = null;
+            }
+            for (Runnable r : ready) {
+                r.run();
+            }
+        }
+    }
+
+}
@@ -4,13 +4,23 @@ import javax.swing.JPanel;
 
 public abstract class ImagePanel extends JPanel {
 
+    // The illustrations are shown while the simulation is starting, before
+    // there is a parameter table to act on
+    private static boolean hasParameterTable() {
+	return (CVSim.gui != null) && (CVSim.gui.parameterPanel != null);
+    }
+
     public void highlightParameterTable(String category) {
+	if ( !hasParameterTable() )
+	    return;
 	if ( !(CVSim.gui.parameterPanel.getHighlightingOff()) ) 
 	    if ( !(CVSim.gui.parameterPanel.categoryComboBox.getSelectedItem().equals(category)) )
 		CVSim.gui.parameterPanel.recenterTable(CVSim.gui.parameterPanel.model.updateHighlightList(category));
     }
 
     public void filterParameterTable(String category) {
+	if ( !hasParameterTable() )
+	    return;
 	CVSim.gui.parameterPanel.categoryComboBox.setSelectedItem(category);
 	CVSim.gui.parameterPanel.typeComboBox.setSelectedItem("ALL");
 	CVSim.gui.parameterPanel.model.updateHighlightList(null);
@@ -4,7 +4,6 @@ import java.awt.Color;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import javax.swing.GroupLayout;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
@@ -136,7 +135,7 @@ public class ImagePanel21C extends ImagePanel {
         CircuitOverview = new JLabel();
 
         AnatomicalPanel.setBackground(new Color(255, 255, 255));
-        UBMicro.setIcon(new ImageIcon(getClass().getResource("/images21C/uppermicro.jpg")));
+        ImageCache.setIcon(UBMicro, "/images21C/uppermicro.jpg");
         UBMicro.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -158,7 +157,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 	
-        UBVeins.setIcon(new ImageIcon(getClass().getResource("/images21C/uppveins.jpg")));
+        ImageCache.setIcon(UBVeins, "/images21C/uppveins.jpg");
         UBVeins.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -180,9 +179,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel3.setIcon(new ImageIcon(getClass().getResource("/images21C/uppspace.jpg")));
+        ImageCache.setIcon(jLabel3, "/images21C/uppspace.jpg");
 
-        UBArtery.setIcon(new ImageIcon(getClass().getResource("/images21C/upperarteries.jpg")));
+        ImageCache.setIcon(UBArtery, "/images21C/upperarteries.jpg");
         UBArtery.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -204,7 +203,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        SVC.setIcon(new ImageIcon(getClass().getResource("/images21C/superiorVC.jpg")));
+        ImageCache.setIcon(SVC, "/images21C/superiorVC.jpg");
         SVC.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -226,7 +225,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        Pularteryd.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmarteryA.jpg")));
+        ImageCache.setIcon(Pularteryd, "/images21C/pulmarteryA.jpg");
         Pularteryd.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -248,7 +247,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        PulMcirc.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmicro.jpg")));
+        ImageCache.setIcon(PulMcirc, "/images21C/pulmicro.jpg");
         PulMcirc.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -270,9 +269,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 	
-        jLabel8.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmspace.jpg")));
+        ImageCache.setIcon(jLabel8, "/images21C/pulmspace.jpg");
 
-        Pulveinsa.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmvein.jpg")));
+        ImageCache.setIcon(Pulveinsa, "/images21C/pulmvein.jpg");
         Pulveinsa.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -294,7 +293,7 @@ public class ImagePanel21C extends ImagePanel {
 	 	}
 	    });
 
-        Brachioceph.setIcon(new ImageIcon(getClass().getResource("/images21C/brachiocephalicA.jpg")));
+        ImageCache.setIcon(Brachioceph, "/images21C/brachiocephalicA.jpg");
         Brachioceph.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -316,7 +315,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 	
-        Pularteryc.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmarteryB.jpg")));
+        ImageCache.setIcon(Pularteryc, "/images21C/pulmarteryB.jpg");
         Pularteryc.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -338,7 +337,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel13.setIcon(new ImageIcon(getClass().getResource("/images21C/leftheartA.jpg")));
+        ImageCache.setIcon(jLabel13, "/images21C/leftheartA.jpg");
         jLabel13.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -360,7 +359,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        Pulmarteryb.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmarteryC.jpg")));
+        ImageCache.setIcon(Pulmarteryb, "/images21C/pulmarteryC.jpg");
         Pulmarteryb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -382,7 +381,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        AscendingAb.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaorta.jpg")));
+        ImageCache.setIcon(AscendingAb, "/images21C/ascendingaorta.jpg");
         AscendingAb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -404,7 +403,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        Pulveinb.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmveinB.jpg")));
+        ImageCache.setIcon(Pulveinb, "/images21C/pulmveinB.jpg");
         Pulveinb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -426,7 +425,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        AscendingAc.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaortaB.jpg")));
+        ImageCache.setIcon(AscendingAc, "/images21C/ascendingaortaB.jpg");
         AscendingAc.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -448,7 +447,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        Brachiocepha.setIcon(new ImageIcon(getClass().getResource("/images21C/brachiocephalicB.jpg")));
+        ImageCache.setIcon(Brachiocepha, "/images21C/brachiocephalicB.jpg");
         Brachiocepha.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -470,7 +469,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        ThoracicAortab.setIcon(new ImageIcon(getClass().getResource("/images21C/thoracicaortaA.jpg")));
+        ImageCache.setIcon(ThoracicAortab, "/images21C/thoracicaortaA.jpg");
         ThoracicAortab.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -492,7 +491,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        IVCb.setIcon(new ImageIcon(getClass().getResource("/images21C/inferiorVCB.jpg")));
+        ImageCache.setIcon(IVCb, "/images21C/inferiorVCB.jpg");
         IVCb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -514,9 +513,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel21.setIcon(new ImageIcon(getClass().getResource("/images21C/leftheartspaceA.jpg")));
+        ImageCache.setIcon(jLabel21, "/images21C/leftheartspaceA.jpg");
 
-        SVCc.setIcon(new ImageIcon(getClass().getResource("/images21C/leftheartB.jpg")));
+        ImageCache.setIcon(SVCc, "/images21C/leftheartB.jpg");
         SVCc.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -538,7 +537,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        Pularterya.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmarteryD.jpg")));
+        ImageCache.setIcon(Pularterya, "/images21C/pulmarteryD.jpg");
         Pularterya.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -560,7 +559,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        AscendingA.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaortaC.jpg")));
+        ImageCache.setIcon(AscendingA, "/images21C/ascendingaortaC.jpg");
         AscendingA.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -582,7 +581,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        LTHeartb.setIcon(new ImageIcon(getClass().getResource("/images21C/rightheartA.jpg")));
+        ImageCache.setIcon(LTHeartb, "/images21C/rightheartA.jpg");
         LTHeartb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -604,7 +603,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        RTHeart.setIcon(new ImageIcon(getClass().getResource("/images21C/leftheartC.jpg")));
+        ImageCache.setIcon(RTHeart, "/images21C/leftheartC.jpg");
         RTHeart.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -626,7 +625,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        LTHeart.setIcon(new ImageIcon(getClass().getResource("/images21C/rightheartB.jpg")));
+        ImageCache.setIcon(LTHeart, "/images21C/rightheartB.jpg");
         LTHeart.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -648,9 +647,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel28.setIcon(new ImageIcon(getClass().getResource("/images21C/heartspace.jpg")));
+        ImageCache.setIcon(jLabel28, "/images21C/heartspace.jpg");
 
-        ThoracicAorta.setIcon(new ImageIcon(getClass().getResource("/images21C/thoracicaortaB.jpg")));
+        ImageCache.setIcon(ThoracicAorta, "/images21C/thoracicaortaB.jpg");
         ThoracicAorta.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -671,7 +670,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        abdomveins.setIcon(new ImageIcon(getClass().getResource("/images21C/abdominalveins.jpg")));
+        ImageCache.setIcon(abdomveins, "/images21C/abdominalveins.jpg");
         abdomveins.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -693,7 +692,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 	
-        splanchnicVeins.setIcon(new ImageIcon(getClass().getResource("/images21C/splanchnicveins.jpg")));
+        ImageCache.setIcon(splanchnicVeins, "/images21C/splanchnicveins.jpg");
         splanchnicVeins.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -715,7 +714,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        renalVeins.setIcon(new ImageIcon(getClass().getResource("/images21C/renalveins.jpg")));
+        ImageCache.setIcon(renalVeins, "/images21C/renalveins.jpg");
         renalVeins.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -737,7 +736,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        SplanchnicMicroa.setIcon(new ImageIcon(getClass().getResource("/images21C/spalchnicmicro.jpg")));
+        ImageCache.setIcon(SplanchnicMicroa, "/images21C/spalchnicmicro.jpg");
         SplanchnicMicroa.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -759,7 +758,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        SplanchnicMicrob.setIcon(new ImageIcon(getClass().getResource("/images21C/spalchnicmicroB.jpg")));
+        ImageCache.setIcon(SplanchnicMicrob, "/images21C/spalchnicmicroB.jpg");
         SplanchnicMicrob.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -781,7 +780,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        RenalMicroa.setIcon(new ImageIcon(getClass().getResource("/images21C/renalmicro.jpg")));
+        ImageCache.setIcon(RenalMicroa, "/images21C/renalmicro.jpg");
         RenalMicroa.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -803,7 +802,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        SplanchnicArteries.setIcon(new ImageIcon(getClass().getResource("/images21C/splanchnicartery.jpg")));
+        ImageCache.setIcon(SplanchnicArteries, "/images21C/splanchnicartery.jpg");
         SplanchnicArteries.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -825,7 +824,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        LBVeins.setIcon(new ImageIcon(getClass().getResource("/images21C/lowerbodyveins.jpg")));
+        ImageCache.setIcon(LBVeins, "/images21C/lowerbodyveins.jpg");
         LBVeins.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -847,9 +846,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel40.setIcon(new ImageIcon(getClass().getResource("/images21C/lbspabceA.jpg")));
+        ImageCache.setIcon(jLabel40, "/images21C/lbspabceA.jpg");
 
-        RenalMicrob.setIcon(new ImageIcon(getClass().getResource("/images21C/renalmicroB.jpg")));
+        ImageCache.setIcon(RenalMicrob, "/images21C/renalmicroB.jpg");
         RenalMicrob.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -871,9 +870,9 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel41.setIcon(new ImageIcon(getClass().getResource("/images21C/lbspabceB.jpg")));
+        ImageCache.setIcon(jLabel41, "/images21C/lbspabceB.jpg");
 
-        renalarteries.setIcon(new ImageIcon(getClass().getResource("/images21C/renalartery.jpg")));
+        ImageCache.setIcon(renalarteries, "/images21C/renalartery.jpg");
         renalarteries.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -895,7 +894,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        abdomaorta.setIcon(new ImageIcon(getClass().getResource("/images21C/abdominalaorta.jpg")));
+        ImageCache.setIcon(abdomaorta, "/images21C/abdominalaorta.jpg");
         abdomaorta.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -917,11 +916,11 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        jLabel43.setIcon(new ImageIcon(getClass().getResource("/images21C/lbspabceC.jpg")));
+        ImageCache.setIcon(jLabel43, "/images21C/lbspabceC.jpg");
 
-        jLabel44.setIcon(new ImageIcon(getClass().getResource("/images21C/lbspabceD.jpg")));
+        ImageCache.setIcon(jLabel44, "/images21C/lbspabceD.jpg");
 
-        LBarteries.setIcon(new ImageIcon(getClass().getResource("/images21C/lowerbodyartery.jpg")));
+        ImageCache.setIcon(LBarteries, "/images21C/lowerbodyartery.jpg");
         LBarteries.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -943,7 +942,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        LBMicro.setIcon(new ImageIcon(getClass().getResource("/images21C/lowerbodymicro.jpg")));
+        ImageCache.setIcon(LBMicro, "/images21C/lowerbodymicro.jpg");
         LBMicro.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -973,7 +972,7 @@ public class ImagePanel21C extends ImagePanel {
         descarea.setBorder(null);
         descpane.setViewportView(descarea);
 
-        SVCd.setIcon(new ImageIcon(getClass().getResource("/images21C/SVCb.jpg")));
+        ImageCache.setIcon(SVCd, "/images21C/SVCb.jpg");
         SVCd.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -995,7 +994,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        IVCa.setIcon(new ImageIcon(getClass().getResource("/images21C/IVCa.jpg")));
+        ImageCache.setIcon(IVCa, "/images21C/IVCa.jpg");
         IVCa.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -1017,7 +1016,7 @@ public class ImagePanel21C extends ImagePanel {
 		}
 	    });
 
-        SVCb.setIcon(new ImageIcon(getClass().getResource("/images21C/SVCa.jpg")));
+        ImageCache.setIcon(SVCb, "/images21C/SVCa.jpg");
         SVCb.addMouseListener(new MouseAdapter() {
                 @Override
 		public void mouseClicked(MouseEvent evt) {
@@ -1291,7 +1290,7 @@ public class ImagePanel21C extends ImagePanel {
         IllustrationTabs.addTab("Anatomical Overview", AnatomicalPanel);
 
         CircuitPanel.setBackground(new Color(255, 255, 255));
-        CircuitOverview.setIcon(new ImageIcon(getClass().getResource("/images21C/Circuit.gif")));
+        ImageCache.setIcon(CircuitOverview, "/images21C/Circuit.gif");
 
         GroupLayout CircuitPanelLayout = new GroupLayout(CircuitPanel);
         CircuitPanel.setLayout(CircuitPanelLayout);
@@ -1369,71 +1368,71 @@ public class ImagePanel21C extends ImagePanel {
     private void BrachiocephaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_BrachiocephaMouseEntered
         desctitle.setText("Brachiocephalic Arteries");
         descarea.setText("These vessels supply oxygenated blood to the upper body arteries.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/3.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/3.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_BrachiocephaMouseEntered
 
     private void SVCcMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SVCcMouseEntered
         desctitle.setText("Superior Vena Cava");
         descarea.setText("This intra-thoracic vein carries de-oxygenated blood from the upper body veins to the right atrium.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/5.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/5.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_SVCcMouseEntered
 
     private void ThoracicAortabMouseEntered(MouseEvent evt) {//GEN-FIRST:event_ThoracicAortabMouseEntered
         desctitle.setText("Thoracic Aorta:");
         descarea.setText("This section of the aorta is within the thorax and serves as a conduit of blood to the arteries of the viscera and lower extremities.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/6.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/6.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_ThoracicAortabMouseEntered
 
     private void PulveinbMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PulveinbMouseEntered
         desctitle.setText("Pulmonary Vein:");
         descarea.setText("The pulmonary veins deliver oxygenated blood to the left heart.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryveins.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryveins.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_PulveinbMouseEntered
 
     private void PulveinsaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PulveinsaMouseEntered
         desctitle.setText("Pulmonary Vein:");
         descarea.setText("The pulmonary veins deliver oxygenated blood to the left heart.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryveins.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryveins.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_PulveinsaMouseEntered
 
     private void PulMcircMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PulMcircMouseEntered
         desctitle.setText("Pulmonary Microcirculation:");
         descarea.setText("In the pulmonary microcirculation oxygen exchange takes place across the membranes separating pulmonary alveoli from the pulmonary capillary network. The pulmonary microcirculation thus receives de-oxygenated blood from the pulmonary arteries and returns oxygenated blood to the pulmonary veins.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyrightde.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyrightde.jpg");
     }//GEN-LAST:event_PulMcircMouseEntered
 
     private void PularterydMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PularterydMouseEntered
         desctitle.setText("Pulmonary Artery:");
         descarea.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryartery.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryartery.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_PularterydMouseEntered
 
     private void PularterycMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PularterycMouseEntered
         desctitle.setText("Pulmonary Artery:");
         descarea.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryartery.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryartery.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_PularterycMouseEntered
 
     private void PulmarterybMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PulmarterybMouseEntered
         desctitle.setText("Pulmonary Artery:");
         descarea.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryartery.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryartery.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_PulmarterybMouseEntered
 
     private void PularteryaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_PularteryaMouseEntered
         desctitle.setText("Pulmonary Artery:");
         descarea.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/pulmonaryartery.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/pulmonaryartery.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_PularteryaMouseEntered
 
     private void jLabel13MouseExited(MouseEvent evt) {//GEN-FIRST:event_jLabel13MouseExited
@@ -1443,8 +1442,8 @@ public class ImagePanel21C extends ImagePanel {
     private void jLabel13MouseEntered(MouseEvent evt) {//GEN-FIRST:event_jLabel13MouseEntered
         desctitle.setText("Superior Vena Cava");
         descarea.setText("The systemic upper body arteries carry oxygenated blood from the left heart to the upper body microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/5.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/5.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_jLabel13MouseEntered
 
     private void AscendingAMouseExited(MouseEvent evt) {//GEN-FIRST:event_AscendingAMouseExited
@@ -1454,8 +1453,8 @@ public class ImagePanel21C extends ImagePanel {
     private void AscendingAMouseEntered(MouseEvent evt) {//GEN-FIRST:event_AscendingAMouseEntered
         desctitle.setText("Ascending Aorta:");
         descarea.setText("The ascending aorta receives oxygenated blood directly from the left ventricle and delivers it to the major branches of the systemic arterial system.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaorta.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/ascendingaorta.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_AscendingAMouseEntered
 
     private void SVCbMouseExited(MouseEvent evt) {//GEN-FIRST:event_SVCbMouseExited
@@ -1465,8 +1464,8 @@ public class ImagePanel21C extends ImagePanel {
     private void SVCbMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SVCbMouseEntered
         desctitle.setText("Superior Vena Cava");
         descarea.setText("This intra-thoracic vein carries de-oxygenated blood from the upper body veins to the right atrium.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/5.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/5.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_SVCbMouseEntered
 
     private void SVCdMouseExited(MouseEvent evt) {//GEN-FIRST:event_SVCdMouseExited
@@ -1476,8 +1475,8 @@ public class ImagePanel21C extends ImagePanel {
     private void SVCdMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SVCdMouseEntered
         desctitle.setText("Superior Vena Cava");
         descarea.setText("This intra-thoracic vein carries de-oxygenated blood from the upper body veins to the right atrium.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/5.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/5.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_SVCdMouseEntered
 
     private void IVCaMouseExited(MouseEvent evt) {//GEN-FIRST:event_IVCaMouseExited
@@ -1487,8 +1486,8 @@ public class ImagePanel21C extends ImagePanel {
     private void IVCaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_IVCaMouseEntered
         desctitle.setText("Inferior Vena Cava:");
         descarea.setText("Delivers de-oxygenated blood from the abdominal inferior vena cava to the hearts right atrium");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/15.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/15.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_IVCaMouseEntered
 
     private void RenalMicrobMouseExited(MouseEvent evt) {//GEN-FIRST:event_RenalMicrobMouseExited
@@ -1510,29 +1509,29 @@ public class ImagePanel21C extends ImagePanel {
     private void RenalMicrobMouseEntered(MouseEvent evt) {//GEN-FIRST:event_RenalMicrobMouseEntered
         desctitle.setText("Renal Microcirculation:");
         descarea.setText("The renal microcirculation represents the arterioles and capillary networks of the kidneys.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_RenalMicrobMouseEntered
 
     private void RenalMicroaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_RenalMicroaMouseEntered
         desctitle.setText("Renal Microcirculation:");
         descarea.setText("The renal microcirculation represents the arterioles and capillary networks of the kidneys.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_RenalMicroaMouseEntered
 
     private void SplanchnicMicrobMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SplanchnicMicrobMouseEntered
         desctitle.setText("Splanchnic Microcirculation:");
         descarea.setText("The splanchnic microcirculation represents the arterioles and capillary networks of the abdominal viscera. ");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_SplanchnicMicrobMouseEntered
 
     private void SplanchnicMicroaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SplanchnicMicroaMouseEntered
         desctitle.setText("Splanchnic Microcirculation:");
         descarea.setText("The splanchnic microcirculation represents the arterioles and capillary networks of the abdominal viscera. ");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_SplanchnicMicroaMouseEntered
 
     private void RTHeartMouseExited(MouseEvent evt) {//GEN-FIRST:event_RTHeartMouseExited
@@ -1542,8 +1541,8 @@ public class ImagePanel21C extends ImagePanel {
     private void RTHeartMouseEntered(MouseEvent evt) {//GEN-FIRST:event_RTHeartMouseEntered
         desctitle.setText("Right Heart:");
         descarea.setText("During diastole, the right heart receives de-oxygenated blood from the superior and inferior vena cavae; during systole, it generates the required pressure to propel the blood into the pulmonary arteries. The right heart is comprised of the right atrium and the right ventricle.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/heart.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/heart.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_RTHeartMouseEntered
 
     private void LTHeartbMouseExited(MouseEvent evt) {//GEN-FIRST:event_LTHeartbMouseExited
@@ -1553,8 +1552,8 @@ public class ImagePanel21C extends ImagePanel {
     private void LTHeartbMouseEntered(MouseEvent evt) {//GEN-FIRST:event_LTHeartbMouseEntered
         desctitle.setText("Left Heart:");
         descarea.setText("During diastole, the left heart receives oxygenated blood from the pulmonary veins; during systole, it generates the required pressure to propel the blood into the ascending aorta. The left heart is comprised of the left atrium and the left ventricle.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/heart.gif")));
-         flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/heart.gif");
+         ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_LTHeartbMouseEntered
 
     private void LTHeartMouseExited(MouseEvent evt) {//GEN-FIRST:event_LTHeartMouseExited
@@ -1564,8 +1563,8 @@ public class ImagePanel21C extends ImagePanel {
     private void LTHeartMouseEntered(MouseEvent evt) {//GEN-FIRST:event_LTHeartMouseEntered
         desctitle.setText("Left Heart:");
         descarea.setText("During diastole, the left heart receives oxygenated blood from the pulmonary veins; during systole, it generates the required pressure to propel the blood into the ascending aorta. The left heart is comprised of the left atrium and the left ventricle.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/heart.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/heart.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_LTHeartMouseEntered
 
     private void AscendingAcMouseExited(MouseEvent evt) {//GEN-FIRST:event_AscendingAcMouseExited
@@ -1575,8 +1574,8 @@ public class ImagePanel21C extends ImagePanel {
     private void AscendingAcMouseEntered(MouseEvent evt) {//GEN-FIRST:event_AscendingAcMouseEntered
         desctitle.setText("Ascending Aorta:");
         descarea.setText("The ascending aorta receives oxygenated blood directly form the left ventricle and delivers it to the major branches of the systemic arterial system.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaorta.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/ascendingaorta.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_AscendingAcMouseEntered
 
     private void AscendingAbMouseExited(MouseEvent evt) {//GEN-FIRST:event_AscendingAbMouseExited
@@ -1586,8 +1585,8 @@ public class ImagePanel21C extends ImagePanel {
     private void AscendingAbMouseEntered(MouseEvent evt) {//GEN-FIRST:event_AscendingAbMouseEntered
         desctitle.setText("Ascending Aorta:");
         descarea.setText("The ascending aorta receives oxygenated blood directly from the left ventricle and delivers it to the major branches of the systemic arterial system.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/ascendingaorta.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/ascendingaorta.gif");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_AscendingAbMouseEntered
 
     private void splanchnicVeinsMouseExited(MouseEvent evt) {//GEN-FIRST:event_splanchnicVeinsMouseExited
@@ -1597,8 +1596,8 @@ public class ImagePanel21C extends ImagePanel {
     private void splanchnicVeinsMouseEntered(MouseEvent evt) {//GEN-FIRST:event_splanchnicVeinsMouseEntered
         desctitle.setText("Splanchnic Veins:");
         descarea.setText("Returns de-oxygenated blood from the intra-abdominal viscera to the abdominal inferior vena cava.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/911.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/911.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyleft.jpg");
     }//GEN-LAST:event_splanchnicVeinsMouseEntered
 
     private void SplanchnicArteriesMouseExited(MouseEvent evt) {//GEN-FIRST:event_SplanchnicArteriesMouseExited
@@ -1608,8 +1607,8 @@ public class ImagePanel21C extends ImagePanel {
     private void SplanchnicArteriesMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SplanchnicArteriesMouseEntered
         desctitle.setText("Splanchnic Arteries:");
         descarea.setText("Branching off the abdominal aorta, the splanchnic arteries supply oxygenated blood to the internal abdominal viscera, including the GI tract, liver, spleen and pancreas.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/810.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/810.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_SplanchnicArteriesMouseEntered
 
     private void renalVeinsMouseExited(MouseEvent evt) {//GEN-FIRST:event_renalVeinsMouseExited
@@ -1619,8 +1618,8 @@ public class ImagePanel21C extends ImagePanel {
     private void renalVeinsMouseEntered(MouseEvent evt) {//GEN-FIRST:event_renalVeinsMouseEntered
         desctitle.setText("Renal Veins:");
         descarea.setText("Return de-oxygenated blood from the kidneys to the abdominal vein.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/911.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/911.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyleft.jpg");
     }//GEN-LAST:event_renalVeinsMouseEntered
 
     private void renalarteriesMouseExited(MouseEvent evt) {//GEN-FIRST:event_renalarteriesMouseExited
@@ -1630,8 +1629,8 @@ public class ImagePanel21C extends ImagePanel {
     private void renalarteriesMouseEntered(MouseEvent evt) {//GEN-FIRST:event_renalarteriesMouseEntered
         desctitle.setText("Renal Artery:");
         descarea.setText("Branching off the abdominal aorta, the renal artery supplies oxygenated blood to the kidneys.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/810.jpg")));
-         flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/810.jpg");
+         ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_renalarteriesMouseEntered
 
     private void IVCbMouseExited(MouseEvent evt) {//GEN-FIRST:event_IVCbMouseExited
@@ -1641,8 +1640,8 @@ public class ImagePanel21C extends ImagePanel {
     private void IVCbMouseEntered(MouseEvent evt) {//GEN-FIRST:event_IVCbMouseEntered
         desctitle.setText("Inferior Vena Cava:");
         descarea.setText("Delivers de-oxygenated blood from the abdominal inferior vena cava to the hearts right atrium");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/15.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/15.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_IVCbMouseEntered
 
     private void ThoracicAortaMouseExited(MouseEvent evt) {//GEN-FIRST:event_ThoracicAortaMouseExited
@@ -1652,8 +1651,8 @@ public class ImagePanel21C extends ImagePanel {
     private void ThoracicAortaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_ThoracicAortaMouseEntered
         desctitle.setText("Thoracic Aorta:");
         descarea.setText("This section of the aorta is within the thorax and serves as a conduit of blood to the arteries of the viscera and lower extremities.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/6.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/6.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_ThoracicAortaMouseEntered
 
     private void abdomveinsMouseExited(MouseEvent evt) {//GEN-FIRST:event_abdomveinsMouseExited
@@ -1663,8 +1662,8 @@ public class ImagePanel21C extends ImagePanel {
     private void abdomveinsMouseEntered(MouseEvent evt) {//GEN-FIRST:event_abdomveinsMouseEntered
         desctitle.setText("Abdominal Veins:");
         descarea.setText("The abdominal portion of the inferior vena cava that returns de-oxygenated blood from the abdominal viscera and lower body circulation to the thoracic portion of inferior vena cava. ");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/14.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/14.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_abdomveinsMouseEntered
 
     private void abdomaortaMouseExited(MouseEvent evt) {//GEN-FIRST:event_abdomaortaMouseExited
@@ -1674,8 +1673,8 @@ public class ImagePanel21C extends ImagePanel {
     private void abdomaortaMouseEntered(MouseEvent evt) {//GEN-FIRST:event_abdomaortaMouseEntered
         desctitle.setText("Abdominal Aorta:");
         descarea.setText("A continuation of the thoracic aorta, the abdominal aorta carries oxygenated blood to the splanchnic, renal, and lower body arterial branches.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/7.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/7.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyright.jpg");
     }//GEN-LAST:event_abdomaortaMouseEntered
 
     private void SVCMouseExited(MouseEvent evt) {//GEN-FIRST:event_SVCMouseExited
@@ -1685,8 +1684,8 @@ public class ImagePanel21C extends ImagePanel {
     private void SVCMouseEntered(MouseEvent evt) {//GEN-FIRST:event_SVCMouseEntered
         desctitle.setText("Superior Vena Cava");
         descarea.setText("This intra-thoracic vein carries de-oxygenated blood from the upper body veins to the right atrium.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/5.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyright.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/5.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyright.jpg");
     }//GEN-LAST:event_SVCMouseEntered
 
     private void BrachiocephMouseExited(MouseEvent evt) {//GEN-FIRST:event_BrachiocephMouseExited
@@ -1696,8 +1695,8 @@ public class ImagePanel21C extends ImagePanel {
     private void BrachiocephMouseEntered(MouseEvent evt) {//GEN-FIRST:event_BrachiocephMouseEntered
         desctitle.setText("Brachiocephalic Arteries:");
         descarea.setText("These vessels supply oxygenated blood to the upper body arteries.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/2.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/2.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_BrachiocephMouseEntered
 
     private void LBVeinsMouseExited(MouseEvent evt) {//GEN-FIRST:event_LBVeinsMouseExited
@@ -1707,8 +1706,8 @@ public class ImagePanel21C extends ImagePanel {
     private void LBVeinsMouseEntered(MouseEvent evt) {//GEN-FIRST:event_LBVeinsMouseEntered
         desctitle.setText("Lower Body Veins:");
         descarea.setText("The lower body veins return de-oxygenated blood to the abdominal inferior vena cava.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/13.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/13.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyleft.jpg");
     }//GEN-LAST:event_LBVeinsMouseEntered
 
     private void LBarteriesMouseExited(MouseEvent evt) {//GEN-FIRST:event_LBarteriesMouseExited
@@ -1718,8 +1717,8 @@ public class ImagePanel21C extends ImagePanel {
     private void LBarteriesMouseEntered(MouseEvent evt) {//GEN-FIRST:event_LBarteriesMouseEntered
         desctitle.setText("Lower Body Arteries:");
         descarea.setText("The lower body arteries carry oxygenated blood from the abdominal aorta to the lower body microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/12.jpg")));
-         flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/12.jpg");
+         ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_LBarteriesMouseEntered
 
     private void LBMicroMouseExited(MouseEvent evt) {//GEN-FIRST:event_LBMicroMouseExited
@@ -1729,8 +1728,8 @@ public class ImagePanel21C extends ImagePanel {
     private void LBMicroMouseEntered(MouseEvent evt) {//GEN-FIRST:event_LBMicroMouseEntered
         desctitle.setText("Lower Body Microcirculation:");
         descarea.setText("The lower body microcirculation represents the arterioles and capillary network of all blood vessels in the lower body. It receives oxygenated blood from the systemic lower body arteries and returns de-oxygenated blood to the systemic lower body veins.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-         flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+         ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_LBMicroMouseEntered
 
     private void UBVeinsMouseExited(MouseEvent evt) {//GEN-FIRST:event_UBVeinsMouseExited
@@ -1740,14 +1739,14 @@ public class ImagePanel21C extends ImagePanel {
     private void UBVeinsMouseEntered(MouseEvent evt) {//GEN-FIRST:event_UBVeinsMouseEntered
         desctitle.setText("Upper Body Veins:");
         descarea.setText("The upper body veins receive de-oxygenated blood from the upper body capillary networks and pass it to the superior vena cava.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/4.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/4.jpg");
+        ImageCache.setIcon(flow, "/images21C/deoxyleft.jpg");
     }//GEN-LAST:event_UBVeinsMouseEntered
 
     private void resetUIfunctions(){
         descarea.setText(null);
-        circuitimage.setIcon(null);
-        flow.setIcon(null);
+        ImageCache.setIcon(circuitimage, null);
+        ImageCache.setIcon(flow, null);
     }
     
     private void UBArteryMouseExited(MouseEvent evt) {//GEN-FIRST:event_UBArteryMouseExited
@@ -1757,8 +1756,8 @@ public class ImagePanel21C extends ImagePanel {
     private void UBArteryMouseEntered(MouseEvent evt) {//GEN-FIRST:event_UBArteryMouseEntered
         desctitle.setText("Upper Body Arteries:");
         descarea.setText("The upper body arteries carry oxygenated blood from the aortic branches to the upper body microcirculation.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/3.jpg")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/oxyleft.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/3.jpg");
+        ImageCache.setIcon(flow, "/images21C/oxyleft.jpg");
     }//GEN-LAST:event_UBArteryMouseEntered
 
     private void UBMicroMouseExited(MouseEvent evt) {//GEN-FIRST:event_UBMicroMouseExited
@@ -1768,8 +1767,8 @@ public class ImagePanel21C extends ImagePanel {
     private void UBMicroMouseEntered(MouseEvent evt) {//GEN-FIRST:event_UBMicroMouseEntered
         desctitle.setText("Upper Body Microcirculation:");
         descarea.setText("The upper body microcirculation represents the arterioles and capillary networks of all blood vessels in the upper body. It receives oxygenated blood from the upper body arteries and returns de-oxygenated blood to the upper body veins.");
-        circuitimage.setIcon(new ImageIcon(getClass().getResource("/images21C/Resistor.gif")));
-        flow.setIcon(new ImageIcon(getClass().getResource("/images21C/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(circuitimage, "/images21C/Resistor.gif");
+        ImageCache.setIcon(flow, "/images21C/deoxyleftoxy.jpg");
     }//GEN-LAST:event_UBMicroMouseEntered
     
    
@@ -74,11 +74,11 @@ public class ImagePanel6C extends ImagePanel {
         anatomicpanel.setBackground(new java.awt.Color(255, 255, 255));
         anatomicpanel.setMaximumSize(new java.awt.Dimension(600, 520));
         anatomicpanel.setPreferredSize(new java.awt.Dimension(590, 515));
-        rlung1.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/1.jpg")));
+        ImageCache.setIcon(rlung1, "/images6C/1.jpg");
 
-        toplung.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/2.jpg")));
+        ImageCache.setIcon(toplung, "/images6C/2.jpg");
 
-        pulartery.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/3.jpg")));
+        ImageCache.setIcon(pulartery, "/images6C/3.jpg");
         pulartery.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -95,7 +95,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        pulmicro.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/4.jpg")));
+        ImageCache.setIcon(pulmicro, "/images6C/4.jpg");
         pulmicro.addMouseListener(new java.awt.event.MouseAdapter() {
                     @Override
             	public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -112,9 +112,9 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        pulspace.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/5.jpg")));
+        ImageCache.setIcon(pulspace, "/images6C/5.jpg");
 
-        periphveins.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/8.jpg")));
+        ImageCache.setIcon(periphveins, "/images6C/8.jpg");
         periphveins.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -131,7 +131,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        periphveins2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/9.jpg")));
+        ImageCache.setIcon(periphveins2, "/images6C/9.jpg");
         periphveins2.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -148,7 +148,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        pulartey2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/10a.jpg")));
+        ImageCache.setIcon(pulartey2, "/images6C/10a.jpg");
         pulartey2.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -165,7 +165,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        periphviens3.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/10d.jpg")));
+        ImageCache.setIcon(periphviens3, "/images6C/10d.jpg");
         periphviens3.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -182,7 +182,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        pulartery3.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/10c.jpg")));
+        ImageCache.setIcon(pulartery3, "/images6C/10c.jpg");
         pulartery3.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -199,9 +199,9 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        hspace.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/11.jpg")));
+        ImageCache.setIcon(hspace, "/images6C/11.jpg");
 
-        periphartey1.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/5new.jpg")));
+        ImageCache.setIcon(periphartey1, "/images6C/5new.jpg");
         periphartey1.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -218,7 +218,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        rightheart.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/13.jpg")));
+        ImageCache.setIcon(rightheart, "/images6C/13.jpg");
         rightheart.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -235,7 +235,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        pulveins.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/6.jpg")));
+        ImageCache.setIcon(pulveins, "/images6C/6.jpg");
         pulveins.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -252,7 +252,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        leftheart.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/14.jpg")));
+        ImageCache.setIcon(leftheart, "/images6C/14.jpg");
         leftheart.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -269,11 +269,11 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        hspace2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/17.jpg")));
+        ImageCache.setIcon(hspace2, "/images6C/17.jpg");
 
-        llung.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/15.jpg")));
+        ImageCache.setIcon(llung, "/images6C/15.jpg");
 
-        periphartery2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/16.jpg")));
+        ImageCache.setIcon(periphartery2, "/images6C/16.jpg");
         periphartery2.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -290,7 +290,7 @@ public class ImagePanel6C extends ImagePanel {
 		}
 	    });
 
-        periphmicro.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/18.jpg")));
+        ImageCache.setIcon(periphmicro, "/images6C/18.jpg");
         periphmicro.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
 		public void mouseClicked(java.awt.event.MouseEvent evt) {
@@ -460,7 +460,7 @@ public class ImagePanel6C extends ImagePanel {
         GraphicsTab.addTab("Anatomical Overview", anatomicpanel);
 
         circuitpanel.setBackground(new java.awt.Color(255, 255, 255));
-        circuitmodel.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/cvsim_35.gif")));
+        ImageCache.setIcon(circuitmodel, "/images6C/circuits/cvsim_35.gif");
 
         GroupLayout circuitpanelLayout = new GroupLayout(circuitpanel);
         circuitpanel.setLayout(circuitpanelLayout);
@@ -495,249 +495,249 @@ public class ImagePanel6C extends ImagePanel {
     } // end constructor
     
     private void pulmicroMouseExited(java.awt.event.MouseEvent evt) {                                     
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                    
 
     private void periphveins2MouseExited(java.awt.event.MouseEvent evt) {                                         
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                        
 
     private void periphartey1MouseExited(java.awt.event.MouseEvent evt) {                                         
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                        
 
     private void periphmicroMouseExited(java.awt.event.MouseEvent evt) {                                        
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         desc.setText(null);
         circtitle.setText(null);
-        flowright.setIcon(null);
-        flowleft.setIcon(null);
+        ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                       
 
     private void periphartery2MouseExited(java.awt.event.MouseEvent evt) {                                          
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                         
 
     private void pulveinsMouseExited(java.awt.event.MouseEvent evt) {                                     
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                    
 
     private void periphviens3MouseExited(java.awt.event.MouseEvent evt) {                                         
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                        
 
     private void pulartery3MouseExited(java.awt.event.MouseEvent evt) {                                       
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                      
 
     private void pulartey2MouseExited(java.awt.event.MouseEvent evt) {                                      
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         desc.setText(null);
         circtitle.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                     
 
     private void pularteryMouseExited(java.awt.event.MouseEvent evt) {                                      
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         desc.setText(null);
         circtitle.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                     
 
     private void periphveinsMouseExited(java.awt.event.MouseEvent evt) {                                        
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         circtitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                       
 
     private void rightheartMouseExited(java.awt.event.MouseEvent evt) {                                       
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         circtitle.setText(null);
         desctitle.setText(null);
         desc.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                      
 
     private void leftheartMouseExited(java.awt.event.MouseEvent evt) {                                      
-        circuit.setIcon(null);
+        ImageCache.setIcon(circuit, null);
         desctitle.setText(null);
         desc.setText(null);
         circtitle.setText(null);
-         flowright.setIcon(null);
-        flowleft.setIcon(null);
+         ImageCache.setIcon(flowright, null);
+        ImageCache.setIcon(flowleft, null);
         flow.setText(null);
     }                                     
 
     private void pulveinsMouseEntered(java.awt.event.MouseEvent evt) {                                      
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pulV.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pulV.gif");
         desctitle.setText("Pulmonary Veins");
         desc.setText("The pulmonary veins deliver oxygenated blood to the left heart.");
         circtitle.setText("Circuit Representation");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/oxyright.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/oxyright.jpg");
         flow.setText("Blood Flow");
     }                                     
 
     private void pulmicroMouseEntered(java.awt.event.MouseEvent evt) {                                      
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/resistor.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/resistor.gif");
         desctitle.setText("Pulmonary Microcirculation");
         circtitle.setText("Circuit Representation");
         desc.setText("In the pulmonary microcirculation oxygen exchange takes place across the membrane separating pulmonary alveoli from the pulmonary capillary network. The pulmonary microcirculation thus receives de-oxygenated blood from the pulmonary arteries and returns oxygenated blood to the pulmonary veins.");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/oxyrightde.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/oxyrightde.jpg");
         flow.setText("Blood Flow");
     }                                     
 
     private void pularteryMouseEntered(java.awt.event.MouseEvent evt) {                                       
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pulC.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pulC.gif");
         desctitle.setText("Pulmonary Arteries");
         circtitle.setText("Circuit Representation");
         desc.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-         flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyright.jpg")));
+         ImageCache.setIcon(flowright, "/images6C/circuits/deoxyright.jpg");
         flow.setText("Blood Flow");
     }                                      
 
     private void pulartey2MouseEntered(java.awt.event.MouseEvent evt) {                                       
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pulC.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pulC.gif");
         desctitle.setText("Pulmonary Arteries");
         circtitle.setText("Circuit Representation");
         desc.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyright.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/deoxyright.jpg");
         flow.setText("Blood Flow");
     }                                      
 
     private void pulartery3MouseEntered(java.awt.event.MouseEvent evt) {                                        
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pulC.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pulC.gif");
         desctitle.setText("Pulmonary Arteries");
         circtitle.setText("Circuit Representation");
         desc.setText("The pulmonary arteries carry de-oxygenated blood from the right heart to the pulmonary microcirculation.");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyright.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/deoxyright.jpg");
         flow.setText("Blood Flow");
     }                                       
 
     private void leftheartMouseEntered(java.awt.event.MouseEvent evt) {                                       
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/leftheart.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/leftheart.gif");
         desctitle.setText("Left Heart");
         circtitle.setText("Circuit Representation");
         desc.setText("During diastole, the left heart receives oxygenated blood from the pulmonary veins; during systole, it generates the required pressure to propel the blood into the systemic arteries.");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/oxyright.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/oxyright.jpg");
         flow.setText("Blood Flow");
     }                                      
 
     private void rightheartMouseEntered(java.awt.event.MouseEvent evt) {                                        
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/rightheart.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/rightheart.gif");
         desctitle.setText("Right Heart");
         circtitle.setText("Circuit Representation");
         desc.setText("During diastole, the right heart receives de-oxygenated blood from the systemic veins; during systole, it generates the required pressure to propel the blood into the pulmonary arteries.");
-        flowright.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyright.jpg")));
+        ImageCache.setIcon(flowright, "/images6C/circuits/deoxyright.jpg");
         flow.setText("Blood Flow");
     }                                       
 
     private void periphmicroMouseEntered(java.awt.event.MouseEvent evt) {                                         
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/resistor.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/resistor.gif");
         desctitle.setText("Systemic Microcirculation");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic microcirculation represents the capillary network of all end-organs in the body with the exception of the lung. It receives oxygenated blood from the systemic arteries and returns de-oxygenated blood to the systemic veins.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyleftoxy.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/deoxyleftoxy.jpg");
         flow.setText("Blood Flow");
     }                                        
 
     private void periphartery2MouseEntered(java.awt.event.MouseEvent evt) {                                           
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pcapacitor.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pcapacitor.gif");
         desctitle.setText("Systemic Arteries");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic arteries carry oxygenated blood from the left heart to the systemic microcirculation.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/oxyleft.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/oxyleft.jpg");
         flow.setText("Blood Flow");
     }                                          
 
     private void periphartey1MouseEntered(java.awt.event.MouseEvent evt) {                                          
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pcapacitor.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pcapacitor.gif");
         desctitle.setText("Systemic Arteries");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic arteries carry oxygenated blood from the left heart to the systemic microcirculation.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/oxyleft.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/oxyleft.jpg");
         flow.setText("Blood Flow");
     }                                         
 
     private void periphviens3MouseEntered(java.awt.event.MouseEvent evt) {                                          
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pcapres.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pcapres.gif");
         desctitle.setText("Systemic Veins");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic veins return de-oxygenated blood to the right heart.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyleft.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/deoxyleft.jpg");
         flow.setText("Blood Flow");
     }                                         
 
     private void periphveins2MouseEntered(java.awt.event.MouseEvent evt) {                                          
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pcapres.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pcapres.gif");
         desctitle.setText("Systemic Veins");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic veins return de-oxygenated blood to the right heart.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyleft.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/deoxyleft.jpg");
         flow.setText("Blood Flow");
     }                                         
 
     private void periphveinsMouseEntered(java.awt.event.MouseEvent evt) {                                         
-        circuit.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/pcapres.gif")));
+        ImageCache.setIcon(circuit, "/images6C/circuits/pcapres.gif");
         desctitle.setText("Systemic Veins");
         circtitle.setText("Circuit Representation");
         desc.setText("The systemic veins return de-oxygenated blood to the right heart.");
-        flowleft.setIcon(new javax.swing.ImageIcon(getClass().getResource("/images6C/circuits/deoxyleft.jpg")));
+        ImageCache.setIcon(flowleft, "/images6C/circuits/deoxyleft.jpg");
         flow.setText("Blood Flow");
     }                                        
 
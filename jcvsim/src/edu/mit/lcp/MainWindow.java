@@ -5,6 +5,7 @@ import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import java.util.List;
+import java.lang.management.ManagementFactory;
 import javax.swing.BorderFactory; 
 import javax.swing.border.EtchedBorder; 
 import javax.swing.border.Border;
@@ -24,11 +25,13 @@ public class MainWindow {
     public List<View> XYPlotViews = new ArrayList<>();
     private List<Patient> patientList;
     public ControlToolBar toolbar;
+    public SessionMenu sessionMenu;
     ViewMap viewMap;
     TabWindow stripChartTabWindow;
     TabWindow XYPlotTabWindow;
     TiltTestFrame tiltTestFrame;
     private ImagePanel imagePanel;
+    private Dimension size;
    
     public MainWindow () {
 	frame = new JFrame(new JcvsimVersion().toString() +
@@ -39,11 +42,12 @@ public class MainWindow {
 
 
     /**
-     * Create the GUI and show it.  For thread safety,
-     * this method should be invoked from the
-     * event-dispatching thread.
+     * Show the main window straight away, with only the illustrations,
+     * while the simulation is still being set up.  The illustrations are
+     * decoded in the background (see ImageCache).  For thread safety,
+     * this method should be invoked from the event-dispatching thread.
      */
-    public void createAndShowGUI() {
+    public void showFrame() {
 	// window decorations.
  	try {
  	    UIManager.setLookAndFeel(
@@ -54,12 +58,34 @@ public class MainWindow {
 	int insets = 50;
 	frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 	Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-    	Dimension size = new Dimension(screenSize.width-insets*2, screenSize.height-insets*2);
+    	size = new Dimension(screenSize.width-insets*2, screenSize.height-insets*2);
 	frame.setBounds(insets, insets, size.width, size.height);
 	frame.setSize(size);
 
 	frame.addWindowListener(new FrameSynchListener());
 
+	if ( CVSim.getSimulationModelName().equals(CVSim.MODEL_6C) )
+	    imagePanel = new ImagePanel6C();
+	else
+	    imagePanel = new ImagePanel21C();
+
+	JLabel starting = new JLabel("Starting the " + CVSim.getSimulationModelName() + " model...",
+				     SwingConstants.CENTER);
+	JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, starting, new JScrollPane(imagePanel));
+        splitPane.setDividerLocation((int)(size.width*.45));
+	frame.setContentPane(splitPane);
+	frame.setVisible(true);
+	frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+	System.out.println("MainWindow: shown " + (System.currentTimeMillis()
+	    - ManagementFactory.getRuntimeMXBean().getStartTime()) + " ms after startup");
+    }
+
+    /**
+     * Fill in the rest of the GUI once the simulation exists.  For
+     * thread safety, this method should be invoked from the
+     * event-dispatching thread, after showFrame().
+     */
+    public void createAndShowGUI() {
 	// View map
 	viewMap = new ViewMap();
 
@@ -71,7 +97,7 @@ public class MainWindow {
 	stripChartViews.add(stripChartDefaultView);
 	viewMap.addView(1, stripChartDefaultView);
 	PlotPanelStripChart stripChartPlot = (PlotPanelStripChart)(stripChart.getPlot());
-	CVSim.sim.addChangeListener(stripChartPlot.sourceDataChanged); 	
+	CVSim.sim.addDisplayListener(stripChartPlot.sourceDataChanged); 	
 	stripChartPlot.createNewTrace(CVSim.sim.getOutputVariable("LVP"));
 
 	// Default XY plot
@@ -81,7 +107,7 @@ public class MainWindow {
 	XYPlotViews.add(plotDefaultView);
 	viewMap.addView(2, plotDefaultView);
 	PlotPanelXYChart parametricPlot = (PlotPanelXYChart)(parametric.getPlot());
-	CVSim.sim.addChangeListener(parametricPlot.sourceDataChanged); 
+	CVSim.sim.addDisplayListener(parametricPlot.sourceDataChanged); 
 	parametricPlot.createNewTrace(CVSim.sim.getOutputVariable("LVV"), CVSim.sim.getOutputVariable("LVP"));
 	
 	// Root window
@@ -116,10 +142,6 @@ public class MainWindow {
 //	JPanel logListPanel = new LogPanel();
 // 	optionsPanel = new OptionsPanel();
 
-	if ( CVSim.getSimulationModelName().equals(CVSim.MODEL_6C) )
-	    imagePanel = new ImagePanel6C();
-	else
-	    imagePanel = new ImagePanel21C();
 	imagePanel.setBorder(compoundBorder);
 	JScrollPane scrollPane = new JScrollPane(imagePanel);
  	// get scrollpane viewport
@@ -167,8 +189,7 @@ public class MainWindow {
 	contentPane.add(rootWindow, c);
 	
 	frame.setContentPane(contentPane);
-	frame.setVisible(true);
-	frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+	frame.validate();
     }
 
     // create menubar
@@ -181,6 +202,10 @@ public class MainWindow {
 	fileMenu.add(new ExitAction());
 	menuBar.add(toolbar.createSimulationMenu());
 
+	// session record/replay menu
+	sessionMenu = new SessionMenu();
+	menuBar.add(sessionMenu);
+
 	// plot menu
 	JMenu plotMenu = new JMenu("Plot");
 	menuBar.add(plotMenu);
@@ -196,7 +221,6 @@ public class MainWindow {
 
 	// experiment menu - only in 21C model
 	if ( CVSim.getSimulationModelName().equals(CVSim.MODEL_21C) ) {
-	    tiltTestFrame = new TiltTestFrame();
 	    JMenu experimentMenu = new JMenu("Experiments");
 	    menuBar.add(experimentMenu);
 	    experimentMenu.add(new PerformTiltTestAction());
@@ -235,6 +259,9 @@ public class MainWindow {
 	    putValue(Action.SHORT_DESCRIPTION, "Perform Tilt Test");
 	}
 	public void actionPerformed(ActionEvent e) {
+	    // built on first use, it is not needed at startup
+	    if (tiltTestFrame == null)
+		tiltTestFrame = new TiltTestFrame();
 	    tiltTestFrame.performTiltTest();
      	}
     }
@@ -251,7 +278,7 @@ public class MainWindow {
 	    stripChartViews.add(view);
 	    viewMap.addView(count, view);
 	    stripChartTabWindow.addTab(view);
- 	    CVSim.sim.addChangeListener(plotWindow.getPlot().sourceDataChanged);
+ 	    CVSim.sim.addDisplayListener(plotWindow.getPlot().sourceDataChanged);
 	}
     }
 
@@ -267,7 +294,7 @@ public class MainWindow {
 	    XYPlotViews.add(view);
 	    viewMap.addView(count, view);
 	    XYPlotTabWindow.addTab(view);
- 	    CVSim.sim.addChangeListener(plotWindow.getPlot().sourceDataChanged);
+ 	    CVSim.sim.addDisplayListener(plotWindow.getPlot().sourceDataChanged);
 	}
     }
 
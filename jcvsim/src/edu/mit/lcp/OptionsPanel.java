@@ -43,11 +43,8 @@ public class OptionsPanel extends JPanel {
     ChangeListener speedSliderListener = new ChangeListener() {
 	    public void stateChanged(ChangeEvent e) {
 		if (!_speedSlider.getValueIsAdjusting()) {
-		    long period = 10;
 		    int speed = (int)_speedSlider.getValue();
-		    int comp = (int)((double)(period*speed));	
-		    CVSim.sim.setDataCompressionFactor(comp);
-		    CVSim.simThread.setPeriod(period);
+		    CVSim.simThread.setRealTimeFactor(speed);
 		} 
 	    } 
 	}; 
@@ -9,27 +9,27 @@ import jcvsim.backend21compartment.Parameter_vector;
 
 public class Parameter21C extends Parameter {
 
-    private Parameter_vector paramVec;
+    private ParameterStore<PVName, Parameter_vector> store;
     PVName pvName;
 
-    public Parameter21C(Parameter_vector pvec, PVName parameterEnum,
+    public Parameter21C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum,
             int index, String category, String name, String units) {
-        this(pvec, parameterEnum, category, category, name, units);
+        this(pvStore, parameterEnum, category, category, name, units);
     }
 
-    public Parameter21C(Parameter_vector pvec, PVName parameterEnum,
+    public Parameter21C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum,
             String category, String type, String name, String units) {
         super(category, type, name, units);
-        paramVec = pvec;
+        store = pvStore;
         pvName = parameterEnum;
         setDefaultValue();
     }
 
-    public Parameter21C(Parameter_vector pvec, PVName parameterEnum,
+    public Parameter21C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum,
             String category, String type,
             String name, String units, double min, double max) {
         super(category, type, name, units, min, max);
-        paramVec = pvec;
+        store = pvStore;
         pvName = parameterEnum;
         setDefaultValue();
     }
@@ -107,88 +107,14 @@ public class Parameter21C extends Parameter {
             }
         }
 
-        // Parameter Updates
-        // Compliances inside the thorax
-        if (getName().equals("Brachiocephalic Arteries Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.BRACH_ART_COMPLIANCE, 1);
-        } else if (getName().equals("Superior Vena Cava Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.SVC_COMPLIANCE, 4);
-        } else if (getName().equals("Inferior Vena Cava Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.IVC_COMPLIANCE, 14);
-        } else if (getName().equals("Thoracic Aorta Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.THORACIC_AORTA_COMPLIANCE, 5);
-        } else if (getName().equals("Ascending Aorta Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.ASCENDING_AORTA_COMPLIANCE, 0);
-        } else if (getName().equals("Pulmonary Arterial Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.PULM_ART_COMPLIANCE, 17);
-        } else if (getName().equals("Pulmonary Venous Compliance")) {
-            Main.instance().updateComplianceInsideThorax(value, paramVec, PVName.PULM_VEN_COMPLIANCE, 18);
-        } // Compliances outside the thorax
-        else if (getName().equals("Abdominal Aorta Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.ABDOM_AORTA_COMPLIANCE, 6);
-        } else if (getName().equals("Abdominal Veins Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.ABDOM_VEN_COMPLIANCE, 13);
-        } else if (getName().equals("Lower Body Arteries Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.LBODY_ART_COMPLIANCE, 11);
-        } else if (getName().equals("Lower Body Veins Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.LBODY_VEN_COMPLIANCE, 12);
-        } else if (getName().equals("Renal Arteries Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.RENAL_ART_COMPLIANCE, 7);
-        } else if (getName().equals("Renal Veins Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.RENAL_VEN_COMPLIANCE, 8);
-        } else if (getName().equals("Splanchnic Arteries Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.SPLAN_ART_COMPLIANCE, 9);
-        } else if (getName().equals("Splanchnic Veins Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.SPLAN_VEN_COMPLIANCE, 10);
-        } else if (getName().equals("Upper Body Arteries Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.UBODY_ART_COMPLIANCE, 2);
-        } else if (getName().equals("Upper Body Veins Compliance")) {
-            Main.instance().updateComplianceOutsideThorax(value, paramVec, PVName.UBODY_VEN_COMPLIANCE, 3);
-        } // Total Blood Volume
-        else if (getName().equals("Total Blood Volume")) {
-            Main.instance().updateTotalBloodVolume(value, paramVec);
-        } // Intra-thoracic Pressure
-        else if (getName().equals("Intra-thoracic Pressure")) {
-            Main.instance().updateIntrathoracicPressure(value, paramVec);
-        } // Zero-Pressure Filling Volume
-        else if (getName().equals("Abdominal Aorta Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.ABDOM_AORTA_ZPFV, PVName.ABDOM_AORTA_COMPLIANCE, 6);
-        } else if (getName().equals("Abdominal Veins Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.ABDOM_VEN_ZPFV, PVName.ABDOM_VEN_COMPLIANCE, 13);
-        } else if (getName().equals("Ascending Aorta Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.ASCENDING_AORTA_VOLUME, PVName.ASCENDING_AORTA_COMPLIANCE, 0);
-        } else if (getName().equals("Brachiocephalic Arteries Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.BRACH_ART_ZPFV, PVName.BRACH_ART_COMPLIANCE, 1);
-        } else if (getName().equals("Inferior Vena Cava Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.IVC_ZPFV, PVName.IVC_COMPLIANCE, 14);
-        } else if (getName().equals("Lower Body Arteries Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.LBODY_ART_ZPFV, PVName.LBODY_ART_COMPLIANCE, 11);
-        } else if (getName().equals("Lower Body Veins Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.LBODY_VEN_ZPFV, PVName.LBODY_VEN_COMPLIANCE, 12);
-        } else if (getName().equals("Renal Arteries Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.RENAL_ART_ZPFV, PVName.RENAL_ART_COMPLIANCE, 7);
-        } else if (getName().equals("Renal Veins Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.RENAL_VEN_ZPFV, PVName.RENAL_VEN_COMPLIANCE, 8);
-        } else if (getName().equals("Splanchnic Arteries Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.SPLAN_ART_ZPFV, PVName.SPLAN_ART_COMPLIANCE, 9);
-        } else if (getName().equals("Splanchnic Veins Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.SPLAN_VEN_ZPFV, PVName.SPLAN_VEN_COMPLIANCE, 10);
-        } else if (getName().equals("Superior Vena Cava Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.SVC_ZPFV, PVName.SVC_COMPLIANCE, 4);
-        } else if (getName().equals("Thoracic Aorta Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.THORACIC_AORTA_ZPFV, PVName.THORACIC_AORTA_COMPLIANCE, 5);
-        } else if (getName().equals("Upper Body Arteries Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.UBODY_ART_ZPFV, PVName.UBODY_ART_COMPLIANCE, 2);
-        } else if (getName().equals("Upper Body Veins Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.UBODY_VEN_ZPFV, PVName.UBODY_VEN_COMPLIANCE, 3);
-        } else if (getName().equals("Pulmonary Arterial Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.PULM_ART_ZPFV, PVName.PULM_ART_COMPLIANCE, 17);
-        } else if (getName().equals("Pulmonary Venous Zero-Pressure Filling Volume")) {
-            Main.instance().updateZeroPressureFillingVolume(value, paramVec, PVName.PULN_VEN_ZPFV, PVName.PULM_VEN_COMPLIANCE, 18);
-        } // Everything else
-        else {
-            Main.instance().updateParameter(value, paramVec, pvName);
-        }
+        // The solver picks the change up at its next step boundary
+        final double newValue = value;
+        store.edit(pvName, value, new Runnable() {
+            @Override
+            public void run() {
+                update(newValue, store.getVector());
+            }
+        });
 
         firePropertyChange("VALUE", oldVal, value);
 
@@ -197,8 +123,14 @@ public class Parameter21C extends Parameter {
         System.out.println(str);
     }
 
+    // Apply a new value to the solver's parameter vector, along with the
+    // pressure changes that go with it
+    private void update(double value, Parameter_vector paramVec) {
+        Main.instance().update(value, paramVec, pvName);
+    }
+
     @Override
     public Double getValue() {
-        return paramVec.get(pvName);
+        return store.get(pvName);
     }
 }
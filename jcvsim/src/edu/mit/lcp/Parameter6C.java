@@ -9,28 +9,28 @@ import jcvsim.backend6compartment.Parameter_vector;
 
 public class Parameter6C extends Parameter {
 
-    private Parameter_vector paramVec;
+    private ParameterStore<PVName, Parameter_vector> store;
     PVName pvName;
 
-    public Parameter6C(Parameter_vector pvec, PVName parameterEnum,
+    public Parameter6C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum,
             String category, String name,
             String units) {
-        this(pvec, parameterEnum, category, category, name, units);
+        this(pvStore, parameterEnum, category, category, name, units);
     }
 
-    public Parameter6C(Parameter_vector pvec, PVName parameterEnum,
+    public Parameter6C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum,
             String category, String type,
             String name, String units) {
         super(category, type, name, units);
-        paramVec = pvec;
+        store = pvStore;
         pvName = parameterEnum;
         setDefaultValue();
     }
 
-    public Parameter6C(Parameter_vector pvec, PVName parameterEnum, String category, String type,
+    public Parameter6C(ParameterStore<PVName, Parameter_vector> pvStore, PVName parameterEnum, String category, String type,
             String name, String units, double min, double max) {
         super(category, type, name, units, min, max);
-        paramVec = pvec;
+        store = pvStore;
         pvName = parameterEnum;
         setDefaultValue();
     }
@@ -105,23 +105,14 @@ public class Parameter6C extends Parameter {
             }
         }
 
-        if (getName().equals("Pulmonary Arterial Compliance")) {
-            Main.instance().updatePulmonaryArterialCompliance(value, paramVec);
-        } else if (getName().equals("Pulmonary Venous Compliance")) {
-            Main.instance().updatePulmonaryVenousCompliance(value, paramVec);
-        } else if (getName().equals("Arterial Compliance")) {
-            Main.instance().updateArterialCompliance(value, paramVec);
-        } else if (getName().equals("Venous Compliance")) {
-            Main.instance().updateVenousCompliance(value, paramVec);
-        } else if (getName().equals("Total Blood Volume")) {
-            Main.instance().updateTotalBloodVolume(value, paramVec);
-        } else if (getName().equals("Intra-thoracic Pressure")) {
-            Main.instance().updateIntrathoracicPressure(value, paramVec);
-        } else if (getName().equals("Total Zero-Pressure Filling Volume")) {
-            Main.instance().updateTotalZeroPressureFillingVolume(value, paramVec);
-        } else {
-            Main.instance().updateParameter(value, paramVec, pvName);
-        }
+        // The solver picks the change up at its next step boundary
+        final double newValue = value;
+        store.edit(pvName, value, new Runnable() {
+            @Override
+            public void run() {
+                update(newValue, store.getVector());
+            }
+        });
 
         firePropertyChange("VALUE", oldVal, value);
 
@@ -131,8 +122,14 @@ public class Parameter6C extends Parameter {
 
     }
 
+    // Apply a new value to the solver's parameter vector, along with the
+    // pressure changes that go with it
+    private void update(double value, Parameter_vector paramVec) {
+        Main.instance().update(value, paramVec, pvName);
+    }
+
     @Override
     public Double getValue() {
-        return paramVec.get(pvName);
+        return store.get(pvName);
     }
 }
@@ -40,6 +40,9 @@ public class ParameterPanel extends JPanel {
     private JMenuItem saveMenuItem;
     private JButton resetButton;
     private JMenuItem resetMenuItem;
+    private JButton steadyStateButton;
+    private JMenuItem steadyStateMenuItem;
+    private JCheckBoxMenuItem steadyStateOnChangeMenuItem;
 
     // bottom toolbar
     private JButton clearHighlightingButton;
@@ -125,6 +128,19 @@ public class ParameterPanel extends JPanel {
         resetMenuItem.addActionListener(new ResetParametersAction(resetMenuItem, "Selected"));
         actionsMenu.add(resetMenuItem);
 
+        steadyStateButton = new JButton(new SteadyStateAction());
+        middleToolBar.add(steadyStateButton);
+        steadyStateMenuItem = new JMenuItem(new SteadyStateAction());
+        actionsMenu.add(steadyStateMenuItem);
+        steadyStateOnChangeMenuItem = new JCheckBoxMenuItem("Steady State on Every Change");
+        steadyStateOnChangeMenuItem.addItemListener(new ItemListener() {
+            @Override
+            public void itemStateChanged(ItemEvent e) {
+                CVSim.sim.setSettleOnChange(steadyStateOnChangeMenuItem.isSelected());
+            }
+        });
+        actionsMenu.add(steadyStateOnChangeMenuItem);
+
         // bottom toolbar 
         JToolBar bottomToolBar = new JToolBar();
         bottomToolBar.setFloatable(false);
@@ -330,6 +346,21 @@ public class ParameterPanel extends JPanel {
         }
     }
 
+    private class SteadyStateAction extends AbstractAction {
+
+        public SteadyStateAction() {
+            super("Steady State");
+            putValue(SHORT_DESCRIPTION, String.format(
+                    "Jump to the steady state of the current parameters; the time restarts at %.0f s",
+                    CSimulation.SETTLE_TIME));
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            CVSim.sim.settle();
+        }
+    }
+
     private class SelectAllParametersAction extends AbstractAction {
 
         private final Component pc;
@@ -0,0 +1,83 @@
+package edu.mit.lcp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Class ParameterStore owns a simulation's parameter vector and hands
+// parameter edits from the GUI to the simulation thread.
+//
+// The solver has the vector to itself.  An edit does not touch it;
+// instead the edit is queued, and applyEdits() runs the queue at the
+// start of the next step, so every step sees one consistent set of
+// parameters.  At the same time the edit publishes a new copy-on-write
+// snapshot of the values, which is what the GUI reads, so the GUI sees
+// its own changes straight away.  Neither side locks or waits for the
+// other.
+//
+// Changes the simulation makes itself, such as scheduled interventions,
+// are published to the snapshot with publish().
+public class ParameterStore<K, V extends Map<K, Double>> {
+
+    private final V vector;
+    private final AtomicReference<Map<K, Double>> snapshot = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<Runnable> edits = new ConcurrentLinkedQueue<>();
+
+    public ParameterStore(V vector) {
+        this.vector = vector;
+        snapshot.set(Collections.unmodifiableMap(new HashMap<>(vector)));
+    }
+
+    ///////////////////////////////////////////////
+    // Simulation side
+    //
+    // The solver's vector, only to be used by the thread stepping the
+    // simulation (or any thread while it is stopped)
+    public V getVector() {
+        return vector;
+    }
+
+    // Apply the edits queued since the last call, in the order they were
+    // made.  Called at a step boundary
+    public void applyEdits() {
+        Runnable edit;
+        while ((edit = edits.poll()) != null) {
+            edit.run();
+        }
+    }
+
+    // Show a change already made to the solver's vector in the snapshot
+    public void publish(K key, double value) {
+        Map<K, Double> current;
+        Map<K, Double> next;
+        do {
+            current = snapshot.get();
+            next = new HashMap<>(current);
+            next.put(key, value);
+        } while (!snapshot.compareAndSet(current, Collections.unmodifiableMap(next)));
+    }
+
+    ///////////////////////////////////////////////
+    // GUI side
+    //
+    public Double get(K key) {
+        return snapshot.get().get(key);
+    }
+
+    // Set key to value in the snapshot now, and queue update to make the
+    // same change to the solver's vector at the next step boundary
+    public void edit(K key, double value, Runnable update) {
+        publish(key, value);
+        edits.add(update);
+    }
+
+    // Queue update to run at the next step boundary, for a change to the
+    // whole simulation rather than one parameter.  The update publishes
+    // the parameters it changes
+    public void queue(Runnable update) {
+        edits.add(update);
+    }
+
+}
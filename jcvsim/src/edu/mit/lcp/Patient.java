@@ -75,6 +75,10 @@ public class Patient {
 	    (parameterList.get(i)).setValue(valueList.get(i));
 	    (parameterList.get(i)).setPtModeDefaultValue(valueList.get(i));
 	}
+
+	// start from the patient's steady state rather than the transition
+	// to it from the last one
+	CVSim.sim.settle();
     }
 
     public String getName() { return _name; }
@@ -0,0 +1,252 @@
+package edu.mit.lcp;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// PersistenceBuffer.java
+// Off-screen image of the traces of an XY chart that fades with time, like
+// the phosphor of an oscilloscope.
+//
+// Instead of drawing the recorded history of every trace on each repaint,
+// only the samples that arrived since the last repaint are drawn into the
+// image, which is kept between repaints and faded towards transparent by
+// the simulation time that has passed, halving every halfLife seconds.
+// The cost of a repaint does not depend on how much history is shown, and
+// loops from minutes ago stay faintly visible, so changes in preload and
+// afterload show up as a drift of the loop.
+//
+// Anything that changes the drawing other than the passage of time, such
+// as a new trace, a colour or a scale, clears the image and draws the
+// traces' recorded history afresh.
+public class PersistenceBuffer {
+
+    // Least fade applied at once, in 256ths, see fade()
+    private static final int MIN_FADE = 16;
+
+    private BufferedImage image;
+    // the image's pixels, premultiplied ARGB
+    private int[] pixels;
+    private Rectangle bounds = new Rectangle();
+    private final List<TraceState> drawn = new ArrayList<>();
+    private double halfLife;
+    // simulation time the image was last faded to
+    private double lastTime;
+    // fading still to be applied, see fade()
+    private double pendingFade = 1;
+    private float[] points = new float[0];
+    private final Path2D.Float path = new Path2D.Float();
+
+    public PersistenceBuffer(double halfLife) {
+        setHalfLife(halfLife);
+    }
+
+    // Simulation seconds for the traces to fade to half their intensity
+    public void setHalfLife(double seconds) {
+        halfLife = seconds;
+    }
+
+    public double getHalfLife() {
+        return halfLife;
+    }
+
+    // Draw the traces of list onto g, clipped to plotBounds.
+    // Event-dispatching thread
+    public void draw(Graphics2D g, TraceListModel list, Rectangle plotBounds) {
+        if ((plotBounds.width <= 0) || (plotBounds.height <= 0)) {
+            return;
+        }
+        if ((image == null) || !bounds.equals(plotBounds)) {
+            bounds = new Rectangle(plotBounds);
+            // the pixels are faded directly, so the image is always in
+            // this format rather than one compatible with the screen
+            image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            drawn.clear();
+        }
+
+        Graphics2D bg = image.createGraphics();
+        bg.translate(-bounds.x, -bounds.y);
+        try {
+            List<Trace<?, ?>> enabled = new ArrayList<>();
+            for (Trace<?, ?> trace : list) {
+                if (trace.isEnabled()) {
+                    enabled.add(trace);
+                }
+            }
+            if (!update(bg, enabled)) {
+                redraw(bg, enabled);
+            }
+        } finally {
+            bg.dispose();
+        }
+        g.drawImage(image, bounds.x, bounds.y, null);
+    }
+
+    // Force the next repaint to redraw every trace
+    public void invalidate() {
+        drawn.clear();
+    }
+
+    // Clear the image and draw the recorded history of every trace
+    private void redraw(Graphics2D bg, List<Trace<?, ?>> traces) {
+        Arrays.fill(pixels, 0);
+        drawn.clear();
+        pendingFade = 1;
+        if (traces.isEmpty()) {
+            return;
+        }
+        for (Trace<?, ?> trace : traces) {
+            TraceState state = new TraceState(trace);
+            synchronized (CVSim.sim.getRecorderLock()) {
+                state.lastCount = datumCount(trace);
+                lastTime = simulationTime(trace);
+            }
+            bg.setColor(state.color);
+            bg.setStroke(state.stroke);
+            bg.draw(trace);
+            drawn.add(state);
+        }
+    }
+
+    // Fade the image and draw only the new samples, returning false if
+    // the traces have changed in a way that needs a full redraw
+    private boolean update(Graphics2D bg, List<Trace<?, ?>> traces) {
+        if (traces.size() != drawn.size()) {
+            return false;
+        }
+        for (int i = 0; i < traces.size(); i++) {
+            if (!drawn.get(i).matches(traces.get(i))) {
+                return false;
+            }
+        }
+        if (traces.isEmpty()) {
+            return true;
+        }
+
+        double time = simulationTime(traces.get(0));
+        if (time < lastTime) {
+            // time has gone backwards, the simulation was reset
+            return false;
+        }
+        fade(time - lastTime);
+        lastTime = time;
+
+        for (int i = 0; i < traces.size(); i++) {
+            drawNewSamples(bg, traces.get(i), drawn.get(i));
+        }
+        return true;
+    }
+
+    // Draw the samples recorded since the last repaint, joined on to the
+    // last one drawn
+    private void drawNewSamples(Graphics2D bg, Trace<?, ?> trace, TraceState state) {
+        VariableWindow<?> x = trace.getXVar();
+        VariableWindow<?> y = trace.getYVar();
+        int n;
+        // read under the recorder lock so that x and y are from the
+        // same steps
+        synchronized (CVSim.sim.getRecorderLock()) {
+            long count = datumCount(trace);
+            int size = Math.min(x.getSize(), y.getSize());
+            if (count == state.lastCount) {
+                return;
+            }
+            n = (int) Math.min(count - state.lastCount, size - 1) + 1;
+            if (points.length < 2 * n) {
+                points = new float[4 * n];
+            }
+            // oldest first
+            for (int i = 0; i < n; i++) {
+                points[2 * i] = x.getRecentDatum(n - 1 - i).floatValue();
+                points[2 * i + 1] = y.getRecentDatum(n - 1 - i).floatValue();
+            }
+            state.lastCount = count;
+        }
+
+        trace.getTransform().transform(points, 0, points, 0, n);
+        path.reset();
+        path.moveTo(points[0], points[1]);
+        for (int i = 1; i < n; i++) {
+            path.lineTo(points[2 * i], points[2 * i + 1]);
+        }
+        bg.setColor(state.color);
+        bg.setStroke(state.stroke);
+        bg.draw(path);
+    }
+
+    // Fade the image by seconds of simulation time.  Each channel of each
+    // pixel is scaled by a whole number of 256ths, rounding down, which
+    // takes up to one level more off each time, so the fading is put off
+    // until it amounts to MIN_FADE 256ths to keep that error small.
+    // Rounding down also makes the faintest pixels fade out completely
+    // rather than linger.
+    private void fade(double seconds) {
+        if (halfLife <= 0) {
+            return;
+        }
+        pendingFade *= Math.pow(0.5, seconds / halfLife);
+        int scale = (int) (pendingFade * 256);
+        if (scale > 256 - MIN_FADE) {
+            return;
+        }
+        // carry over the part of the fade lost to rounding scale down
+        pendingFade = pendingFade * 256 / Math.max(scale, 1);
+        for (int i = 0; i < pixels.length; i++) {
+            int p = pixels[i];
+            if (p != 0) {
+                // red and blue, then alpha and green, two channels at a time
+                int rb = (((p & 0x00ff00ff) * scale) >>> 8) & 0x00ff00ff;
+                int ag = (((p >>> 8) & 0x00ff00ff) * scale) & 0xff00ff00;
+                pixels[i] = ag | rb;
+            }
+        }
+    }
+
+    // Number of samples ever recorded for the trace
+    private static long datumCount(Trace<?, ?> trace) {
+        return trace.getXVar().getDatumCount();
+    }
+
+    // Simulation time of the newest sample, from the recorder's marker
+    private static double simulationTime(Trace<?, ?> trace) {
+        return trace.getXVar().getLastMarker() / 100.0;
+    }
+
+    // What a trace was last drawn with
+    private static class TraceState {
+
+        final Trace<?, ?> trace;
+        final VariableWindow<?> xVar;
+        final VariableWindow<?> yVar;
+        final Color color;
+        final Stroke stroke;
+        final AffineTransform transform;
+        // number of samples recorded when last drawn
+        long lastCount;
+
+        TraceState(Trace<?, ?> trace) {
+            this.trace = trace;
+            xVar = trace.getXVar();
+            yVar = trace.getYVar();
+            color = trace.getColor();
+            stroke = trace.getStroke();
+            transform = new AffineTransform(trace.getTransform());
+        }
+
+        boolean matches(Trace<?, ?> t) {
+            return (t == trace) && (t.getXVar() == xVar) && (t.getYVar() == yVar)
+                    && t.getColor().equals(color) && t.getStroke().equals(stroke)
+                    && t.getTransform().equals(transform);
+        }
+    }
+
+}
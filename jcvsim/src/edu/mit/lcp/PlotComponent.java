@@ -35,6 +35,8 @@ public class PlotComponent extends JComponent {
     private Rectangle2D.Double scaledBounds;
     public List<PlotPoints> pointList = new ArrayList<PlotPoints>(); 
     private int _plotType;
+    private StripChartBuffer stripChartBuffer;
+    private PersistenceBuffer persistenceBuffer;
 
     public PlotComponent(TraceListModel model, int plotType) {
 	this(model, 0, plotType);
@@ -45,8 +47,15 @@ public class PlotComponent extends JComponent {
 	traceList = model;
 	_flags = flags;
 	_plotType = plotType;
-
-	DPI = Toolkit.getDefaultToolkit().getScreenResolution();
+	if (_plotType == STRIPCHART)
+	    stripChartBuffer = new StripChartBuffer();
+
+	try {
+	    DPI = Toolkit.getDefaultToolkit().getScreenResolution();
+	} catch (HeadlessException e) {
+	    // rendering offscreen, see PlotExporter
+	    DPI = 96;
+	}
 
 	//System.out.println("PlotComponent() - "+DPI+" DPI");
 	plotTransform = new AffineTransform();
@@ -75,6 +84,23 @@ public class PlotComponent extends JComponent {
 	return plotTransform;
     }
     
+    // Let the traces of a PARAMETRIC plot fade out with the given
+    // half-life in simulation seconds instead of being redrawn in full,
+    // see PersistenceBuffer.  Zero turns persistence off.
+    public void setPersistence(double halfLife) {
+	if (halfLife <= 0)
+	    persistenceBuffer = null;
+	else if (persistenceBuffer == null)
+	    persistenceBuffer = new PersistenceBuffer(halfLife);
+	else
+	    persistenceBuffer.setHalfLife(halfLife);
+	repaint();
+    }
+
+    public boolean getPersistence() {
+	return (persistenceBuffer != null);
+    }
+
     public void setShowXGridlines(boolean b) {
 	showXGridlines = b;
     }
@@ -122,7 +148,7 @@ public class PlotComponent extends JComponent {
     }
    
     protected void paintComponent(Graphics g) {
-	//long startTime = System.nanoTime();
+	long startTime = System.nanoTime();
 
 	// draw
 	updateBounds();
@@ -134,9 +160,7 @@ public class PlotComponent extends JComponent {
  	drawTraces(g2d);
 	drawPoints(g2d);
 
-	//long endTime = System.nanoTime();
-	//long duration = endTime-startTime;
-	//System.out.println("PlotComponent.paintComponent(): " + (double)duration/1000000 + " ms");
+	SimulationMetrics.instance().repaintTime(System.nanoTime() - startTime);
     }
 
     // paint background
@@ -149,6 +173,18 @@ public class PlotComponent extends JComponent {
     // paint traces on top of the plot background
     private void drawTraces(Graphics2D g2d) {
 
+	// strip charts keep their traces in an image that is scrolled
+	// along, see StripChartBuffer.  The images are for the screen,
+	// printing and exporting draw the traces themselves.
+	if ((stripChartBuffer != null) && !isPaintingForPrint()) {
+	    stripChartBuffer.draw(g2d, traceList, bounds, getGraphicsConfiguration());
+	    return;
+	}
+	if ((persistenceBuffer != null) && !isPaintingForPrint()) {
+	    persistenceBuffer.draw(g2d, traceList, bounds);
+	    return;
+	}
+
 	// draw every trace that has been added to the plot
   	for (Trace<?,?> trace: traceList) {
 	    if (trace.isEnabled()) {
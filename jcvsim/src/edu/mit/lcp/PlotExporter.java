@@ -0,0 +1,247 @@
+package edu.mit.lcp;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.FlowLayout;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+// PlotExporter.java
+// Draws plots of a recorded session to PNG and SVG files without a
+// screen, so that the figures for a sweep report can be made on the
+// compute nodes, one process per scenario, from the sessions written by
+// SessionRecorder.
+//
+//   java -Djava.awt.headless=true -cp jcvsim.jar edu.mit.lcp.PlotExporter
+//        [-size <width>x<height>] [-png | -svg]
+//        [-strip <var>,...] [-xy <xvar>:<yvar>,...] <session file> <output prefix>
+//
+// Each -strip or -xy makes one figure: a strip chart of the variables,
+// or an XY chart of the pairs, such as -xy LVV:LVP for the left ventricular
+// pressure-volume loop.  Figure n is written to <prefix>-<n>.png and
+// <prefix>-<n>.svg, or only one of them with -png or -svg.  The whole
+// session is played through the plots, which show the end of it as they
+// would have on screen, with a legend in place of their controls.
+public class PlotExporter {
+
+    private static final String USAGE = "usage: PlotExporter [-size <width>x<height>] [-png | -svg]"
+            + " [-strip <var>,...] [-xy <xvar>:<yvar>,...] <session file> <output prefix>";
+
+    private int width = 800;
+    private int height = 500;
+    private boolean png = true;
+    private boolean svg = true;
+    // the traces of each figure, one variable name for a strip chart
+    // and an x and y name for an XY chart
+    private final List<List<String[]>> figures = new ArrayList<>();
+    private final List<PlotPanel> panels = new ArrayList<>();
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        PlotExporter exporter = new PlotExporter();
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String s = args[i];
+                if (s.equals("-size") && (i + 1 < args.length)) {
+                    String[] size = args[++i].split("x");
+                    exporter.width = Integer.parseInt(size[0]);
+                    exporter.height = Integer.parseInt(size[1]);
+                } else if (s.equals("-png")) {
+                    exporter.svg = false;
+                } else if (s.equals("-svg")) {
+                    exporter.png = false;
+                } else if (s.equals("-strip") && (i + 1 < args.length)) {
+                    exporter.addFigure(args[++i], false);
+                } else if (s.equals("-xy") && (i + 1 < args.length)) {
+                    exporter.addFigure(args[++i], true);
+                } else {
+                    files.add(s);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if ((files.size() != 2) || exporter.figures.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            exporter.export(new File(files.get(0)), files.get(1));
+        } catch (IOException e) {
+            System.err.println("PlotExporter: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private void addFigure(String traces, boolean xy) {
+        List<String[]> figure = new ArrayList<>();
+        for (String trace : traces.split(",")) {
+            String[] vars = xy ? trace.split(":") : new String[]{trace};
+            if (vars.length != (xy ? 2 : 1)) {
+                throw new IllegalArgumentException(trace);
+            }
+            figure.add(vars);
+        }
+        figures.add(figure);
+    }
+
+    private void export(File session, final String prefix) throws IOException {
+        SessionPlayer player = new SessionPlayer(session);
+        double[] first = player.readFrame();
+        double[] second = player.readFrame();
+        if (second == null) {
+            throw new IOException(session + " has fewer than two frames");
+        }
+
+        CVSim.simulationModelName = player.getModelName();
+        if (CVSim.simulationModelName.equals(CVSim.MODEL_6C)) {
+            CVSim.sim = new CSimulation6C();
+        } else if (CVSim.simulationModelName.equals(CVSim.MODEL_21C)) {
+            CVSim.sim = new CSimulation21C();
+        } else {
+            throw new IOException(session + " was recorded with an unknown model "
+                    + CVSim.simulationModelName);
+        }
+        CVSim.simThread = new SimulationThread(CVSim.sim);
+        // size the trace buffers for the step the session was recorded at
+        CVSim.sim.setDataCompressionFactor(
+                (int) Math.max(1, Math.round(1000 * (second[0] - first[0]))));
+
+        onEventThread(new Runnable() {
+            @Override
+            public void run() {
+                for (List<String[]> figure : figures) {
+                    panels.add(createPanel(figure));
+                }
+            }
+        });
+        // the plots size their trace buffers when told they have been
+        // resized, which is an event of its own
+        onEventThread(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+
+        CVSim.sim.replayFrame(first);
+        CVSim.sim.replayFrame(second);
+        long frames = 2 + player.replayAll();
+        System.out.println("PlotExporter: " + frames + " frames of " + session);
+
+        final IOException[] failure = new IOException[1];
+        onEventThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < panels.size(); i++) {
+                        write(panels.get(i), prefix + "-" + (i + 1));
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    // Event-dispatching thread
+    private PlotPanel createPanel(List<String[]> figure) {
+        boolean xy = (figure.get(0).length == 2);
+        PlotPanel panel = xy ? new PlotPanelXYChart(new TraceListModel())
+                : new PlotPanelStripChart(new TraceListModel());
+
+        JPanel legend = new JPanel(new FlowLayout());
+        for (String[] vars : figure) {
+            SimulationOutputVariable[] v = new SimulationOutputVariable[vars.length];
+            for (int i = 0; i < vars.length; i++) {
+                v[i] = CVSim.sim.getOutputVariable(vars[i]);
+                if (v[i] == null) {
+                    throw new IllegalArgumentException("no output variable " + vars[i]
+                            + " in the " + CVSim.simulationModelName + " model");
+                }
+            }
+            if (xy) {
+                ((PlotPanelXYChart) panel).createNewTrace(v[0], v[1]);
+            } else {
+                ((PlotPanelStripChart) panel).createNewTrace(v[0]);
+            }
+            Trace<?, ?> trace = panel.getPlot().getListModel().get(panel.getPlot().getListModel().getSize() - 1);
+            JLabel label = new JLabel(xy ? v[1].getDescription() + " vs " + v[0].getDescription()
+                    : v[0].getDescription());
+            label.setForeground(trace.getColor());
+            legend.add(label);
+        }
+
+        // the legend takes the place of the controls
+        BorderLayout layout = (BorderLayout) panel.getLayout();
+        panel.remove(layout.getLayoutComponent(BorderLayout.PAGE_START));
+        panel.add(BorderLayout.PAGE_START, legend);
+
+        panel.setBackground(Color.WHITE);
+        legend.setBackground(Color.WHITE);
+        panel.setSize(width, height);
+        layout(panel);
+        return panel;
+    }
+
+    // Lay out a component tree that has no window to do it
+    private static void layout(Component c) {
+        if (c instanceof Container) {
+            ((Container) c).doLayout();
+            for (Component child : ((Container) c).getComponents()) {
+                layout(child);
+            }
+        }
+    }
+
+    // Event-dispatching thread
+    private void write(PlotPanel panel, String name) throws IOException {
+        panel.render();
+        if (png) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = image.createGraphics();
+            panel.printAll(g);
+            g.dispose();
+            File file = new File(name + ".png");
+            ImageIO.write(image, "png", file);
+            System.out.println("PlotExporter: wrote " + file);
+        }
+        if (svg) {
+            SvgGraphics g = new SvgGraphics(width, height);
+            panel.printAll(g);
+            g.dispose();
+            File file = new File(name + ".svg");
+            g.write(file);
+            System.out.println("PlotExporter: wrote " + file);
+        }
+    }
+
+    private static void onEventThread(Runnable r) throws IOException {
+        try {
+            SwingUtilities.invokeAndWait(r);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted");
+        } catch (InvocationTargetException e) {
+            throw new IOException(String.valueOf(e.getCause()), e.getCause());
+        }
+    }
+
+}
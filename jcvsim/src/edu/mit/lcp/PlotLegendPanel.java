@@ -178,8 +178,6 @@ public class PlotLegendPanel extends JPanel {
             JButton removeButton = new JButton(new AbstractAction("X") {
                 @Override
                 public void actionPerformed(ActionEvent event) {
-                    CVSim.sim.removeVariableRecorder(myTrace.getXVar());
-                    CVSim.sim.removeVariableRecorder(myTrace.getYVar());
                     traceList.remove(myTrace);
                 }
             });
@@ -41,6 +41,10 @@ public abstract class PlotPanel extends JPanel {
 
     public abstract PlotComponent getPlot();
 
+    // Bring the plot up to date with the simulation and repaint it, called
+    // by the RenderClock
+    public abstract void render();
+
     public Point2D getScaledPoint(AffineTransform at, Point2D pt)
             throws NoninvertibleTransformException {
         AffineTransform it = at.createInverse();
@@ -48,7 +48,7 @@ public class PlotPanelStripChart extends PlotPanel {
     private final TraceListModel traceList;
     private final JLabel titleLabel;
     private final JSlider speedSlider;
-    private VariableRecorderInterface<Double> timeAxisBuffer;
+    private VariableWindow<Double> timeAxisBuffer;
     private double secondsPerUnit;
 
     private PlotComponent plot;
@@ -144,15 +144,11 @@ public class PlotPanelStripChart extends PlotPanel {
         add(BorderLayout.LINE_START, yScale);
         add(BorderLayout.CENTER, plot);
 
+        // repainted by the render clock, at most once a frame
         sourceDataChanged = new ChangeListener() {
-            int count = 0;
-
             @Override
             public void stateChanged(ChangeEvent event) {
-                if ((count++ % 4) == 0) {
-                    updateTraceTransforms();
-                    plot.repaint();
-                }
+                CVSim.renderClock.markDirty(PlotPanelStripChart.this);
             }
         };
 
@@ -169,6 +165,12 @@ public class PlotPanelStripChart extends PlotPanel {
         yScale._changes.firePropertyChange(YscaleComponent.PROP_MULTISCALES, oldValue, newValue);
     }
 
+    @Override
+    public void render() {
+        updateTraceTransforms();
+        plot.repaint();
+    }
+
     @Override
     public PlotComponent getPlot() {
         return plot;
@@ -186,9 +188,7 @@ public class PlotPanelStripChart extends PlotPanel {
 
     private void createTimeAxisBuffer() {
         //System.out.println("PlotPanelStripChart() Creating timeAxisBuffer");
-        timeAxisBuffer = new SimulationOutputVariableBuffer<>(traceBufferSize, CVSim.sim.getOutputVariable("TIME"), 0.0,
-                SimulationOutputVariableBuffer.DATA_MONOTONIC_INCREASING);
-        CVSim.sim.addVariableRecorder(timeAxisBuffer);
+        timeAxisBuffer = CVSim.sim.getChannelStore().window(CVSim.sim.getOutputVariable("TIME"), traceBufferSize);
     }
 
     public void createNewTrace(SimulationOutputVariable var) {
@@ -196,7 +196,7 @@ public class PlotPanelStripChart extends PlotPanel {
         if (timeAxisBuffer == null) {
             createTimeAxisBuffer();
         }
-        VariableRecorderInterface<Double> y = new SimulationOutputVariableBuffer<>(traceBufferSize, var, 0.0);
+        VariableWindow<Double> y = CVSim.sim.getChannelStore().window(var, traceBufferSize);
 
         Trace<Double, Double> newTrace = new Trace<>(timeAxisBuffer, y, traceList.getNextColor());
         addTrace(newTrace);
@@ -206,16 +206,13 @@ public class PlotPanelStripChart extends PlotPanel {
     public void addTrace(Trace<?, ?> t) {
         //System.out.println("addTrace(" + t + ")");
         traceList.add(t);
-        CVSim.sim.addVariableRecorder(t.getYVar());
     }
 
     @Override
     public void removeTrace(Trace<?, ?> t) {
         //System.out.println("removeTrace(" + t + ")");
         traceList.remove(t);
-        CVSim.sim.removeVariableRecorder(t.getYVar());
-        if (traceList.isEmpty() && (timeAxisBuffer != null)) {
-            CVSim.sim.removeVariableRecorder(timeAxisBuffer);
+        if (traceList.isEmpty()) {
             timeAxisBuffer = null;
         }
     }
@@ -235,51 +232,20 @@ public class PlotPanelStripChart extends PlotPanel {
         return traceBufferSize;
     }
 
-    private SimulationOutputVariableBuffer resizeBuffer(SimulationOutputVariableBuffer b, int newSize) {
-        SimulationOutputVariableBuffer<Double> newB;
-
-        if (b.getSize() == newSize) {
-            newB = b;
-        } else {
-            //System.out.println("resizeBuffer() " + b + " - from " + b.getSize() + " to " + newSize);	
-            CVSim.sim.removeVariableRecorder(b);
-            newB = new SimulationOutputVariableBuffer<>(traceBufferSize, b);
-            CVSim.sim.addVariableRecorder(newB);
-        }
-        return newB;
-    }
-
+    // The traces are windows on the shared ChannelStore, so resizing
+    // them only changes their lengths
     private void updateTraceBufferSizes() {
-        boolean wasRunning = false;
-
         int oldTraceBufferSize = traceBufferSize;
         calculateTraceBufferSize();
         if (oldTraceBufferSize != traceBufferSize) {
             //System.out.println("updateTraceBufferSizes() with " + traceBufferSize);
             //System.out.println(" -> " + (double)java.lang.Math.round((double)traceBufferSize/plot.getBounds().getWidth()*1000) /1000 + " data points per pixel");
 
-            if (CVSim.simThread.isRunning()) {
-                wasRunning = true;
-                CVSim.simThread.stop();
-            }
-
             if (timeAxisBuffer != null) {
-                SimulationOutputVariableBuffer newTime = resizeBuffer((SimulationOutputVariableBuffer) timeAxisBuffer, traceBufferSize);
-                timeAxisBuffer = newTime;
-            }
-
-            for (Trace tr : traceList) {
-                tr.setXVar(timeAxisBuffer);
+                timeAxisBuffer.setLength(traceBufferSize);
             }
-
-            for (Trace tr : traceList) {
-                SimulationOutputVariableBuffer newY = resizeBuffer((SimulationOutputVariableBuffer) tr.getYVar(), traceBufferSize);
-
-                tr.setYVar(newY);
-            }
-
-            if (wasRunning) {
-                CVSim.simThread.start();
+            for (Trace<?, ?> tr : traceList) {
+                tr.getYVar().setLength(traceBufferSize);
             }
         }
     }
@@ -140,6 +140,16 @@ public class PlotPanelXYChart extends PlotPanel {
         JCheckBox multipleXScalesCheckBox = new JCheckBox("Multiple X Scales");
         multipleXScalesCheckBox.addItemListener(MultipleXScalesListener);
 
+        // with persistence on, the time history is the half-life of the
+        // fading traces, so minutes of loops stay faintly visible
+        final JCheckBox persistenceCheckBox = new JCheckBox("Persistence");
+        persistenceCheckBox.addItemListener(new ItemListener() {
+            @Override
+            public void itemStateChanged(ItemEvent e) {
+                plot.setPersistence(persistenceCheckBox.isSelected() ? trailLength : 0);
+            }
+        });
+
         JPanel controlPanel = new JPanel(new FlowLayout());
         controlPanel.add(new JLabel("X:"));
         controlPanel.add(xTraceBox);
@@ -149,6 +159,7 @@ public class PlotPanelXYChart extends PlotPanel {
         controlPanel.add(timeSlider);
         controlPanel.add(multipleXScalesCheckBox);
         controlPanel.add(multipleYScalesCheckBox);
+        controlPanel.add(persistenceCheckBox);
         controlPanel.setPreferredSize(new Dimension(100, 85));
 
         // layout
@@ -158,15 +169,11 @@ public class PlotPanelXYChart extends PlotPanel {
         add(BorderLayout.LINE_START, yScale);
         add(BorderLayout.CENTER, plot);
 
+        // repainted by the render clock, at most once a frame
         sourceDataChanged = new ChangeListener() {
-            int count = 0;
-
             @Override
             public void stateChanged(ChangeEvent event) {
-                if ((count++ % 4) == 0) {
-                    updateTraceTransforms();
-                    plot.repaint();
-                }
+                CVSim.renderClock.markDirty(PlotPanelXYChart.this);
             }
         };
 
@@ -208,6 +215,12 @@ public class PlotPanelXYChart extends PlotPanel {
         return yScale;
     }
 
+    @Override
+    public void render() {
+        updateTraceTransforms();
+        plot.repaint();
+    }
+
     @Override
     public PlotComponent getPlot() {
         return plot;
@@ -225,8 +238,8 @@ public class PlotPanelXYChart extends PlotPanel {
 
     public void createNewTrace(SimulationOutputVariable xvar, SimulationOutputVariable yvar) {
         //System.out.println("createNewTrace(" + xvar + "," + yvar +")");
-        VariableRecorderInterface<Double> x = new SimulationOutputVariableBuffer<>(traceBufferSize, xvar, 0.0);
-        VariableRecorderInterface<Double> y = new SimulationOutputVariableBuffer<>(traceBufferSize, yvar, 0.0);
+        VariableWindow<Double> x = CVSim.sim.getChannelStore().window(xvar, traceBufferSize);
+        VariableWindow<Double> y = CVSim.sim.getChannelStore().window(yvar, traceBufferSize);
 
         Trace<Double, Double> newTrace = new Trace<>(x, y, traceList.getNextColor());
         addTrace(newTrace);
@@ -236,16 +249,12 @@ public class PlotPanelXYChart extends PlotPanel {
     public void addTrace(Trace<?, ?> t) {
         //System.out.println("addTrace(" + t + ")");
         traceList.add(t);
-        CVSim.sim.addVariableRecorder(t.getXVar());
-        CVSim.sim.addVariableRecorder(t.getYVar());
     }
 
     @Override
     public void removeTrace(Trace<?, ?> t) {
         //System.out.println("removeTrace(" + t + ")");
         traceList.remove(t);
-        CVSim.sim.removeVariableRecorder(t.getXVar());
-        CVSim.sim.removeVariableRecorder(t.getYVar());
     }
 
     @Override
@@ -262,43 +271,16 @@ public class PlotPanelXYChart extends PlotPanel {
         return traceBufferSize;
     }
 
-    private SimulationOutputVariableBuffer resizeBuffer(SimulationOutputVariableBuffer b, int newSize) {
-        SimulationOutputVariableBuffer<Double> newB;
-
-        if (b.getSize() == newSize) {
-            newB = b;
-        } else {
-            //System.out.println("resizeBuffer() " + b + " - from " + b.getSize() + " to " + newSize);	
-            CVSim.sim.removeVariableRecorder(b);
-            newB = new SimulationOutputVariableBuffer<>(traceBufferSize, b);
-            CVSim.sim.addVariableRecorder(newB);
-        }
-        return newB;
-    }
-
+    // The traces are windows on the shared ChannelStore, so resizing
+    // them only changes their lengths
     private void updateTraceBufferSizes() {
-        boolean wasRunning = false;
-
         int oldTraceBufferSize = traceBufferSize;
         calculateTraceBufferSize();
         if (oldTraceBufferSize != traceBufferSize) {
             //System.out.println("updateTraceBufferSizes() with " + traceBufferSize);
-
-            if (CVSim.simThread.isRunning()) {
-                wasRunning = true;
-                CVSim.simThread.stop();
-            }
-
-            for (Trace tr : traceList) {
-                SimulationOutputVariableBuffer newX = resizeBuffer((SimulationOutputVariableBuffer) tr.getXVar(), traceBufferSize);
-                SimulationOutputVariableBuffer newY = resizeBuffer((SimulationOutputVariableBuffer) tr.getYVar(), traceBufferSize);
-
-                tr.setXVar(newX);
-                tr.setYVar(newY);
-            }
-
-            if (wasRunning) {
-                CVSim.simThread.start();
+            for (Trace<?, ?> tr : traceList) {
+                tr.getXVar().setLength(traceBufferSize);
+                tr.getYVar().setLength(traceBufferSize);
             }
         }
     }
@@ -345,6 +327,9 @@ public class PlotPanelXYChart extends PlotPanel {
 
     public final void setTrailLength(double seconds) {
         trailLength = seconds;
+        if (plot.getPersistence()) {
+            plot.setPersistence(trailLength);
+        }
         updateTraceBufferSizes();
     }
 
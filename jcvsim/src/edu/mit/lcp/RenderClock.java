@@ -0,0 +1,69 @@
+package edu.mit.lcp;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.swing.Timer;
+
+// Class RenderClock paces the plots.  New data only marks a plot dirty;
+// on each tick of the clock every dirty plot is brought up to date and
+// repainted once, so all the plots update together in one paint pass at
+// a steady frame rate, however fast the simulation is running.
+//
+// The clock runs only while there is something to draw.  A tick that
+// comes late, because the event dispatch thread was busy, counts the
+// frames it missed as dropped, see SimulationMetrics.
+//
+// Event dispatch thread only.
+public class RenderClock {
+
+    // Frame rate, set with -Djcvsim.fps=<frames per second>
+    public static final int FRAMES_PER_SECOND = Math.max(1, Integer.getInteger("jcvsim.fps", 60));
+
+    private final Set<PlotPanel> dirty = new LinkedHashSet<>();
+    private final Timer timer;
+    private final long periodNanos;
+    private long lastTick;
+
+    public RenderClock() {
+        periodNanos = 1000000000L / FRAMES_PER_SECOND;
+        timer = new Timer(Math.max(1, 1000 / FRAMES_PER_SECOND), new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                tick();
+            }
+        });
+    }
+
+    // Have the plot brought up to date at the next frame
+    public void markDirty(PlotPanel plot) {
+        dirty.add(plot);
+        if (!timer.isRunning()) {
+            lastTick = System.nanoTime();
+            timer.start();
+        }
+    }
+
+    private void tick() {
+        if (dirty.isEmpty()) {
+            // nothing has changed since the last frame
+            timer.stop();
+            return;
+        }
+
+        long now = System.nanoTime();
+        long missed = (now - lastTick - periodNanos / 2) / periodNanos;
+        lastTick = now;
+
+        List<PlotPanel> plots = new ArrayList<>(dirty);
+        dirty.clear();
+        for (PlotPanel plot : plots) {
+            plot.render();
+        }
+        SimulationMetrics.instance().renderFrame(Math.max(0, missed));
+    }
+
+}
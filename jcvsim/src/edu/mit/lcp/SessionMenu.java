@@ -0,0 +1,278 @@
+package edu.mit.lcp;
+
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Timer;
+import java.util.TimerTask;
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.JFileChooser;
+import javax.swing.JMenu;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+// Menu for recording the simulation outputs to a binary session file
+// and playing a recorded session back through the plots, or watching a
+// simulation broadcast by a StreamServer
+public class SessionMenu extends JMenu {
+
+    private static final String[] SPEEDS = {"1", "2", "5", "10", "50", "Maximum"};
+    // milliseconds a stream has to connect and send its session header
+    private static final int STREAM_TIMEOUT = 5000;
+
+    private SessionRecorder recorder;
+    private SessionPlayer player;
+    private final Action startRecordingAction;
+    private final Action stopRecordingAction;
+    private final Action stopReplayAction;
+
+    public SessionMenu() {
+        super("Session");
+        startRecordingAction = new StartRecordingAction();
+        stopRecordingAction = new StopRecordingAction();
+        stopReplayAction = new StopReplayAction();
+        stopRecordingAction.setEnabled(false);
+
+        add(startRecordingAction);
+        add(stopRecordingAction);
+        addSeparator();
+        add(new ReplayAction());
+        add(new WatchStreamAction());
+        add(stopReplayAction);
+    }
+
+    public boolean isReplaying() {
+        return (player != null) && player.isPlaying();
+    }
+
+    public void stopReplay() {
+        if (player != null) {
+            player.stop();
+            player = null;
+        }
+    }
+
+    // Play p through the plots in place of the simulation, which cannot be
+    // started until p ends.  Event dispatch thread
+    private void play(SessionPlayer p) {
+        stopReplay();
+        CVSim.gui.toolbar.showStopped();
+        player = p;
+        player.setFinished(new Runnable() {
+            @Override
+            public void run() {
+                CVSim.gui.toolbar.enableStart(!isReplaying());
+            }
+        });
+        player.start();
+        CVSim.gui.toolbar.enableStart(!player.isPlaying());
+    }
+
+    private class StartRecordingAction extends AbstractAction {
+
+        public StartRecordingAction() {
+            putValue(Action.NAME, "Record Session...");
+            putValue(Action.SHORT_DESCRIPTION, "Record all simulation outputs to a session file");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            // Create default filename based on date and time
+            SimpleDateFormat df = new SimpleDateFormat("MMddyyyy_HHmmss");
+            JFileChooser fc = new JFileChooser();
+            fc.setSelectedFile(new File("cvsim_session_" + df.format(new Date()) + ".cvs"));
+
+            if (fc.showSaveDialog(MainWindow.frame) == JFileChooser.APPROVE_OPTION) {
+                SessionRecorder r = new SessionRecorder(fc.getSelectedFile());
+                try {
+                    r.startRecording();
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(MainWindow.frame, "Cannot write to file "
+                            + fc.getSelectedFile(), "File Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                recorder = r;
+                setEnabled(false);
+                stopRecordingAction.setEnabled(true);
+            }
+        }
+    }
+
+    private class StopRecordingAction extends AbstractAction {
+
+        public StopRecordingAction() {
+            putValue(Action.NAME, "Stop Recording");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            recorder.stopRecording();
+            recorder = null;
+            setEnabled(false);
+            startRecordingAction.setEnabled(true);
+        }
+    }
+
+    private class ReplayAction extends AbstractAction {
+
+        public ReplayAction() {
+            putValue(Action.NAME, "Replay Session...");
+            putValue(Action.SHORT_DESCRIPTION, "Play a recorded session back through the plots");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            JFileChooser fc = new JFileChooser();
+            if (fc.showOpenDialog(MainWindow.frame) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+
+            SessionPlayer p;
+            try {
+                p = new SessionPlayer(fc.getSelectedFile());
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(MainWindow.frame, ex.getMessage(),
+                        "File Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!p.getModelName().equals(CVSim.getSimulationModelName())) {
+                JOptionPane.showMessageDialog(MainWindow.frame, "The session was recorded with the "
+                        + p.getModelName() + " model", "File Error", JOptionPane.ERROR_MESSAGE);
+                p.stop();
+                return;
+            }
+
+            String s = (String) JOptionPane.showInputDialog(MainWindow.frame,
+                    "Replay speed (x real time):", "Replay Session",
+                    JOptionPane.PLAIN_MESSAGE, null, SPEEDS, SPEEDS[0]);
+            if (s == null) {
+                p.stop();
+                return;
+            }
+            p.setSpeed(s.equals("Maximum") ? 0 : Double.parseDouble(s));
+            play(p);
+        }
+    }
+
+    private class WatchStreamAction extends AbstractAction {
+
+        public WatchStreamAction() {
+            putValue(Action.NAME, "Watch Stream...");
+            putValue(Action.SHORT_DESCRIPTION, "Watch a simulation streamed by another jCVSim");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            String address = (String) JOptionPane.showInputDialog(MainWindow.frame,
+                    "Stream address (jCVSim started with -serve <port>):", "Watch Stream",
+                    JOptionPane.PLAIN_MESSAGE, null, null, "http://localhost:8080/stream?every=1");
+            if (address == null) {
+                return;
+            }
+
+            // Connect and read the header away from the event dispatch
+            // thread, so that a server that is slow to answer cannot freeze
+            // the GUI, then start watching back on it
+            final String source = address;
+            setEnabled(false);
+            Thread opener = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    SessionPlayer p = null;
+                    IOException error = null;
+                    try {
+                        p = open(source);
+                    } catch (IOException ex) {
+                        error = ex;
+                    }
+                    final SessionPlayer opened = p;
+                    final IOException failure = error;
+                    SwingUtilities.invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            setEnabled(true);
+                            watch(source, opened, failure);
+                        }
+                    });
+                }
+            }, "Stream opener");
+            opener.setDaemon(true);
+            opener.start();
+        }
+
+        // A player reading the stream at address, once its header has
+        // arrived.  A server whose simulation is paused sends nothing, so
+        // the connection cannot keep a read timeout once watching; instead
+        // it is closed if the header takes longer than STREAM_TIMEOUT
+        private SessionPlayer open(String address) throws IOException {
+            final URLConnection connection = new URL(address).openConnection();
+            connection.setConnectTimeout(STREAM_TIMEOUT);
+            if (!(connection instanceof HttpURLConnection)) {
+                connection.setReadTimeout(STREAM_TIMEOUT);
+                return new SessionPlayer(connection.getInputStream(), address);
+            }
+            final boolean[] timedOut = new boolean[1];
+            Timer watchdog = new Timer("Stream watchdog", true);
+            watchdog.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    synchronized (timedOut) {
+                        timedOut[0] = true;
+                    }
+                    ((HttpURLConnection) connection).disconnect();
+                }
+            }, STREAM_TIMEOUT);
+            try {
+                return new SessionPlayer(connection.getInputStream(), address);
+            } catch (IOException e) {
+                synchronized (timedOut) {
+                    if (timedOut[0]) {
+                        throw new IOException("No session from the server within "
+                                + STREAM_TIMEOUT / 1000 + " seconds", e);
+                    }
+                }
+                throw e;
+            } finally {
+                watchdog.cancel();
+            }
+        }
+
+        // Event dispatch thread
+        private void watch(String address, SessionPlayer p, IOException error) {
+            if (error != null) {
+                JOptionPane.showMessageDialog(MainWindow.frame, "Cannot watch " + address + "\n"
+                        + error.getMessage(), "Stream Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!p.getModelName().equals(CVSim.getSimulationModelName())) {
+                JOptionPane.showMessageDialog(MainWindow.frame, "The stream is of the "
+                        + p.getModelName() + " model", "Stream Error", JOptionPane.ERROR_MESSAGE);
+                p.stop();
+                return;
+            }
+
+            // frames arrive at the pace the server runs
+            p.setSpeed(0);
+            play(p);
+        }
+    }
+
+    private class StopReplayAction extends AbstractAction {
+
+        public StopReplayAction() {
+            putValue(Action.NAME, "Stop Replay");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            stopReplay();
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+package edu.mit.lcp;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.swing.SwingUtilities;
+
+// SessionPlayer.java
+// Plays back a session file written by SessionRecorder.  Each frame is
+// pushed through CSimulation.replayFrame(), so the variable recorders,
+// traces and plots see exactly what they saw when the session was
+// recorded, while the simulation itself does not run.
+//
+// A session can also be read from a stream, such as a StreamServer
+// broadcasting a running simulation.
+public class SessionPlayer {
+
+    private final String source;
+    private final String modelName;
+    private final int[] channelIndex;
+    private final int frameLength;
+    private DataInputStream in;
+
+    // Playback speed as a multiple of real time, zero or less means
+    // as fast as the plots can take the frames
+    private volatile double speed;
+    private volatile boolean playing;
+    private Thread playerThread;
+    private Runnable finished;
+
+    public SessionPlayer(File file) throws IOException {
+        this(new FileInputStream(file), file.toString());
+    }
+
+    // Read the session from stream, source names it in messages
+    public SessionPlayer(InputStream stream, String source) throws IOException {
+        this.source = source;
+        in = new DataInputStream(new BufferedInputStream(stream, 1 << 16));
+
+        try {
+            if (in.readInt() != SessionRecorder.MAGIC) {
+                throw new IOException(source + " is not a session recording");
+            }
+            int version = in.readInt();
+            if (version != SessionRecorder.VERSION) {
+                throw new IOException(source + " has unsupported version " + version);
+            }
+            modelName = in.readUTF();
+            int n = in.readInt();
+            channelIndex = new int[n];
+            int maxIndex = 0;
+            for (int i = 0; i < n; i++) {
+                channelIndex[i] = in.readInt();
+                in.readUTF();
+                maxIndex = Math.max(maxIndex, channelIndex[i]);
+            }
+            frameLength = maxIndex + 1;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        speed = 1.0;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setSpeed(double newSpeed) {
+        speed = newSpeed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    // Run r on the event dispatch thread when playing ends, at the end of
+    // the recording or on stop()
+    public void setFinished(Runnable r) {
+        finished = r;
+    }
+
+    public void start() {
+        if (!modelName.equals(CVSim.getSimulationModelName())) {
+            System.out.println("SessionPlayer: " + source + " was recorded with the "
+                    + modelName + " model");
+            return;
+        }
+        if (playing) {
+            return;
+        }
+
+        // the recording replaces the simulation as the data source
+        if (CVSim.simThread.isRunning()) {
+            CVSim.simThread.stop();
+        }
+
+        playing = true;
+        playerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                play();
+            }
+        }, "SessionPlayer");
+        playerThread.setDaemon(true);
+        playerThread.start();
+    }
+
+    public void stop() {
+        playing = false;
+        if (playerThread != null) {
+            playerThread.interrupt();
+        }
+        // unblock a read from a stream
+        try {
+            in.close();
+        } catch (IOException e) {
+            // closed anyway
+        }
+    }
+
+    // The next frame of the recording, indexed by output variable index
+    // as for CSimulation.getOutput(), or null at the end of it
+    public double[] readFrame() throws IOException {
+        double[] frame = new double[frameLength];
+        try {
+            for (int i = 0; i < channelIndex.length; i++) {
+                frame[channelIndex[i]] = in.readDouble();
+            }
+        } catch (EOFException e) {
+            // end of the recording
+            return null;
+        }
+        return frame;
+    }
+
+    // Push the rest of the recording through the plots as fast as it can
+    // be read, on this thread, and close it.  Returns the number of frames
+    public long replayAll() throws IOException {
+        long frames = 0;
+        try {
+            double[] frame;
+            while ((frame = readFrame()) != null) {
+                CVSim.sim.replayFrame(frame);
+                frames++;
+            }
+        } finally {
+            in.close();
+        }
+        return frames;
+    }
+
+    private void play() {
+        System.out.println("SessionPlayer.start(): " + source + " at " + speed + "x");
+        long frames = 0;
+        long startNanos = System.nanoTime();
+        double startTime = Double.NaN;
+        double lastSpeed = speed;
+
+        try {
+            double[] frame;
+            while (playing && ((frame = readFrame()) != null)) {
+
+                // pace the frames from the recorded simulation time,
+                // restarting the clock whenever the speed is changed
+                double s = speed;
+                if (Double.isNaN(startTime) || (s != lastSpeed)) {
+                    startTime = frame[0];
+                    startNanos = System.nanoTime();
+                    lastSpeed = s;
+                }
+                if (s > 0) {
+                    long due = startNanos + (long) ((frame[0] - startTime) / s * 1e9);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                    }
+                }
+
+                CVSim.sim.replayFrame(frame);
+                frames++;
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } catch (IOException e) {
+            // a stream being read is closed by stop()
+            if (playing) {
+                System.err.println("Error reading " + source);
+                System.err.println(e);
+            }
+        } finally {
+            playing = false;
+            try {
+                in.close();
+            } catch (IOException e) {
+                System.err.println("Error closing " + source);
+                System.err.println(e);
+            }
+            System.out.println("SessionPlayer.stop(): " + frames + " frames played");
+            if (finished != null) {
+                SwingUtilities.invokeLater(finished);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package edu.mit.lcp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+// SessionRecorder.java
+// Records every simulation output variable to a binary session file
+// so that the session can later be played back through the plots by
+// SessionPlayer without running the simulation.
+//
+// File layout (big-endian, as written by DataOutputStream):
+//   int    MAGIC
+//   int    VERSION
+//   UTF    simulation model name
+//   int    number of channels
+//   per channel: int output index, UTF name
+//   then one frame per simulation step: one double per channel
+public class SessionRecorder {
+
+    public static final int MAGIC = 0x43565352; // "CVSR"
+    public static final int VERSION = 1;
+
+    private final File sessionFile;
+    private final List<SimulationOutputVariable> channels;
+    private DataOutputStream out;
+    private long frames;
+    private final ChangeListener sourceDataChanged;
+
+    public SessionRecorder(File file) {
+        sessionFile = file;
+        channels = new ArrayList<>(CVSim.sim.getOutputVariables());
+
+        sourceDataChanged = new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent event) {
+                writeFrame();
+            }
+        };
+    }
+
+    public void startRecording() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sessionFile), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(CVSim.getSimulationModelName());
+        out.writeInt(channels.size());
+        for (SimulationOutputVariable v : channels) {
+            out.writeInt(v.getOutputIndex());
+            out.writeUTF(v.getName());
+        }
+        frames = 0;
+
+        // begin receiving changes
+        CVSim.sim.addChangeListener(sourceDataChanged);
+        System.out.println("Recording session to " + sessionFile);
+    }
+
+    // Frames are written from the simulation thread, so closing the
+    // file is serialised with writeFrame()
+    public synchronized void stopRecording() {
+        // stop receiving changes
+        CVSim.sim.removeChangeListener(sourceDataChanged);
+        try {
+            out.close();
+            out = null;
+        } catch (IOException e) {
+            System.err.println("Error closing file " + sessionFile);
+            System.err.println(e);
+        }
+        System.out.println("Recorded " + frames + " frames to " + sessionFile);
+    }
+
+    public File getFile() {
+        return sessionFile;
+    }
+
+    private synchronized void writeFrame() {
+        if (out == null) {
+            return;
+        }
+        try {
+            for (SimulationOutputVariable v : channels) {
+                out.writeDouble(CVSim.sim.getOutput(v.getOutputIndex()));
+            }
+            frames++;
+        } catch (IOException e) {
+            System.err.println("Error writing file " + sessionFile);
+            System.err.println(e);
+        }
+    }
+
+}
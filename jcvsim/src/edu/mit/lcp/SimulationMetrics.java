@@ -0,0 +1,276 @@
+package edu.mit.lcp;
+
+import java.lang.management.ManagementFactory;
+import java.util.Timer;
+import java.util.TimerTask;
+import javax.management.ObjectName;
+import jcvsim.backendCommon.Metrics;
+
+// Collects timings for the simulation step, the variable recorders and
+// plot repaints, and the frames drawn by the RenderClock, together with
+// the backend counters kept in jcvsim.backendCommon.Metrics.  The figures are published through JMX
+// and summarised in a log line every LOG_PERIOD milliseconds while the
+// simulation is advancing.
+public class SimulationMetrics implements SimulationMetricsMBean {
+
+    // Log period, set with -Djcvsim.metrics.period=<seconds>, 0 disables
+    private static final long LOG_PERIOD = 1000 * Long.getLong("jcvsim.metrics.period", 30);
+
+    private static final SimulationMetrics theInstance = new SimulationMetrics();
+
+    private final TimingHistogram stepTimes = new TimingHistogram();
+    private final TimingHistogram recorderTimes = new TimingHistogram();
+    private final TimingHistogram repaintTimes = new TimingHistogram();
+    // written on the event-dispatching thread only
+    private volatile long renderedFrames;
+    private volatile long droppedRenderFrames;
+
+    // Allocation counting is a HotSpot extension, so it may be absent
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long allocatedBytes;
+    private long stepStart;
+    private long stepAllocationStart;
+
+    private volatile double simTime;
+    private double realTimeFactor;
+    private Timer logTimer;
+
+    // values at the last log line, for per-interval figures
+    private long lastSteps;
+    private long lastRhs;
+    private long lastRejected;
+    private long lastAllocated;
+    private long lastRendered;
+    private long lastDroppedRender;
+    private double lastSimTime;
+    private long lastWallTime;
+
+    public static SimulationMetrics instance() {
+        return theInstance;
+    }
+
+    private SimulationMetrics() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if ((bean instanceof com.sun.management.ThreadMXBean)
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+        } else {
+            threadBean = null;
+        }
+    }
+
+    // Register with JMX and begin the periodic log line
+    public void start() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("edu.mit.lcp:type=SimulationMetrics"));
+        } catch (Exception e) {
+            System.err.println("SimulationMetrics: cannot register MBean");
+            System.err.println(e);
+        }
+
+        lastWallTime = System.nanoTime();
+        if (LOG_PERIOD > 0) {
+            logTimer = new Timer("SimulationMetrics", true);
+            logTimer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    log();
+                }
+            }, LOG_PERIOD, LOG_PERIOD);
+        }
+    }
+
+    ///////////////////////////////////////////////
+    // Hooks, called on the thread doing the work
+    //
+    public void stepStarted() {
+        if (threadBean != null) {
+            stepAllocationStart = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        stepStart = System.nanoTime();
+    }
+
+    public void stepFinished(double simulationTime) {
+        stepTimes.record(System.nanoTime() - stepStart);
+        if (threadBean != null) {
+            allocatedBytes += threadBean.getThreadAllocatedBytes(Thread.currentThread().getId())
+                    - stepAllocationStart;
+        }
+        simTime = simulationTime;
+    }
+
+    public void recorderTime(long nanos) {
+        recorderTimes.record(nanos);
+    }
+
+    public void repaintTime(long nanos) {
+        repaintTimes.record(nanos);
+    }
+
+    // A tick of the RenderClock, late by missed whole frames
+    public void renderFrame(long missed) {
+        renderedFrames++;
+        droppedRenderFrames += missed;
+    }
+
+    private void log() {
+        long now = System.nanoTime();
+        long steps = stepTimes.getCount();
+        double t = simTime;
+        if (steps == lastSteps) {
+            // nothing to report while the simulation is stopped
+            lastWallTime = now;
+            lastSimTime = t;
+            return;
+        }
+
+        long intervalSteps = steps - lastSteps;
+        realTimeFactor = (t - lastSimTime) / ((now - lastWallTime) / 1e9);
+
+        System.out.println(String.format("Metrics: %d steps, %.1f rhs/step, %d rejected, "
+                + "hdid %.2e..%.2e, step %.0fus (p99 %.0fus), reflex %.0fms, "
+                + "recorders %.0fus, repaint %.0fus (p99 %.0fus), %d frames (%d dropped), "
+                + "%.2fx realtime, %d bytes/step",
+                intervalSteps,
+                (double) (Metrics.rhsEvaluations - lastRhs) / intervalSteps,
+                Metrics.rejectedSteps - lastRejected,
+                getMinHdid(), getMaxHdid(),
+                stepTimes.getMeanMicros(), stepTimes.getPercentileMicros(0.99),
+                getReflexMillis(),
+                recorderTimes.getMeanMicros(),
+                repaintTimes.getMeanMicros(), repaintTimes.getPercentileMicros(0.99),
+                renderedFrames - lastRendered, droppedRenderFrames - lastDroppedRender,
+                realTimeFactor,
+                (allocatedBytes - lastAllocated) / intervalSteps));
+
+        lastSteps = steps;
+        lastRhs = Metrics.rhsEvaluations;
+        lastRejected = Metrics.rejectedSteps;
+        lastAllocated = allocatedBytes;
+        lastRendered = renderedFrames;
+        lastDroppedRender = droppedRenderFrames;
+        lastSimTime = t;
+        lastWallTime = now;
+    }
+
+    ///////////////////////////////////////////////
+    // Public Interface for SimulationMetricsMBean
+    //
+    @Override
+    public long getSteps() {
+        return stepTimes.getCount();
+    }
+
+    @Override
+    public long getRhsEvaluations() {
+        return Metrics.rhsEvaluations;
+    }
+
+    @Override
+    public double getRhsEvaluationsPerStep() {
+        long steps = getSteps();
+        return (steps == 0) ? 0 : (double) Metrics.rhsEvaluations / steps;
+    }
+
+    @Override
+    public long getAcceptedRkSteps() {
+        return Metrics.acceptedSteps;
+    }
+
+    @Override
+    public long getRejectedRkSteps() {
+        return Metrics.rejectedSteps;
+    }
+
+    @Override
+    public double getMeanHdid() {
+        long n = Metrics.acceptedSteps;
+        return (n == 0) ? 0 : Metrics.hdidSum / n;
+    }
+
+    @Override
+    public double getMinHdid() {
+        return (Metrics.acceptedSteps == 0) ? 0 : Metrics.hdidMin;
+    }
+
+    @Override
+    public double getMaxHdid() {
+        return Metrics.hdidMax;
+    }
+
+    @Override
+    public double getReflexMillis() {
+        return (double) Metrics.reflexNanos / 1000000;
+    }
+
+    @Override
+    public double getStepMeanMicros() {
+        return stepTimes.getMeanMicros();
+    }
+
+    @Override
+    public double getStepP99Micros() {
+        return stepTimes.getPercentileMicros(0.99);
+    }
+
+    @Override
+    public double getRecorderMeanMicros() {
+        return recorderTimes.getMeanMicros();
+    }
+
+    @Override
+    public double getRepaintMeanMicros() {
+        return repaintTimes.getMeanMicros();
+    }
+
+    @Override
+    public double getRepaintP99Micros() {
+        return repaintTimes.getPercentileMicros(0.99);
+    }
+
+    @Override
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    @Override
+    public long getDroppedRenderFrames() {
+        return droppedRenderFrames;
+    }
+
+    // Total time spent repainting, used by CompressionController
+    public double getRepaintTotalMillis() {
+        return repaintTimes.getTotalMillis();
+    }
+
+    // Achieved over the most recent log period
+    @Override
+    public double getRealTimeFactor() {
+        return realTimeFactor;
+    }
+
+    @Override
+    public double getBytesAllocatedPerStep() {
+        long steps = getSteps();
+        return (steps == 0) ? 0 : (double) allocatedBytes / steps;
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+        stepTimes.reset();
+        recorderTimes.reset();
+        repaintTimes.reset();
+        renderedFrames = 0;
+        droppedRenderFrames = 0;
+        allocatedBytes = 0;
+        lastSteps = 0;
+        lastRhs = 0;
+        lastRejected = 0;
+        lastAllocated = 0;
+        lastRendered = 0;
+        lastDroppedRender = 0;
+    }
+
+}
@@ -0,0 +1,46 @@
+package edu.mit.lcp;
+
+// Management interface for SimulationMetrics, registered with the platform
+// MBean server as edu.mit.lcp:type=SimulationMetrics.  All values are
+// accumulated since the last call to reset().
+public interface SimulationMetricsMBean {
+
+    public long getSteps();
+
+    public long getRhsEvaluations();
+
+    public double getRhsEvaluationsPerStep();
+
+    public long getAcceptedRkSteps();
+
+    public long getRejectedRkSteps();
+
+    public double getMeanHdid();
+
+    public double getMinHdid();
+
+    public double getMaxHdid();
+
+    public double getReflexMillis();
+
+    public double getStepMeanMicros();
+
+    public double getStepP99Micros();
+
+    public double getRecorderMeanMicros();
+
+    public double getRepaintMeanMicros();
+
+    public double getRepaintP99Micros();
+
+    public long getRenderedFrames();
+
+    public long getDroppedRenderFrames();
+
+    public double getRealTimeFactor();
+
+    public double getBytesAllocatedPerStep();
+
+    public void reset();
+
+}
@@ -184,6 +184,29 @@ public class SimulationOutputVariableBuffer<E extends Number & Comparable<E>>
         return lastDatum;
     }
 
+    @Override
+    public E getRecentDatum(int age) {
+        int loc = (_nextWriteLoc - 1 - age) % _sizeLimit;
+        if (loc < 0) {
+            loc += _sizeLimit;
+        }
+        return _data.get(loc);
+    }
+
+    @Override
+    public int getData(double[] dest, int offset, int stride, int n) {
+        synchronized (_data) {
+            int size = _data.size();
+            n = Math.min(n, size);
+            int j = offset;
+            for (int age = n - 1; age >= 0; age--, j += stride) {
+                int loc = _nextWriteLoc - 1 - age;
+                dest[j] = _data.get((loc < 0) ? loc + size : loc).doubleValue();
+            }
+            return n;
+        }
+    }
+
     @Override
     public void addDatum(E d) {
         addMarkedDatum(d, 0);
@@ -1,83 +1,136 @@
 package edu.mit.lcp;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.locks.LockSupport;
 
-// Class SimulationThread is a wrapper for the Simulation class so it
-// can run independently at a fixed rate in a separate thread.
+// Class SimulationThread runs the simulation on its own thread, paced
+// so that simulated time advances at a target multiple of wall clock
+// time.  The pacing follows the simulation's own TIME output, so it does
+// not depend on how long a step takes or on timer granularity.
+//
+// When the simulation falls behind, steps are run back to back until it
+// catches up.  If it falls more than MAX_LAG_NANOS behind (a slow machine
+// or a long pause) the lost time is dropped and the pacing restarts from
+// the current position, rather than bursting to make it all up.
+//
+// In turbo mode the pacing is switched off and the simulation runs as
+// fast as the machine allows.
+//
+// Display updates are handed to the event dispatch thread by
+// CSimulation.dataChanged(), so painting never slows the simulation.
 public class SimulationThread {
 
-    private Timer _timer;
-    private long _period;
-    private boolean _timerRunning;
+    private static final long MAX_LAG_NANOS = 250000000L;
+
+    private Thread _thread;
+    private volatile boolean _running;
+    private volatile double _realTimeFactor;
+    // run as fast as possible, ignoring the real time factor
+    private volatile boolean _turbo;
 
     public CSimulation _sim;
-    private TimerTask _simTask;
+
+    // counted on the simulation thread, read from others
+    private volatile long _lagResets;
 
     // Constructor instantiates the actual simulation
     public SimulationThread(CSimulation sim) {
         _sim = sim;
         // default
-        _period = 0;
-        _timerRunning = false;
-    } 
-
-    public void setPeriod(long period) {
-        _period = period;
-        System.out.println("Simulation Period set to " + _period);
-        if (_timerRunning) {
-            // restart the timer to use new period
-            stop();
-            start();
-        }
+        _realTimeFactor = 1.0;
+        _running = false;
+    }
+
+    // Target simulated seconds per wall clock second
+    public void setRealTimeFactor(double factor) {
+        _realTimeFactor = factor;
     }
 
-    public long getPeriod() {
-        return _period;
+    public double getRealTimeFactor() {
+        return _realTimeFactor;
+    }
+
+    public void setTurbo(boolean turbo) {
+        _turbo = turbo;
+    }
+
+    public boolean isTurbo() {
+        return _turbo;
     }
 
     public boolean isRunning() {
-        return _timerRunning;
+        return _running;
+    }
+
+    // Number of times the pacing gave up catching up and dropped time
+    public long getLagResets() {
+        return _lagResets;
     }
 
-    // schedule the simulation to step after predefined number of
-    // milliseconds.  this also starts the simulation
     public void start() {
-        if ((_period > 0) && !(_timerRunning)) {
-            System.out.println("SimulationThread.start(): " + _period + "ms");
-
-            // the actual timer object which is used to execute a TimerTask
-            _timer = new Timer();
-            // a new TimerTask is created, wrapping the step() method of
-            // the simulation to the run() method that is executed by the
-            // Timer. A new TimerTask is required for every new Timer
-            // because a cancelled Timer prevents the associated TimerTask
-            // from being reassigned to a new Timer.  Kinda a dirty hack.
-
-            _simTask = new TimerTask() {
+        if ((_realTimeFactor > 0) && !(_running)) {
+            _running = true;
+            _thread = new Thread(new Runnable() {
                 @Override
                 public void run() {
-                    _sim.step();
+                    runPaced();
                 }
-            };
-
-            // scheduleAtFixedRate is preferred over schedule as it
-            // executes every x milliseconds, instead of executing x
-            // milliseconds after the last execution event
-            _timer.scheduleAtFixedRate(_simTask, // TimerTask
-                    0, // initial delay
-                    _period);  //subsequent rate
-            _timerRunning = true;
+            }, "SimulationThread");
+            _thread.setDaemon(true);
+            _thread.start();
         }
     }
 
-    // The only way to stop a Timer is to cancel it completely, but
-    // this does not reset/kill the simlation
+    // Stop stepping, this does not reset/kill the simulation.  Waits for
+    // the step in progress, so on return the simulation is idle
     public void stop() {
-        if (_timerRunning) {
-            System.out.println("SimulationThread.stop(): " + _period + "ms");
-            _timer.cancel();
-            _timerRunning = false;
+        if (_running) {
+            _running = false;
+            if (Thread.currentThread() != _thread) {
+                try {
+                    _thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            _sim.flushDisplay();
+        }
+    }
+
+    private void runPaced() {
+        SimulationMetrics metrics = SimulationMetrics.instance();
+        double factor = _realTimeFactor;
+        double simStart = _sim.getOutput(0);
+        long wallStart = System.nanoTime();
+
+        try {
+            while (_running) {
+                metrics.stepStarted();
+                _sim.step();
+                double simTime = _sim.getOutput(0);
+                metrics.stepFinished(simTime);
+
+                // restart the pacing if the target changed, time went
+                // backwards (simulation reset), or in turbo mode
+                if (_turbo || (factor != _realTimeFactor) || (simTime < simStart)) {
+                    factor = _realTimeFactor;
+                    simStart = simTime;
+                    wallStart = System.nanoTime();
+                    continue;
+                }
+
+                long due = wallStart + (long) ((simTime - simStart) / factor * 1e9);
+                long ahead = due - System.nanoTime();
+                if (ahead > 0) {
+                    LockSupport.parkNanos(ahead);
+                } else if (-ahead > MAX_LAG_NANOS) {
+                    // too far behind to catch up, drop the lost time
+                    _lagResets++;
+                    simStart = simTime;
+                    wallStart = System.nanoTime();
+                }
+            }
+        } finally {
+            _running = false;
         }
     }
 
@@ -0,0 +1,229 @@
+package edu.mit.lcp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+// StreamServer.java
+// Broadcasts the running simulation over HTTP so that many jCVSim
+// instances can watch one simulation without running it themselves.
+//
+// GET /stream?every=N returns an endless session recording in the format
+// written by SessionRecorder, with every Nth frame (default 1), which a
+// viewer plays through its plots with SessionPlayer.  GET /status returns
+// a line of counts.
+//
+// Each frame is encoded once, on the simulation thread, and the same bytes
+// are queued for every viewer, so the cost grows with the simulation and
+// hardly at all with the number of viewers.  Each viewer has a bounded
+// queue written out by a thread of its own; a viewer too slow to keep up
+// loses frames rather than holding up the simulation or the others.  At
+// most MAX_VIEWERS watch at once, later ones are turned away.
+public class StreamServer {
+
+    private static final int QUEUE_FRAMES = 4096;
+    public static final int MAX_VIEWERS = 32;
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final List<SimulationOutputVariable> channels;
+    private final byte[] header;
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private final ChangeListener sourceDataChanged;
+    private volatile long frames;
+
+    public StreamServer(int port) throws IOException {
+        channels = new ArrayList<>(CVSim.sim.getOutputVariables());
+        header = encodeHeader();
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/stream", new StreamHandler());
+        server.createContext("/status", new StatusHandler());
+        // one thread per viewer, each blocks writing its own stream, and
+        // a couple more so that status requests and turning viewers away
+        // do not wait for a viewer to leave
+        executor = new ThreadPoolExecutor(MAX_VIEWERS + 2, MAX_VIEWERS + 2,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        server.setExecutor(executor);
+
+        sourceDataChanged = new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent event) {
+                broadcastFrame();
+            }
+        };
+    }
+
+    public void start() {
+        server.start();
+        CVSim.sim.addChangeListener(sourceDataChanged);
+        System.out.println("Streaming simulation on port " + server.getAddress().getPort());
+    }
+
+    public void stop() {
+        CVSim.sim.removeChangeListener(sourceDataChanged);
+        server.stop(0);
+        // the viewers' threads are waiting for frames that will not come
+        executor.shutdownNow();
+    }
+
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    private byte[] encodeHeader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SessionRecorder.MAGIC);
+        out.writeInt(SessionRecorder.VERSION);
+        out.writeUTF(CVSim.getSimulationModelName());
+        out.writeInt(channels.size());
+        for (SimulationOutputVariable v : channels) {
+            out.writeInt(v.getOutputIndex());
+            out.writeUTF(v.getName());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Simulation thread
+    private void broadcastFrame() {
+        long n = frames++;
+        if (viewers.isEmpty()) {
+            return;
+        }
+        // big-endian, as written by DataOutputStream
+        ByteBuffer frame = ByteBuffer.allocate(8 * channels.size());
+        for (SimulationOutputVariable v : channels) {
+            frame.putDouble(CVSim.sim.getOutput(v.getOutputIndex()));
+        }
+        byte[] bytes = frame.array();
+        for (Viewer viewer : viewers) {
+            if (n % viewer.every == 0) {
+                if (!viewer.queue.offer(bytes)) {
+                    viewer.dropped++;
+                }
+            }
+        }
+    }
+
+    private static class Viewer {
+
+        final int every;
+        final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_FRAMES);
+        // written by the simulation thread only, read by the viewer's
+        volatile long dropped;
+
+        Viewer(int every) {
+            this.every = every;
+        }
+    }
+
+    private class StreamHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            int every = 1;
+            String value = parameter(exchange.getRequestURI().getQuery(), "every");
+            if (value != null) {
+                try {
+                    every = Math.max(1, Integer.parseInt(value));
+                } catch (NumberFormatException e) {
+                    // keep every frame
+                }
+            }
+
+            Viewer viewer = new Viewer(every);
+            boolean full;
+            synchronized (viewers) {
+                full = (viewers.size() >= MAX_VIEWERS);
+                if (!full) {
+                    viewers.add(viewer);
+                }
+            }
+            if (full) {
+                System.out.println("StreamServer: viewer " + exchange.getRemoteAddress()
+                        + " turned away, " + MAX_VIEWERS + " watching");
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            System.out.println("StreamServer: viewer " + exchange.getRemoteAddress()
+                    + " joined, every " + every + " frames, " + viewers.size() + " watching");
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                out.write(header);
+                out.flush();
+                while (true) {
+                    byte[] frame = viewer.queue.poll(1, TimeUnit.SECONDS);
+                    if (frame != null) {
+                        out.write(frame);
+                    }
+                    // write out whatever has arrived in one go
+                    while ((frame = viewer.queue.poll()) != null) {
+                        out.write(frame);
+                    }
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // viewer went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                viewers.remove(viewer);
+                exchange.close();
+                System.out.println("StreamServer: viewer " + exchange.getRemoteAddress()
+                        + " left, " + viewer.dropped + " frames dropped, " + viewers.size() + " watching");
+            }
+        }
+    }
+
+    // The value of parameter name in a decoded query such as "a=1&every=5",
+    // or null if it is not there
+    static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if ((eq > 0) && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private class StatusHandler implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            byte[] status = (CVSim.getSimulationModelName() + ": " + frames + " frames, "
+                    + viewers.size() + " viewers\n").getBytes("UTF-8");
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, status.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(status);
+            out.close();
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package edu.mit.lcp;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+// StripChartBuffer.java
+// Off-screen image of the traces of a strip chart, kept between repaints.
+//
+// A strip chart only gains a few pixels of new data per frame, and the
+// rest of it moves left.  Instead of drawing the whole history of every
+// trace on each repaint, the image is scrolled left by the whole pixels
+// the time axis has moved since the last repaint, and only the samples
+// that arrived since then are drawn, at the right hand edge.  The image is
+// then copied to the screen over the background and gridlines.
+//
+// Anything that changes the drawing other than the passage of time, such
+// as a new trace, a colour, a y range or the paper speed, is noticed by
+// comparing each trace's settings with those it was last drawn with, and
+// the image is redrawn from scratch.
+public class StripChartBuffer {
+
+    private BufferedImage image;
+    private Rectangle bounds = new Rectangle();
+    private final List<TraceState> drawn = new ArrayList<>();
+    // time at the right hand edge of the image, see rightEdge()
+    private double rightTime;
+    private float[] points = new float[0];
+    private final Path2D.Float path = new Path2D.Float();
+
+    // Draw the traces of list onto g, clipped to plotBounds.
+    // Event-dispatching thread
+    public void draw(Graphics2D g, TraceListModel list, Rectangle plotBounds,
+            GraphicsConfiguration config) {
+        if ((plotBounds.width <= 0) || (plotBounds.height <= 0)) {
+            return;
+        }
+        if ((image == null) || !bounds.equals(plotBounds)) {
+            bounds = new Rectangle(plotBounds);
+            image = (config != null)
+                    ? config.createCompatibleImage(bounds.width, bounds.height, Transparency.TRANSLUCENT)
+                    : new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB_PRE);
+            drawn.clear();
+        }
+
+        Graphics2D bg = image.createGraphics();
+        bg.translate(-bounds.x, -bounds.y);
+        try {
+            List<Trace<?, ?>> enabled = new ArrayList<>();
+            for (Trace<?, ?> trace : list) {
+                if (trace.isEnabled()) {
+                    enabled.add(trace);
+                }
+            }
+            if (!update(bg, enabled)) {
+                redraw(bg, enabled);
+            }
+        } finally {
+            bg.dispose();
+        }
+        g.drawImage(image, bounds.x, bounds.y, null);
+    }
+
+    // Force the next repaint to redraw every trace
+    public void invalidate() {
+        drawn.clear();
+    }
+
+    // Clear the image and draw every trace
+    private void redraw(Graphics2D bg, List<Trace<?, ?>> traces) {
+        clear(bg, bounds.x, bounds.width);
+        drawn.clear();
+        if (traces.isEmpty()) {
+            return;
+        }
+        rightTime = newestTime(traces.get(0));
+        for (Trace<?, ?> trace : traces) {
+            TraceState state = new TraceState(trace);
+            synchronized (CVSim.sim.getRecorderLock()) {
+                state.lastTime = newestTime(trace);
+            }
+            // the trace's transform was set up for the newest time when
+            // it was last updated, move it on to rightTime
+            AffineTransform at = trace.getTransform();
+            Graphics2D moved = (Graphics2D) bg.create();
+            moved.translate(moveTo(at).getTranslateX() - at.getTranslateX(), 0);
+            moved.setColor(state.color);
+            moved.setStroke(state.stroke);
+            moved.draw(trace);
+            moved.dispose();
+            drawn.add(state);
+        }
+    }
+
+    // Scroll the image and draw only the new samples, returning false if
+    // the traces have changed in a way that needs a full redraw
+    private boolean update(Graphics2D bg, List<Trace<?, ?>> traces) {
+        if (traces.size() != drawn.size()) {
+            return false;
+        }
+        for (int i = 0; i < traces.size(); i++) {
+            if (!drawn.get(i).matches(traces.get(i))) {
+                return false;
+            }
+        }
+        if (traces.isEmpty()) {
+            return true;
+        }
+
+        double pixelsPerSecond = traces.get(0).getTransform().getScaleX();
+        double newestTime = newestTime(traces.get(0));
+        if (newestTime < drawn.get(0).lastTime) {
+            // time has gone backwards, the simulation was reset
+            return false;
+        }
+
+        // scroll by whole pixels, so that the newest sample lands at or
+        // just short of the right hand edge
+        int shift = (int) Math.ceil((newestTime - rightTime) * pixelsPerSecond);
+        if (shift >= bounds.width) {
+            clear(bg, bounds.x, bounds.width);
+        } else if (shift > 0) {
+            // copy the transparent pixels too, rather than compositing
+            bg.setComposite(AlphaComposite.Src);
+            bg.copyArea(bounds.x + shift, bounds.y, bounds.width - shift, bounds.height, -shift, 0);
+            clear(bg, bounds.x + bounds.width - shift, shift);
+        }
+        rightTime += shift / pixelsPerSecond;
+
+        for (int i = 0; i < traces.size(); i++) {
+            drawNewSamples(bg, traces.get(i), drawn.get(i));
+        }
+        return true;
+    }
+
+    // Draw the samples newer than the last one drawn, joined on to it
+    private void drawNewSamples(Graphics2D bg, Trace<?, ?> trace, TraceState state) {
+        VariableWindow<?> x = trace.getXVar();
+        VariableWindow<?> y = trace.getYVar();
+        int n;
+        // read under the recorder lock so that x and y are from the
+        // same steps
+        synchronized (CVSim.sim.getRecorderLock()) {
+            int size = Math.min(x.getSize(), y.getSize());
+            int age = 0;
+            while ((age < size - 1) && (x.getRecentDatum(age).doubleValue() > state.lastTime)) {
+                age++;
+            }
+            if (age == 0) {
+                return;
+            }
+            n = age + 1;
+            if (points.length < 2 * n) {
+                points = new float[4 * n];
+            }
+            // oldest first, relative to rightTime to keep the precision
+            // of the floats
+            for (int i = 0; i < n; i++) {
+                points[2 * i] = (float) (x.getRecentDatum(age - i).doubleValue() - rightTime);
+                points[2 * i + 1] = (float) y.getRecentDatum(age - i).doubleValue();
+            }
+            state.lastTime = newestTime(trace);
+        }
+
+        AffineTransform at = trace.getTransform();
+        AffineTransform moved = new AffineTransform(at.getScaleX(), at.getShearY(),
+                at.getShearX(), at.getScaleY(), rightEdge(), at.getTranslateY());
+        moved.transform(points, 0, points, 0, n);
+        n = Trace.decimate(points, n);
+
+        path.reset();
+        path.moveTo(points[0], points[1]);
+        for (int i = 1; i < n; i++) {
+            path.lineTo(points[2 * i], points[2 * i + 1]);
+        }
+        bg.setColor(state.color);
+        bg.setStroke(state.stroke);
+        bg.draw(path);
+    }
+
+    // Make a strip of the image transparent
+    private void clear(Graphics2D bg, int x, int width) {
+        bg.setComposite(AlphaComposite.Clear);
+        bg.fillRect(x, bounds.y, width, bounds.height);
+        bg.setComposite(AlphaComposite.SrcOver);
+    }
+
+    // A trace's transform, moved along the time axis to put rightTime at
+    // the right hand edge of the plot
+    private AffineTransform moveTo(AffineTransform at) {
+        return new AffineTransform(at.getScaleX(), at.getShearY(), at.getShearX(), at.getScaleY(),
+                rightEdge() - at.getScaleX() * rightTime, at.getTranslateY());
+    }
+
+    // Where rightTime is drawn: the middle of the last column of pixels,
+    // so that the newest segment is never clipped
+    private double rightEdge() {
+        return bounds.x + bounds.width - 1.5;
+    }
+
+    private static double newestTime(Trace<?, ?> trace) {
+        return trace.getXVar().getRecentDatum(0).doubleValue();
+    }
+
+    // What a trace was last drawn with
+    private static class TraceState {
+
+        final Trace<?, ?> trace;
+        final VariableWindow<?> xVar;
+        final VariableWindow<?> yVar;
+        final Color color;
+        final Stroke stroke;
+        final double scaleX;
+        final double scaleY;
+        final double translateY;
+        // time of the newest sample drawn
+        double lastTime;
+
+        TraceState(Trace<?, ?> trace) {
+            this.trace = trace;
+            xVar = trace.getXVar();
+            yVar = trace.getYVar();
+            color = trace.getColor();
+            stroke = trace.getStroke();
+            AffineTransform at = trace.getTransform();
+            scaleX = at.getScaleX();
+            scaleY = at.getScaleY();
+            translateY = at.getTranslateY();
+        }
+
+        boolean matches(Trace<?, ?> t) {
+            AffineTransform at = t.getTransform();
+            return (t == trace) && (t.getXVar() == xVar) && (t.getYVar() == yVar)
+                    && t.getColor().equals(color) && t.getStroke().equals(stroke)
+                    && (at.getScaleX() == scaleX) && (at.getScaleY() == scaleY)
+                    && (at.getTranslateY() == translateY);
+        }
+    }
+
+}
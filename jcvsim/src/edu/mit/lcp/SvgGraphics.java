@@ -0,0 +1,783 @@
+package edu.mit.lcp;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.AttributedCharacterIterator;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+// SvgGraphics.java
+// A Graphics2D that records what is drawn on it as SVG, so that Swing
+// components can be saved as vector figures, see PlotExporter.
+//
+// The drawing state, that is the transform, clip, colour, stroke, font
+// and rendering hints, is kept by a Graphics2D on a small scratch image,
+// which also measures text.  Shapes are written as paths in device
+// space, text as text elements and images as embedded PNG.  Composites
+// and XOR mode are ignored, everything is painted over what is below.
+public class SvgGraphics extends Graphics2D {
+
+    private final Document doc;
+    private final Graphics2D state;
+
+    public SvgGraphics(int width, int height) {
+        doc = new Document(width, height);
+        state = doc.scratch.createGraphics();
+        state.setColor(Color.BLACK);
+        state.setBackground(Color.WHITE);
+    }
+
+    private SvgGraphics(Document doc, Graphics2D state) {
+        this.doc = doc;
+        this.state = state;
+    }
+
+    // Write the document drawn so far to file
+    public void write(File file) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\""
+                    + " xmlns:xlink=\"http://www.w3.org/1999/xlink\""
+                    + " width=\"" + doc.width + "\" height=\"" + doc.height + "\""
+                    + " viewBox=\"0 0 " + doc.width + " " + doc.height + "\">\n");
+            out.append(doc.body);
+            out.write("</svg>\n");
+        }
+    }
+
+    ///////////////////////////////////////////////
+    // Writing the elements
+    //
+
+    // Append a path element for s, given in user space
+    private void path(Shape s, boolean fill) {
+        Stroke stroke = state.getStroke();
+        if (!fill && !(stroke instanceof BasicStroke)) {
+            // an unusual stroke can only be drawn as its outline
+            s = stroke.createStrokedShape(s);
+            fill = true;
+        }
+        AffineTransform at = state.getTransform();
+        PathIterator pi = s.getPathIterator(at);
+        StringBuilder d = new StringBuilder();
+        double[] c = new double[6];
+        while (!pi.isDone()) {
+            switch (pi.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:
+                    d.append('M').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_LINETO:
+                    d.append('L').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    d.append('Q').append(num(c[0])).append(' ').append(num(c[1]))
+                            .append(' ').append(num(c[2])).append(' ').append(num(c[3]));
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    d.append('C').append(num(c[0])).append(' ').append(num(c[1]))
+                            .append(' ').append(num(c[2])).append(' ').append(num(c[3]))
+                            .append(' ').append(num(c[4])).append(' ').append(num(c[5]));
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    d.append('Z');
+                    break;
+            }
+            pi.next();
+        }
+        if (d.length() == 0) {
+            return;
+        }
+
+        String clip = clip();
+        StringBuilder e = doc.body;
+        e.append("<path d=\"").append(d).append('"');
+        if (fill) {
+            e.append(" fill=\"").append(color()).append('"');
+            opacity(e, "fill-opacity");
+            if (pi.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+                e.append(" fill-rule=\"evenodd\"");
+            }
+        } else {
+            BasicStroke bs = (BasicStroke) stroke;
+            double scale = Math.sqrt(Math.abs(at.getDeterminant()));
+            e.append(" fill=\"none\" stroke=\"").append(color()).append('"');
+            opacity(e, "stroke-opacity");
+            // a zero width is the thinnest line the device can draw
+            e.append(" stroke-width=\"").append(num(Math.max(bs.getLineWidth() * scale, 1))).append('"');
+            if (bs.getEndCap() != BasicStroke.CAP_BUTT) {
+                e.append(" stroke-linecap=\"")
+                        .append(bs.getEndCap() == BasicStroke.CAP_ROUND ? "round" : "square").append('"');
+            }
+            if (bs.getLineJoin() != BasicStroke.JOIN_MITER) {
+                e.append(" stroke-linejoin=\"")
+                        .append(bs.getLineJoin() == BasicStroke.JOIN_ROUND ? "round" : "bevel").append('"');
+            } else {
+                e.append(" stroke-miterlimit=\"").append(num(bs.getMiterLimit())).append('"');
+            }
+            float[] dash = bs.getDashArray();
+            if (dash != null) {
+                e.append(" stroke-dasharray=\"");
+                for (int i = 0; i < dash.length; i++) {
+                    e.append((i > 0) ? "," : "").append(num(dash[i] * scale));
+                }
+                e.append("\" stroke-dashoffset=\"").append(num(bs.getDashPhase() * scale)).append('"');
+            }
+        }
+        e.append(clip).append("/>\n");
+    }
+
+    // Append a text element, with x, y and the text in user space.  Text
+    // is not clipped, as a viewer's font may be a little wider than the
+    // one the component measured it with.
+    private void text(String str, float x, float y) {
+        if (str.isEmpty()) {
+            return;
+        }
+        Font font = state.getFont();
+        StringBuilder e = doc.body;
+        e.append("<text x=\"").append(num(x)).append("\" y=\"").append(num(y)).append('"');
+        e.append(" transform=\"").append(matrix(state.getTransform())).append('"');
+        e.append(" font-family=\"").append(fontFamily(font)).append('"');
+        e.append(" font-size=\"").append(num(font.getSize2D())).append('"');
+        if (font.isBold()) {
+            e.append(" font-weight=\"bold\"");
+        }
+        if (font.isItalic()) {
+            e.append(" font-style=\"italic\"");
+        }
+        e.append(" fill=\"").append(color()).append('"');
+        opacity(e, "fill-opacity");
+        e.append(" xml:space=\"preserve\">").append(escape(str)).append("</text>\n");
+    }
+
+    // Append an image element, xform maps the image into user space
+    private void image(BufferedImage img, AffineTransform xform) {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(img, "png", png);
+        } catch (IOException e) {
+            System.err.println("SvgGraphics: cannot encode image");
+            System.err.println(e);
+            return;
+        }
+        AffineTransform at = new AffineTransform(state.getTransform());
+        at.concatenate(xform);
+        String clip = beginClip();
+        StringBuilder e = doc.body;
+        e.append("<image width=\"").append(img.getWidth()).append("\" height=\"").append(img.getHeight()).append('"');
+        e.append(" transform=\"").append(matrix(at)).append('"');
+        e.append(" xlink:href=\"data:image/png;base64,")
+                .append(Base64.getEncoder().encodeToString(png.toByteArray())).append("\"/>");
+        endClip(clip);
+    }
+
+    // The clip-path attribute for the current clip, defining the clip
+    // the first time it is used, or nothing if it clips nothing
+    private String clip() {
+        Shape clip = state.getClip();
+        if (clip == null) {
+            return "";
+        }
+        Path2D device = new Path2D.Double(clip, state.getTransform());
+        if (device.contains(0, 0, doc.width, doc.height)) {
+            return "";
+        }
+        StringBuilder d = new StringBuilder();
+        PathIterator pi = device.getPathIterator(null, 0.25);
+        double[] c = new double[6];
+        while (!pi.isDone()) {
+            switch (pi.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO:
+                    d.append('M').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_LINETO:
+                    d.append('L').append(num(c[0])).append(' ').append(num(c[1]));
+                    break;
+                case PathIterator.SEG_CLOSE:
+                    d.append('Z');
+                    break;
+            }
+            pi.next();
+        }
+        String key = d.toString();
+        String id = doc.clipIds.get(key);
+        if (id == null) {
+            id = "c" + doc.clipIds.size();
+            doc.clipIds.put(key, id);
+            doc.body.append("<clipPath id=\"").append(id).append("\"><path d=\"")
+                    .append(key).append("\"/></clipPath>\n");
+        }
+        return " clip-path=\"url(#" + id + ")\"";
+    }
+
+    // A clip path would be taken in the coordinates of an element's own
+    // transform, so elements with one are clipped by a group around them
+    private String beginClip() {
+        String clip = clip();
+        if (!clip.isEmpty()) {
+            doc.body.append("<g").append(clip).append('>');
+        }
+        return clip;
+    }
+
+    private void endClip(String clip) {
+        doc.body.append(clip.isEmpty() ? "\n" : "</g>\n");
+    }
+
+    private String color() {
+        Color c = paintColor();
+        return "rgb(" + c.getRed() + "," + c.getGreen() + "," + c.getBlue() + ")";
+    }
+
+    private void opacity(StringBuilder e, String attribute) {
+        int alpha = paintColor().getAlpha();
+        if (alpha < 255) {
+            e.append(' ').append(attribute).append("=\"").append(num(alpha / 255.0)).append('"');
+        }
+    }
+
+    // Gradients and textures are written as the plain colour
+    private Color paintColor() {
+        Paint p = state.getPaint();
+        return (p instanceof Color) ? (Color) p : state.getColor();
+    }
+
+    private static String matrix(AffineTransform at) {
+        return "matrix(" + num(at.getScaleX()) + " " + num(at.getShearY()) + " "
+                + num(at.getShearX()) + " " + num(at.getScaleY()) + " "
+                + num(at.getTranslateX()) + " " + num(at.getTranslateY()) + ")";
+    }
+
+    private static String fontFamily(Font font) {
+        String family = font.getFamily();
+        switch (family) {
+            case "Serif":
+                return "serif";
+            case "SansSerif":
+            case "Dialog":
+                return "sans-serif";
+            case "Monospaced":
+            case "DialogInput":
+                return "monospace";
+            default:
+                return escape(family) + ", sans-serif";
+        }
+    }
+
+    // Coordinates to a hundredth of a pixel, without needless digits
+    private static String num(double v) {
+        long hundredths = Math.round(v * 100);
+        if (hundredths % 100 == 0) {
+            return Long.toString(hundredths / 100);
+        }
+        String s = (hundredths < 0 ? "-" : "") + Math.abs(hundredths / 100) + "."
+                + String.format("%02d", Math.abs(hundredths % 100));
+        return s.endsWith("0") ? s.substring(0, s.length() - 1) : s;
+    }
+
+    private static String escape(String s) {
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '&':
+                    b.append("&amp;");
+                    break;
+                case '<':
+                    b.append("&lt;");
+                    break;
+                case '>':
+                    b.append("&gt;");
+                    break;
+                case '"':
+                    b.append("&quot;");
+                    break;
+                default:
+                    b.append(ch);
+            }
+        }
+        return b.toString();
+    }
+
+    private static BufferedImage toBufferedImage(Image img) {
+        if (img instanceof BufferedImage) {
+            return (BufferedImage) img;
+        }
+        int w = img.getWidth(null);
+        int h = img.getHeight(null);
+        if ((w <= 0) || (h <= 0)) {
+            return null;
+        }
+        BufferedImage b = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = b.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return b;
+    }
+
+    ///////////////////////////////////////////////
+    // Drawing
+    //
+    @Override
+    public void draw(Shape s) {
+        path(s, false);
+    }
+
+    @Override
+    public void fill(Shape s) {
+        path(s, true);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        path(new Line2D.Float(x1, y1, x2, y2), false);
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        path(new Rectangle(x, y, width, height), true);
+    }
+
+    @Override
+    public void clearRect(int x, int y, int width, int height) {
+        Paint p = state.getPaint();
+        state.setPaint(state.getBackground());
+        fillRect(x, y, width, height);
+        state.setPaint(p);
+    }
+
+    @Override
+    public void drawRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        path(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight), false);
+    }
+
+    @Override
+    public void fillRoundRect(int x, int y, int width, int height, int arcWidth, int arcHeight) {
+        path(new RoundRectangle2D.Float(x, y, width, height, arcWidth, arcHeight), true);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height) {
+        path(new Ellipse2D.Float(x, y, width, height), false);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int width, int height) {
+        path(new Ellipse2D.Float(x, y, width, height), true);
+    }
+
+    @Override
+    public void drawArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        path(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.OPEN), false);
+    }
+
+    @Override
+    public void fillArc(int x, int y, int width, int height, int startAngle, int arcAngle) {
+        path(new Arc2D.Float(x, y, width, height, startAngle, arcAngle, Arc2D.PIE), true);
+    }
+
+    @Override
+    public void drawPolyline(int[] xPoints, int[] yPoints, int nPoints) {
+        if (nPoints < 1) {
+            return;
+        }
+        Path2D.Float p = new Path2D.Float();
+        p.moveTo(xPoints[0], yPoints[0]);
+        for (int i = 1; i < nPoints; i++) {
+            p.lineTo(xPoints[i], yPoints[i]);
+        }
+        path(p, false);
+    }
+
+    @Override
+    public void drawPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        path(new Polygon(xPoints, yPoints, nPoints), false);
+    }
+
+    @Override
+    public void fillPolygon(int[] xPoints, int[] yPoints, int nPoints) {
+        path(new Polygon(xPoints, yPoints, nPoints), true);
+    }
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        text(str, x, y);
+    }
+
+    @Override
+    public void drawString(String str, float x, float y) {
+        text(str, x, y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, int x, int y) {
+        drawString(iterator, (float) x, (float) y);
+    }
+
+    @Override
+    public void drawString(AttributedCharacterIterator iterator, float x, float y) {
+        new TextLayout(iterator, getFontRenderContext()).draw(this, x, y);
+    }
+
+    @Override
+    public void drawGlyphVector(GlyphVector g, float x, float y) {
+        fill(g.getOutline(x, y));
+    }
+
+    @Override
+    public boolean drawImage(Image img, AffineTransform xform, ImageObserver obs) {
+        BufferedImage b = toBufferedImage(img);
+        if (b != null) {
+            image(b, (xform != null) ? xform : new AffineTransform());
+        }
+        return true;
+    }
+
+    @Override
+    public void drawImage(BufferedImage img, BufferedImageOp op, int x, int y) {
+        BufferedImage b = (op != null) ? op.filter(img, null) : img;
+        image(b, AffineTransform.getTranslateInstance(x, y));
+    }
+
+    @Override
+    public void drawRenderedImage(RenderedImage img, AffineTransform xform) {
+        if (img instanceof BufferedImage) {
+            image((BufferedImage) img, xform);
+        }
+    }
+
+    @Override
+    public void drawRenderableImage(RenderableImage img, AffineTransform xform) {
+        drawRenderedImage(img.createDefaultRendering(), xform);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, ImageObserver observer) {
+        return drawImage(img, AffineTransform.getTranslateInstance(x, y), observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, ImageObserver observer) {
+        int w = img.getWidth(null);
+        int h = img.getHeight(null);
+        if ((w <= 0) || (h <= 0)) {
+            return true;
+        }
+        AffineTransform at = AffineTransform.getTranslateInstance(x, y);
+        at.scale((double) width / w, (double) height / h);
+        return drawImage(img, at, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, Color bgcolor, ImageObserver observer) {
+        return drawImage(img, x, y, img.getWidth(null), img.getHeight(null), bgcolor, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int x, int y, int width, int height, Color bgcolor,
+            ImageObserver observer) {
+        if (bgcolor != null) {
+            Paint p = state.getPaint();
+            state.setPaint(bgcolor);
+            fillRect(x, y, width, height);
+            state.setPaint(p);
+        }
+        return drawImage(img, x, y, width, height, observer);
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+            int sx1, int sy1, int sx2, int sy2, ImageObserver observer) {
+        BufferedImage b = toBufferedImage(img);
+        int sx = Math.min(sx1, sx2);
+        int sy = Math.min(sy1, sy2);
+        int sw = Math.abs(sx2 - sx1);
+        int sh = Math.abs(sy2 - sy1);
+        if ((b == null) || (sw == 0) || (sh == 0)) {
+            return true;
+        }
+        BufferedImage part = b.getSubimage(sx, sy, Math.min(sw, b.getWidth() - sx), Math.min(sh, b.getHeight() - sy));
+        AffineTransform at = AffineTransform.getTranslateInstance(dx1, dy1);
+        at.scale((double) (dx2 - dx1) / (sx2 - sx1), (double) (dy2 - dy1) / (sy2 - sy1));
+        if (sx2 < sx1) {
+            at.translate(-sw, 0);
+        }
+        if (sy2 < sy1) {
+            at.translate(0, -sh);
+        }
+        image(part, at);
+        return true;
+    }
+
+    @Override
+    public boolean drawImage(Image img, int dx1, int dy1, int dx2, int dy2,
+            int sx1, int sy1, int sx2, int sy2, Color bgcolor, ImageObserver observer) {
+        if (bgcolor != null) {
+            Paint p = state.getPaint();
+            state.setPaint(bgcolor);
+            fillRect(Math.min(dx1, dx2), Math.min(dy1, dy2), Math.abs(dx2 - dx1), Math.abs(dy2 - dy1));
+            state.setPaint(p);
+        }
+        return drawImage(img, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, observer);
+    }
+
+    // The drawing is not kept as pixels, so there is nothing to copy
+    @Override
+    public void copyArea(int x, int y, int width, int height, int dx, int dy) {
+    }
+
+    ///////////////////////////////////////////////
+    // State, kept by the scratch graphics
+    //
+    @Override
+    public Graphics create() {
+        return new SvgGraphics(doc, (Graphics2D) state.create());
+    }
+
+    @Override
+    public void dispose() {
+        state.dispose();
+    }
+
+    @Override
+    public boolean hit(Rectangle rect, Shape s, boolean onStroke) {
+        return state.hit(rect, s, onStroke);
+    }
+
+    @Override
+    public GraphicsConfiguration getDeviceConfiguration() {
+        return state.getDeviceConfiguration();
+    }
+
+    @Override
+    public void setComposite(Composite comp) {
+        state.setComposite(comp);
+    }
+
+    @Override
+    public Composite getComposite() {
+        return state.getComposite();
+    }
+
+    @Override
+    public void setPaint(Paint paint) {
+        state.setPaint(paint);
+    }
+
+    @Override
+    public Paint getPaint() {
+        return state.getPaint();
+    }
+
+    @Override
+    public void setStroke(Stroke s) {
+        state.setStroke(s);
+    }
+
+    @Override
+    public Stroke getStroke() {
+        return state.getStroke();
+    }
+
+    @Override
+    public void setRenderingHint(RenderingHints.Key hintKey, Object hintValue) {
+        state.setRenderingHint(hintKey, hintValue);
+    }
+
+    @Override
+    public Object getRenderingHint(RenderingHints.Key hintKey) {
+        return state.getRenderingHint(hintKey);
+    }
+
+    @Override
+    public void setRenderingHints(Map<?, ?> hints) {
+        state.setRenderingHints(hints);
+    }
+
+    @Override
+    public void addRenderingHints(Map<?, ?> hints) {
+        state.addRenderingHints(hints);
+    }
+
+    @Override
+    public RenderingHints getRenderingHints() {
+        return state.getRenderingHints();
+    }
+
+    @Override
+    public void translate(int x, int y) {
+        state.translate(x, y);
+    }
+
+    @Override
+    public void translate(double tx, double ty) {
+        state.translate(tx, ty);
+    }
+
+    @Override
+    public void rotate(double theta) {
+        state.rotate(theta);
+    }
+
+    @Override
+    public void rotate(double theta, double x, double y) {
+        state.rotate(theta, x, y);
+    }
+
+    @Override
+    public void scale(double sx, double sy) {
+        state.scale(sx, sy);
+    }
+
+    @Override
+    public void shear(double shx, double shy) {
+        state.shear(shx, shy);
+    }
+
+    @Override
+    public void transform(AffineTransform tx) {
+        state.transform(tx);
+    }
+
+    @Override
+    public void setTransform(AffineTransform tx) {
+        state.setTransform(tx);
+    }
+
+    @Override
+    public AffineTransform getTransform() {
+        return state.getTransform();
+    }
+
+    @Override
+    public void setBackground(Color color) {
+        state.setBackground(color);
+    }
+
+    @Override
+    public Color getBackground() {
+        return state.getBackground();
+    }
+
+    @Override
+    public void clip(Shape s) {
+        state.clip(s);
+    }
+
+    @Override
+    public FontRenderContext getFontRenderContext() {
+        return state.getFontRenderContext();
+    }
+
+    @Override
+    public Color getColor() {
+        return state.getColor();
+    }
+
+    @Override
+    public void setColor(Color c) {
+        state.setColor(c);
+    }
+
+    @Override
+    public void setPaintMode() {
+        state.setPaintMode();
+    }
+
+    @Override
+    public void setXORMode(Color c1) {
+    }
+
+    @Override
+    public Font getFont() {
+        return state.getFont();
+    }
+
+    @Override
+    public void setFont(Font font) {
+        state.setFont(font);
+    }
+
+    @Override
+    public FontMetrics getFontMetrics(Font f) {
+        return state.getFontMetrics(f);
+    }
+
+    @Override
+    public Rectangle getClipBounds() {
+        return state.getClipBounds();
+    }
+
+    @Override
+    public void clipRect(int x, int y, int width, int height) {
+        state.clipRect(x, y, width, height);
+    }
+
+    @Override
+    public void setClip(int x, int y, int width, int height) {
+        state.setClip(x, y, width, height);
+    }
+
+    @Override
+    public Shape getClip() {
+        return state.getClip();
+    }
+
+    @Override
+    public void setClip(Shape clip) {
+        state.setClip(clip);
+    }
+
+    // Shared by an SvgGraphics and the copies create()d from it
+    private static class Document {
+
+        final int width;
+        final int height;
+        final StringBuilder body = new StringBuilder();
+        final Map<String, String> clipIds = new HashMap<>();
+        // holds the drawing state and measures text
+        final BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+        Document(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package edu.mit.lcp;
 
+import jcvsim.backend21compartment.Intervention;
 import jcvsim.backend21compartment.Main;
 import jcvsim.backend21compartment.Parameter_vector;
 import java.awt.Component;
@@ -34,7 +35,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
     private JFormattedTextField maxVolumeLossField;
    
     private CSimulation21C sim = (CSimulation21C)(CVSim.sim);
-    private Parameter_vector pvec = sim.getParameterVector();
+    private ParameterStore<PVName, Parameter_vector> store = sim.getParameterStore();
     
     private double tiltTime;
     private double tiltAngle;
@@ -53,7 +54,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 
 	// tilt time
 	JLabel tiltTimeLabel = new JLabel("Tilt Time:");
-	tiltTime = pvec.get(tiltTimeIndex);
+	tiltTime = store.get(tiltTimeIndex);
 	tiltTimeField = new JFormattedTextField(numberFormat);
 	tiltTimeField.setValue(new Double(tiltTime));
 	tiltTimeField.setColumns(3);
@@ -61,7 +62,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 	
 	// tilt angle
 	JLabel tiltAngleLabel = new JLabel("Tilt Angle:");
-	tiltAngle = pvec.get(tiltAngleIndex);
+	tiltAngle = store.get(tiltAngleIndex);
 	tiltAngleField = new JFormattedTextField(numberFormat);
 	tiltAngleField.setValue(new Double(tiltAngle));
 	tiltAngleField.setColumns(3);
@@ -69,7 +70,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 
 	// max volume loss
 	JLabel maxVolumeLossLabel = new JLabel("Max. Volume Loss:");
-	maxVolumeLoss = pvec.get(maxVolumeLossIndex);
+	maxVolumeLoss = store.get(maxVolumeLossIndex);
 	maxVolumeLossField = new JFormattedTextField(numberFormat);
 	maxVolumeLossField.setValue(new Double(maxVolumeLoss));
 	maxVolumeLossField.setColumns(3);
@@ -104,6 +105,15 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 	Dimension size = frame.getSize();
 	frame.setLocation(screenSize.width/2 - size.width/2,
 			  screenSize.height/2 - size.height/2);
+
+	// a steady state is supine, the tilt in progress is dropped
+	sim.addPropertyChangeListener(CSimulation.STEADY_STATE, new PropertyChangeListener() {
+		public void propertyChange(PropertyChangeEvent e) {
+		    tiltTestOnButton.setSelected(false);
+		    tiltTestOffButton.setSelected(false);
+		    setTiltTest(false);
+		}
+	    });
     }
     
     public void setTiltTest(boolean b) {
@@ -130,24 +140,27 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 	Object source = e.getSource();
 	if ( source == tiltTimeField ) {
 	    tiltTime = ((Number)tiltTimeField.getValue()).doubleValue();
-	    Main.instance().updateParameter(tiltTime, 
-				 pvec, 
-				 tiltTimeIndex);
+	    updateParameter(tiltTime, tiltTimeIndex);
 	}
 	if ( source == tiltAngleField ) {
 	    tiltAngle = ((Number)tiltAngleField.getValue()).doubleValue();
-	    Main.instance().updateParameter(tiltAngle, 
-				 pvec, 
-				 tiltAngleIndex);
+	    updateParameter(tiltAngle, tiltAngleIndex);
 	}
 	if ( source == maxVolumeLossField ) {
 	    maxVolumeLoss = ((Number)maxVolumeLossField.getValue()).doubleValue();
-	    Main.instance().updateParameter(maxVolumeLoss, 
-				 pvec, 
-				 maxVolumeLossIndex);
+	    updateParameter(maxVolumeLoss, maxVolumeLossIndex);
 	}
     }
 
+    // Hand the new value to the solver at its next step boundary
+    private void updateParameter(final double value, final PVName name) {
+	store.edit(name, value, new Runnable() {
+		public void run() {
+		    Main.instance().updateParameter(value, store.getVector(), name);
+		}
+	    });
+    }
+
     private class tiltTestOnAction extends AbstractAction {
 	private Component pc;
 	public tiltTestOnAction(Component c) {
@@ -159,6 +172,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 	    tiltTestOffButton.setSelected(false);
 	    setTiltStartTime();
 	    setTiltTest(true);
+	    Intervention.tiltOn(getTiltStartTime());
 	    System.out.println("Tilt Test ON");
 	}
     }
@@ -174,6 +188,7 @@ public class TiltTestFrame extends JFrame implements PropertyChangeListener {
 	    tiltTestOnButton.setSelected(false);
 	    setTiltStopTime();
 	    setTiltTest(false);
+	    Intervention.tiltOff(getTiltStopTime());
 	    System.out.println("Tilt Test OFF");
 	}
     }
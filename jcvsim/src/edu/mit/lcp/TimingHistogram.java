@@ -0,0 +1,69 @@
+package edu.mit.lcp;
+
+// Histogram of durations with power-of-two microsecond buckets: bucket 0
+// holds durations under 1us, bucket i holds [2^(i-1), 2^i) us.  Each
+// histogram is written by a single thread (the simulation thread or the
+// event dispatch thread) so recording is a few adds with no locking;
+// readers on other threads may see slightly stale values.
+public class TimingHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public void record(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = (micros == 0) ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        if (bucket >= BUCKETS) {
+            bucket = BUCKETS - 1;
+        }
+        buckets[bucket]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMicros() {
+        return (count == 0) ? 0 : (double) totalNanos / count / 1000;
+    }
+
+    public double getMaxMicros() {
+        return (double) maxNanos / 1000;
+    }
+
+    public double getTotalMillis() {
+        return (double) totalNanos / 1000000;
+    }
+
+    // Upper bound of the bucket holding quantile q (0 to 1), in us
+    public double getPercentileMicros(double q) {
+        long target = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if ((seen >= target) && (seen > 0)) {
+                return (double) (1L << i);
+            }
+        }
+        return 0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+}
@@ -9,6 +9,7 @@ import java.util.Iterator;
 import java.awt.Shape;
 import java.awt.geom.PathIterator;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.Rectangle;
 import java.awt.geom.Point2D;
@@ -35,18 +36,23 @@ public class Trace<xVarType extends Number & Comparable<xVarType>,
     private Color _color;
     private Stroke _stroke;
     private AffineTransform transform;
-    private VariableRecorderInterface<xVarType> xVar;
-    private VariableRecorderInterface<yVarType> yVar;
+    private VariableWindow<xVarType> xVar;
+    private VariableWindow<yVarType> yVar;
     private Range xRange;
     private Range yRange;
     private PropertyChangeSupport _changes = new PropertyChangeSupport(this);
 
-    public Trace(VariableRecorderInterface xvar, VariableRecorderInterface yvar,
+    // drawing buffers, reused from one repaint to the next
+    private double[] data = new double[0];
+    private float[] coords = new float[0];
+    private final Path2D.Float path = new Path2D.Float();
+
+    public Trace(VariableWindow<xVarType> xvar, VariableWindow<yVarType> yvar,
 		 Color color) { 
 	this(xvar, yvar, color, new BasicStroke());
     }
 
-    public Trace(VariableRecorderInterface xvar, VariableRecorderInterface yvar, 
+    public Trace(VariableWindow<xVarType> xvar, VariableWindow<yVarType> yvar, 
 		 Color color, Stroke stroke) { 
 	xVar = xvar;
 	yVar = yvar;
@@ -119,10 +125,10 @@ public class Trace<xVarType extends Number & Comparable<xVarType>,
 	setYRange( yVar.getTypicalRange() );
     }
 
-    public VariableRecorderInterface getXVar() { return xVar; }
-    public VariableRecorderInterface getYVar() { return yVar; }
-    public void setXVar(VariableRecorderInterface newX) { xVar = newX; }
-    public void setYVar(VariableRecorderInterface newY) { yVar = newY; }
+    public VariableWindow<xVarType> getXVar() { return xVar; }
+    public VariableWindow<yVarType> getYVar() { return yVar; }
+    public void setXVar(VariableWindow<xVarType> newX) { xVar = newX; }
+    public void setYVar(VariableWindow<yVarType> newY) { yVar = newY; }
 
     public int getNumPoints() {
 	// pick the data source with the fewest points
@@ -183,7 +189,7 @@ public class Trace<xVarType extends Number & Comparable<xVarType>,
     // should be attempted to ensure that the iterators returned from
     // each data source are pointing to the respective matching data
     // point in the other source. This would need to be done in the
-    // VariableRecorderInterface classes and utilized here.
+    // VariableWindow classes and utilized here.
     private class PairedIterator<xVarType extends Number,yVarType extends Number>
 	implements Iterator<Point2D.Double> {
 	
@@ -271,8 +277,20 @@ public class Trace<xVarType extends Number & Comparable<xVarType>,
 				       yVar.getMinVal().doubleValue() );
     }
 
+    // The path is built in device space from primitive copies of the
+    // data, reusing the same arrays and path each time, so drawing a
+    // trace allocates nothing per point.  Event-dispatching thread only.
     public PathIterator getPathIterator(AffineTransform at) {
-	return new TracePathIterator(at);
+	int n = fillCoordinates(at);
+	if (isTimeSeries())
+	    n = decimate(coords, n);
+	path.reset();
+	if (n > 0) {
+	    path.moveTo(coords[0], coords[1]);
+	    for (int i = 1; i < n; i++)
+		path.lineTo(coords[2 * i], coords[2 * i + 1]);
+	}
+	return path.getPathIterator(null);
     }
 
     public PathIterator getPathIterator(AffineTransform at, double flatness) {
@@ -292,54 +310,89 @@ public class Trace<xVarType extends Number & Comparable<xVarType>,
     }
 
 
-    private class TracePathIterator implements PathIterator {
-	private AffineTransform _localAT;
-	private Iterator<Point2D.Double> _traceIterator;
-	private Point2D.Double _curPoint;
-	private int _curSegType;
+    // True if x is time, or anything else that only increases, so that
+    // the points run across the plot in order
+    private boolean isTimeSeries() {
+	return xVar.isMonotonicIncreasing();
+    }
 
-	TracePathIterator(AffineTransform at) {
-	    // if no default transform, use the supplied one, else
-	    // combine them together
-	    _localAT = transform;
-	    if (_localAT == null) { _localAT = at; }
-	    else if (at != null) {
-		_localAT = new AffineTransform(transform);
-		_localAT.concatenate(at); 
+    // Copy the trace into coords as device space x,y pairs, transformed
+    // in one go, and return the number of points
+    private int fillCoordinates(AffineTransform at) {
+	int n;
+	// both under the recorder lock, so that x and y are from the
+	// same steps
+	synchronized (CVSim.sim.getRecorderLock()) {
+	    // the newest samples of both, which may hold different
+	    // numbers of them
+	    n = Math.min(xVar.getSize(), yVar.getSize());
+	    if (data.length < 2 * n) {
+		data = new double[2 * n];
+		coords = new float[2 * n];
 	    }
-	    // "qualified" this, referring to enclosing class
-	    _traceIterator = Trace.this.iterator(); 
-	    _curPoint = _traceIterator.next();
-	    _curSegType = PathIterator.SEG_MOVETO;
+	    n = Math.min(xVar.getData(data, 0, 2, n), yVar.getData(data, 1, 2, n));
 	}
-	
-	public int currentSegment(double[] coords) {
-	    coords[0] = _curPoint.getX();
-	    coords[1] = _curPoint.getY();
-	    // srcCoords, srcOffset, dstCoords, dstOffset, numPts
-	    if (_localAT != null) _localAT.transform(coords, 0, coords, 0, 1);
-	    return _curSegType;
+	AffineTransform localAT = combinedTransform(at);
+	if (localAT != null) {
+	    localAT.transform(data, 0, coords, 0, n);
+	} else {
+	    for (int i = 0; i < 2 * n; i++)
+		coords[i] = (float)data[i];
 	}
-	
-	public int currentSegment(float[] coords) {
-	    coords[0] = (float)_curPoint.getX();
-	    coords[1] = (float)_curPoint.getY();
-	    // srcCoords, srcOffset, dstCoords, dstOffset, numPts
-	    if (_localAT != null) _localAT.transform(coords, 0, coords, 0, 1);
-	    return _curSegType;
-	}
-	
-	public int getWindingRule() {
-	    return PathIterator.WIND_NON_ZERO;
-	}
-	
-	public boolean isDone() {
-	    return !(_traceIterator.hasNext());
+	return n;
+    }
+
+    // Reduce the n x,y pairs in xy that fall in each column of pixels to
+    // the first, the lowest, the highest and the last of them, in their
+    // original order, in place, and return the number left.  The points
+    // must run across the columns in order.  Drawn with a one pixel line
+    // the result looks the same as the full trace, but has at most four
+    // points per column however many samples there are.
+    static int decimate(float[] xy, int n) {
+	int out = 0;
+	int emitted = -1;
+	int i = 0;
+	while (i < n) {
+	    long column = column(xy[2 * i]);
+	    int min = i, max = i;
+	    int j = i + 1;
+	    while ((j < n) && (column(xy[2 * j]) == column)) {
+		if (xy[2 * j + 1] < xy[2 * min + 1]) min = j;
+		if (xy[2 * j + 1] > xy[2 * max + 1]) max = j;
+		j++;
+	    }
+	    // everything written so far lies before i, so the points of
+	    // this column can be copied down without overwriting them
+	    for (int step = 0; step < 4; step++) {
+		int k = (step == 0) ? i
+		    : (step == 1) ? Math.min(min, max)
+		    : (step == 2) ? Math.max(min, max)
+		    : j - 1;
+		if (k > emitted) {
+		    xy[2 * out] = xy[2 * k];
+		    xy[2 * out + 1] = xy[2 * k + 1];
+		    out++;
+		    emitted = k;
+		}
+	    }
+	    i = j;
 	}
-	
-	public void next() {
-	    _curPoint = _traceIterator.next();
-	    _curSegType = PathIterator.SEG_LINETO;
+	return out;
+    }
+
+    // columns as the non-antialiased rasteriser rounds them
+    private static long column(float x) {
+	return (long)Math.floor(x + 0.5);
+    }
+
+    // The trace's own transform followed by at, either of which may be null
+    private AffineTransform combinedTransform(AffineTransform at) {
+	AffineTransform localAT = transform;
+	if (localAT == null) { localAT = at; }
+	else if (at != null) {
+	    localAT = new AffineTransform(transform);
+	    localAT.concatenate(at); 
 	}
+	return localAT;
     }
 }
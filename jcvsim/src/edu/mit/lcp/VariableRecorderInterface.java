@@ -15,6 +15,11 @@ public interface VariableRecorderInterface<DataType extends Number & Comparable<
     public void addMarkedDatum(DataType d, long serialNumber);
 
     public DataType getLastDatum();
+    // age 0 is the last datum, 1 the one before it, and so on
+    public DataType getRecentDatum(int age);
+    // copy the newest n data, or all there are if fewer, oldest first to
+    // dest[offset], dest[offset + stride], ... and return the number copied
+    public int getData(double[] dest, int offset, int stride, int n);
     public long getLastMarker();
 
     public DataType getMinVal();
@@ -0,0 +1,38 @@
+package edu.mit.lcp;
+
+// A read-only view of the newest data of one output variable, which is
+// what a Trace plots.  The data are written elsewhere; the view only
+// chooses how many of the newest it shows.
+public interface VariableWindow<DataType extends Number & Comparable<DataType>>
+    extends Iterable<DataType> {
+
+    public int getOutputIndex();
+    public String getName();
+    public String getDescription();
+    public String getUnits();
+    public int getSize();
+    public String getCategory();
+    public String getType();
+
+    // show the newest length data
+    public void setLength(int length);
+    public int getLength();
+    // data ever recorded, for readers that want only the new ones
+    public long getDatumCount();
+    // true if the data only ever increase, as time does
+    public boolean isMonotonicIncreasing();
+
+    public DataType getLastDatum();
+    // age 0 is the last datum, 1 the one before it, and so on
+    public DataType getRecentDatum(int age);
+    // copy the newest n data, or all there are if fewer, oldest first to
+    // dest[offset], dest[offset + stride], ... and return the number copied
+    public int getData(double[] dest, int offset, int stride, int n);
+    public long getLastMarker();
+
+    public DataType getMinVal();
+    public DataType getMaxVal();
+
+    public Range<DataType> getTypicalRange();
+
+}
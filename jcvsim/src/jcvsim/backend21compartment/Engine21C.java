@@ -0,0 +1,143 @@
+package jcvsim.backend21compartment;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jcvsim.backendCommon.BeatNumerics;
+import jcvsim.backendCommon.Maths;
+import jcvsim.backendCommon.TiltEngine;
+import jcvsim.backendCommon.Timeline;
+
+/*
+ * The 21 compartment model as a headless Engine.  There can be only one
+ * per class loader, see EngineLoader.
+ */
+public class Engine21C implements TiltEngine {
+
+    private static final Map<String, Field> outputFields = new HashMap<>();
+    private static final List<Field> protocolFields = new ArrayList<>();
+
+    static {
+        for (Field f : Output.class.getFields()) {
+            if (f.getType() == double.class) {
+                outputFields.put(f.getName(), f);
+            }
+        }
+        for (Field f : Output_vector.class.getFields()) {
+            if (f.getType() == double[].class) {
+                protocolFields.add(f);
+            }
+        }
+    }
+
+    private final Main main = Main.instance();
+    private final Parameter_vector pvec = new Parameter_vector();
+    private final Output output = new Output();
+
+    public Engine21C() {
+        main.init_sim(pvec);
+    }
+
+    @Override
+    public void step(int dataCompressionFactor) {
+        main.step_sim(output, pvec, dataCompressionFactor);
+    }
+
+    @Override
+    public double getTime() {
+        return output.time;
+    }
+
+    @Override
+    public double getOutput(String name) {
+        Field f = outputFields.get(name);
+        if (f == null) {
+            throw new IllegalArgumentException("No output " + name);
+        }
+        try {
+            return f.getDouble(output);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public double getBeatNumeric(String name) {
+        return main.getBeatNumeric(BeatNumerics.index(name));
+    }
+
+    @Override
+    public List<String> getParameterNames() {
+        List<String> names = new ArrayList<>();
+        for (PVName name : PVName.values()) {
+            if (pvec.containsKey(name)) {
+                names.add(name.name());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public double getParameter(String name) {
+        return pvec.get(PVName.valueOf(name));
+    }
+
+    @Override
+    public void setParameter(String name, double value) {
+        main.set(value, pvec, PVName.valueOf(name));
+    }
+
+    @Override
+    public void setFastMath(boolean on) {
+        Maths.setFast(on);
+    }
+
+    @Override
+    public Map<String, double[]> runProtocol() {
+        Output_vector out = main.run_protocol(pvec);
+        output.time = main.pressure.time[0];
+        Map<String, double[]> series = new LinkedHashMap<>();
+        try {
+            for (Field f : protocolFields) {
+                series.put(f.getName(), ((double[]) f.get(out)).clone());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return series;
+    }
+
+    @Override
+    public Timeline getTimeline() {
+        return main.getTimeline();
+    }
+
+    @Override
+    public void reflexes(double time, boolean ABReflexOn, boolean CPReflexOn) {
+        Intervention.reflexes(time, ABReflexOn, CPReflexOn);
+    }
+
+    @Override
+    public void setParameter(double time, String name, double value) {
+        Intervention.setParameter(time, pvec, PVName.valueOf(name), value);
+    }
+
+    @Override
+    public void ramp(double start, double stop, String name, double value) {
+        Intervention.ramp(start, stop, pvec, PVName.valueOf(name), value);
+    }
+
+    @Override
+    public void hemorrhage(double start, double stop, double volume) {
+        Intervention.hemorrhage(start, stop, pvec, volume);
+    }
+
+    @Override
+    public void tilt(double start, double stop) {
+        Intervention.tilt(start, stop);
+    }
+
+}
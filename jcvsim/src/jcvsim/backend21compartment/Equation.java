@@ -1,6 +1,8 @@
 package jcvsim.backend21compartment;
 
 import static java.lang.Math.PI;
+import jcvsim.backendCommon.ElastanceCurve;
+import jcvsim.backendCommon.Metrics;
 import static jcvsim.backendCommon.Maths.atan;
 import static jcvsim.backendCommon.Maths.cos;
 import static jcvsim.backendCommon.Maths.exp;
@@ -86,55 +88,37 @@ class Equation {
 
         final double v_time = p.time[VENTRICULAR_TIME];
 
-        // Atrial contraction.
-        if (a_time <= timeAtrialSystole) {
-            elastanceLA = 0.5 * (1 / complianceLAsystole - 1 / complianceLAdiastole) * (1 - cos(PI * a_time / timeAtrialSystole)) + 1 / complianceLAdiastole;
-            elastanceRA = 0.5 * (1 / complianceRAsystole - 1 / complianceRAdiastole) * (1 - cos(PI * a_time / timeAtrialSystole)) + 1 / complianceRAdiastole;
-            dElastanceLA = 0.5 * PI * (1 / complianceLAsystole - 1 / complianceLAdiastole) * sin(PI * a_time / timeAtrialSystole) / timeAtrialSystole;
-            dElastanceRA = 0.5 * PI * (1 / complianceRAsystole - 1 / complianceRAdiastole) * sin(PI * a_time / timeAtrialSystole) / timeAtrialSystole;
-        } // Early atrial relaxation.
-        else if ((timeAtrialSystole < a_time) && (a_time <= 1.5 * timeAtrialSystole)) {
-            elastanceLA = 0.5 * (1 / complianceLAsystole - 1 / complianceLAdiastole) * (1 + cos(2.0 * PI * (a_time - timeAtrialSystole) / timeAtrialSystole))
-                    + 1 / complianceLAdiastole;
-            elastanceRA = 0.5 * (1 / complianceRAsystole - 1 / complianceRAdiastole) * (1 + cos(2.0 * PI * (a_time - timeAtrialSystole) / timeAtrialSystole))
-                    + 1 / complianceRAdiastole;
-            dElastanceLA = -1.0 * PI * (1 / complianceLAsystole - 1 / complianceLAdiastole) * sin(2.0 * PI * (a_time - timeAtrialSystole) / timeAtrialSystole) / timeAtrialSystole;
-            dElastanceRA = -1.0 * PI * (1 / complianceRAsystole - 1 / complianceRAdiastole) * sin(2.0 * PI * (a_time - timeAtrialSystole) / timeAtrialSystole) / timeAtrialSystole;
-        } // Atrial diastole.
-        else if (1.5 * timeAtrialSystole < a_time) {
-            elastanceLA = 1 / complianceLAdiastole;
-            elastanceRA = 1 / complianceRAdiastole;
-            dElastanceLA = 0.0;
-            dElastanceRA = 0.0;
-        }
-
-        // Ventricular contraction. PR-interval has not yet passed.
-        if (v_time <= 0.0) {
-            elastanceLV = 1 / complianceLVdiastole;
-            elastanceRV = 1 / complianceRVdiastole;
-            dElastanceLV = 0.0;
-            dElastanceRV = 0.0;
-        } // Ventricular contraction.
-        else if ((0 < v_time) && (v_time <= timeVentricleSystole)) {
-            elastanceLV = 0.5 * (1 / sigCl - 1 / complianceLVdiastole) * (1 - cos(PI * v_time / timeVentricleSystole)) + 1 / complianceLVdiastole;
-            elastanceRV = 0.5 * (1 / sigCr - 1 / complianceRVdiastole) * (1 - cos(PI * v_time / timeVentricleSystole)) + 1 / complianceRVdiastole;
-            dElastanceLV = 0.5 * PI * (1 / sigCl - 1 / complianceLVdiastole) * sin(PI * v_time / timeVentricleSystole) / timeVentricleSystole;
-            dElastanceRV = 0.5 * PI * (1 / sigCr - 1 / complianceRVdiastole) * sin(PI * v_time / timeVentricleSystole) / timeVentricleSystole;
-        } // Early ventricular relaxation.
-        else if ((timeVentricleSystole < v_time) && (v_time <= 1.5 * timeVentricleSystole)) {
-            elastanceLV = 0.5 * (1 / sigCl - 1 / complianceLVdiastole) * (1 + cos(2.0 * PI * (v_time - timeVentricleSystole) / timeVentricleSystole))
-                    + 1 / complianceLVdiastole;
-            elastanceRV = 0.5 * (1 / sigCr - 1 / complianceRVdiastole) * (1 + cos(2.0 * PI * (v_time - timeVentricleSystole) / timeVentricleSystole))
-                    + 1 / complianceRVdiastole;
-            dElastanceLV = -1.0 * PI * (1 / sigCl - 1 / complianceLVdiastole) * sin(2.0 * PI * (v_time - timeVentricleSystole) / timeVentricleSystole) / timeVentricleSystole;
-            dElastanceRV = -1.0 * PI * (1 / sigCr - 1 / complianceRVdiastole) * sin(2.0 * PI * (v_time - timeVentricleSystole) / timeVentricleSystole) / timeVentricleSystole;
-        } // Ventricular diastole.
-        else if (v_time > 1.5 * timeVentricleSystole) {
-            elastanceLV = 1 / complianceLVdiastole;
-            elastanceRV = 1 / complianceRVdiastole;
-            dElastanceLV = 0.0;
-            dElastanceRV = 0.0;
-        }
+        // The chambers follow the same normalised curve, scaled between
+        // their diastolic and systolic elastances, at the fraction of their
+        // systole that has passed.  The atria contract from the start of the
+        // cardiac cycle, the ventricles once the PR interval has passed,
+        // when v_time becomes positive; before that, and after early
+        // relaxation, the curve is 0.
+        final double a_phase = a_time / timeAtrialSystole;
+        final double a_shape = ElastanceCurve.shape(a_phase);
+        final double a_slope = ElastanceCurve.slope(a_phase) / timeAtrialSystole;
+        final double v_phase = v_time / timeVentricleSystole;
+        final double v_shape = ElastanceCurve.shape(v_phase);
+        final double v_slope = ElastanceCurve.slope(v_phase) / timeVentricleSystole;
+
+        final double diastolicLA = 1 / complianceLAdiastole;
+        final double diastolicRA = 1 / complianceRAdiastole;
+        final double diastolicLV = 1 / complianceLVdiastole;
+        final double diastolicRV = 1 / complianceRVdiastole;
+        final double amplitudeLA = 1 / complianceLAsystole - diastolicLA;
+        final double amplitudeRA = 1 / complianceRAsystole - diastolicRA;
+        final double amplitudeLV = 1 / sigCl - diastolicLV;
+        final double amplitudeRV = 1 / sigCr - diastolicRV;
+
+        elastanceLA = amplitudeLA * a_shape + diastolicLA;
+        elastanceRA = amplitudeRA * a_shape + diastolicRA;
+        dElastanceLA = amplitudeLA * a_slope;
+        dElastanceRA = amplitudeRA * a_slope;
+
+        elastanceLV = amplitudeLV * v_shape + diastolicLV;
+        elastanceRV = amplitudeRV * v_shape + diastolicRV;
+        dElastanceLV = amplitudeLV * v_slope;
+        dElastanceRV = amplitudeRV * v_slope;
 
         // Compliance is the reciprocal of the elastance
         p.compliance[RA_COMPL] = 1 / elastanceRA;
@@ -161,6 +145,7 @@ class Equation {
      */
     public static void eqns_ptr(Data_vector p, Parameter_vector theta, Reflex_vector r,
             boolean tiltTestOn, double tiltStartTime, double tiltStopTime) {
+        Metrics.rhs();
         double Csp = 0.0, Cll = 0.0, Cab = 0.0;   // non-linear compliances
         double Vll = 0.0, Vsp = 0.0, Vab = 0.0;
         double con = 0.0;                         // temporary variable
@@ -0,0 +1,163 @@
+package jcvsim.backend21compartment;
+
+import jcvsim.backendCommon.Timeline;
+
+/*
+ * Interventions for the 21 compartment model.  Each method compiles an
+ * intervention into events on the model's timeline, which step_sim()
+ * carries out at their exact simulated times, so a protocol runs the same
+ * way whether it is stepped in real time or as fast as possible.
+ *
+ * The parameter vector passed in is the one given to step_sim(); the
+ * events change it on the simulation thread.
+ */
+public class Intervention {
+
+    // Interval between the parameter changes that make up a ramp
+    public static final double RAMP_INTERVAL = 0.01;
+
+    // Prevent instantiation
+    private Intervention() {
+    }
+
+    private static Timeline timeline() {
+        return Main.instance().getTimeline();
+    }
+
+    // Tilt to head-up at start and back to supine at stop, the angle and
+    // timing come from the tilt parameters
+    public static void tilt(final double start, final double stop) {
+        timeline().schedule(start, new Timeline.Action() {
+            @Override
+            public void fire(double time) {
+                Main main = Main.instance();
+                main.tiltTestOn = true;
+                main.tiltStartTime = start;
+                main.tiltStopTime = stop;
+            }
+        });
+    }
+
+    // Tilt to head-up from time, until tiltOff()
+    public static void tiltOn(final double time) {
+        timeline().schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                Main.instance().tiltTestOn = true;
+                Main.instance().tiltStartTime = time;
+            }
+        });
+    }
+
+    public static void tiltOff(final double time) {
+        timeline().schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                Main.instance().tiltTestOn = false;
+                Main.instance().tiltStopTime = time;
+            }
+        });
+    }
+
+    public static void reflexes(double time, final boolean ABReflexOn, final boolean CPReflexOn) {
+        timeline().schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                Main.instance().ABReflexOn = ABReflexOn;
+                Main.instance().CPReflexOn = CPReflexOn;
+            }
+        });
+    }
+
+    // Set a parameter at time, through Main.set() so that its update
+    // constraints adjust the pressures as a GUI change would
+    public static void setParameter(double time, final Parameter_vector pvec,
+            final PVName name, final double value) {
+        timeline().schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                Main.instance().set(value, pvec, name);
+                Main.instance().parameterChanged(name, value);
+            }
+        });
+    }
+
+    // Move a parameter linearly from its value at start to value at stop,
+    // each step going through the update constraints as in setParameter()
+    public static void ramp(double start, double stop, final Parameter_vector pvec,
+            final PVName name, double value) {
+        new Ramp(start, stop, pvec, name, value) {
+            @Override
+            void set(double v) {
+                Main.instance().set(v, pvec, name);
+            }
+        }.schedule();
+    }
+
+    // Lose volume mL of blood at a constant rate between start and stop
+    public static void hemorrhage(double start, double stop, final Parameter_vector pvec,
+            final double volume) {
+        new Ramp(start, stop, pvec, PVName.TOTAL_BLOOD_VOLUME, Double.NaN) {
+            @Override
+            double target(double from) {
+                return from - volume;
+            }
+
+            @Override
+            void set(double v) {
+                Main.instance().updateTotalBloodVolume(v, pvec);
+            }
+        }.schedule();
+    }
+
+    // A ramp compiled into one event per RAMP_INTERVAL.  The starting value
+    // is taken when the first event fires
+    private static abstract class Ramp {
+
+        final double start;
+        final double stop;
+        final Parameter_vector pvec;
+        final PVName name;
+        final double value;
+        double from;
+        double to;
+
+        Ramp(double start, double stop, Parameter_vector pvec, PVName name, double value) {
+            this.start = start;
+            this.stop = stop;
+            this.pvec = pvec;
+            this.name = name;
+            this.value = value;
+        }
+
+        double target(double from) {
+            return value;
+        }
+
+        abstract void set(double v);
+
+        void schedule() {
+            Timeline timeline = timeline();
+            timeline.schedule(start, new Timeline.Action() {
+                @Override
+                public void fire(double time) {
+                    from = pvec.get(name);
+                    to = target(from);
+                }
+            });
+            final int n = Math.max(1, (int) Math.ceil((stop - start) / RAMP_INTERVAL - Timeline.EPSILON));
+            for (int k = 1; k <= n; k++) {
+                final double fraction = (double) k / n;
+                timeline.schedule(start + (stop - start) * fraction, new Timeline.Action() {
+                    @Override
+                    public void fire(double time) {
+                        double v = from + (to - from) * fraction;
+                        set(v);
+                        Main.instance().parameterChanged(name, v);
+                    }
+                });
+            }
+        }
+    }
+
+}
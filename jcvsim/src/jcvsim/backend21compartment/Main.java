@@ -1,8 +1,12 @@
 package jcvsim.backend21compartment;
 
 import static java.lang.Math.PI;
+import jcvsim.backendCommon.Metrics;
+import jcvsim.backendCommon.Timeline;
 import jcvsim.backendCommon.Turning;
 import static jcvsim.backend21compartment.Output_vector.N_SAMPLES;
+import static jcvsim.backend21compartment.Output_vector.T_BASELINE;
+import static jcvsim.backend21compartment.Output_vector.T_SAMP;
 import static jcvsim.backendCommon.Maths.tan;
 import static jcvsim.backend21compartment.Data_vector.CompartmentIndex.*;
 import static jcvsim.backend21compartment.Data_vector.TimeIndex.*;
@@ -49,10 +53,32 @@ public class Main {
     double yscale[] = {1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1., 1.};
     double[] hnext = {0.0};    // hnext[0] is set to the RK method to the estimated next stepsize 
 
+    // Interventions, carried out by step_sim() at their simulated times
+    private final Timeline timeline = new Timeline();
+
+    // State set by the interventions
+    boolean tiltTestOn;
+    double tiltStartTime;
+    double tiltStopTime;
+    boolean ABReflexOn;
+    boolean CPReflexOn;
+
+    // Told about parameter changes made by the interventions
+    public interface ParameterListener {
+
+        void parameterChanged(PVName name, double value);
+    }
+
+    private ParameterListener parameterListener;
+
     private static Main theInstance;
 
     private static final int N_SIGNALS = 6;
 
+    // Seconds run_protocol() goes on past the end of its window for the
+    // last beats to finish
+    private static final double PROTOCOL_OVERRUN = 10.0;
+
     static public Main instance() {
         if (theInstance == null) {
             theInstance = new Main();
@@ -122,15 +148,34 @@ public class Main {
         pressure.pressure[index] = value;
     }
 
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    // Numerics of the last complete beat, see BeatNumerics
+    public double getBeatNumeric(int index) {
+        return result[index];
+    }
+
+    public void setParameterListener(ParameterListener listener) {
+        parameterListener = listener;
+    }
+
+    void parameterChanged(PVName name, double value) {
+        if (parameterListener != null) {
+            parameterListener.parameterChanged(name, value);
+        }
+    }
+
 // step_sim(): Advances the simulation one timestep
 // By varying the dataCompressionFactor the data can be compressed before 
 // being passed to the GUI. A dataCompressionFactor of 10 means one piece 
 // of output data is passed to the GUI for every 10 timesteps. A 
 // dataCompressionFactor of 1 means every piece of data is passed to the GUI.
 // (One piece of data for every timestep.)
-    public void step_sim(Output stepout, Parameter_vector pvec, int dataCompressionFactor,
-            boolean ABReflexOn, boolean CPReflexOn,
-            boolean tiltTestOn, double tiltStartTime, double tiltStopTime) {
+// Interventions (tilt, reflexes on and off, parameter changes) come from
+// the timeline, see Intervention.
+    public void step_sim(Output stepout, Parameter_vector pvec, int dataCompressionFactor) {
         double[] ascendingAorticPressure = new double[dataCompressionFactor];
         double[] brachiocephalicArterialPressure = new double[dataCompressionFactor];
         double[] upperBodyArterialPressure = new double[dataCompressionFactor];
@@ -211,21 +256,7 @@ public class Main {
         // Calculate output values
         for (int index = 0; index < dataCompressionFactor; index++) {
 
-            Rkqc.rkqc_ptr(pressure, reflex_vector, pvec, htry, 0.001, yscale, hdid, hnext,
-                    tiltTestOn, tiltStartTime, tiltStopTime);
-
-            pressure.time[CARDIAC_TIME] = Reflex.sanode(pressure, reflex_vector, pvec, hdid[0]);
-            Equation.elastance_ptr(pressure, pvec);
-            Equation.eqns_ptr(pressure, pvec, reflex_vector, tiltTestOn, tiltStartTime, tiltStopTime);
-            pressure.time[ABSOLUTE_TIME] += hdid[0];
-
-            //htry = (hnext > 0.001 ? 0.001 : hnext);
-            htry = 0.001;
-            Reflex.queue_ptr(pressure, imp, reflex_vector, pvec, hdid[0], ABReflexOn, CPReflexOn);
-            Equation.fixvolume_ptr(pressure, reflex_vector, pvec);
-
-            Simulator_numerics_new.numerics_new_ptr(pressure, reflex_vector, hdid[0], result);
-            Simulator_numerics.numerics(pressure, reflex_vector, out, pvec);
+            advance(pvec);
 
             // simulation time
             stepout.time = pressure.time[ABSOLUTE_TIME];
@@ -389,6 +420,55 @@ public class Main {
 
     }
 
+    // One integration step, with the numerics but none of the output of
+    // step_sim()
+    private void advance(Parameter_vector pvec) {
+        // Carry out the interventions due now, and shorten the step so
+        // that it lands exactly on the next one
+        double now = pressure.time[ABSOLUTE_TIME];
+        timeline.fireDue(now);
+        double h = Math.min(htry, timeline.nextTime() - now);
+
+        Rkqc.rkqc_ptr(pressure, reflex_vector, pvec, h, 0.001, yscale, hdid, hnext,
+                tiltTestOn, tiltStartTime, tiltStopTime);
+
+        pressure.time[CARDIAC_TIME] = Reflex.sanode(pressure, reflex_vector, pvec, hdid[0]);
+        Equation.elastance_ptr(pressure, pvec);
+        Equation.eqns_ptr(pressure, pvec, reflex_vector, tiltTestOn, tiltStartTime, tiltStopTime);
+        pressure.time[ABSOLUTE_TIME] += hdid[0];
+
+        //htry = (hnext > 0.001 ? 0.001 : hnext);
+        htry = 0.001;
+        long reflexStart = Metrics.startTimer();
+        Reflex.queue_ptr(pressure, imp, reflex_vector, pvec, hdid[0], ABReflexOn, CPReflexOn);
+        Metrics.reflexTime(reflexStart);
+        Equation.fixvolume_ptr(pressure, reflex_vector, pvec);
+
+        Simulator_numerics_new.numerics_new_ptr(pressure, reflex_vector, hdid[0], result);
+        Simulator_numerics.numerics(pressure, reflex_vector, out, pvec);
+    }
+
+    // Run the fixed protocol of the estimation code headless from now and
+    // return its numerics: Output_vector's N_SAMPLES samples of each, taken
+    // every T_SAMP seconds from T_BASELINE seconds before TILT_ONSET_TIME,
+    // both counted from the start of the protocol.  The simulation runs
+    // until every sample is taken, or until PROTOCOL_OVERRUN seconds past
+    // the end of the window if the heart does not beat, with interventions
+    // from the timeline as in step_sim(), so a tilt test is scheduled with
+    // Intervention.tilt() at the current time plus TILT_ONSET_TIME first.
+    // None of the per step output of step_sim() is computed.  The
+    // Output_vector returned is the simulation's own, written over by the
+    // next protocol run.
+    public Output_vector run_protocol(Parameter_vector pvec) {
+        double start = pressure.time[ABSOLUTE_TIME];
+        Simulator_numerics.restart(start, pvec);
+        double end = start + pvec.get(PVName.TILT_ONSET_TIME) - T_BASELINE + N_SAMPLES * T_SAMP + PROTOCOL_OVERRUN;
+        while (!Simulator_numerics.isComplete() && (pressure.time[ABSOLUTE_TIME] < end)) {
+            advance(pvec);
+        }
+        return out;
+    }
+
     public void reset_sim() {
         // The following lines either reset variables to their initial values or
         // call functions that do the same in other files. This resets the entire
@@ -396,6 +476,13 @@ public class Main {
         // simulations start with the same numeric parameters.
         //  numerics_reset();
         Reflex.queue_reset();
+
+        // Interventions scheduled for the old run must not fire in the new
+        // one, and a tilt in progress ends
+        timeline.clear();
+        tiltTestOn = false;
+        tiltStartTime = 0;
+        tiltStopTime = 0;
     }
 
     // Total blood volume update equation
@@ -432,10 +519,11 @@ public class Main {
      * @param complianceName compliance name for this compartment in pvec
      * @param dataVectorIndex index of the pressure for this compartment in
      * (global) data vector
+     * @param report print the adjustment on standard output
      */
     public void updateZeroPressureFillingVolume(double newZpfv,
             Parameter_vector pvec, PVName zpfvName,
-            PVName complianceName, int dataVectorIndex) {
+            PVName complianceName, int dataVectorIndex, boolean report) {
         // compliance
         double compliance = pvec.get(complianceName);
         // pressure
@@ -447,9 +535,11 @@ public class Main {
         // recalculate pressure
         pressure.pressure[dataVectorIndex] = oldPressure + (oldZpfv - newZpfv) / compliance;
 
-        System.out.printf("P,new = P,old + (V0,old - V0,new) / C\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, V0,old: %.2f, V0,new: %.2f, C: %.2f\n",
-                pressure.pressure[dataVectorIndex], oldPressure, oldZpfv, newZpfv, compliance);
+        if (report) {
+            System.out.printf("P,new = P,old + (V0,old - V0,new) / C\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, V0,old: %.2f, V0,new: %.2f, C: %.2f\n",
+                    pressure.pressure[dataVectorIndex], oldPressure, oldZpfv, newZpfv, compliance);
+        }
     }
 
 // Intrathoracic pressure update equation
@@ -460,11 +550,14 @@ public class Main {
      *
      * @param newIntraThoracicPressure
      * @param pvec parameter vector
+     * @param report print the adjustments on standard output
      */
-    public void updateIntrathoracicPressure(double newIntraThoracicPressure, Parameter_vector pvec) {
-        double oldPressure;
-        System.out.printf("updateIntrathoracicPressure()\n");
-        System.out.printf("P,new = P,old + (Pth,new - Pth,old)\n");
+    public void updateIntrathoracicPressure(double newIntraThoracicPressure, Parameter_vector pvec,
+            boolean report) {
+        if (report) {
+            System.out.printf("updateIntrathoracicPressure()\n");
+            System.out.printf("P,new = P,old + (Pth,new - Pth,old)\n");
+        }
 
         // old intra-thoracic pressure
         double oldIntraThoracicPressure = pvec.get(PVName.INTRA_THORACIC_PRESSURE);
@@ -473,83 +566,41 @@ public class Main {
         pressure.pressure[INTRA_THORACIC_CPI] = newIntraThoracicPressure;
 
         // update pressure for all compartments inside the thorax
-        // ascending aorta
-        oldPressure = pressure.pressure[ASCENDING_AORTIC_CPI];
-        pressure.pressure[ASCENDING_AORTIC_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update ascending aortic pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[ASCENDING_AORTIC_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // brachiocephalic
-        oldPressure = pressure.pressure[BRACHIOCEPHALIC_ARTERIAL_CPI];
-        pressure.pressure[BRACHIOCEPHALIC_ARTERIAL_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update brachiocephalic arterial pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[BRACHIOCEPHALIC_ARTERIAL_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // superior vena cava
-        oldPressure = pressure.pressure[SUPERIOR_VENA_CAVA_CPI];
-        pressure.pressure[SUPERIOR_VENA_CAVA_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update superior vena cava pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[SUPERIOR_VENA_CAVA_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // thoracic aorta
-        oldPressure = pressure.pressure[THORACIC_AORTIC_CPI];
-        pressure.pressure[THORACIC_AORTIC_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update thoracic aortic pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[THORACIC_AORTIC_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // inferior vena cava
-        oldPressure = pressure.pressure[INFERIOR_VENA_CAVA_CPI];
-        pressure.pressure[INFERIOR_VENA_CAVA_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update inferior vena cava pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[INFERIOR_VENA_CAVA_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // right atrial
-        oldPressure = pressure.pressure[RIGHT_ATRIAL_CPI];
-        pressure.pressure[RIGHT_ATRIAL_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update right atrial pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[RIGHT_ATRIAL_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // right ventricular
-        oldPressure = pressure.pressure[RIGHT_VENTRICULAR_CPI];
-        pressure.pressure[RIGHT_VENTRICULAR_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update right ventricular pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[RIGHT_VENTRICULAR_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // pulmonary arterial
-        oldPressure = pressure.pressure[PULMONARY_ARTERIAL_CPI];
-        pressure.pressure[PULMONARY_ARTERIAL_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update pulmonary arterial pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[PULMONARY_ARTERIAL_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // pulmonary venous
-        oldPressure = pressure.pressure[PULMONARY_VENOUS_CPI];
-        pressure.pressure[PULMONARY_VENOUS_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update pulmonary venous pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[PULMONARY_VENOUS_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // left atrial
-        oldPressure = pressure.pressure[LEFT_ATRIAL_CPI];
-        pressure.pressure[LEFT_ATRIAL_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update left atrial pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[LEFT_ATRIAL_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
-
-        // left ventricular
-        oldPressure = pressure.pressure[LEFT_VENTRICULAR_CPI];
-        pressure.pressure[LEFT_VENTRICULAR_CPI] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
-        System.out.printf("Update left ventricular pressure\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
-                pressure.pressure[LEFT_VENTRICULAR_CPI], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
+        shiftPressure(ASCENDING_AORTIC_CPI, "ascending aortic",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(BRACHIOCEPHALIC_ARTERIAL_CPI, "brachiocephalic arterial",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(SUPERIOR_VENA_CAVA_CPI, "superior vena cava",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(THORACIC_AORTIC_CPI, "thoracic aortic",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(INFERIOR_VENA_CAVA_CPI, "inferior vena cava",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(RIGHT_ATRIAL_CPI, "right atrial",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(RIGHT_VENTRICULAR_CPI, "right ventricular",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(PULMONARY_ARTERIAL_CPI, "pulmonary arterial",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(PULMONARY_VENOUS_CPI, "pulmonary venous",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(LEFT_ATRIAL_CPI, "left atrial",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+        shiftPressure(LEFT_VENTRICULAR_CPI, "left ventricular",
+                newIntraThoracicPressure, oldIntraThoracicPressure, report);
+    }
 
+    // Move the pressure of one compartment inside the thorax with the
+    // intra-thoracic pressure
+    private void shiftPressure(int dataVectorIndex, String compartment,
+            double newIntraThoracicPressure, double oldIntraThoracicPressure, boolean report) {
+        double oldPressure = pressure.pressure[dataVectorIndex];
+        pressure.pressure[dataVectorIndex] = oldPressure + newIntraThoracicPressure - oldIntraThoracicPressure;
+        if (report) {
+            System.out.printf("Update %s pressure\n", compartment);
+            System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n",
+                    pressure.pressure[dataVectorIndex], oldPressure, newIntraThoracicPressure, oldIntraThoracicPressure);
+        }
     }
 
 // Compliance update constraint for compartments inside the thorax
@@ -562,9 +613,10 @@ public class Main {
      * @param pvec parameter vector
      * @param complianceName compartment compliance name
      * @param dataVectorIndex index of compartment pressure in data vector
+     * @param report print the adjustment on standard output
      */
     public void updateComplianceInsideThorax(double newCompliance, Parameter_vector pvec,
-            PVName complianceName, int dataVectorIndex) {
+            PVName complianceName, int dataVectorIndex, boolean report) {
         // old compliance
         double oldCompliance = pvec.get(complianceName);
         // new compliance
@@ -575,10 +627,12 @@ public class Main {
         double oldPressure = pressure.pressure[dataVectorIndex];
         // new pressure
         pressure.pressure[dataVectorIndex] = oldPressure * oldCompliance / newCompliance + intraThoracicPressure * (1 - oldCompliance / newCompliance);
-        System.out.printf("updateComplianceInsideThorax()\n");
-        System.out.printf("P,new = P,old * C,old / C,new + Pth * (1 - C,old / C,new)\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f, Pth: %.2f\n",
-                pressure.pressure[dataVectorIndex], oldPressure, oldCompliance, newCompliance, intraThoracicPressure);
+        if (report) {
+            System.out.printf("updateComplianceInsideThorax()\n");
+            System.out.printf("P,new = P,old * C,old / C,new + Pth * (1 - C,old / C,new)\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f, Pth: %.2f\n",
+                    pressure.pressure[dataVectorIndex], oldPressure, oldCompliance, newCompliance, intraThoracicPressure);
+        }
     }
 
 // Compliance update constraint for compartments outside the thorax
@@ -592,9 +646,10 @@ public class Main {
      * @param pvec parameter vector
      * @param complianceName compartment compliance name
      * @param dataVectorIndex index of compartment pressure in data vector
+     * @param report print the adjustment on standard output
      */
     public void updateComplianceOutsideThorax(double newCompliance, Parameter_vector pvec,
-            PVName complianceName, int dataVectorIndex) {
+            PVName complianceName, int dataVectorIndex, boolean report) {
         // old compliance
         double oldCompliance = pvec.get(complianceName);
         // new compliance
@@ -603,10 +658,157 @@ public class Main {
         double oldPressure = pressure.pressure[dataVectorIndex];
         // new pressure
         pressure.pressure[dataVectorIndex] = oldPressure * oldCompliance / newCompliance;
-        System.out.printf("updateComplianceOutsideThorax()\n");
-        System.out.printf("P,new = P,old * C,old / C,new\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n",
-                pressure.pressure[dataVectorIndex], oldPressure, oldCompliance, newCompliance);
+        if (report) {
+            System.out.printf("updateComplianceOutsideThorax()\n");
+            System.out.printf("P,new = P,old * C,old / C,new\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n",
+                    pressure.pressure[dataVectorIndex], oldPressure, oldCompliance, newCompliance);
+        }
+    }
+
+    /**
+     * Update any parameter. Compliances, zero pressure filling volumes, the
+     * total blood volume and the intra-thoracic pressure go through their
+     * update equations above, which adjust the pressures to match; every
+     * other parameter is simply replaced. Each adjustment is printed on
+     * standard output, for the parameter table
+     *
+     * @param newValue new value
+     * @param pvec parameter vector
+     * @param parameterName parameter to update
+     */
+    public void update(double newValue, Parameter_vector pvec, PVName parameterName) {
+        update(newValue, pvec, parameterName, true);
+    }
+
+    /**
+     * Update any parameter as update() does, without printing anything, for
+     * the engine and its interventions
+     *
+     * @param newValue new value
+     * @param pvec parameter vector
+     * @param parameterName parameter to update
+     */
+    public void set(double newValue, Parameter_vector pvec, PVName parameterName) {
+        update(newValue, pvec, parameterName, false);
+    }
+
+    private void update(double newValue, Parameter_vector pvec, PVName parameterName, boolean report) {
+        switch (parameterName) {
+            // Compliances inside the thorax
+            case BRACH_ART_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 1, report);
+                break;
+            case SVC_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 4, report);
+                break;
+            case IVC_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 14, report);
+                break;
+            case THORACIC_AORTA_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 5, report);
+                break;
+            case ASCENDING_AORTA_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 0, report);
+                break;
+            case PULM_ART_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 17, report);
+                break;
+            case PULM_VEN_COMPLIANCE:
+                updateComplianceInsideThorax(newValue, pvec, parameterName, 18, report);
+                break;
+            // Compliances outside the thorax
+            case ABDOM_AORTA_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 6, report);
+                break;
+            case ABDOM_VEN_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 13, report);
+                break;
+            case LBODY_ART_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 11, report);
+                break;
+            case LBODY_VEN_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 12, report);
+                break;
+            case RENAL_ART_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 7, report);
+                break;
+            case RENAL_VEN_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 8, report);
+                break;
+            case SPLAN_ART_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 9, report);
+                break;
+            case SPLAN_VEN_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 10, report);
+                break;
+            case UBODY_ART_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 2, report);
+                break;
+            case UBODY_VEN_COMPLIANCE:
+                updateComplianceOutsideThorax(newValue, pvec, parameterName, 3, report);
+                break;
+            case TOTAL_BLOOD_VOLUME:
+                updateTotalBloodVolume(newValue, pvec);
+                break;
+            case INTRA_THORACIC_PRESSURE:
+                updateIntrathoracicPressure(newValue, pvec, report);
+                break;
+            // Zero-pressure filling volumes
+            case ABDOM_AORTA_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.ABDOM_AORTA_COMPLIANCE, 6, report);
+                break;
+            case ABDOM_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.ABDOM_VEN_COMPLIANCE, 13, report);
+                break;
+            case ASCENDING_AORTA_VOLUME:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.ASCENDING_AORTA_COMPLIANCE, 0, report);
+                break;
+            case BRACH_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.BRACH_ART_COMPLIANCE, 1, report);
+                break;
+            case IVC_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.IVC_COMPLIANCE, 14, report);
+                break;
+            case LBODY_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.LBODY_ART_COMPLIANCE, 11, report);
+                break;
+            case LBODY_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.LBODY_VEN_COMPLIANCE, 12, report);
+                break;
+            case RENAL_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.RENAL_ART_COMPLIANCE, 7, report);
+                break;
+            case RENAL_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.RENAL_VEN_COMPLIANCE, 8, report);
+                break;
+            case SPLAN_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.SPLAN_ART_COMPLIANCE, 9, report);
+                break;
+            case SPLAN_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.SPLAN_VEN_COMPLIANCE, 10, report);
+                break;
+            case SVC_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.SVC_COMPLIANCE, 4, report);
+                break;
+            case THORACIC_AORTA_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.THORACIC_AORTA_COMPLIANCE, 5, report);
+                break;
+            case UBODY_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.UBODY_ART_COMPLIANCE, 2, report);
+                break;
+            case UBODY_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.UBODY_VEN_COMPLIANCE, 3, report);
+                break;
+            case PULM_ART_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.PULM_ART_COMPLIANCE, 17, report);
+                break;
+            case PULN_VEN_ZPFV:
+                updateZeroPressureFillingVolume(newValue, pvec, parameterName, PVName.PULM_VEN_COMPLIANCE, 18, report);
+                break;
+            default:
+                updateParameter(newValue, pvec, parameterName);
+        }
     }
 
 // Update function for parameters with no update constraints
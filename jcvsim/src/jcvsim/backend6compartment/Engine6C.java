@@ -0,0 +1,231 @@
+package jcvsim.backend6compartment;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jcvsim.backendCommon.BeatNumerics;
+import jcvsim.backendCommon.Engine;
+import jcvsim.backendCommon.Maths;
+import jcvsim.backendCommon.Timeline;
+
+/*
+ * The 6 compartment model as a headless Engine.  There can be only one
+ * per class loader, see EngineLoader.
+ *
+ * This model's integrator does not take events itself, so the timeline is
+ * run between steps: events land on the first step boundary at or after
+ * their time.  The model has no tilt table, so this is not a TiltEngine.
+ */
+public class Engine6C implements Engine {
+
+    // Interval between the parameter changes that make up a ramp
+    public static final double RAMP_INTERVAL = 0.01;
+
+    private static final Map<String, Field> outputFields = new HashMap<>();
+    private static final List<Field> protocolFields = new ArrayList<>();
+
+    static {
+        for (Field f : Output.class.getFields()) {
+            if (f.getType() == double.class) {
+                outputFields.put(f.getName(), f);
+            }
+        }
+        for (Field f : Output_vector.class.getFields()) {
+            if (f.getType() == double[].class) {
+                protocolFields.add(f);
+            }
+        }
+    }
+
+    private final Main main = Main.instance();
+    private final Parameter_vector pvec = new Parameter_vector();
+    private final Output output = new Output();
+    private final Timeline timeline = new Timeline();
+    private boolean ABReflexOn;
+    private boolean CPReflexOn;
+
+    public Engine6C() {
+        main.init_sim(pvec);
+    }
+
+    @Override
+    public void step(int dataCompressionFactor) {
+        timeline.fireDue(output.time);
+        main.step_sim(output, pvec, dataCompressionFactor, ABReflexOn, CPReflexOn);
+    }
+
+    @Override
+    public double getTime() {
+        return output.time;
+    }
+
+    @Override
+    public double getOutput(String name) {
+        Field f = outputFields.get(name);
+        if (f == null) {
+            throw new IllegalArgumentException("No output " + name);
+        }
+        try {
+            return f.getDouble(output);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public double getBeatNumeric(String name) {
+        return main.getBeatNumeric(BeatNumerics.index(name));
+    }
+
+    @Override
+    public List<String> getParameterNames() {
+        List<String> names = new ArrayList<>();
+        for (PVName name : PVName.values()) {
+            if (pvec.containsKey(name)) {
+                names.add(name.name());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public double getParameter(String name) {
+        return pvec.get(PVName.valueOf(name));
+    }
+
+    @Override
+    public void setParameter(String name, double value) {
+        main.set(value, pvec, PVName.valueOf(name));
+    }
+
+    @Override
+    public void setFastMath(boolean on) {
+        Maths.setFast(on);
+    }
+
+    @Override
+    public Map<String, double[]> runProtocol() {
+        main.start_protocol(pvec);
+        do {
+            // as in step(), the timeline is run between steps
+            timeline.fireDue(main.pressure.time[0]);
+        } while (main.advance_protocol(pvec, ABReflexOn, CPReflexOn));
+        Output_vector out = main.getProtocolOutput();
+        output.time = main.pressure.time[0];
+        Map<String, double[]> series = new LinkedHashMap<>();
+        try {
+            for (Field f : protocolFields) {
+                series.put(f.getName(), ((double[]) f.get(out)).clone());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return series;
+    }
+
+    @Override
+    public Timeline getTimeline() {
+        return timeline;
+    }
+
+    @Override
+    public void reflexes(double time, final boolean ABReflexOn, final boolean CPReflexOn) {
+        timeline.schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                Engine6C.this.ABReflexOn = ABReflexOn;
+                Engine6C.this.CPReflexOn = CPReflexOn;
+            }
+        });
+    }
+
+    @Override
+    public void setParameter(double time, final String name, final double value) {
+        timeline.schedule(time, new Timeline.Action() {
+            @Override
+            public void fire(double now) {
+                setParameter(name, value);
+            }
+        });
+    }
+
+    // Move a parameter linearly from its value at start to value at stop,
+    // each step going through the update constraints as in setParameter()
+    @Override
+    public void ramp(double start, double stop, String name, double value) {
+        final PVName index = PVName.valueOf(name);
+        new Ramp(start, stop, index, value) {
+            @Override
+            void set(double v) {
+                main.set(v, pvec, index);
+            }
+        }.schedule();
+    }
+
+    // Lose volume mL of blood at a constant rate between start and stop,
+    // moving the venous pressure with it as setParameter() does
+    @Override
+    public void hemorrhage(double start, double stop, final double volume) {
+        new Ramp(start, stop, PVName.TOTAL_BLOOD_VOLUME, Double.NaN) {
+            @Override
+            double target(double from) {
+                return from - volume;
+            }
+
+            @Override
+            void set(double v) {
+                main.setTotalBloodVolume(v, pvec);
+            }
+        }.schedule();
+    }
+
+    // A ramp compiled into one event per RAMP_INTERVAL, as in the 21
+    // compartment Intervention.  The starting value is taken when the first
+    // event fires
+    private abstract class Ramp {
+
+        final double start;
+        final double stop;
+        final PVName name;
+        final double value;
+        double from;
+        double to;
+
+        Ramp(double start, double stop, PVName name, double value) {
+            this.start = start;
+            this.stop = stop;
+            this.name = name;
+            this.value = value;
+        }
+
+        double target(double from) {
+            return value;
+        }
+
+        abstract void set(double v);
+
+        void schedule() {
+            timeline.schedule(start, new Timeline.Action() {
+                @Override
+                public void fire(double time) {
+                    from = pvec.get(name);
+                    to = target(from);
+                }
+            });
+            final int n = Math.max(1, (int) Math.ceil((stop - start) / RAMP_INTERVAL - Timeline.EPSILON));
+            for (int k = 1; k <= n; k++) {
+                final double fraction = (double) k / n;
+                timeline.schedule(start + (stop - start) * fraction, new Timeline.Action() {
+                    @Override
+                    public void fire(double time) {
+                        set(from + (to - from) * fraction);
+                    }
+                });
+            }
+        }
+    }
+
+}
@@ -1,10 +1,9 @@
 package jcvsim.backend6compartment;
 
-import static java.lang.Math.PI;
+import jcvsim.backendCommon.ElastanceCurve;
+import jcvsim.backendCommon.Metrics;
 import static jcvsim.backend6compartment.Data_vector.CompartmentIndex.*;
 import static jcvsim.backend6compartment.Data_vector.ComplianceIndex.*;
-import static jcvsim.backendCommon.Maths.cos;
-import static jcvsim.backendCommon.Maths.sin;
 
 /*
  * This file contains the subroutines necessary to evaluate the time-varying
@@ -41,33 +40,21 @@ class Equation {
         double Cldias = theta.get(PVName.LV_DIASTOLIC_COMPLIANCE);
         double sigCl = p.compliance[LV_END_SYSTOLIC_COMPL];
 
-        // Ventricular contraction. PR-interval has not yet passed.
-        if (v_time <= 0.0) {
-            Elv = 1 / Cldias;
-            Erv = 1 / Crdias;
-            dElv = 0.0;
-            dErv = 0.0;
-        } // Ventricular contraction.
-        else if ((0 < v_time) && (v_time <= Tvsys)) {
-            Elv = 0.5 * (1 / sigCl - 1 / Cldias) * (1 - cos(PI * v_time / Tvsys)) + 1 / Cldias;
-            Erv = 0.5 * (1 / sigCr - 1 / Crdias) * (1 - cos(PI * v_time / Tvsys)) + 1 / Crdias;
-            dElv = 0.5 * PI * (1 / sigCl - 1 / Cldias) * sin(PI * v_time / Tvsys) / Tvsys;
-            dErv = 0.5 * PI * (1 / sigCr - 1 / Crdias) * sin(PI * v_time / Tvsys) / Tvsys;
-        } // Early ventricular relaxation.
-        else if ((Tvsys < v_time) && (v_time <= 1.5 * Tvsys)) {
-            Elv = 0.5 * (1 / sigCl - 1 / Cldias) * (1 + cos(2.0 * PI * (v_time - Tvsys) / Tvsys))
-                    + 1 / Cldias;
-            Erv = 0.5 * (1 / sigCr - 1 / Crdias) * (1 + cos(2.0 * PI * (v_time - Tvsys) / Tvsys))
-                    + 1 / Crdias;
-            dElv = -1.0 * PI * (1 / sigCl - 1 / Cldias) * sin(2.0 * PI * (v_time - Tvsys) / Tvsys) / Tvsys;
-            dErv = -1.0 * PI * (1 / sigCr - 1 / Crdias) * sin(2.0 * PI * (v_time - Tvsys) / Tvsys) / Tvsys;
-        } // Ventricular diastole.
-        else if (v_time > 1.5 * Tvsys) {
-            Elv = 1 / Cldias;
-            Erv = 1 / Crdias;
-            dElv = 0.0;
-            dErv = 0.0;
-        }
+        // Both ventricles follow the same normalised curve, scaled between
+        // their diastolic and systolic elastances, at the fraction of
+        // systole that has passed.  Before the PR interval has passed, when
+        // v_time is not yet positive, and after early relaxation, the curve
+        // is 0.
+        double phase = v_time / Tvsys;
+        double shape = ElastanceCurve.shape(phase);
+        double slope = ElastanceCurve.slope(phase) / Tvsys;
+
+        double Eldias = 1 / Cldias;
+        double Erdias = 1 / Crdias;
+        Elv = (1 / sigCl - Eldias) * shape + Eldias;
+        Erv = (1 / sigCr - Erdias) * shape + Erdias;
+        dElv = (1 / sigCl - Eldias) * slope;
+        dErv = (1 / sigCr - Erdias) * slope;
 
         p.compliance[RV_COMPL] = 1 / Erv;
         p.compliance[LV_COMPL] = 1 / Elv;
@@ -83,6 +70,7 @@ class Equation {
      */
 // Modifies ONLY Data_vector
     public static void eqns_ptr(Data_vector p, Parameter_vector theta, Reflex_vector r) {
+        Metrics.rhs();
 
         // Computing the flows in the system based on the pressures at the current
         // time step.
@@ -1,6 +1,10 @@
 package jcvsim.backend6compartment;
 
 import static jcvsim.backend6compartment.Data_vector.CompartmentIndex.*;
+import static jcvsim.backend6compartment.Output_vector.N_SAMPLES;
+import static jcvsim.backend6compartment.Output_vector.T_BASELINE;
+import static jcvsim.backend6compartment.Output_vector.T_SAMP;
+import jcvsim.backendCommon.Metrics;
 import jcvsim.backendCommon.Turning;
 
 /*
@@ -44,6 +48,12 @@ public class Main {
     double[] result;           // output vector containing the output variables.
     private static Main theInstance;
 
+    // Seconds a protocol goes on past the end of its window for the last
+    // beats to finish
+    private static final double PROTOCOL_OVERRUN = 10.0;
+    // End of the protocol start_protocol() started
+    private double protocolEnd;
+
     static public Main instance() {
         if (theInstance == null) {
             theInstance = new Main();
@@ -55,6 +65,11 @@ public class Main {
 
     }
 
+    // Numerics of the last complete beat, see BeatNumerics
+    public double getBeatNumeric(int index) {
+        return result[index];
+    }
+
 // init_sim(): Initializes the simulation
     public void init_sim(Parameter_vector a) {
 
@@ -149,25 +164,7 @@ public class Main {
         // Calculate output values
         int i;
         for (i = 0; i < dataCompressionFactor; i++) {
-            Rkqc.rkqc_ptr(pressure, reflex_vector, a, htry, 0.001, yscale, hdid, hnext);
-
-            pressure.time[1] = Reflex.sanode(pressure, reflex_vector, a, hdid[0]);
-
-            Equation.elastance_ptr(pressure, reflex_vector, a);
-
-            Equation.eqns_ptr(pressure, a, reflex_vector);
-
-            Reflex.queue_ptr(pressure, imp, reflex_vector, a, hdid[0], ABReflexOn, CPReflexOn);
-
-            pressure.time[0] += hdid[0];
-
-            htry = 0.001;
-
-            Equation.fixvolume_ptr(pressure, reflex_vector, a);
-
-            Simulator_numerics_new.numerics_new_ptr(pressure, reflex_vector, hdid[0], result);
-
-            Simulator_numerics.numerics(pressure, reflex_vector, out, a);
+            advance(a, ABReflexOn, CPReflexOn);
 
             // simulation time
             stepout.time = pressure.time[0];
@@ -246,6 +243,62 @@ public class Main {
         stepout.IntraThoracicPressure = Turning.turning(pth, dataCompressionFactor);
     }
 
+    // One integration step, with the numerics but none of the output of
+    // step_sim()
+    private void advance(Parameter_vector a, boolean ABReflexOn, boolean CPReflexOn) {
+        Rkqc.rkqc_ptr(pressure, reflex_vector, a, htry, 0.001, yscale, hdid, hnext);
+
+        pressure.time[1] = Reflex.sanode(pressure, reflex_vector, a, hdid[0]);
+
+        Equation.elastance_ptr(pressure, reflex_vector, a);
+
+        Equation.eqns_ptr(pressure, a, reflex_vector);
+
+        long reflexStart = Metrics.startTimer();
+        Reflex.queue_ptr(pressure, imp, reflex_vector, a, hdid[0], ABReflexOn, CPReflexOn);
+        Metrics.reflexTime(reflexStart);
+
+        pressure.time[0] += hdid[0];
+
+        htry = 0.001;
+
+        Equation.fixvolume_ptr(pressure, reflex_vector, a);
+
+        Simulator_numerics_new.numerics_new_ptr(pressure, reflex_vector, hdid[0], result);
+
+        Simulator_numerics.numerics(pressure, reflex_vector, out, a);
+    }
+
+    // Start the fixed protocol of the estimation code headless from now.
+    // Its numerics are Output_vector's N_SAMPLES samples of each, taken
+    // every T_SAMP seconds from T_BASELINE seconds before PV93, both counted
+    // from the start of the protocol.  Step it with advance_protocol() until
+    // that returns false, then read them with getProtocolOutput()
+    public void start_protocol(Parameter_vector a) {
+        double start = pressure.time[0];
+        Simulator_numerics.restart(start, a);
+        protocolEnd = start + a.get(PVName.PV93) - T_BASELINE + N_SAMPLES * T_SAMP + PROTOCOL_OVERRUN;
+    }
+
+    // One step of the protocol, for callers that run a timeline or change
+    // the reflexes between steps.  Returns false, without stepping, once
+    // every sample is taken, or PROTOCOL_OVERRUN seconds past the end of the
+    // window if the heart does not beat.  None of the per step output of
+    // step_sim() is computed
+    public boolean advance_protocol(Parameter_vector a, boolean ABReflexOn, boolean CPReflexOn) {
+        if (Simulator_numerics.isComplete() || (pressure.time[0] >= protocolEnd)) {
+            return false;
+        }
+        advance(a, ABReflexOn, CPReflexOn);
+        return true;
+    }
+
+    // The numerics of the last protocol, the simulation's own Output_vector,
+    // written over by the next one
+    public Output_vector getProtocolOutput() {
+        return out;
+    }
+
     public void reset_sim() {
         // The following lines either reset variables to their initial values or
         // call functions that do the same in other files. This resets the entire
@@ -257,25 +310,33 @@ public class Main {
 
 // Total blood volume update constraint
 // Pv,new = Pv,old + (Vtot,new - Vtot,old) / Cv
-    public void updateTotalBloodVolume(double tbv_new, Parameter_vector a) {
+    public void updateTotalBloodVolume(double tbv_new, Parameter_vector a, boolean report) {
         // venous compliance
         double Cv = a.get(PVName.VEN_COMPLIANCE);
         // central venous pressure
         double Pv_old = pressure.pressure[CENTRAL_VENOUS_CPI];
         // old total blood volume 
         double tbv_old = a.get(PVName.TOTAL_BLOOD_VOLUME);
-        // new total blood volume
-        a.put(PVName.TOTAL_BLOOD_VOLUME,tbv_new);
-        // recalculate central venous pressure
-        pressure.pressure[CENTRAL_VENOUS_CPI] = Pv_old + (tbv_new - tbv_old) / Cv;
+        setTotalBloodVolume(tbv_new, a);
+
+        if (report) {
+            System.out.printf("Pv,new = Pv,old + (Vtot,new - Vtot,old) / Cv\n");
+            System.out.printf("Pv,new: %.2f, Pv,old: %.2f, Vtot,new: %.2f, Vtot,old: %.2f, Cv: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], Pv_old, tbv_new, tbv_old, Cv);
+        }
+    }
 
-        System.out.printf("Pv,new = Pv,old + (Vtot,new - Vtot,old) / Cv\n");
-        System.out.printf("Pv,new: %.2f, Pv,old: %.2f, Vtot,new: %.2f, Vtot,old: %.2f, Cv: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], Pv_old, tbv_new, tbv_old, Cv);
+// The total blood volume update constraint without the report, for the
+// many small changes of a hemorrhage
+    void setTotalBloodVolume(double tbv_new, Parameter_vector a) {
+        double Cv = a.get(PVName.VEN_COMPLIANCE);
+        double tbv_old = a.get(PVName.TOTAL_BLOOD_VOLUME);
+        a.put(PVName.TOTAL_BLOOD_VOLUME,tbv_new);
+        pressure.pressure[CENTRAL_VENOUS_CPI] += (tbv_new - tbv_old) / Cv;
     }
 
 // Total zero pressure filling volume update constraint
 // Pv,new = Pv,old + (V0,old - V0,new) / Cv
-    public void updateTotalZeroPressureFillingVolume(double zpfv_new, Parameter_vector a) {
+    public void updateTotalZeroPressureFillingVolume(double zpfv_new, Parameter_vector a, boolean report) {
         // venous compliance
         double Cv = a.get(PVName.VEN_COMPLIANCE);
         // central venous pressure
@@ -287,16 +348,19 @@ public class Main {
         // recalculate central venous pressure
         pressure.pressure[CENTRAL_VENOUS_CPI] = Pv_old + (zpfv_old - zpfv_new) / Cv;
 
-        System.out.printf("Pv,new = Pv,old + (V0,old - V0,new) / Cv\n");
-        System.out.printf("Pv,new: %.2f, Pv,old: %.2f, V0,old: %.2f, V0,new: %.2f, Cv: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], Pv_old, zpfv_old, zpfv_new, Cv);
+        if (report) {
+            System.out.printf("Pv,new = Pv,old + (V0,old - V0,new) / Cv\n");
+            System.out.printf("Pv,new: %.2f, Pv,old: %.2f, V0,old: %.2f, V0,new: %.2f, Cv: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], Pv_old, zpfv_old, zpfv_new, Cv);
+        }
     }
 
 // Intra-thoracic pressure update constraint
 // For all thoracic compartments.
 // P,new = P,old + (Pth,new - Pth,old)
-    public void updateIntrathoracicPressure(double Pth_new, Parameter_vector a) {
-        double P_old;
-        System.out.printf("P,new = P,old + (Pth,new - Pth,old)\n");
+    public void updateIntrathoracicPressure(double Pth_new, Parameter_vector a, boolean report) {
+        if (report) {
+            System.out.printf("P,new = P,old + (Pth,new - Pth,old)\n");
+        }
 
         // old intra-thoracic pressure
         double Pth_old = a.get(PVName.INTRA_THORACIC_PRESSURE);
@@ -304,34 +368,27 @@ public class Main {
         a.put(PVName.INTRA_THORACIC_PRESSURE,Pth_new);
         pressure.pressure[INTRA_THORACIC_CPI] = Pth_new;
 
-        // left ventricle pressure
-        P_old = pressure.pressure[LEFT_VENTRICULAR_CPI];
-        // recalculate left ventricle pressure
-        pressure.pressure[LEFT_VENTRICULAR_CPI] = P_old + Pth_new - Pth_old;
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n", pressure.pressure[LEFT_VENTRICULAR_CPI], P_old, Pth_new, Pth_old);
-
-        // right ventricle pressure
-        P_old = pressure.pressure[RIGHT_VENTRICULAR_CPI];
-        // recalculate right ventricle pressure
-        pressure.pressure[RIGHT_VENTRICULAR_CPI] = P_old + Pth_new - Pth_old;
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n", pressure.pressure[RIGHT_VENTRICULAR_CPI], P_old, Pth_new, Pth_old);
-
-        // pulmonary arterial pressure
-        P_old = pressure.pressure[PULMONARY_ARTERIAL_CPI];
-        // recalculate pulmonary arterial pressure
-        pressure.pressure[PULMONARY_ARTERIAL_CPI] = P_old + Pth_new - Pth_old;
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n", pressure.pressure[PULMONARY_ARTERIAL_CPI], P_old, Pth_new, Pth_old);
-
-        // pulmonary venous pressure
-        P_old = pressure.pressure[PULMONARY_VENOUS_CPI];
-        // recalculate pulmonary venous pressure
-        pressure.pressure[PULMONARY_VENOUS_CPI] = P_old + Pth_new - Pth_old;
-        System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n", pressure.pressure[PULMONARY_VENOUS_CPI], P_old, Pth_new, Pth_old);
+        // recalculate left and right ventricle, pulmonary arterial and
+        // pulmonary venous pressures
+        shiftPressure(LEFT_VENTRICULAR_CPI, Pth_new, Pth_old, report);
+        shiftPressure(RIGHT_VENTRICULAR_CPI, Pth_new, Pth_old, report);
+        shiftPressure(PULMONARY_ARTERIAL_CPI, Pth_new, Pth_old, report);
+        shiftPressure(PULMONARY_VENOUS_CPI, Pth_new, Pth_old, report);
+    }
+
+// Move the pressure of one thoracic compartment with the intra-thoracic
+// pressure
+    private void shiftPressure(int i, double Pth_new, double Pth_old, boolean report) {
+        double P_old = pressure.pressure[i];
+        pressure.pressure[i] = P_old + Pth_new - Pth_old;
+        if (report) {
+            System.out.printf("P,new: %.2f, P,old: %.2f, Pth,new: %.2f, Pth,old: %.2f\n", pressure.pressure[i], P_old, Pth_new, Pth_old);
+        }
     }
 
 // Compliance parameter update constraint
 // P,new = P,old * C,old / C,new + Pth * (1 - C,old / C,new)
-    public void updatePulmonaryArterialCompliance(double C_new, Parameter_vector a) {
+    public void updatePulmonaryArterialCompliance(double C_new, Parameter_vector a, boolean report) {
         // old pulmonary arterial compliance
         double C_old = a.get(PVName.PULM_ART_COMPLIANCE);
         // new pulmonary arterial compliance
@@ -342,13 +399,15 @@ public class Main {
         double P_old = pressure.pressure[PULMONARY_ARTERIAL_CPI];
         // new pulomary arterial compliance
         pressure.pressure[PULMONARY_ARTERIAL_CPI] = P_old * C_old / C_new + Pth * (1 - C_old / C_new);
-        System.out.printf("P,new = P,old * C,old / C,new\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[PULMONARY_ARTERIAL_CPI], P_old, C_old, C_new);
+        if (report) {
+            System.out.printf("P,new = P,old * C,old / C,new\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[PULMONARY_ARTERIAL_CPI], P_old, C_old, C_new);
+        }
     }
 
 // Compliance parameter update constraint
 // P,new = P,old * C,old / C,new + Pth * (1 - C,old / C,new)
-    public void updatePulmonaryVenousCompliance(double C_new, Parameter_vector a) {
+    public void updatePulmonaryVenousCompliance(double C_new, Parameter_vector a, boolean report) {
         // old pulmonary arterial compliance
         double C_old = a.get(PVName.PULM_VEN_COMPLIANCE);
         // new pulmonary arterial compliance
@@ -359,13 +418,15 @@ public class Main {
         double P_old = pressure.pressure[PULMONARY_VENOUS_CPI];
         // new pulomary arterial compliance
         pressure.pressure[PULMONARY_VENOUS_CPI] = P_old * C_old / C_new + Pth * (1 - C_old / C_new);
-        System.out.printf("P,new = P,old * C,old / C,new\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[PULMONARY_VENOUS_CPI], P_old, C_old, C_new);
+        if (report) {
+            System.out.printf("P,new = P,old * C,old / C,new\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[PULMONARY_VENOUS_CPI], P_old, C_old, C_new);
+        }
     }
 
 // Compliance parameter update constraint
 // P,new = P,old * C,old / C,new
-    public void updateArterialCompliance(double C_new, Parameter_vector a) {
+    public void updateArterialCompliance(double C_new, Parameter_vector a, boolean report) {
         // old pulmonary arterial compliance
         double C_old = a.get(PVName.ART_COMPLIANCE);
         // new pulmonary arterial compliance
@@ -374,13 +435,15 @@ public class Main {
         double P_old = pressure.pressure[ARTERIAL_CPI];
         // new pulomary arterial compliance
         pressure.pressure[ARTERIAL_CPI] = P_old * C_old / C_new;
-        System.out.printf("P,new = P,old * C,old / C,new\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[ARTERIAL_CPI], P_old, C_old, C_new);
+        if (report) {
+            System.out.printf("P,new = P,old * C,old / C,new\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[ARTERIAL_CPI], P_old, C_old, C_new);
+        }
     }
 
 // Compliance parameter update constraint
 // P,new = P,old * C,old / C,new
-    public void updateVenousCompliance(double C_new, Parameter_vector a) {
+    public void updateVenousCompliance(double C_new, Parameter_vector a, boolean report) {
         // old pulmonary arterial compliance
         double C_old = a.get(PVName.VEN_COMPLIANCE);
         // new pulmonary arterial compliance
@@ -389,8 +452,50 @@ public class Main {
         double P_old = pressure.pressure[CENTRAL_VENOUS_CPI];
         // new pulomary arterial compliance
         pressure.pressure[CENTRAL_VENOUS_CPI] = P_old * C_old / C_new;
-        System.out.printf("P,new = P,old * C,old / C,new\n");
-        System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], P_old, C_old, C_new);
+        if (report) {
+            System.out.printf("P,new = P,old * C,old / C,new\n");
+            System.out.printf("P,new: %.2f, P,old: %.2f, C,old: %.2f, C,new: %.2f\n", pressure.pressure[CENTRAL_VENOUS_CPI], P_old, C_old, C_new);
+        }
+    }
+
+// Update function for any parameter, applying the update constraints above
+// to the parameters that have one and printing each adjustment, as the
+// parameter table does
+    public void update(double newValue, Parameter_vector a, PVName index) {
+        update(newValue, a, index, true);
+    }
+
+// The same without printing anything, for the engine and its interventions
+    public void set(double newValue, Parameter_vector a, PVName index) {
+        update(newValue, a, index, false);
+    }
+
+    private void update(double newValue, Parameter_vector a, PVName index, boolean report) {
+        switch (index) {
+            case PULM_ART_COMPLIANCE:
+                updatePulmonaryArterialCompliance(newValue, a, report);
+                break;
+            case PULM_VEN_COMPLIANCE:
+                updatePulmonaryVenousCompliance(newValue, a, report);
+                break;
+            case ART_COMPLIANCE:
+                updateArterialCompliance(newValue, a, report);
+                break;
+            case VEN_COMPLIANCE:
+                updateVenousCompliance(newValue, a, report);
+                break;
+            case TOTAL_BLOOD_VOLUME:
+                updateTotalBloodVolume(newValue, a, report);
+                break;
+            case INTRA_THORACIC_PRESSURE:
+                updateIntrathoracicPressure(newValue, a, report);
+                break;
+            case TOTAL_ZPFV:
+                updateTotalZeroPressureFillingVolume(newValue, a, report);
+                break;
+            default:
+                updateParameter(newValue, a, index);
+        }
     }
 
 // Update function for parameters with no update constraints
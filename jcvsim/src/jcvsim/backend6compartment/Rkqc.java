@@ -1,6 +1,7 @@
 package jcvsim.backend6compartment;
 
 import static jcvsim.backend6compartment.Data_vector.CompartmentIndex.*;
+import jcvsim.backendCommon.Metrics;
 import static jcvsim.backendCommon.Maths.exp;
 import static jcvsim.backendCommon.Maths.fabs;
 import static jcvsim.backendCommon.Maths.log;
@@ -219,8 +220,10 @@ public class Rkqc {
             if ((errmax /= eps) <= 1.0) {
                 hdid[0] = h;
                 hnext[0] = (errmax > ERRCON ? SAFETY * h * pow(errmax, PGROW) : 4.0 * h);
+                Metrics.accepted(h);
                 break;
             }
+            Metrics.rejected();
             h = SAFETY * h * exp(PSHRNK * log(errmax));
             //    printf("Reducing stepsize to: %f\n\n", h);
         }
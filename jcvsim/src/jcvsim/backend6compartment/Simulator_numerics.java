@@ -44,6 +44,49 @@ public class Simulator_numerics {
     static double T_old = 0.0;
     static double hr_old = 0.0;
 
+    // Start of the protocol the samples are timed from, see restart()
+    static double origin = 0.0;
+
+    // Start sampling afresh for a protocol that starts at time start, as
+    // happens by itself at the start of the simulation
+    static void restart(double start, Parameter_vector theta) {
+        origin = start;
+        k = 0;
+        l = 0;
+        m = 0;
+        n = 0;
+        T_old = start;
+        onset = start;
+
+        sap = sap_prev = tmp_sap = sap_time_prev = sap_time_next = 0.0;
+        map = map_prev = tmp_map = map_time_prev = map_time_next = 0.0;
+        dap = dap_prev = tmp_dap = dap_time_prev = dap_time_next = 0.0;
+
+        cvp = cvp_prev = tmp_cvp = 0.0;
+        sv = sv_prev = tmp_sv = 0.0;
+        hr_old = 0.0;
+
+        sap_time = map_time = dap_time = windowStart(theta);
+        told = tnew = windowStart(theta);
+
+        tmp_dap = 500.0;
+        cum_hr = 500.0;
+
+        prev_time = current_time = start;
+        cum_dt = 0.0;
+    }
+
+    // Time of the first sample, T_BASELINE seconds before the tilt onset
+    // time counted from the start of the protocol
+    private static double windowStart(Parameter_vector theta) {
+        return origin + theta.get(PVName.PV93) - T_BASELINE;
+    }
+
+    // Whether every sample of the output vector has been taken
+    static boolean isComplete() {
+        return (k >= N_SAMPLES) && (l >= N_SAMPLES) && (m >= N_SAMPLES) && (n >= N_SAMPLES);
+    }
+
     /*
      * The following subroutine does two things: (1) it extracts the
      * beat-by-beat
@@ -61,28 +104,7 @@ public class Simulator_numerics {
 
         // Initialize static variables between different calls to simulator.c
         if (p.time[0] < 1.0e-6) {
-            k = 0;
-            l = 0;
-            m = 0;
-            n = 0;
-            T_old = 0.0;
-            onset = 0.0;
-
-            sap = sap_prev = tmp_sap = sap_time_prev = sap_time_next = 0.0;
-            map = map_prev = tmp_map = map_time_prev = map_time_next = 0.0;
-            dap = dap_prev = tmp_dap = dap_time_prev = dap_time_next = 0.0;
-
-            cvp = cvp_prev = tmp_cvp = 0.0;
-            sv = sv_prev = tmp_sv = 0.0;
-            hr_old = 0.0;
-
-            sap_time = map_time = dap_time = theta.get(PVName.PV93) - T_BASELINE;
-            told = tnew = theta.get(PVName.PV93) - T_BASELINE;
-
-            tmp_dap = 500.0;
-            cum_hr = 500.0;
-
-            prev_time = current_time = cum_dt = 0.0;
+            restart(0.0, theta);
         }
 
         // Detect onset of a new beat through change in cumulative heart rate signal
@@ -91,7 +113,7 @@ public class Simulator_numerics {
             T_new = p.time[0];
             hr_new = r.hr[2];
 
-            if ((p.time[0] > theta.get(PVName.PV93) - T_BASELINE) && (k < N_SAMPLES)) {
+            if ((p.time[0] > windowStart(theta)) && (k < N_SAMPLES)) {
                 while (((T_new - told) > T_SAMP) && (k < N_SAMPLES)) {
                     out.hr[k] = (hr_new - hr_old) * (tnew - T_old) / (T_new - T_old) + hr_old;
                     told = tnew;
@@ -132,7 +154,7 @@ public class Simulator_numerics {
             map_time_next = 0.5 * (dap_time_next + dap_time_prev);
 
             // Compute the systolic pressure numerics with granularity T_SAMP.
-            if ((sap_time_next > theta.get(PVName.PV93) - T_BASELINE) && (l < N_SAMPLES)) {
+            if ((sap_time_next > windowStart(theta)) && (l < N_SAMPLES)) {
                 out.sap[l] = (sap - sap_prev) * (sap_time - sap_time_prev)
                         / (sap_time_next - sap_time_prev) + sap_prev;
 
@@ -147,7 +169,7 @@ public class Simulator_numerics {
             }
 
             // Compute the diastolic pressure numerics with granularity T_SAMP.
-            if ((dap_time_next > theta.get(PVName.PV93) - T_BASELINE) && (m < N_SAMPLES)) {
+            if ((dap_time_next > windowStart(theta)) && (m < N_SAMPLES)) {
                 out.dap[m] = (dap - dap_prev) * (dap_time - dap_time_prev)
                         / (dap_time_next - dap_time_prev) + dap_prev;
                 while (((dap_time_next - dap_time) > T_SAMP) && ((m + 1) < N_SAMPLES)) {
@@ -163,7 +185,7 @@ public class Simulator_numerics {
             // Compute the mean pressure and stroke volume numerics with granularity
             // T_SAMP. The value representing each beat is assigned to the midpoint
             // of the beat.
-            if ((map_time_next > theta.get(PVName.PV93) - T_BASELINE) && (n < N_SAMPLES)) {
+            if ((map_time_next > windowStart(theta)) && (n < N_SAMPLES)) {
                 out.map[n] = (map - map_prev) * (map_time - map_time_prev)
                         / (map_time_next - map_time_prev) + map_prev;
                 out.cvp[n] = (cvp - cvp_prev) * (map_time - map_time_prev)
@@ -0,0 +1,42 @@
+package jcvsim.backendCommon;
+
+/*
+ * Names of the numerics both models compute over each cardiac beat, in the
+ * order of the output vector of Simulator_numerics_new.numerics_new_ptr().
+ * The values are those of the last complete beat, so they change once a
+ * beat, when the next beat starts.
+ *
+ * Pressures are in mmHg, SV in ml, and HR in beats per minute; CO is their
+ * product, in ml per minute.
+ */
+public class BeatNumerics {
+
+    private static final String[] NAMES = {
+        "SAP", "MAP", "DAP", // systemic arterial systolic, mean, diastolic
+        "LVSP", "LVEDP", "LVMDP", // left ventricular systolic, end diastolic, minimum
+        "RVSP", "RVEDP", "RVMDP", // right ventricular systolic, end diastolic, minimum
+        "RAP", "LAP", "UBVP", // mean right atrial, left atrial, upper body venous
+        "PASP", "PAMP", "PADP", // pulmonary arterial systolic, mean, diastolic
+        "SV", "CO", "HR",
+        "PVPmax", "PVP", "PVPmin" // pulmonary venous maximum, mean, minimum
+    };
+
+    // Prevent instantiation
+    private BeatNumerics() {
+    }
+
+    public static String[] names() {
+        return NAMES.clone();
+    }
+
+    // Position of the numeric in the output vector
+    public static int index(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No beat numeric " + name);
+    }
+
+}
@@ -0,0 +1,135 @@
+package jcvsim.backendCommon;
+
+import static java.lang.Math.PI;
+
+/*
+ * The normalised time course of the elastance of a heart chamber, shared by
+ * the atria and ventricles of both models.
+ *
+ * A chamber's elastance rises from its diastolic to its end systolic value
+ * over systole as half a cosine wave, and falls back over the next half
+ * systole as half a cosine wave of twice the frequency:
+ *
+ *   E(t) = Ediastolic + (Esystolic - Ediastolic) * shape(t / Tsystole)
+ *
+ *   shape(x) = (1 - cos(pi x)) / 2              0 <= x <= 1
+ *            = (1 + cos(2 pi (x - 1))) / 2      1 <  x <= 1.5
+ *            = 0                                otherwise
+ *
+ * Written in terms of the fraction x of systole that has passed the curve
+ * does not depend on the beat timing or the contractility, so it is
+ * tabulated once, rather than per beat, and the equations only scale it.
+ * Each table interval holds the cubic Hermite interpolant of shape() and of
+ * its derivative, built from their analytic values and derivatives at the
+ * ends of the interval.  The kink at x = 1 falls on an interval boundary,
+ * so every interval is smooth.
+ *
+ * The error of the cubic Hermite interpolant on an interval of width h is at
+ * most h^4 / 384 times the largest fourth derivative of the function on it,
+ * which for the relaxation half, the steeper one, is (2 pi)^4 / 2 for
+ * shape() and pi (2 pi)^4 for slope().  VALUE_ERROR and SLOPE_ERROR are
+ * those bounds for the table's interval width, about 5e-10 and 3e-9, well
+ * below the integrator's error tolerance.
+ */
+public class ElastanceCurve {
+
+    // Intervals per unit of x
+    private static final int RESOLUTION = 256;
+    // End of relaxation, in units of systole
+    public static final double END = 1.5;
+    private static final int INTERVALS = (int) (END * RESOLUTION);
+
+    private static final double H = 1.0 / RESOLUTION;
+    private static final double H4_384 = H * H * H * H / 384;
+
+    // Bounds on the error of shape() and slope() against the analytic form
+    public static final double VALUE_ERROR = H4_384 * Math.pow(2 * PI, 4) / 2;
+    public static final double SLOPE_ERROR = H4_384 * PI * Math.pow(2 * PI, 4);
+
+    // Polynomial coefficients in the position within the interval, 0 to 1,
+    // four for shape() then four for slope(), per interval
+    private static final double[] COEFFS = new double[8 * INTERVALS];
+
+    static {
+        for (int i = 0; i < INTERVALS; i++) {
+            // both ends from the same half of the curve
+            boolean rising = (i < RESOLUTION);
+            double x0 = i * H;
+            double x1 = (i + 1) * H;
+            hermite(8 * i, value(x0, rising), value(x1, rising),
+                    firstDerivative(x0, rising), firstDerivative(x1, rising));
+            hermite(8 * i + 4, firstDerivative(x0, rising), firstDerivative(x1, rising),
+                    secondDerivative(x0, rising), secondDerivative(x1, rising));
+        }
+    }
+
+    // Prevent instantiation
+    private ElastanceCurve() {
+    }
+
+    // The normalised elastance, 0 at diastole and 1 at end systole, at x
+    // systoles since the start of contraction
+    public static double shape(double x) {
+        if (!(x > 0) || (x > END)) {
+            return 0.0;
+        }
+        double u = x * RESOLUTION;
+        int i = Math.min((int) u, INTERVALS - 1);
+        u -= i;
+        int k = 8 * i;
+        return COEFFS[k] + u * (COEFFS[k + 1] + u * (COEFFS[k + 2] + u * COEFFS[k + 3]));
+    }
+
+    // The derivative of shape() with respect to x; divide by the length of
+    // systole for the rate of change in time
+    public static double slope(double x) {
+        if (!(x > 0) || (x > END)) {
+            return 0.0;
+        }
+        double u = x * RESOLUTION;
+        int i = Math.min((int) u, INTERVALS - 1);
+        u -= i;
+        int k = 8 * i + 4;
+        return COEFFS[k] + u * (COEFFS[k + 1] + u * (COEFFS[k + 2] + u * COEFFS[k + 3]));
+    }
+
+    // The analytic form, for building the table and checking it
+    public static double analyticShape(double x) {
+        if (!(x > 0) || (x > END)) {
+            return 0.0;
+        }
+        return value(x, x <= 1);
+    }
+
+    public static double analyticSlope(double x) {
+        if (!(x > 0) || (x > END)) {
+            return 0.0;
+        }
+        return firstDerivative(x, x <= 1);
+    }
+
+    private static double value(double x, boolean rising) {
+        return rising ? 0.5 * (1 - Math.cos(PI * x))
+                : 0.5 * (1 + Math.cos(2 * PI * (x - 1)));
+    }
+
+    private static double firstDerivative(double x, boolean rising) {
+        return rising ? 0.5 * PI * Math.sin(PI * x)
+                : -PI * Math.sin(2 * PI * (x - 1));
+    }
+
+    private static double secondDerivative(double x, boolean rising) {
+        return rising ? 0.5 * PI * PI * Math.cos(PI * x)
+                : -2 * PI * PI * Math.cos(2 * PI * (x - 1));
+    }
+
+    // Coefficients of the cubic through values p0 and p1 with derivatives
+    // m0 and m1 with respect to x, in terms of the position in the interval
+    private static void hermite(int k, double p0, double p1, double m0, double m1) {
+        COEFFS[k] = p0;
+        COEFFS[k + 1] = H * m0;
+        COEFFS[k + 2] = 3 * (p1 - p0) - H * (2 * m0 + m1);
+        COEFFS[k + 3] = 2 * (p0 - p1) + H * (m0 + m1);
+    }
+
+}
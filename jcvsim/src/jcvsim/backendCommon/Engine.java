@@ -0,0 +1,75 @@
+package jcvsim.backendCommon;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * A headless simulation engine: one patient, stepped by its caller.
+ *
+ * The backends keep their state in static fields and singletons, so there
+ * can only be one engine of each model per class loader.  Use
+ * EngineLoader.newEngine() to get engines that are isolated from each
+ * other and from the GUI's simulation, and EngineLoader.copy() to start
+ * several from the state one has reached.
+ *
+ * Parameters are named by their PVName and outputs by their field in the
+ * backend's Output class.  An engine is not thread safe; it belongs to the
+ * thread stepping it.
+ */
+public interface Engine {
+
+    // Advance the simulation by dataCompressionFactor integration steps
+    void step(int dataCompressionFactor);
+
+    // Simulated time, in seconds
+    double getTime();
+
+    double getOutput(String name);
+
+    // A numeric of the last complete beat, one of BeatNumerics.names()
+    double getBeatNumeric(String name);
+
+    // The PVNames of the parameters this model has, in declaration order
+    List<String> getParameterNames();
+
+    double getParameter(String name);
+
+    // Set a parameter, taking effect at the next step.  As in the GUI's
+    // parameter table, changing a compliance, a zero pressure filling
+    // volume, the total blood volume or the intra-thoracic pressure also
+    // moves the pressures that depend on it
+    void setParameter(String name, double value);
+
+    // Use the approximations of FastMath for every model in this engine's
+    // class loader.  That is this engine only when it comes from
+    // EngineLoader, and its copies start with its setting; an engine
+    // created in the application's loader shares the setting with the
+    // GUI's simulation.  The default is the jcvsim.fastmath system
+    // property.  Set it before stepping, as the step running meanwhile
+    // may see either setting
+    void setFastMath(boolean on);
+
+    // Run the fixed protocol of the estimation code headless, from now
+    // with the interventions on the timeline, and return its numerics
+    // sampled every half second from a minute before the tilt onset time,
+    // counted from now: hr, sap, map, dap, cvp and sv, named by their fields
+    // in the backend's Output_vector.  It may run from a snapshot; a tilt
+    // for it is scheduled at getTime() plus the tilt onset time.  Nothing
+    // is computed for getOutput() on the way.  The engine is left at the
+    // end of the protocol
+    Map<String, double[]> runProtocol();
+
+    // The intervention timeline, see Timeline
+    Timeline getTimeline();
+
+    // Interventions at simulated times.  Tilt is only in models with a
+    // tilt table, see TiltEngine
+    void reflexes(double time, boolean ABReflexOn, boolean CPReflexOn);
+
+    void setParameter(double time, String name, double value);
+
+    void ramp(double start, double stop, String name, double value);
+
+    void hemorrhage(double start, double stop, double volume);
+
+}
@@ -0,0 +1,419 @@
+package jcvsim.backendCommon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The state of an engine as bytes, so that many snapshots can be kept
+ * compactly and written to disk (see ResultCache).  restore() makes a new
+ * engine, with a loader of its own, in the state the engine was in when it
+ * was saved.
+ *
+ * An image holds what EngineLoader.copy() copies, under the same rules:
+ * the static fields of the backend classes the engine's loader defined and
+ * the fields of the engine, and everything reachable from them.  Objects
+ * are written once and referred to by number after that, so sharing and
+ * cycles survive.  The image also holds a digest of the class files of the
+ * backend, and restore() refuses an image saved by different classes,
+ * since their fields need not mean the same any more.
+ */
+public class EngineImage {
+
+    // "JCVS"
+    private static final int MAGIC = 0x4a435653;
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte FLOAT = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte CHAR = 10;
+    private static final byte CLASS = 11;
+    private static final byte ENUM = 12;
+    private static final byte ARRAY = 13;
+    private static final byte MAP = 14;
+    private static final byte COLLECTION = 15;
+    private static final byte OBJECT = 16;
+
+    // Prevent instantiation
+    private EngineImage() {
+    }
+
+    // The state of engine, which must come from EngineLoader and have no
+    // interventions pending, and must not be stepped while it is saved
+    public static byte[] save(Engine engine) {
+        EngineLoader loader = EngineLoader.loaderOf(engine);
+        if (!engine.getTimeline().isEmpty()) {
+            throw new IllegalStateException("Cannot save an engine with interventions pending");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            List<String> classes = new ArrayList<>(loader.getDefined());
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(engine.getClass().getName());
+            out.writeInt(classes.size());
+            for (String name : classes) {
+                out.writeUTF(name);
+            }
+            out.write(digest(loader, classes));
+
+            Writer writer = new Writer(out);
+            writer.ids.put(engine, 0);
+            for (String name : classes) {
+                writer.writeStatics(Class.forName(name, true, loader));
+            }
+            writer.writeFields(engine);
+        } catch (IOException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot save engine " + engine.getClass().getName(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // A new engine in the state saved in image.  Throws IOException if the
+    // image is damaged or was saved by other classes
+    public static Engine restore(byte[] image) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(image));
+        if ((in.readInt() != MAGIC) || (in.readInt() != VERSION)) {
+            throw new IOException("Not an engine image");
+        }
+        String engineClass = in.readUTF();
+        List<String> classes = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            classes.add(in.readUTF());
+        }
+        EngineLoader loader = EngineLoader.newLoader();
+        byte[] digest = new byte[32];
+        in.readFully(digest);
+        try {
+            if (!Arrays.equals(digest, digest(loader, classes))) {
+                throw new IOException("The engine image was saved by different classes");
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IOException("The engine image was saved by different classes", e);
+        }
+
+        Engine engine = EngineLoader.newEngine(loader, engineClass);
+        try {
+            Reader reader = new Reader(in, loader);
+            reader.objects.add(engine);
+            for (String name : classes) {
+                reader.readStatics(Class.forName(name, true, loader));
+            }
+            reader.readFields(engine);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IOException("Cannot restore engine " + engineClass, e);
+        }
+        return engine;
+    }
+
+    private static byte[] digest(EngineLoader loader, List<String> classes) throws ClassNotFoundException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String name : classes) {
+                digest.update(name.getBytes("UTF-8"));
+                digest.update(loader.getClassBytes(name));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Fields written for an object: the instance fields declared by each
+    // backend class it is, most derived first
+    private static List<Field> fields(Class<?> c, boolean statics) {
+        List<Field> fields = new ArrayList<>();
+        for (; EngineLoader.isBackend(c); c = statics ? null : c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                int modifiers = f.getModifiers();
+                if (statics ? (Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers))
+                        : !Modifier.isStatic(modifiers)) {
+                    f.setAccessible(true);
+                    fields.add(f);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static class Writer {
+
+        private final DataOutputStream out;
+        final Map<Object, Integer> ids = new IdentityHashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeStatics(Class<?> c) throws IOException, ReflectiveOperationException {
+            write(c, null, fields(c, true));
+        }
+
+        void writeFields(Object o) throws IOException, ReflectiveOperationException {
+            write(o.getClass(), o, fields(o.getClass(), false));
+        }
+
+        private void write(Class<?> c, Object o, List<Field> fields) throws IOException, ReflectiveOperationException {
+            out.writeInt(fields.size());
+            for (Field f : fields) {
+                out.writeUTF(f.getDeclaringClass().getName() + "." + f.getName());
+                write(f.get(o));
+            }
+        }
+
+        private void write(Object o) throws IOException, ReflectiveOperationException {
+            if (o == null) {
+                out.writeByte(NULL);
+            } else if (o instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) o);
+            } else if (o instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) o);
+            } else if (o instanceof Integer) {
+                out.writeByte(INT);
+                out.writeInt((Integer) o);
+            } else if (o instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) o);
+            } else if (o instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) o);
+            } else if (o instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) o);
+            } else if (o instanceof Short) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) o);
+            } else if (o instanceof Byte) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) o);
+            } else if (o instanceof Character) {
+                out.writeByte(CHAR);
+                out.writeChar((Character) o);
+            } else if (o instanceof Class) {
+                out.writeByte(CLASS);
+                out.writeUTF(((Class<?>) o).getName());
+            } else if (o instanceof Enum) {
+                out.writeByte(ENUM);
+                out.writeUTF(((Enum<?>) o).getDeclaringClass().getName());
+                out.writeUTF(((Enum<?>) o).name());
+            } else if (ids.containsKey(o)) {
+                out.writeByte(REFERENCE);
+                out.writeInt(ids.get(o));
+            } else {
+                ids.put(o, ids.size());
+                writeObject(o);
+            }
+        }
+
+        private void writeObject(Object o) throws IOException, ReflectiveOperationException {
+            Class<?> c = o.getClass();
+            if (c.isArray()) {
+                out.writeByte(ARRAY);
+                out.writeUTF(c.getName());
+                int length = Array.getLength(o);
+                out.writeInt(length);
+                Class<?> component = c.getComponentType();
+                if (component == double.class) {
+                    for (double d : (double[]) o) {
+                        out.writeDouble(d);
+                    }
+                } else if (component == int.class) {
+                    for (int i : (int[]) o) {
+                        out.writeInt(i);
+                    }
+                } else {
+                    // other arrays, primitive ones boxed
+                    for (int i = 0; i < length; i++) {
+                        write(Array.get(o, i));
+                    }
+                }
+                return;
+            }
+            boolean container = (o instanceof Map) || (o instanceof Collection);
+            if ((!container && !EngineLoader.isBackend(c)) || c.isAnonymousClass()) {
+                throw new IllegalArgumentException("Cannot save a " + c.getName());
+            }
+            if (o instanceof Map) {
+                out.writeByte(MAP);
+                out.writeUTF(c.getName());
+                out.writeInt(((Map<?, ?>) o).size());
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) o).entrySet()) {
+                    write(entry.getKey());
+                    write(entry.getValue());
+                }
+            } else if (o instanceof Collection) {
+                out.writeByte(COLLECTION);
+                out.writeUTF(c.getName());
+                out.writeInt(((Collection<?>) o).size());
+                for (Object element : (Collection<?>) o) {
+                    write(element);
+                }
+            } else {
+                out.writeByte(OBJECT);
+                out.writeUTF(c.getName());
+            }
+            writeFields(o);
+        }
+    }
+
+    private static class Reader {
+
+        private final DataInputStream in;
+        private final ClassLoader loader;
+        final List<Object> objects = new ArrayList<>();
+        // the static and the instance fields of each class, by declaring
+        // class and name
+        private final Map<Class<?>, Map<String, Field>> staticsByName = new HashMap<>();
+        private final Map<Class<?>, Map<String, Field>> fieldsByName = new HashMap<>();
+
+        Reader(DataInputStream in, ClassLoader loader) {
+            this.in = in;
+            this.loader = loader;
+        }
+
+        void readStatics(Class<?> c) throws IOException, ReflectiveOperationException {
+            read(c, null, true);
+        }
+
+        void readFields(Object o) throws IOException, ReflectiveOperationException {
+            read(o.getClass(), o, false);
+        }
+
+        private void read(Class<?> c, Object o, boolean statics) throws IOException, ReflectiveOperationException {
+            Map<Class<?>, Map<String, Field>> byName = statics ? staticsByName : fieldsByName;
+            Map<String, Field> fields = byName.get(c);
+            if (fields == null) {
+                fields = new HashMap<>();
+                for (Field f : EngineImage.fields(c, statics)) {
+                    fields.put(f.getDeclaringClass().getName() + "." + f.getName(), f);
+                }
+                byName.put(c, fields);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                String name = in.readUTF();
+                Field f = fields.get(name);
+                if (f == null) {
+                    throw new IOException("No field " + name);
+                }
+                f.set(o, read());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object read() throws IOException, ReflectiveOperationException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return objects.get(in.readInt());
+                case STRING:
+                    return in.readUTF();
+                case DOUBLE:
+                    return in.readDouble();
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case BOOLEAN:
+                    return in.readBoolean();
+                case FLOAT:
+                    return in.readFloat();
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case CHAR:
+                    return in.readChar();
+                case CLASS:
+                    return Class.forName(in.readUTF(), true, loader);
+                case ENUM: {
+                    Class<? extends Enum> c = (Class<? extends Enum>) Class.forName(in.readUTF(), true, loader);
+                    return Enum.valueOf(c, in.readUTF());
+                }
+                case ARRAY:
+                    return readArray();
+                case MAP:
+                case COLLECTION:
+                case OBJECT:
+                    return readObject(tag);
+                default:
+                    throw new IOException("Bad tag " + tag);
+            }
+        }
+
+        private Object readArray() throws IOException, ReflectiveOperationException {
+            Class<?> component = Class.forName(in.readUTF(), true, loader).getComponentType();
+            int length = in.readInt();
+            Object a = Array.newInstance(component, length);
+            objects.add(a);
+            if (component == double.class) {
+                double[] d = (double[]) a;
+                for (int i = 0; i < length; i++) {
+                    d[i] = in.readDouble();
+                }
+            } else if (component == int.class) {
+                int[] n = (int[]) a;
+                for (int i = 0; i < length; i++) {
+                    n[i] = in.readInt();
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Array.set(a, i, read());
+                }
+            }
+            return a;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readObject(byte tag) throws IOException, ReflectiveOperationException {
+            Class<?> c = Class.forName(in.readUTF(), true, loader);
+            Constructor<?> constructor = c.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            Object o = constructor.newInstance();
+            objects.add(o);
+            if (tag == MAP) {
+                Map<Object, Object> map = (Map<Object, Object>) o;
+                map.clear();
+                for (int i = in.readInt(); i > 0; i--) {
+                    Object key = read();
+                    map.put(key, read());
+                }
+            } else if (tag == COLLECTION) {
+                Collection<Object> collection = (Collection<Object>) o;
+                collection.clear();
+                for (int i = in.readInt(); i > 0; i--) {
+                    collection.add(read());
+                }
+            }
+            readFields(o);
+            return o;
+        }
+    }
+
+}
@@ -0,0 +1,361 @@
+package jcvsim.backendCommon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Loads each engine in a class loader of its own, so that the static state
+ * of the backend is private to that engine.
+ *
+ * The loader defines the backend classes itself from the same class path
+ * that loaded this class, rather than asking its parent first.  Engine,
+ * TiltEngine and Timeline are the exception: they are shared with the
+ * parent, so that the caller can use the engine through them.  Class bytes are read once and
+ * kept, so creating many engines does not read the jar over and over.
+ *
+ * copy() snapshots an engine: the new engine has a loader of its own like
+ * any other, and every static field of the backend classes and every
+ * object reachable from them and from the engine is copied into it.  Objects
+ * are made with their constructors without arguments and then have every
+ * field overwritten; strings and boxed numbers are shared, enum constants
+ * are those of the new loader, and maps and collections from the JDK are
+ * refilled with copies of their contents.  Anything else from outside the
+ * backends, and anonymous classes, cannot be copied, which is why pending
+ * interventions, which are anonymous actions on the timeline, are refused.
+ * Static final fields are left to the new loader's class initialisation.
+ */
+public class EngineLoader extends ClassLoader {
+
+    private static final Map<String, byte[]> classBytes = new ConcurrentHashMap<>();
+
+    // Names of the classes this loader has defined, in the order it did
+    private final List<String> defined = new CopyOnWriteArrayList<>();
+
+    private EngineLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    // Create an engine, for example jcvsim.backend21compartment.Engine21C,
+    // isolated from every other engine
+    public static Engine newEngine(String className) {
+        return newEngine(newLoader(), className);
+    }
+
+    // Create an engine isolated from every other engine, in the state
+    // engine is in now.  engine must come from newEngine() or copy() and
+    // have no interventions pending, and must not be stepped while it is
+    // copied; any number of threads may copy it at once
+    public static Engine copy(Engine engine) {
+        EngineLoader source = loaderOf(engine);
+        if (!engine.getTimeline().isEmpty()) {
+            throw new IllegalStateException("Cannot copy an engine with interventions pending");
+        }
+        EngineLoader target = newLoader();
+        Engine copy = newEngine(target, engine.getClass().getName());
+        try {
+            Copier copier = new Copier(target);
+            copier.copies.put(engine, copy);
+            for (String name : source.defined) {
+                copier.copyStatics(Class.forName(name, true, source));
+            }
+            copier.copyFields(engine, copy);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy engine " + engine.getClass().getName(), e);
+        }
+        return copy;
+    }
+
+    // Put the state of engine into a simulation that runs the backend
+    // classes itself rather than through an Engine, such as the GUI's.
+    // targets are the simulation's objects that stand for the engine's
+    // objects of the same class, such as its Main, parameter vector and
+    // output; they are overwritten rather than replaced, so references to
+    // them stay good, and a timeline they hold is cleared rather than
+    // replaced by the engine's, which is empty.  The static fields of the classes of the engine's
+    // package are copied to the classes of the targets' loader; those of
+    // the other packages are process settings and counters, not model
+    // state, and are left alone.  engine must have no interventions
+    // pending, and neither side may be stepped meanwhile
+    public static void transfer(Engine engine, Object... targets) {
+        EngineLoader source = loaderOf(engine);
+        if (!engine.getTimeline().isEmpty()) {
+            throw new IllegalStateException("Cannot transfer an engine with interventions pending");
+        }
+        if (targets.length == 0) {
+            throw new IllegalArgumentException("Nothing to transfer " + engine.getClass().getName() + " to");
+        }
+        String model = engine.getClass().getPackage().getName() + ".";
+        try {
+            Copier copier = new Copier(targets[0].getClass().getClassLoader());
+            Map<Object, Object> pairs = new IdentityHashMap<>();
+            for (Object target : targets) {
+                Object from = fieldOfClass(engine, target.getClass().getName());
+                copier.copies.put(from, target);
+                pairs.put(from, target);
+            }
+            for (Map.Entry<Object, Object> pair : pairs.entrySet()) {
+                copier.copyInto(pair.getKey(), pair.getValue());
+            }
+            for (String name : source.defined) {
+                if (name.startsWith(model)) {
+                    copier.copyStatics(Class.forName(name, true, source));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot transfer engine " + engine.getClass().getName(), e);
+        }
+    }
+
+    // The object of class className a field of engine holds
+    private static Object fieldOfClass(Engine engine, String className) throws IllegalAccessException {
+        for (Field f : engine.getClass().getDeclaredFields()) {
+            if (!Modifier.isStatic(f.getModifiers())) {
+                f.setAccessible(true);
+                Object value = f.get(engine);
+                if ((value != null) && value.getClass().getName().equals(className)) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("No " + className + " in " + engine.getClass().getName());
+    }
+
+    static EngineLoader newLoader() {
+        return new EngineLoader(Engine.class.getClassLoader());
+    }
+
+    static EngineLoader loaderOf(Engine engine) {
+        if (!(engine.getClass().getClassLoader() instanceof EngineLoader)) {
+            throw new IllegalArgumentException("Not an engine from EngineLoader: " + engine);
+        }
+        return (EngineLoader) engine.getClass().getClassLoader();
+    }
+
+    static Engine newEngine(EngineLoader loader, String className) {
+        try {
+            return (Engine) loader.loadClass(className).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot create engine " + className, e);
+        }
+    }
+
+    // Whether c is one of the simulation's classes, whose fields are copied
+    // one by one
+    static boolean isBackend(Class<?> c) {
+        return (c != null) && c.getName().startsWith("jcvsim.");
+    }
+
+    private static boolean isShared(String name) {
+        return !name.startsWith("jcvsim.")
+                || name.equals(Engine.class.getName())
+                || name.equals(TiltEngine.class.getName())
+                || name.startsWith(Timeline.class.getName());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isShared(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> c = findLoadedClass(name);
+            if (c == null) {
+                c = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(c);
+            }
+            return c;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] b = getClassBytes(name);
+        Class<?> c = defineClass(name, b, 0, b.length);
+        defined.add(name);
+        return c;
+    }
+
+    // Names of the classes this loader has defined, in the order it did
+    List<String> getDefined() {
+        return defined;
+    }
+
+    // The class file of a backend class
+    byte[] getClassBytes(String name) throws ClassNotFoundException {
+        byte[] b = classBytes.get(name);
+        if (b == null) {
+            b = readClass(name);
+            classBytes.put(name, b);
+        }
+        return b;
+    }
+
+    private byte[] readClass(String name) throws ClassNotFoundException {
+        URL url = getParent().getResource(name.replace('.', '/') + ".class");
+        if (url == null) {
+            throw new ClassNotFoundException(name);
+        }
+        try (InputStream in = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+
+    // Deep copy of the state of one engine into another loader
+    private static class Copier {
+
+        private final ClassLoader target;
+        // the copy of each object copied so far, so that shared objects
+        // stay shared and cycles end
+        final Map<Object, Object> copies = new IdentityHashMap<>();
+
+        Copier(ClassLoader target) {
+            this.target = target;
+        }
+
+        void copyStatics(Class<?> from) throws ReflectiveOperationException {
+            Class<?> to = translate(from);
+            for (Field f : from.getDeclaredFields()) {
+                int modifiers = f.getModifiers();
+                if (Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                    copyField(f, null, to.getDeclaredField(f.getName()), null);
+                }
+            }
+        }
+
+        // Copy the instance fields declared by backend classes
+        void copyFields(Object from, Object to) throws ReflectiveOperationException {
+            for (Class<?> c = from.getClass(); isBackend(c); c = c.getSuperclass()) {
+                Class<?> t = translate(c);
+                for (Field f : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(f.getModifiers())) {
+                        copyField(f, from, t.getDeclaredField(f.getName()), to);
+                    }
+                }
+            }
+        }
+
+        private void copyField(Field f, Object from, Field g, Object to) throws ReflectiveOperationException {
+            f.setAccessible(true);
+            g.setAccessible(true);
+            Object value = f.get(from);
+            if ((to != null) && (value instanceof Timeline) && (g.get(to) instanceof Timeline)) {
+                // keep the target's own timeline, which others may hold;
+                // the source has nothing pending, see copy() and transfer()
+                ((Timeline) g.get(to)).clear();
+                return;
+            }
+            g.set(to, f.getType().isPrimitive() ? value : copy(value));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object copy(Object o) throws ReflectiveOperationException {
+            if ((o == null) || (o instanceof String) || (o instanceof Number)
+                    || (o instanceof Boolean) || (o instanceof Character)) {
+                return o;
+            }
+            if (o instanceof Class) {
+                return translate((Class<?>) o);
+            }
+            if (o instanceof Enum) {
+                Enum<?> e = (Enum<?>) o;
+                return translate(e.getDeclaringClass()).getEnumConstants()[e.ordinal()];
+            }
+            Object done = copies.get(o);
+            if (done != null) {
+                return done;
+            }
+            Class<?> c = o.getClass();
+            if (c.isArray()) {
+                int length = Array.getLength(o);
+                Object a = Array.newInstance(translate(c.getComponentType()), length);
+                copies.put(o, a);
+                if (c.getComponentType().isPrimitive()) {
+                    System.arraycopy(o, 0, a, 0, length);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        Array.set(a, i, copy(Array.get(o, i)));
+                    }
+                }
+                return a;
+            }
+            boolean container = (o instanceof Map) || (o instanceof Collection);
+            if ((!container && !isBackend(c)) || c.isAnonymousClass()) {
+                throw new IllegalArgumentException("Cannot copy a " + c.getName());
+            }
+            Constructor<?> constructor;
+            try {
+                constructor = translate(c).getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Cannot copy a " + c.getName()
+                        + ", it has no constructor without arguments", e);
+            }
+            constructor.setAccessible(true);
+            Object a = constructor.newInstance();
+            copies.put(o, a);
+            if (o instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>) a;
+                map.clear();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) o).entrySet()) {
+                    map.put(copy(entry.getKey()), copy(entry.getValue()));
+                }
+            } else if (o instanceof Collection) {
+                Collection<Object> collection = (Collection<Object>) a;
+                collection.clear();
+                for (Object element : (Collection<?>) o) {
+                    collection.add(copy(element));
+                }
+            }
+            copyFields(o, a);
+            return a;
+        }
+
+        // Overwrite to, an object of the target loader, with the state of
+        // from
+        @SuppressWarnings("unchecked")
+        void copyInto(Object from, Object to) throws ReflectiveOperationException {
+            if (from instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>) to;
+                map.clear();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) from).entrySet()) {
+                    map.put(copy(entry.getKey()), copy(entry.getValue()));
+                }
+            }
+            copyFields(from, to);
+        }
+
+        // The class of the same name in the target loader, for classes
+        // the source loader defined
+        private Class<?> translate(Class<?> c) throws ClassNotFoundException {
+            if (c.isArray()) {
+                return Array.newInstance(translate(c.getComponentType()), 0).getClass();
+            }
+            if (c.getClassLoader() instanceof EngineLoader) {
+                return Class.forName(c.getName(), true, target);
+            }
+            return c;
+        }
+    }
+
+}
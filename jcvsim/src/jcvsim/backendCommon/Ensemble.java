@@ -0,0 +1,163 @@
+package jcvsim.backendCommon;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Runs many independent simulations at once, each with an engine of its
+ * own (see EngineLoader), either new or a copy of a snapshot.
+ *
+ * On a Java 21 or later runtime every member runs on a virtual thread and
+ * yields at each step boundary, so thousands of members interleave over
+ * the JVM's carrier threads.  On older runtimes the members share a fixed
+ * pool of carrier threads instead: a member runs SLICE steps and then goes
+ * to the back of the queue, which interleaves them the same way.
+ *
+ * Virtual threads are looked up reflectively, so the same classes run on
+ * both; the java21 build configuration only changes the class file level.
+ */
+public class Ensemble {
+
+    // Steps a member runs before giving up a pooled carrier thread
+    public static final int SLICE = 50;
+
+    public interface Scenario {
+
+        // Set parameters and schedule interventions, called on the
+        // member's thread before its first step
+        void setUp(Engine engine);
+
+        // Called after every step, return false when the scenario is done
+        boolean stepped(Engine engine);
+    }
+
+    private final String engineClass;
+    private final Engine snapshot;
+    private final int dataCompressionFactor;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+
+    // engineClass is the Engine implementation for the model, for example
+    // jcvsim.backend21compartment.Engine21C
+    public Ensemble(String engineClass, int dataCompressionFactor) {
+        this(engineClass, null, dataCompressionFactor);
+    }
+
+    // Every member starts from a copy of snapshot, see EngineLoader.copy().
+    // The snapshot must not be stepped while the ensemble runs
+    public Ensemble(Engine snapshot, int dataCompressionFactor) {
+        this(snapshot.getClass().getName(), snapshot, dataCompressionFactor);
+    }
+
+    private Ensemble(String engineClass, Engine snapshot, int dataCompressionFactor) {
+        this.engineClass = engineClass;
+        this.snapshot = snapshot;
+        this.dataCompressionFactor = dataCompressionFactor;
+    }
+
+    public void add(Scenario scenario) {
+        scenarios.add(scenario);
+    }
+
+    public int size() {
+        return scenarios.size();
+    }
+
+    // Exceptions thrown by members of the last run
+    public List<Throwable> getFailures() {
+        return failures;
+    }
+
+    // Run every scenario to completion.  carriers is the size of the
+    // carrier pool used when virtual threads are not available
+    public void run(int carriers) throws InterruptedException {
+        failures.clear();
+        CountDownLatch done = new CountDownLatch(scenarios.size());
+        ExecutorService virtual = newVirtualThreadExecutor();
+        ExecutorService executor = (virtual != null) ? virtual : Executors.newFixedThreadPool(carriers);
+        try {
+            for (Scenario s : scenarios) {
+                executor.execute(new Member(s, executor, virtual != null, done));
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static boolean hasVirtualThreads() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private class Member implements Runnable {
+
+        private final Scenario scenario;
+        private final ExecutorService executor;
+        private final boolean virtual;
+        private final CountDownLatch done;
+        private Engine engine;
+
+        Member(Scenario scenario, ExecutorService executor, boolean virtual, CountDownLatch done) {
+            this.scenario = scenario;
+            this.executor = executor;
+            this.virtual = virtual;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (engine == null) {
+                    engine = (snapshot != null) ? EngineLoader.copy(snapshot)
+                            : EngineLoader.newEngine(engineClass);
+                    scenario.setUp(engine);
+                }
+                if (virtual) {
+                    do {
+                        engine.step(dataCompressionFactor);
+                        Thread.yield();
+                    } while (scenario.stepped(engine));
+                } else {
+                    for (int i = 0; i < SLICE; i++) {
+                        engine.step(dataCompressionFactor);
+                        if (!scenario.stepped(engine)) {
+                            finish();
+                            return;
+                        }
+                    }
+                    // back of the queue, to let the other members run
+                    executor.execute(this);
+                    return;
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+            finish();
+        }
+
+        private void finish() {
+            engine = null;
+            done.countDown();
+        }
+    }
+
+}
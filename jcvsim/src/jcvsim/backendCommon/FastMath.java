@@ -0,0 +1,110 @@
+package jcvsim.backendCommon;
+
+import java.util.Random;
+
+/*
+ * A fast atan for the nonlinear venous pressure-volume curves, evaluated
+ * three times per right hand side evaluation by the 21 compartment model,
+ * and for the reflex saturations.
+ *
+ * Math.atan is not an intrinsic of the JIT and costs a call into fdlibm;
+ * this reduces the argument to |x| <= 0.66 and evaluates a minimax
+ * rational function there, the classic Cephes approximation, at about a
+ * sixth of the cost.  exp, log and pow, used by the step size control, are
+ * intrinsics already and faster than any approximation written in Java,
+ * so they are left to Math.
+ *
+ * The relative error against the correctly rounded result is bounded by
+ * ATAN_ERROR, two units in the last place.  validate() checks it against
+ * StrictMath; run main() to see the error found.  The function is selected
+ * with Maths.setFast().
+ */
+public class FastMath {
+
+    // Bound on the relative error against StrictMath
+    public static final double ATAN_ERROR = 4.5e-16;
+
+    private static final double PIO2 = Math.PI / 2;
+    private static final double PIO4 = Math.PI / 4;
+    // tan(3 pi / 8)
+    private static final double T3P8 = 2.41421356237309504880;
+    // the part of pi / 2 lost by rounding it to a double
+    private static final double MOREBITS = 6.123233995736765886130E-17;
+
+    private static final double ATAN_P0 = -8.750608600031904122785E-1;
+    private static final double ATAN_P1 = -1.615753718733365076637E1;
+    private static final double ATAN_P2 = -7.500855792314704667340E1;
+    private static final double ATAN_P3 = -1.228866684490136173410E2;
+    private static final double ATAN_P4 = -6.485021904942025371773E1;
+    private static final double ATAN_Q0 = 2.485846490142306297962E1;
+    private static final double ATAN_Q1 = 1.650270098316988542046E2;
+    private static final double ATAN_Q2 = 4.328810604912902668951E2;
+    private static final double ATAN_Q3 = 4.853903996359136964868E2;
+    private static final double ATAN_Q4 = 1.945506571482613964425E2;
+
+    // Prevent instantiation
+    private FastMath() {
+    }
+
+    public static double atan(double x) {
+        if (x == 0) {
+            // keeping the sign of zero
+            return x;
+        }
+        if (x < 0) {
+            return -atan(-x);
+        }
+        if (!(x <= Double.MAX_VALUE)) {
+            // NaN or infinity
+            return (x == x) ? PIO2 : x;
+        }
+        double y;
+        double more;
+        // reduce to |x| <= 0.66
+        if (x > T3P8) {
+            y = PIO2;
+            more = MOREBITS;
+            x = -1 / x;
+        } else if (x > 0.66) {
+            y = PIO4;
+            more = 0.5 * MOREBITS;
+            x = (x - 1) / (x + 1);
+        } else {
+            y = 0;
+            more = 0;
+        }
+        double z = x * x;
+        z = z * ((((ATAN_P0 * z + ATAN_P1) * z + ATAN_P2) * z + ATAN_P3) * z + ATAN_P4)
+                / (((((z + ATAN_Q0) * z + ATAN_Q1) * z + ATAN_Q2) * z + ATAN_Q3) * z + ATAN_Q4);
+        z = x * z + x + more;
+        return y + z;
+    }
+
+    // Largest relative error against StrictMath at n points, over many
+    // magnitudes of both signs
+    public static double validate(int n) {
+        double worst = 0;
+        Random random = new Random(1);
+        for (int i = 0; i < n; i++) {
+            double x = Math.scalb(random.nextDouble(), random.nextInt(80) - 40);
+            x = random.nextBoolean() ? x : -x;
+            worst = Math.max(worst, relativeError(atan(x), StrictMath.atan(x)));
+        }
+        return worst;
+    }
+
+    private static double relativeError(double value, double exact) {
+        if (value == exact) {
+            return 0;
+        }
+        return Math.abs((value - exact) / exact);
+    }
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        double worst = validate(n);
+        System.out.printf("atan largest relative error %.3g, bound %.3g%n", worst, ATAN_ERROR);
+        System.exit((worst <= ATAN_ERROR) ? 0 : 1);
+    }
+
+}
@@ -0,0 +1,488 @@
+package jcvsim.backendCommon;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Fits parameters of a model to a measured series of beat numerics by
+ * Levenberg-Marquardt least squares.
+ *
+ * A target is the value of one beat numeric (see BeatNumerics) at a time
+ * measured from the start of the protocol, with the uncertainty it is
+ * weighted by, by default its own size, so that the residuals are
+ * relative.  Each evaluation of the model starts from a snapshot (see
+ * EngineLoader.copy()), sets the parameters, lets the model settle, and
+ * then runs the protocol, if there is one, reading the numerics of the
+ * last complete beat at each target time.
+ *
+ * Parameters are fitted as the logarithm of their ratio to their starting
+ * value, so they keep their sign and the steps are relative.  In each
+ * iteration the model at the current values and the columns of the
+ * Jacobian, by forward difference, are evaluated in parallel as one
+ * Ensemble, and then the steps for three damping factors are tried, also
+ * in parallel.  The best step is taken if it lowers the cost.  Every
+ * evaluation starts from the same snapshot, so the costs compared across
+ * iterations are values of one objective function and each accepted step
+ * really lowers it.  The fit ends when an iteration lowers the cost by
+ * less than the tolerance, relatively, or when no damping lowers it at
+ * all.
+ *
+ * Run from the command line, targets are read from a file, one per line as
+ * "<numeric> <seconds> <value> [<uncertainty>]", and the fitted values of
+ * the named parameters written to standard output:
+ *
+ *   java jcvsim.backendCommon.Fitter <engine class> <targets file> <PVName> [<PVName> ...]
+ */
+public class Fitter {
+
+    // Damping factor of the first iteration, and bounds
+    private static final double INITIAL_LAMBDA = 1e-2;
+    private static final double MIN_LAMBDA = 1e-7;
+    private static final double MAX_LAMBDA = 1e7;
+    // Times an iteration raises the damping before giving up
+    private static final int MAX_RETRIES = 4;
+
+    public static class Target {
+
+        public final String numeric;
+        public final double time;
+        public final double value;
+        public final double uncertainty;
+
+        public Target(String numeric, double time, double value, double uncertainty) {
+            BeatNumerics.index(numeric);
+            this.numeric = numeric;
+            this.time = time;
+            this.value = value;
+            this.uncertainty = uncertainty;
+        }
+    }
+
+    // Interventions to fit against, scheduled on each evaluation's engine
+    public interface Protocol {
+
+        // start is the simulated time target times are measured from
+        void schedule(Engine engine, double start);
+    }
+
+    public interface IterationListener {
+
+        void iteration(int iteration, double cost, double lambda, List<String> parameters, double[] values);
+    }
+
+    public static class Result {
+
+        public final List<String> parameters;
+        public final double[] initial;
+        public final double[] values;
+        // Half the sum of the squared weighted residuals
+        public final double initialCost;
+        public final double cost;
+        public final int iterations;
+        // Evaluations of the model
+        public final int runs;
+
+        Result(List<String> parameters, double[] initial, double[] values,
+                double initialCost, double cost, int iterations, int runs) {
+            this.parameters = parameters;
+            this.initial = initial;
+            this.values = values;
+            this.initialCost = initialCost;
+            this.cost = cost;
+            this.iterations = iterations;
+            this.runs = runs;
+        }
+
+        public void write(PrintStream out) {
+            for (int i = 0; i < parameters.size(); i++) {
+                out.println(parameters.get(i) + "\t" + values[i] + "\t" + initial[i]);
+            }
+            out.println("# cost " + initialCost + " -> " + cost + " in " + iterations
+                    + " iterations, " + runs + " runs");
+        }
+    }
+
+    private final String engineClass;
+    private final List<String> parameters = new ArrayList<>();
+    private final List<Target> targets = new ArrayList<>();
+    private Protocol protocol;
+    private IterationListener listener;
+    private double warmUp = 60;
+    private double settle = 30;
+    private double jacobianStep = 0.01;
+    private double tolerance = 1e-4;
+    private int maxIterations = 20;
+    private int dataCompressionFactor = 10;
+    private int carriers = Runtime.getRuntime().availableProcessors();
+    private ResultCache cache;
+    private int runs;
+
+    // One evaluation of the model from the snapshot, at parameter values
+    // p0 exp(x)
+    private class Run implements Ensemble.Scenario {
+
+        private final double[] values;
+        private final double[] sampled = new double[targets.size()];
+        private int next;
+        private double settled;
+        private double start = Double.NaN;
+        // residuals, left null if the run did not finish
+        double[] residuals;
+
+        Run(double[] p0, double[] x) {
+            values = values(p0, x);
+        }
+
+        @Override
+        public void setUp(Engine engine) {
+            for (int i = 0; i < values.length; i++) {
+                engine.setParameter(parameters.get(i), values[i]);
+            }
+            settled = engine.getTime() + settle;
+        }
+
+        @Override
+        public boolean stepped(Engine engine) {
+            double now = engine.getTime();
+            if (Double.isNaN(start)) {
+                if (now < settled) {
+                    return true;
+                }
+                start = now;
+                if (protocol != null) {
+                    protocol.schedule(engine, start);
+                }
+            }
+            // targets are in time order
+            while ((next < sampled.length) && (now - start >= targets.get(next).time - Timeline.EPSILON)) {
+                sampled[next] = engine.getBeatNumeric(targets.get(next).numeric);
+                next++;
+            }
+            if (next < sampled.length) {
+                return true;
+            }
+            double[] r = new double[sampled.length];
+            for (int k = 0; k < r.length; k++) {
+                Target t = targets.get(k);
+                r[k] = (sampled[k] - t.value) / t.uncertainty;
+                if (Double.isNaN(r[k]) || Double.isInfinite(r[k])) {
+                    return false;
+                }
+            }
+            residuals = r;
+            return false;
+        }
+
+        double cost() {
+            return (residuals == null) ? Double.POSITIVE_INFINITY : Fitter.cost(residuals);
+        }
+    }
+
+    // engineClass is the Engine implementation for the model, for example
+    // jcvsim.backend21compartment.Engine21C
+    public Fitter(String engineClass) {
+        this.engineClass = engineClass;
+    }
+
+    // Fit this parameter, a PVName, starting from the model's value
+    public void addParameter(String name) {
+        parameters.add(name);
+    }
+
+    public void addTarget(String numeric, double time, double value, double uncertainty) {
+        Target t = new Target(numeric, time, value, uncertainty);
+        int k = targets.size();
+        while ((k > 0) && (targets.get(k - 1).time > time)) {
+            k--;
+        }
+        targets.add(k, t);
+    }
+
+    // A target weighted by its own size
+    public void addTarget(String numeric, double time, double value) {
+        addTarget(numeric, time, value, (value != 0) ? Math.abs(value) : 1);
+    }
+
+    public void setProtocol(Protocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    // Simulated seconds to reach steady state before the snapshot,
+    // and to settle after setting the parameters on each evaluation
+    public void setTimes(double warmUp, double settle) {
+        this.warmUp = warmUp;
+        this.settle = settle;
+    }
+
+    // Change made to the logarithm of each parameter for the Jacobian
+    public void setJacobianStep(double step) {
+        jacobianStep = step;
+    }
+
+    // Relative lowering of the cost below which the fit ends
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    // Take the warmed up snapshot from cache, so that it is simulated once
+    // for any number of analyses, or simulate it every time if null
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    // Size of the carrier pool, when there are no virtual threads
+    public void setCarriers(int carriers) {
+        this.carriers = carriers;
+    }
+
+    public Result fit() throws InterruptedException {
+        if (parameters.isEmpty() || targets.isEmpty()) {
+            throw new IllegalStateException("Nothing to fit");
+        }
+        runs = 0;
+        int n = parameters.size();
+        Engine snapshot = warmUp();
+        double[] p0 = new double[n];
+        for (int i = 0; i < n; i++) {
+            p0[i] = snapshot.getParameter(parameters.get(i));
+            if (p0[i] == 0) {
+                throw new IllegalArgumentException("Cannot fit " + parameters.get(i) + ", it starts at zero");
+            }
+        }
+
+        double[] x = new double[n];
+        double lambda = INITIAL_LAMBDA;
+        double initialCost = Double.NaN;
+        double cost = Double.NaN;
+        // the model at x, run again only on the first iteration; after that
+        // it is the trial the last iteration accepted
+        Run base = null;
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            // the model and the Jacobian at x
+            Run[] columns = new Run[n];
+            Ensemble ensemble = new Ensemble(snapshot, dataCompressionFactor);
+            if (base == null) {
+                base = new Run(p0, x);
+                ensemble.add(base);
+            }
+            for (int i = 0; i < n; i++) {
+                double[] xi = x.clone();
+                xi[i] += jacobianStep;
+                columns[i] = new Run(p0, xi);
+                ensemble.add(columns[i]);
+            }
+            run(ensemble);
+            if (base.residuals == null) {
+                throw new IllegalStateException("The model failed at the current parameter values");
+            }
+            cost = base.cost();
+            if (iteration == 0) {
+                initialCost = cost;
+            }
+            double[] r = base.residuals;
+            double[][] jacobian = new double[n][];
+            for (int i = 0; i < n; i++) {
+                jacobian[i] = new double[r.length];
+                if (columns[i].residuals == null) {
+                    // leave the parameter where it is this iteration
+                    continue;
+                }
+                for (int k = 0; k < r.length; k++) {
+                    jacobian[i][k] = (columns[i].residuals[k] - r[k]) / jacobianStep;
+                }
+            }
+            double[][] jtj = new double[n][n];
+            double[] jtr = new double[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j <= i; j++) {
+                    double s = 0;
+                    for (int k = 0; k < r.length; k++) {
+                        s += jacobian[i][k] * jacobian[j][k];
+                    }
+                    jtj[i][j] = jtj[j][i] = s;
+                }
+                for (int k = 0; k < r.length; k++) {
+                    jtr[i] += jacobian[i][k] * r[k];
+                }
+            }
+
+            // try the steps for three damping factors at once, raising them
+            // until one lowers the cost
+            Run best = null;
+            double[] bestX = null;
+            for (int retry = 0; (best == null) && (retry < MAX_RETRIES); retry++) {
+                double[] lambdas = {lambda / 10, lambda, lambda * 10};
+                Run[] trials = new Run[lambdas.length];
+                double[][] trialX = new double[lambdas.length][];
+                ensemble = new Ensemble(snapshot, dataCompressionFactor);
+                for (int t = 0; t < lambdas.length; t++) {
+                    trialX[t] = x.clone();
+                    double[] delta = step(jtj, jtr, lambdas[t]);
+                    for (int i = 0; i < n; i++) {
+                        trialX[t][i] += delta[i];
+                    }
+                    trials[t] = new Run(p0, trialX[t]);
+                    ensemble.add(trials[t]);
+                }
+                run(ensemble);
+                for (int t = 0; t < lambdas.length; t++) {
+                    if ((trials[t].cost() < cost) && ((best == null) || (trials[t].cost() < best.cost()))) {
+                        best = trials[t];
+                        bestX = trialX[t];
+                        lambda = Math.max(lambdas[t], MIN_LAMBDA);
+                    }
+                }
+                if (best == null) {
+                    lambda = Math.min(lambda * 1000, MAX_LAMBDA);
+                }
+            }
+            iteration++;
+            if (best == null) {
+                break;
+            }
+            double previous = cost;
+            x = bestX;
+            base = best;
+            cost = best.cost();
+            if (listener != null) {
+                listener.iteration(iteration, cost, lambda, parameters, values(p0, x));
+            }
+            if (previous - cost < tolerance * previous) {
+                break;
+            }
+        }
+        return new Result(new ArrayList<>(parameters), p0, values(p0, x), initialCost, cost, iteration, runs);
+    }
+
+    private void run(Ensemble ensemble) throws InterruptedException {
+        ensemble.run(carriers);
+        runs += ensemble.size();
+        for (Throwable t : ensemble.getFailures()) {
+            System.err.println("Fitter: run failed: " + t);
+        }
+    }
+
+    private static double[] values(double[] p0, double[] x) {
+        double[] values = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            values[i] = p0[i] * Math.exp(x[i]);
+        }
+        return values;
+    }
+
+    private static double cost(double[] residuals) {
+        double s = 0;
+        for (double r : residuals) {
+            s += r * r;
+        }
+        return 0.5 * s;
+    }
+
+    // The Levenberg-Marquardt step, solving
+    // (JtJ + lambda diag(JtJ)) delta = -Jtr
+    private static double[] step(double[][] jtj, double[] jtr, double lambda) {
+        int n = jtr.length;
+        double[][] a = new double[n][n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = jtj[i][j];
+            }
+            // a parameter with no effect keeps a little damping, and no step
+            a[i][i] += lambda * Math.max(jtj[i][i], 1e-12);
+            a[i][n] = -jtr[i];
+        }
+        // Gaussian elimination with partial pivoting
+        for (int c = 0; c < n; c++) {
+            int pivot = c;
+            for (int i = c + 1; i < n; i++) {
+                if (Math.abs(a[i][c]) > Math.abs(a[pivot][c])) {
+                    pivot = i;
+                }
+            }
+            double[] swap = a[c];
+            a[c] = a[pivot];
+            a[pivot] = swap;
+            for (int i = c + 1; i < n; i++) {
+                double f = a[i][c] / a[c][c];
+                for (int j = c; j <= n; j++) {
+                    a[i][j] -= f * a[c][j];
+                }
+            }
+        }
+        double[] delta = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double s = a[i][n];
+            for (int j = i + 1; j < n; j++) {
+                s -= a[i][j] * delta[j];
+            }
+            delta[i] = s / a[i][i];
+        }
+        return delta;
+    }
+
+    private Engine warmUp() {
+        if (cache != null) {
+            return cache.steadyState(engineClass, Collections.<String, Double>emptyMap(), warmUp);
+        }
+        Engine snapshot = EngineLoader.newEngine(engineClass);
+        snapshot.reflexes(0, true, true);
+        while (snapshot.getTime() < warmUp) {
+            snapshot.step(dataCompressionFactor);
+        }
+        return snapshot;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("usage: Fitter <engine class> <targets file> <PVName> [<PVName> ...]");
+            System.exit(2);
+        }
+        Fitter fitter = new Fitter(args[0]);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(args[1]), "UTF-8"))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.trim().split("\\s+");
+                if ((fields.length < 3) || fields[0].startsWith("#")) {
+                    continue;
+                }
+                double time = Double.parseDouble(fields[1]);
+                double value = Double.parseDouble(fields[2]);
+                if (fields.length > 3) {
+                    fitter.addTarget(fields[0], time, value, Double.parseDouble(fields[3]));
+                } else {
+                    fitter.addTarget(fields[0], time, value);
+                }
+            }
+        }
+        for (int i = 2; i < args.length; i++) {
+            fitter.addParameter(args[i]);
+        }
+        fitter.setIterationListener(new IterationListener() {
+            @Override
+            public void iteration(int iteration, double cost, double lambda, List<String> parameters, double[] values) {
+                System.err.println("Fitter: iteration " + iteration + " cost " + cost + " lambda " + lambda);
+            }
+        });
+
+        // anything the engines print goes to standard error
+        PrintStream out = System.out;
+        System.setOut(System.err);
+        fitter.fit().write(out);
+    }
+
+}
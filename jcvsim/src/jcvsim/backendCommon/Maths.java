@@ -12,6 +12,21 @@ import static java.lang.Double.isNaN;
  */
 public class Maths {
 
+    // Whether to use the approximations of FastMath.  Static, like the
+    // rest of the backends' state, so it is set for each engine in its
+    // own class loader, see EngineLoader, and for the GUI's simulation by
+    // the jcvsim.fastmath system property.  Volatile, as it may be set
+    // from a thread other than the one stepping
+    private static volatile boolean fast = Boolean.getBoolean("jcvsim.fastmath");
+
+    public static void setFast(boolean on) {
+        fast = on;
+    }
+
+    public static boolean isFast() {
+        return fast;
+    }
+
     public static final double fabs(double value) {
         double returnValue = Math.abs(value);
         if (isNaN(returnValue)) {
@@ -54,7 +69,7 @@ public class Maths {
     }
 
     public static final double atan(double value) {
-        double returnValue = Math.atan(value);
+        double returnValue = fast ? FastMath.atan(value) : Math.atan(value);
         if (isNaN(returnValue)) {
             System.out.println("isnan error in atan - input value " + value);
         }
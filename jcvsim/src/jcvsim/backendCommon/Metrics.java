@@ -0,0 +1,72 @@
+package jcvsim.backendCommon;
+
+/*
+ * Counters for the hot paths of the simulation backends: right hand side
+ * evaluations, accepted and rejected Runge-Kutta steps, the step sizes
+ * achieved, and the time spent in the reflex convolution.
+ *
+ * The counters are plain static fields written by the simulation thread
+ * only, so updating them costs an add and no synchronisation.  Readers on
+ * other threads (the metrics log line, JMX) may see slightly stale values,
+ * which is fine for monitoring.
+ */
+public class Metrics {
+
+    // Set false to skip the timing calls, the counters are always kept
+    public static boolean timingEnabled = true;
+
+    public static long rhsEvaluations;
+    public static long acceptedSteps;
+    public static long rejectedSteps;
+    public static double hdidSum;
+    public static double hdidMin = Double.MAX_VALUE;
+    public static double hdidMax;
+    public static long reflexNanos;
+
+    // Prevent instantiation
+    private Metrics() {
+    }
+
+    // Called once per evaluation of the model equations
+    public static void rhs() {
+        rhsEvaluations++;
+    }
+
+    // Called when rkqc rejects a trial step and shrinks the step size
+    public static void rejected() {
+        rejectedSteps++;
+    }
+
+    // Called when rkqc accepts a step of size h
+    public static void accepted(double h) {
+        acceptedSteps++;
+        hdidSum += h;
+        if (h < hdidMin) {
+            hdidMin = h;
+        }
+        if (h > hdidMax) {
+            hdidMax = h;
+        }
+    }
+
+    public static long startTimer() {
+        return timingEnabled ? System.nanoTime() : 0;
+    }
+
+    public static void reflexTime(long start) {
+        if (timingEnabled) {
+            reflexNanos += System.nanoTime() - start;
+        }
+    }
+
+    public static void reset() {
+        rhsEvaluations = 0;
+        acceptedSteps = 0;
+        rejectedSteps = 0;
+        hdidSum = 0;
+        hdidMin = Double.MAX_VALUE;
+        hdidMax = 0;
+        reflexNanos = 0;
+    }
+
+}
@@ -0,0 +1,372 @@
+package jcvsim.backendCommon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Memoises the steady state of a model for a parameter vector, so that a
+ * configuration simulated before is not warmed up again.
+ *
+ * A configuration is the engine class, the parameters changed from the
+ * model's defaults, and the scenario: the reflexes switched on from the
+ * start, the seconds of warm up, and the data compression factor.  Its key is the
+ * SHA-256 of a canonical text of all of these, with every parameter of the
+ * model in declaration order, defaults included, so that setting a
+ * parameter to its default value hits the same entry as leaving it alone.
+ *
+ * An entry is the image of the engine at the end of the warm up (see
+ * EngineImage) and the beat numerics averaged over its last seconds, each
+ * beat weighted by its length.  Every steadyState() restores a new engine
+ * from the image, so callers may step what they get.  Entries are kept in
+ * memory in least recently used order, and the least recently used are
+ * dropped when their images exceed the byte budget.
+ *
+ * With a directory, entries are also written there, one file per key, and
+ * read back on a miss in memory, so they outlive the process.  A file that
+ * cannot be read or decoded, or whose image was saved by different classes,
+ * is a miss and is overwritten.  Files are read and checked outside the
+ * lock, so a slow disk holds up only the thread that missed.  Each writer
+ * has a temporary file of its own, so two threads that missed the same key
+ * cannot mix their entries.
+ *
+ * The GUI takes the steady states of its patient presets and parameter
+ * changes from here too, and puts them into its own simulation with
+ * EngineLoader.transfer().
+ */
+public class ResultCache {
+
+    // Seconds at the end of the warm up the numerics are averaged over
+    private static final double AVERAGE = 10;
+    private static final int DATA_COMPRESSION_FACTOR = 10;
+    private static final String SUFFIX = ".jcvs";
+
+    private final long maxBytes;
+    private File directory;
+    // the entries in memory, least recently used first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // the default parameter vector of each engine class
+    private final Map<String, Map<String, Double>> defaults = new HashMap<>();
+    private long bytes;
+    private int hits;
+    private int misses;
+
+    private static class Entry {
+
+        final String key;
+        final byte[] image;
+        final double[] numerics;
+
+        Entry(String key, byte[] image, double[] numerics) {
+            this.key = key;
+            this.image = image;
+            this.numerics = numerics;
+        }
+
+        long size() {
+            return image.length + 8L * numerics.length;
+        }
+    }
+
+    // What is simulated for an entry
+    private static class Scenario {
+
+        final String engineClass;
+        final Map<String, Double> parameters;
+        final boolean ABReflexOn;
+        final boolean CPReflexOn;
+        final double warmUp;
+
+        Scenario(String engineClass, Map<String, Double> parameters,
+                boolean ABReflexOn, boolean CPReflexOn, double warmUp) {
+            this.engineClass = engineClass;
+            this.parameters = parameters;
+            this.ABReflexOn = ABReflexOn;
+            this.CPReflexOn = CPReflexOn;
+            this.warmUp = warmUp;
+        }
+    }
+
+    // maxBytes bounds the images kept in memory
+    public ResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // Keep the entries in directory as well, or only in memory if null
+    public synchronized void setDirectory(File directory) {
+        if ((directory != null) && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create " + directory);
+        }
+        this.directory = directory;
+    }
+
+    // A new engine in the steady state of engineClass with parameters
+    // changed from their defaults, warmed up for warmUp seconds with the
+    // reflexes on
+    public Engine steadyState(String engineClass, Map<String, Double> parameters, double warmUp) {
+        return steadyState(engineClass, parameters, true, true, warmUp);
+    }
+
+    // The same with the reflexes on or off as given
+    public Engine steadyState(String engineClass, Map<String, Double> parameters,
+            boolean ABReflexOn, boolean CPReflexOn, double warmUp) {
+        Scenario scenario = new Scenario(engineClass, parameters, ABReflexOn, CPReflexOn, warmUp);
+        Entry entry = lookup(scenario);
+        try {
+            return EngineImage.restore(entry.image);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot restore engine " + engineClass, e);
+        }
+    }
+
+    // The beat numerics of the same steady state, in the order of
+    // BeatNumerics.names()
+    public double[] getNumerics(String engineClass, Map<String, Double> parameters, double warmUp) {
+        return lookup(new Scenario(engineClass, parameters, true, true, warmUp)).numerics.clone();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    // Bytes held in memory
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    // Two threads missing the same key both simulate it; the entry of the
+    // last one is kept
+    private Entry lookup(Scenario scenario) {
+        String key = key(scenario);
+        String hash = hash(key);
+        File file;
+        synchronized (this) {
+            Entry entry = entries.get(hash);
+            if ((entry != null) && entry.key.equals(key)) {
+                hits++;
+                return entry;
+            }
+            file = (directory != null) ? new File(directory, hash + SUFFIX) : null;
+        }
+
+        Entry entry = (file != null) ? read(file, key) : null;
+        synchronized (this) {
+            if (entry != null) {
+                hits++;
+                put(hash, entry);
+                return entry;
+            }
+            misses++;
+        }
+
+        entry = simulate(scenario, key);
+        synchronized (this) {
+            put(hash, entry);
+            file = (directory != null) ? new File(directory, hash + SUFFIX) : null;
+        }
+        if (file != null) {
+            write(file, entry);
+        }
+        return entry;
+    }
+
+    // Parameters are set in declaration order, skipping those left at
+    // their defaults, since setting one may move the pressures that go
+    // with others
+    private Entry simulate(Scenario scenario, String key) {
+        Engine engine = EngineLoader.newEngine(scenario.engineClass);
+        for (Map.Entry<String, Double> d : defaults(scenario.engineClass).entrySet()) {
+            Double value = scenario.parameters.get(d.getKey());
+            if ((value != null) && !value.equals(d.getValue())) {
+                engine.setParameter(d.getKey(), value);
+            }
+        }
+        engine.reflexes(0, scenario.ABReflexOn, scenario.CPReflexOn);
+        String[] names = BeatNumerics.names();
+        double[] sums = new double[names.length];
+        double start = Math.max(scenario.warmUp - AVERAGE, 0);
+        double last = start;
+        while (engine.getTime() < scenario.warmUp) {
+            engine.step(DATA_COMPRESSION_FACTOR);
+            double now = engine.getTime();
+            if (now > start) {
+                for (int j = 0; j < names.length; j++) {
+                    sums[j] += engine.getBeatNumeric(names[j]) * (now - last);
+                }
+                last = now;
+            }
+        }
+        for (int j = 0; j < names.length; j++) {
+            sums[j] /= (last - start);
+        }
+        return new Entry(key, EngineImage.save(engine), sums);
+    }
+
+    private void put(String hash, Entry entry) {
+        Entry old = entries.put(hash, entry);
+        if (old != null) {
+            bytes -= old.size();
+        }
+        bytes += entry.size();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((bytes > maxBytes) && eldest.hasNext()) {
+            Entry e = eldest.next();
+            if (e != entry) {
+                bytes -= e.size();
+                eldest.remove();
+            }
+        }
+    }
+
+    // The default parameter vector of engineClass, in declaration order.
+    // The engine they are read from is created outside the lock; threads
+    // that race to create it get the same values, and the first are kept
+    private Map<String, Double> defaults(String engineClass) {
+        synchronized (this) {
+            Map<String, Double> values = defaults.get(engineClass);
+            if (values != null) {
+                return values;
+            }
+        }
+        Engine engine = EngineLoader.newEngine(engineClass);
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (String name : engine.getParameterNames()) {
+            values.put(name, engine.getParameter(name));
+        }
+        synchronized (this) {
+            Map<String, Double> first = defaults.get(engineClass);
+            if (first != null) {
+                return first;
+            }
+            defaults.put(engineClass, values);
+            return values;
+        }
+    }
+
+    // The canonical text of a configuration
+    private String key(Scenario scenario) {
+        Map<String, Double> values = defaults(scenario.engineClass);
+        for (String name : scenario.parameters.keySet()) {
+            if (!values.containsKey(name)) {
+                throw new IllegalArgumentException("No parameter " + name + " in " + scenario.engineClass);
+            }
+        }
+        StringBuilder key = new StringBuilder(scenario.engineClass).append('\n')
+                .append("warmUp=").append(scenario.warmUp).append('\n')
+                .append("dataCompressionFactor=").append(DATA_COMPRESSION_FACTOR).append('\n')
+                .append("reflexes=").append(scenario.ABReflexOn).append(',')
+                .append(scenario.CPReflexOn).append('\n');
+        for (Map.Entry<String, Double> p : values.entrySet()) {
+            Double value = scenario.parameters.get(p.getKey());
+            key.append(p.getKey()).append('=')
+                    .append((value != null) ? value.doubleValue() : p.getValue().doubleValue()).append('\n');
+        }
+        return key.toString();
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The entry in file, or null if there is none for key or it is stale.
+    // Any file that does not decode, truncated or not ours, is ignored
+    private static Entry read(File file, String key) {
+        if (!file.isFile()) {
+            return null;
+        }
+        long size = file.length();
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            byte[] k = new byte[length(in, size, 1)];
+            in.readFully(k);
+            if (!Arrays.equals(k, key.getBytes(StandardCharsets.UTF_8))) {
+                return null;
+            }
+            double[] numerics = new double[length(in, size, 8)];
+            for (int i = 0; i < numerics.length; i++) {
+                numerics[i] = in.readDouble();
+            }
+            byte[] image = new byte[length(in, size, 1)];
+            in.readFully(image);
+            // refuses images of other classes
+            EngineImage.restore(image);
+            return new Entry(key, image, numerics);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("ResultCache: ignoring " + file + ": " + e);
+            return null;
+        }
+    }
+
+    // A count of items of itemBytes each, which must fit in a file of size
+    // bytes
+    private static int length(DataInputStream in, long size, int itemBytes) throws IOException {
+        int n = in.readInt();
+        if ((n < 0) || ((long) n * itemBytes > size)) {
+            throw new IOException("corrupt length " + n);
+        }
+        return n;
+    }
+
+    // Written to a temporary file of its own first, so that a reader never
+    // sees half an entry and two writers never share one
+    private static void write(File file, Entry entry) {
+        File temp;
+        try {
+            temp = File.createTempFile(file.getName() + ".", ".tmp", file.getParentFile());
+        } catch (IOException e) {
+            System.err.println("ResultCache: cannot write " + file + ": " + e.getMessage());
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            byte[] k = entry.key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(k.length);
+            out.write(k);
+            out.writeInt(entry.numerics.length);
+            for (double d : entry.numerics) {
+                out.writeDouble(d);
+            }
+            out.writeInt(entry.image.length);
+            out.write(entry.image);
+        } catch (IOException e) {
+            System.err.println("ResultCache: cannot write " + file + ": " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                System.err.println("ResultCache: cannot write " + file);
+                temp.delete();
+            }
+        }
+    }
+
+}
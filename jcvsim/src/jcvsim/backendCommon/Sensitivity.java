@@ -0,0 +1,252 @@
+package jcvsim.backendCommon;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * The normalised sensitivities of the beat numerics to every parameter of a
+ * model, for choosing the parameters worth fitting to a patient.
+ *
+ * One engine is run to steady state with the reflexes on, and every
+ * simulation of the analysis starts from a copy of it (see
+ * EngineLoader.copy()), so the warm up is simulated once rather than once
+ * per run.  Each parameter is set up and down by a relative step, and each
+ * run settles and then averages every numeric over a window, weighting
+ * each beat by its length.  The sensitivity of numeric y to parameter p is
+ * the relative change of y per relative change of p, by central
+ * difference:
+ *
+ *   S = (y(p (1 + step)) - y(p (1 - step))) / (2 step y0)
+ *
+ * where y0 comes from an unperturbed run over the same window, so whatever
+ * drift is left in the snapshot cancels.  A parameter that is zero cannot
+ * be changed relatively, and a run that fails leaves its parameter without
+ * a result; their rows are NaN.
+ *
+ * The runs are the members of an Ensemble, so they run in parallel over
+ * the cores.  Run from the command line, the matrix is written to standard
+ * output, one row per parameter:
+ *
+ *   java jcvsim.backendCommon.Sensitivity <engine class> [<step> [<settle seconds> [<average seconds>]]]
+ */
+public class Sensitivity {
+
+    public static final String[] DEFAULT_NUMERICS = {"MAP", "CO", "SV", "HR"};
+
+    private final String engineClass;
+    private String[] numerics = DEFAULT_NUMERICS.clone();
+    private double step = 0.01;
+    private double warmUp = 60;
+    private double settle = 60;
+    private double average = 20;
+    private int dataCompressionFactor = 10;
+    private int carriers = Runtime.getRuntime().availableProcessors();
+    private ResultCache cache;
+
+    public static class Result {
+
+        public final List<String> parameters;
+        public final String[] numerics;
+        // The parameter values and the numerics of the snapshot left alone
+        public final double[] values;
+        public final double[] baseline;
+        // sensitivity[parameter][numeric]
+        public final double[][] sensitivity;
+
+        Result(List<String> parameters, String[] numerics, double[] values,
+                double[] baseline, double[][] sensitivity) {
+            this.parameters = parameters;
+            this.numerics = numerics;
+            this.values = values;
+            this.baseline = baseline;
+            this.sensitivity = sensitivity;
+        }
+
+        // Tab separated, a header line and then one line per parameter
+        public void write(PrintStream out) {
+            StringBuilder line = new StringBuilder("parameter\tvalue");
+            for (String name : numerics) {
+                line.append('\t').append(name);
+            }
+            out.println(line);
+            line = new StringBuilder("baseline\t");
+            for (double y : baseline) {
+                line.append('\t').append(y);
+            }
+            out.println(line);
+            for (int i = 0; i < parameters.size(); i++) {
+                line = new StringBuilder(parameters.get(i)).append('\t').append(values[i]);
+                for (double s : sensitivity[i]) {
+                    line.append('\t').append(s);
+                }
+                out.println(line);
+            }
+        }
+    }
+
+    // A run from the snapshot, with one parameter scaled by factor, or none
+    private class Run implements Ensemble.Scenario {
+
+        private final String parameter;
+        private final double factor;
+        private final double[] sums = new double[numerics.length];
+        final double[] means = new double[numerics.length];
+        private double start;
+        private double last;
+
+        Run(String parameter, double factor) {
+            this.parameter = parameter;
+            this.factor = factor;
+            Arrays.fill(means, Double.NaN);
+        }
+
+        @Override
+        public void setUp(Engine engine) {
+            if (parameter != null) {
+                engine.setParameter(parameter, engine.getParameter(parameter) * factor);
+            }
+            start = engine.getTime() + settle;
+            last = start;
+        }
+
+        @Override
+        public boolean stepped(Engine engine) {
+            double now = engine.getTime();
+            if (now <= start) {
+                return true;
+            }
+            for (int j = 0; j < numerics.length; j++) {
+                sums[j] += engine.getBeatNumeric(numerics[j]) * (now - last);
+            }
+            last = now;
+            if (now < start + average) {
+                return true;
+            }
+            for (int j = 0; j < numerics.length; j++) {
+                means[j] = sums[j] / (now - start);
+            }
+            return false;
+        }
+    }
+
+    // engineClass is the Engine implementation for the model, for example
+    // jcvsim.backend21compartment.Engine21C
+    public Sensitivity(String engineClass) {
+        this.engineClass = engineClass;
+    }
+
+    // The beat numerics to analyse, see BeatNumerics
+    public void setNumerics(String... numerics) {
+        for (String name : numerics) {
+            BeatNumerics.index(name);
+        }
+        this.numerics = numerics.clone();
+    }
+
+    // Relative change made to each parameter, both up and down
+    public void setStep(double step) {
+        this.step = step;
+    }
+
+    // Simulated seconds to reach steady state before the snapshot, to settle
+    // after the change, and to average the numerics over
+    public void setTimes(double warmUp, double settle, double average) {
+        this.warmUp = warmUp;
+        this.settle = settle;
+        this.average = average;
+    }
+
+    // Take the warmed up snapshot from cache, so that it is simulated once
+    // for any number of analyses, or simulate it every time if null
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    // Size of the carrier pool, when there are no virtual threads
+    public void setCarriers(int carriers) {
+        this.carriers = carriers;
+    }
+
+    // Analyse every parameter of the model
+    public Result run() throws InterruptedException {
+        return run(null);
+    }
+
+    // Analyse the named parameters, or every parameter if null
+    public Result run(List<String> parameters) throws InterruptedException {
+        Engine snapshot = warmUp();
+        if (parameters == null) {
+            parameters = snapshot.getParameterNames();
+        }
+        int n = parameters.size();
+        double[] values = new double[n];
+
+        Ensemble ensemble = new Ensemble(snapshot, dataCompressionFactor);
+        Run baseline = new Run(null, 1);
+        ensemble.add(baseline);
+        Run[] up = new Run[n];
+        Run[] down = new Run[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = snapshot.getParameter(parameters.get(i));
+            if (values[i] != 0) {
+                up[i] = new Run(parameters.get(i), 1 + step);
+                down[i] = new Run(parameters.get(i), 1 - step);
+                ensemble.add(up[i]);
+                ensemble.add(down[i]);
+            }
+        }
+        ensemble.run(carriers);
+        for (Throwable t : ensemble.getFailures()) {
+            System.err.println("Sensitivity: run failed: " + t);
+        }
+
+        double[][] sensitivity = new double[n][numerics.length];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < numerics.length; j++) {
+                sensitivity[i][j] = (up[i] == null) ? Double.NaN
+                        : (up[i].means[j] - down[i].means[j]) / (2 * step * baseline.means[j]);
+            }
+        }
+        return new Result(new ArrayList<>(parameters), numerics.clone(), values,
+                baseline.means.clone(), sensitivity);
+    }
+
+    private Engine warmUp() {
+        if (cache != null) {
+            return cache.steadyState(engineClass, Collections.<String, Double>emptyMap(), warmUp);
+        }
+        Engine snapshot = EngineLoader.newEngine(engineClass);
+        snapshot.reflexes(0, true, true);
+        while (snapshot.getTime() < warmUp) {
+            snapshot.step(dataCompressionFactor);
+        }
+        return snapshot;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("usage: Sensitivity <engine class> [<step> [<settle seconds> [<average seconds>]]]");
+            System.exit(2);
+        }
+        Sensitivity analysis = new Sensitivity(args[0]);
+        if (args.length > 1) {
+            analysis.setStep(Double.parseDouble(args[1]));
+        }
+        if (args.length > 2) {
+            analysis.setTimes(analysis.warmUp, Double.parseDouble(args[2]),
+                    (args.length > 3) ? Double.parseDouble(args[3]) : analysis.average);
+        }
+        // anything the engines print goes to standard error
+        PrintStream out = System.out;
+        System.setOut(System.err);
+        long start = System.nanoTime();
+        Result result = analysis.run();
+        result.write(out);
+        System.err.printf("Sensitivity: %d parameters in %.1f s%n",
+                result.parameters.size(), (System.nanoTime() - start) / 1e9);
+    }
+
+}
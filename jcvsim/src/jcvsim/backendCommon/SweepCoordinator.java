@@ -0,0 +1,360 @@
+package jcvsim.backendCommon;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * Runs a parameter sweep over several local worker JVMs (see SweepWorker),
+ * so that a sweep is not limited by one heap or one garbage collector.
+ *
+ * Scenarios are handed out in batches to whichever worker is free, and
+ * results are passed to the listener as they arrive, in no particular
+ * order.  A worker that dies, or gives no result for a whole scenario
+ * timeout, is restarted and the scenarios it had not finished go back in
+ * the queue; a scenario that has been tried MAX_ATTEMPTS times is reported
+ * as failed, as is a batch no worker could be started for.
+ *
+ * The workers speak a line protocol over standard input and output, so
+ * the same coordinator could later drive workers on other hosts.
+ *
+ * Run from the command line, scenarios are read from standard input, one
+ * per line as "<id> <seconds> [<PVName>=<value> ...]", and results written
+ * to standard output:
+ *
+ *   java jcvsim.backendCommon.SweepCoordinator <engine class> <workers> <output,...>
+ */
+public class SweepCoordinator {
+
+    public static final int MAX_ATTEMPTS = 3;
+    // Default milliseconds a worker may take over one scenario
+    public static final long SCENARIO_TIMEOUT = 10 * 60 * 1000;
+
+    public interface ResultListener {
+
+        void result(String id, double[] outputs);
+
+        void failed(String id, String message);
+    }
+
+    private static class Scenario {
+
+        final String id;
+        final String line;
+        int attempts;
+
+        Scenario(String id, String line) {
+            this.id = id;
+            this.line = line;
+        }
+    }
+
+    private final String engineClass;
+    private final int dataCompressionFactor;
+    private final String[] outputs;
+    private final int workers;
+    private final int batchSize;
+    private final List<String> jvmOptions = new ArrayList<>();
+    private final ConcurrentLinkedQueue<List<Scenario>> batches = new ConcurrentLinkedQueue<>();
+    private List<Scenario> filling = new ArrayList<>();
+    // ids queued since the last run
+    private final Set<String> ids = new HashSet<>();
+    private volatile long scenarioTimeout = SCENARIO_TIMEOUT;
+    private int restarts;
+
+    public SweepCoordinator(String engineClass, int dataCompressionFactor, String[] outputs,
+            int workers, int batchSize) {
+        this.engineClass = engineClass;
+        this.dataCompressionFactor = dataCompressionFactor;
+        this.outputs = outputs.clone();
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    // Extra options for the worker JVMs, such as -Xmx
+    public void addJvmOption(String option) {
+        jvmOptions.add(option);
+    }
+
+    // Milliseconds a worker may take over one scenario before it is taken
+    // to be hung and restarted
+    public void setScenarioTimeout(long millis) {
+        scenarioTimeout = millis;
+    }
+
+    // Queue a scenario: run for the given simulated time with the given
+    // parameter values, then record the outputs.  Ids must be unique
+    // within a run
+    public void add(String id, double seconds, Map<String, Double> parameters) {
+        if (!ids.add(id)) {
+            throw new IllegalArgumentException("Duplicate scenario id " + id);
+        }
+        StringBuilder line = new StringBuilder("RUN ").append(id).append(' ').append(seconds);
+        for (Map.Entry<String, Double> p : parameters.entrySet()) {
+            line.append(' ').append(p.getKey()).append('=').append(p.getValue());
+        }
+        filling.add(new Scenario(id, line.toString()));
+        if (filling.size() >= batchSize) {
+            batches.add(filling);
+            filling = new ArrayList<>();
+        }
+    }
+
+    // Number of times a worker had to be restarted in the last run
+    public synchronized int getRestarts() {
+        return restarts;
+    }
+
+    // Run every queued scenario, returning when all have a result
+    public void run(final ResultListener listener) throws InterruptedException {
+        if (!filling.isEmpty()) {
+            batches.add(filling);
+            filling = new ArrayList<>();
+        }
+        ids.clear();
+        synchronized (this) {
+            restarts = 0;
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    serve(listener);
+                }
+            }, "SweepWorker-" + i);
+            t.start();
+            threads.add(t);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    // Feed batches to one worker process until the queue is empty
+    private void serve(ResultListener listener) {
+        Process process = null;
+        PrintWriter toWorker = null;
+        BufferedReader fromWorker = null;
+        // destroys a worker that gives no result in time, see readResult()
+        Timer watchdog = new Timer("SweepWatchdog", true);
+        List<Scenario> batch;
+        try {
+            while ((batch = batches.poll()) != null) {
+                if (process == null) {
+                    try {
+                        process = startWorker();
+                        toWorker = new PrintWriter(new OutputStreamWriter(process.getOutputStream(), "UTF-8"));
+                        fromWorker = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+                    } catch (IOException e) {
+                        if (process != null) {
+                            process.destroy();
+                            process = null;
+                        }
+                        fail(batch, "cannot start worker: " + e.getMessage(), listener);
+                        continue;
+                    }
+                }
+                Map<String, Scenario> pending = new HashMap<>();
+                try {
+                    for (Scenario s : batch) {
+                        s.attempts++;
+                        pending.put(s.id, s);
+                        toWorker.println(s.line);
+                    }
+                    toWorker.flush();
+                    while (!pending.isEmpty()) {
+                        handle(readResult(process, fromWorker, watchdog), pending, listener);
+                    }
+                } catch (IOException e) {
+                    System.err.println("SweepCoordinator: " + e.getMessage() + ", restarting worker");
+                    synchronized (this) {
+                        restarts++;
+                    }
+                    process.destroy();
+                    process = null;
+                    requeue(pending, listener);
+                }
+            }
+        } finally {
+            watchdog.cancel();
+            if (process != null) {
+                toWorker.close();
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    process.destroy();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // The next line from the worker, which is destroyed if it sends none
+    // within the scenario timeout
+    private String readResult(final Process process, BufferedReader fromWorker, Timer watchdog)
+            throws IOException {
+        final boolean[] timedOut = new boolean[1];
+        TimerTask kill = new TimerTask() {
+            @Override
+            public void run() {
+                synchronized (timedOut) {
+                    timedOut[0] = true;
+                }
+                process.destroy();
+            }
+        };
+        watchdog.schedule(kill, scenarioTimeout);
+        String line;
+        try {
+            line = fromWorker.readLine();
+        } finally {
+            kill.cancel();
+            watchdog.purge();
+        }
+        synchronized (timedOut) {
+            if (timedOut[0]) {
+                throw new IOException("no result within " + scenarioTimeout + " ms");
+            }
+        }
+        if (line == null) {
+            throw new IOException("worker exited");
+        }
+        return line;
+    }
+
+    private void handle(String line, Map<String, Scenario> pending, ResultListener listener) {
+        String[] fields = line.split(" ");
+        if (fields.length < 2) {
+            return;
+        }
+        Scenario s = pending.remove(fields[1]);
+        if (s == null) {
+            return;
+        }
+        if (fields[0].equals("RESULT")) {
+            double[] values = new double[fields.length - 2];
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = Double.parseDouble(fields[i + 2]);
+                }
+            } catch (NumberFormatException e) {
+                // one bad line fails its scenario, not the whole worker
+                synchronized (listener) {
+                    listener.failed(s.id, "malformed result: " + e.getMessage());
+                }
+                return;
+            }
+            synchronized (listener) {
+                listener.result(s.id, values);
+            }
+        } else {
+            synchronized (listener) {
+                listener.failed(s.id, line.substring(Math.min(line.length(), 7 + s.id.length())));
+            }
+        }
+    }
+
+    private void requeue(Map<String, Scenario> pending, ResultListener listener) {
+        List<Scenario> retry = new ArrayList<>();
+        for (Scenario s : pending.values()) {
+            if (s.attempts < MAX_ATTEMPTS) {
+                retry.add(s);
+            } else {
+                synchronized (listener) {
+                    listener.failed(s.id, "worker died " + s.attempts + " times");
+                }
+            }
+        }
+        if (!retry.isEmpty()) {
+            batches.add(retry);
+        }
+    }
+
+    private void fail(List<Scenario> batch, String message, ResultListener listener) {
+        synchronized (listener) {
+            for (Scenario s : batch) {
+                listener.failed(s.id, message);
+            }
+        }
+    }
+
+    private Process startWorker() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SweepWorker.class.getName());
+        command.add(engineClass);
+        command.add(Integer.toString(dataCompressionFactor));
+        StringBuilder names = new StringBuilder();
+        for (String name : outputs) {
+            names.append((names.length() == 0) ? "" : ",").append(name);
+        }
+        command.add(names.toString());
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        return builder.start();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("usage: SweepCoordinator <engine class> <workers> <output,...>");
+            System.exit(2);
+        }
+        String[] outputs = args[2].split(",");
+        SweepCoordinator sweep = new SweepCoordinator(args[0], 10, outputs, Integer.parseInt(args[1]), 4);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = line.trim().split("\\s+");
+            if ((fields.length < 2) || fields[0].startsWith("#")) {
+                continue;
+            }
+            Map<String, Double> parameters = new HashMap<>();
+            for (String p : Arrays.copyOfRange(fields, 2, fields.length)) {
+                int eq = p.indexOf('=');
+                parameters.put(p.substring(0, eq), Double.parseDouble(p.substring(eq + 1)));
+            }
+            try {
+                sweep.add(fields[0], Double.parseDouble(fields[1]), parameters);
+            } catch (IllegalArgumentException e) {
+                System.err.println(fields[0] + " skipped: " + e.getMessage());
+            }
+        }
+
+        System.out.println("id " + args[2].replace(',', ' '));
+        sweep.run(new ResultListener() {
+            @Override
+            public void result(String id, double[] values) {
+                StringBuilder line = new StringBuilder(id);
+                for (double v : values) {
+                    line.append(' ').append(v);
+                }
+                System.out.println(line);
+            }
+
+            @Override
+            public void failed(String id, String message) {
+                System.err.println(id + " failed: " + message);
+            }
+        });
+        System.err.println("Worker restarts: " + sweep.getRestarts());
+    }
+
+}
@@ -0,0 +1,75 @@
+package jcvsim.backendCommon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+/*
+ * Worker process for SweepCoordinator.  Reads scenarios from standard
+ * input, one per line, runs each on a fresh engine with the reflexes on
+ * and writes one result line per scenario to standard output.  Exits at
+ * the end of its input.
+ *
+ *   java jcvsim.backendCommon.SweepWorker <engine class> <data compression factor> <output,...>
+ *
+ * Protocol, one line each way per scenario, fields separated by spaces:
+ *
+ *   RUN <id> <seconds> [<PVName>=<value> ...]
+ *   RESULT <id> <value of each output at the end of the run ...>
+ *   ERROR <id> <message>
+ *
+ * Anything the engine prints goes to standard error, so that standard
+ * output carries only the protocol.
+ */
+public class SweepWorker {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: SweepWorker <engine class> <data compression factor> <output,...>");
+            System.exit(2);
+        }
+        String engineClass = args[0];
+        int dataCompressionFactor = Integer.parseInt(args[1]);
+        String[] outputs = args[2].split(",");
+
+        PrintStream protocol = System.out;
+        System.setOut(System.err);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, "UTF-8"));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] fields = line.trim().split("\\s+");
+            if ((fields.length < 3) || !fields[0].equals("RUN")) {
+                continue;
+            }
+            String id = fields[1];
+            try {
+                protocol.println("RESULT " + id + run(engineClass, dataCompressionFactor, outputs, fields));
+            } catch (RuntimeException e) {
+                protocol.println("ERROR " + id + " " + String.valueOf(e).replace('\n', ' '));
+            }
+            protocol.flush();
+        }
+    }
+
+    private static String run(String engineClass, int dataCompressionFactor,
+            String[] outputs, String[] fields) {
+        double seconds = Double.parseDouble(fields[2]);
+        Engine engine = EngineLoader.newEngine(engineClass);
+        for (int i = 3; i < fields.length; i++) {
+            int eq = fields[i].indexOf('=');
+            engine.setParameter(fields[i].substring(0, eq), Double.parseDouble(fields[i].substring(eq + 1)));
+        }
+        engine.reflexes(0, true, true);
+        while (engine.getTime() < seconds) {
+            engine.step(dataCompressionFactor);
+        }
+        StringBuilder result = new StringBuilder();
+        for (String name : outputs) {
+            result.append(' ').append(engine.getOutput(name));
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,14 @@
+package jcvsim.backendCommon;
+
+/*
+ * An Engine whose model has a tilt table, which so far is only the 21
+ * compartment model.  Like Engine, it is shared by every engine's class
+ * loader, so callers can test for it with instanceof.
+ */
+public interface TiltEngine extends Engine {
+
+    // Tilt to head-up at start and back to supine at stop, the angle and
+    // timing come from the model's tilt parameters
+    void tilt(double start, double stop);
+
+}
@@ -0,0 +1,116 @@
+package jcvsim.backendCommon;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * A queue of interventions to be carried out at given simulated times.
+ *
+ * The integrator asks nextTime() how far it may step before the next
+ * event, shortens its step so that it lands on that time, and then calls
+ * fireDue() to carry out the events that are due.  Events for the same
+ * time fire in the order they were scheduled.
+ *
+ * Events may be scheduled from any thread.  They are handed over through a
+ * lock-free queue and only moved into the time ordered queue by the thread
+ * running the simulation, so the integrator never waits on a lock.
+ */
+public class Timeline {
+
+    // Events within this many seconds of the current time are due
+    public static final double EPSILON = 1e-9;
+
+    public interface Action {
+
+        void fire(double time);
+    }
+
+    private static class Event implements Comparable<Event> {
+
+        final double time;
+        final long seq;
+        final Action action;
+
+        Event(double time, long seq, Action action) {
+            this.time = time;
+            this.seq = seq;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            if (time != other.time) {
+                return (time < other.time) ? -1 : 1;
+            }
+            return Long.compare(seq, other.seq);
+        }
+    }
+
+    // Handed over by clear(): drops the events scheduled before it
+    private static final Event CLEAR = new Event(0, 0, null);
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final ConcurrentLinkedQueue<Event> incoming = new ConcurrentLinkedQueue<>();
+    private long seq;
+    private long fired;
+
+    // Schedule action to fire at the given simulated time.  An event for a
+    // time already passed fires at the start of the next integration step
+    public void schedule(double time, Action action) {
+        incoming.add(new Event(time, 0, action));
+    }
+
+    // Drop every event not yet fired.  Events scheduled after this call
+    // are kept, even if they arrive before the integrator next looks
+    public void clear() {
+        incoming.add(CLEAR);
+    }
+
+    ///////////////////////////////////////////////
+    // Integrator side, simulation thread only
+    //
+    // Simulated time of the next event, or positive infinity if there is
+    // none
+    public double nextTime() {
+        merge();
+        Event next = events.peek();
+        return (next == null) ? Double.POSITIVE_INFINITY : next.time;
+    }
+
+    // Fire every event due at or before time, returns how many fired
+    public int fireDue(double time) {
+        merge();
+        int count = 0;
+        Event next;
+        while (((next = events.peek()) != null) && (next.time <= time + EPSILON)) {
+            events.poll();
+            next.action.fire(time);
+            count++;
+        }
+        fired += count;
+        return count;
+    }
+
+    // Total number of events fired
+    public long getFired() {
+        return fired;
+    }
+
+    public boolean isEmpty() {
+        merge();
+        return events.isEmpty();
+    }
+
+    private void merge() {
+        Event e;
+        while ((e = incoming.poll()) != null) {
+            if (e == CLEAR) {
+                events.clear();
+            } else {
+                // number the events here, in the order they arrived
+                events.add(new Event(e.time, seq++, e.action));
+            }
+        }
+    }
+
+}